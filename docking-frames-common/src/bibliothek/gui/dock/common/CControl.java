@@ -38,9 +38,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -100,6 +102,7 @@ import bibliothek.gui.dock.common.intern.CommonMultipleDockableLayout;
 import bibliothek.gui.dock.common.intern.CommonSingleDockableFactory;
 import bibliothek.gui.dock.common.intern.ControlVetoClosingListener;
 import bibliothek.gui.dock.common.intern.ControlVetoFocusListener;
+import bibliothek.gui.dock.common.intern.DefaultCControlRegister;
 import bibliothek.gui.dock.common.intern.EfficientControlFactory;
 import bibliothek.gui.dock.common.intern.MutableCControlRegister;
 import bibliothek.gui.dock.common.intern.action.CActionImportanceOrder;
@@ -174,6 +177,7 @@ import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.support.mode.HistoryRewriter;
 import bibliothek.gui.dock.support.util.ApplicationResource;
 import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.SnapshotApplicationResource;
 import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.ColorScheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
@@ -199,7 +203,8 @@ import bibliothek.util.Path;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
-import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * Manages the interaction between {@link SingleCDockable}, {@link MultipleCDockable}
@@ -338,6 +343,9 @@ public class CControl {
 
     /** a list of listeners which are to be informed when this control is no longer in use */
     private List<DestroyHook> hooks = new ArrayList<DestroyHook>();
+    
+    /** service writing the layout automatically, created lazily */
+    private CLayoutAutoSave autoSave;
 
     /** factory used to create new elements for this control */
     private CControlFactory factory;
@@ -893,11 +901,20 @@ public class CControl {
         try{
         	addMultipleDockableFactory( "", NullMultipleCDockableFactory.NULL, false );
         	
-            resources.put( "ccontrol.frontend", new ApplicationResource(){
+            resources.put( "ccontrol.frontend", new SnapshotApplicationResource(){
                 public void write( DataOutputStream out ) throws IOException {
                     Version.write( out, Version.VERSION_1_1_1 );
                     frontend.write( out );
                 }
+                public Snapshot snapshot(){
+                    final DockFrontend.SettingsSnapshot settings = frontend.writeSnapshot();
+                    return new Snapshot(){
+                        public void write( DataOutputStream out ) throws IOException{
+                            Version.write( out, Version.VERSION_1_1_1 );
+                            settings.write( out );
+                        }
+                    };
+                }
                 public void read( DataInputStream in ) throws IOException {
                     Version version = Version.read( in );
                     version.checkCurrent();
@@ -1236,6 +1253,9 @@ public class CControl {
      * work correctly after this method was called.
      */
     public void destroy(){
+        if( autoSave != null ){
+            autoSave.destroy();
+        }
         frontend.kill();
         for( DestroyHook hook : hooks )
             hook.destroy();
@@ -1436,6 +1456,19 @@ public class CControl {
     public ApplicationResourceManager getResources() {
         return resources;
     }
+    
+    /**
+     * Gets the service that stores the layout of this control automatically whenever the layout changes. The
+     * service is disabled until a {@link CLayoutAutoSave#setFile(File) file} is set and the service
+     * is {@link CLayoutAutoSave#setEnabled(boolean) enabled}.
+     * @return the auto-save service, never <code>null</code>
+     */
+    public CLayoutAutoSave getAutoSave(){
+        if( autoSave == null ){
+            autoSave = new CLayoutAutoSave( this );
+        }
+        return autoSave;
+    }
 
     /**
      * Changes the value of a property. The incomplete list of properties, in alphabetical order, includes:
@@ -1711,6 +1744,44 @@ public class CControl {
         return dockable;
     }
     
+    /**
+     * Adds many dockables to this control at once. {@link SingleCDockable}s are added with
+     * {@link #addDockable(SingleCDockable)}, {@link MultipleCDockable}s with {@link #addDockable(MultipleCDockable)},
+     * meaning they get a random unique identifier. While the dockables are added, the {@link DockRegister}
+     * is {@link DockRegister#setStalled(boolean) stalled}, hence the events of all the dockables are
+     * combined. This method is faster than adding the dockables one by one.
+     * @param dockables the new elements, all of them must either be {@link SingleCDockable}s or {@link MultipleCDockable}s
+     * @throws IllegalArgumentException if one of the dockables cannot be added, the dockables in front
+     * of that dockable remain added
+     * @throws NullPointerException if <code>dockables</code> or any of its elements is <code>null</code>
+     */
+    public void addDockables( Collection<? extends CDockable> dockables ){
+        if( dockables == null )
+            throw new NullPointerException( "dockables must not be null" );
+        
+        DockRegister dockRegister = frontend.getController().getRegister();
+        try{
+            dockRegister.setStalled( true );
+            for( CDockable dockable : dockables ){
+                if( dockable instanceof SingleCDockable ){
+                    addDockable( (SingleCDockable)dockable );
+                }
+                else if( dockable instanceof MultipleCDockable ){
+                    addDockable( (MultipleCDockable)dockable );
+                }
+                else if( dockable == null ){
+                    throw new NullPointerException( "dockable must not be null" );
+                }
+                else{
+                    throw new IllegalArgumentException( "dockable is neither a SingleCDockable nor a MultipleCDockable: " + dockable );
+                }
+            }
+        }
+        finally{
+            dockRegister.setStalled( false );
+        }
+    }
+    
     /**
      * Checks whether the unique identifier <code>id</code> is a valid identifier. This means that <code>id</code>
      * is not <code>null</code> and contains at least one sign that is not a whitespace.
@@ -1736,12 +1807,7 @@ public class CControl {
      * @return the element with that identifier or <code>null</code>
      */
     public SingleCDockable getSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getSingleDockable( id );
     }
 
     /**
@@ -1752,10 +1818,9 @@ public class CControl {
      * otherwise
      */
     public boolean removeSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return removeDockable( dockable );
-            }
+        SingleCDockable dockable = register.getSingleDockable( id );
+        if( dockable != null ){
+            return removeDockable( dockable );
         }
         return false;
     }
@@ -1920,8 +1985,6 @@ public class CControl {
      * @return <code>dockable</code>
      */
     public <M extends MultipleCDockable> M addDockable( M dockable) {
-        Set<String> ids = new HashSet<String>();
-
         String factoryId;
         MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
         if( factory == null ){
@@ -1934,15 +1997,9 @@ public class CControl {
         }        	
         
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( factoryId.equals( access.getFactoryId( multi.getFactory() ))){
-                ids.add( accesses.get( multi ).getUniqueId() );
-            }
-        }
-
         int count = 0;
         String id = count + " " + factoryId;
-        while( ids.contains( register.toMultiId( id ) ) ){
+        while( getMultipleDockable( id ) != null ){
             count++;
             id = count + " " + factoryId;
         }
@@ -1978,14 +2035,11 @@ public class CControl {
         if( dockable.getControl() != null )
             throw new IllegalStateException( "dockable is already part of a control" );
 
-        uniqueId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            String id = accesses.get( multi ).getUniqueId();
-            if( uniqueId.equals( id )){
-                throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
-            }
+        if( getMultipleDockable( uniqueId ) != null ){
+            throw new IllegalArgumentException( "The unique identifier is already in use: " + register.toMultiId( uniqueId ) );
         }
+        
+        uniqueId = register.toMultiId( uniqueId );
 
         dockable.setControlAccess( access );
         accesses.get( dockable ).setUniqueId( uniqueId );
@@ -2052,9 +2106,13 @@ public class CControl {
      * was found
      */
     public MultipleCDockable getMultipleDockable( String id ){
+        if( register instanceof DefaultCControlRegister ){
+            return ((DefaultCControlRegister)register).getMultipleDockable( id );
+        }
+        
         id = register.toMultiId( id );
         for( MultipleCDockable dockable : register.getMultipleDockables() ){
-            if( accesses.get( dockable ).getUniqueId().equals( id )){
+            if( id.equals( accesses.get( dockable ).getUniqueId() )){
                 return dockable;
             }
         }
@@ -2117,12 +2175,8 @@ public class CControl {
     private boolean shouldCreate( MultipleCDockableFactory<?, ?> factory, CommonMultipleDockableLayout layout ){
         String uniqueId = layout.getId();
 
-        String multiId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( accesses.get( multi ).getUniqueId().equals( multiId )){
-                return false;
-            }
+        if( getMultipleDockable( uniqueId ) != null ){
+            return false;
         }
 
         String factoryId = access.getFactoryId( factory );
@@ -2599,16 +2653,24 @@ public class CControl {
     }
 
     /**
-     * Writes the current and all known layouts into <code>file</code> in xml format.
+     * Writes the current and all known layouts into <code>file</code> in xml format. The resources
+     * are written one after the other, the whole document is never stored in memory.
      * @param file the file to write into
      * @throws IOException if the file is not writable
      */
     public void writeXML( File file ) throws IOException{
-        XElement root = new XElement( "root" );
-        getResources().writeXML( root );
-        BufferedOutputStream out = new BufferedOutputStream( new FileOutputStream( file ));
-        XIO.writeUTF( root, out );
-        out.close();
+        Writer out = new OutputStreamWriter( new BufferedOutputStream( new FileOutputStream( file )), "UTF-8" );
+        try{
+            XWriter writer = new XWriter( out );
+            writer.writeDeclaration();
+            writer.openElement( new XElement( "root" ) );
+            getResources().writeXML( writer );
+            writer.closeElement();
+            writer.flush();
+        }
+        finally{
+            out.close();
+        }
     }
     
     /**
@@ -2642,16 +2704,26 @@ public class CControl {
     }
     
     /**
-     * Reads the current and other known layouts from <code>file</code>.
+     * Reads the current and other known layouts from <code>file</code>. The resources are read
+     * one after the other, the whole document is never stored in memory.
      * @param file the file to open and to read
      * @throws IOException if the file cannot be read
      * @throws XException if the xml file has the wrong structure
      */
     public void readXML( File file ) throws IOException{
         BufferedInputStream in = new BufferedInputStream( new FileInputStream( file ));
-        XElement element = XIO.readUTF( in );
-        in.close();
-        readXML( element );
+        try{
+            XReader reader = new XReader( in );
+            if( reader.openElement() == null ){
+                throw new XException( "missing root element" );
+            }
+            getResources().readXML( reader );
+            reader.closeElement();
+            reader.close();
+        }
+        finally{
+            in.close();
+        }
     }
 
     /**
@@ -0,0 +1,457 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.Timer;
+
+import bibliothek.gui.dock.common.event.CControlListener;
+import bibliothek.gui.dock.common.event.CDockableLocationEvent;
+import bibliothek.gui.dock.common.event.CDockableLocationListener;
+import bibliothek.gui.dock.common.event.CDockableStateListener;
+import bibliothek.gui.dock.common.intern.CDockable;
+import bibliothek.gui.dock.common.mode.ExtendedMode;
+import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.SnapshotApplicationResource;
+
+/**
+ * Stores the layout of a {@link CControl} automatically in a file. Each time the layout changes, the
+ * service waits for a {@link #setDelay(int) delay}, further changes restart the delay. Once the
+ * layout is stable, a {@link ApplicationResourceManager#snapshot() snapshot} of the
+ * {@link CControl#getResources() resources} is taken on the EDT. The snapshot contains the layout of the stations and
+ * dockables, and the factories needed to write it, but the layout is not yet serialized. Serializing the snapshot and 
+ * writing it into the file happens on a background thread, and the file is only replaced once the new layout is 
+ * completely written.<br>
+ * The service listens to {@link CControlListener}s, {@link CDockableStateListener}s and {@link CDockableLocationListener}s,
+ * the latter also report dockables that were moved without changing their mode. Changes which are not
+ * reported by these listeners, e.g. the user changing the size of a dockable, can be reported by calling
+ * {@link #requestSave()}.<br>
+ * When the {@link CControl} is {@link CControl#destroy() destroyed}, pending changes are stored before the
+ * control releases its stations, and the method waits until the file is written.<br>
+ * Each {@link CControl} has one auto-save service, which is accessed through {@link CControl#getAutoSave()}.
+ * @author Benjamin Sigg
+ * @see SnapshotApplicationResource
+ */
+public class CLayoutAutoSave {
+	/** the default delay between the last change of the layout and storing the layout, in milliseconds */
+	public static final int DEFAULT_DELAY = 1000;
+	
+	/** the control whose layout is stored */
+	private CControl control;
+	
+	/** the file into which the layout is written */
+	private File file;
+	
+	/** whether this service observes {@link #control} */
+	private boolean enabled = false;
+	
+	/** the timer delaying the snapshot */
+	private Timer timer;
+	
+	/** the thread writing the snapshots, created lazily */
+	private ExecutorService executor;
+	
+	/** the snapshot that still needs to be written, <code>null</code> if nothing is pending */
+	private PendingWrite pending;
+	
+	/** lock for {@link #pending} */
+	private final Object lock = new Object();
+	
+	/** how long it took to create the last snapshot, in nanoseconds */
+	private volatile long lastSnapshotDuration = -1;
+	
+	/** how many bytes were written the last time */
+	private volatile long lastBytesWritten = -1;
+	
+	/** the time between creating and writing the last snapshot, in nanoseconds */
+	private volatile long lastWriteLatency = -1;
+	
+	/** how many times the layout was written */
+	private volatile int writeCount = 0;
+	
+	/** how many snapshots were replaced by a newer snapshot before they could be written */
+	private volatile int skippedCount = 0;
+	
+	/** the last exception that was thrown while writing a snapshot */
+	private volatile IOException lastError;
+	
+	/** listens to {@link #control} and requests a save whenever a dockable is added, removed, opened or closed */
+	private CControlListener controlListener = new CControlListener(){
+		public void added( CControl control, CDockable dockable ){
+			dockable.addCDockableLocationListener( locationListener );
+			requestSave();
+		}
+		
+		public void removed( CControl control, CDockable dockable ){
+			dockable.removeCDockableLocationListener( locationListener );
+			requestSave();
+		}
+		
+		public void opened( CControl control, CDockable dockable ){
+			requestSave();
+		}
+		
+		public void closed( CControl control, CDockable dockable ){
+			requestSave();
+		}
+	};
+	
+	/** listens to all the dockables of {@link #control} and requests a save whenever their mode changes */
+	private CDockableStateListener stateListener = new CDockableStateListener(){
+		public void visibilityChanged( CDockable dockable ){
+			requestSave();
+		}
+		
+		public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
+			requestSave();
+		}
+	};
+	
+	/** listens to all the dockables of {@link #control} and requests a save whenever they are moved */
+	private CDockableLocationListener locationListener = new CDockableLocationListener(){
+		public void changed( CDockableLocationEvent event ){
+			requestSave();
+		}
+	};
+	
+	/**
+	 * Creates a new service.
+	 * @param control the control whose layout is stored, not <code>null</code>
+	 */
+	CLayoutAutoSave( CControl control ){
+		if( control == null ){
+			throw new IllegalArgumentException( "control must not be null" );
+		}
+		this.control = control;
+		timer = new Timer( DEFAULT_DELAY, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				saveNow();
+			}
+		});
+		timer.setRepeats( false );
+	}
+	
+	/**
+	 * Gets the control whose layout is stored by this service.
+	 * @return the control
+	 */
+	public CControl getControl(){
+		return control;
+	}
+	
+	/**
+	 * Sets the file into which the layout is written.
+	 * @param file the file, can be <code>null</code> in which case nothing is written
+	 */
+	public void setFile( File file ){
+		this.file = file;
+		if( file == null ){
+			timer.stop();
+		}
+	}
+	
+	/**
+	 * Gets the file into which the layout is written.
+	 * @return the file, can be <code>null</code>
+	 */
+	public File getFile(){
+		return file;
+	}
+	
+	/**
+	 * Sets the time this service waits after the last change of the layout, before the layout is stored.
+	 * @param delay the delay in milliseconds, at least 0
+	 */
+	public void setDelay( int delay ){
+		if( delay < 0 ){
+			throw new IllegalArgumentException( "delay must not be negative: " + delay );
+		}
+		timer.setInitialDelay( delay );
+	}
+	
+	/**
+	 * Gets the time this service waits after the last change of the layout.
+	 * @return the delay in milliseconds
+	 */
+	public int getDelay(){
+		return timer.getInitialDelay();
+	}
+	
+	/**
+	 * Enables or disables this service. An enabled service observes its {@link CControl} and stores
+	 * the layout whenever it changes.
+	 * @param enabled whether to observe the {@link CControl}
+	 */
+	public void setEnabled( boolean enabled ){
+		if( this.enabled != enabled ){
+			this.enabled = enabled;
+			if( enabled ){
+				control.addControlListener( controlListener );
+				control.addStateListener( stateListener );
+				for( int i = 0, n = control.getCDockableCount(); i<n; i++ ){
+					control.getCDockable( i ).addCDockableLocationListener( locationListener );
+				}
+			}
+			else{
+				control.removeControlListener( controlListener );
+				control.removeStateListener( stateListener );
+				for( int i = 0, n = control.getCDockableCount(); i<n; i++ ){
+					control.getCDockable( i ).removeCDockableLocationListener( locationListener );
+				}
+				timer.stop();
+			}
+		}
+	}
+	
+	/**
+	 * Tells whether this service observes its {@link CControl}.
+	 * @return whether this service is enabled
+	 */
+	public boolean isEnabled(){
+		return enabled;
+	}
+	
+	/**
+	 * Informs this service that the layout changed. The layout will be stored once no
+	 * further changes are reported for {@link #getDelay() some time}. This method does nothing
+	 * if this service is not {@link #isEnabled() enabled} or has no {@link #getFile() file}.
+	 */
+	public void requestSave(){
+		if( enabled && file != null ){
+			timer.restart();
+		}
+	}
+	
+	/**
+	 * Tells whether a change of the layout was reported, but the layout was not yet stored.
+	 * @return whether a snapshot will be taken
+	 */
+	public boolean isSavePending(){
+		return timer.isRunning();
+	}
+	
+	/**
+	 * Immediately takes a snapshot of the layout, the snapshot is written in the background. This
+	 * method must be called by the EDT and does nothing if no {@link #getFile() file} is set.
+	 */
+	public void saveNow(){
+		timer.stop();
+		File file = this.file;
+		if( file == null ){
+			return;
+		}
+		
+		long start = System.nanoTime();
+		ApplicationResourceManager.Snapshot snapshot;
+		try{
+			snapshot = control.getResources().snapshot();
+		}
+		catch( IOException ex ){
+			lastError = ex;
+			ex.printStackTrace();
+			return;
+		}
+		long end = System.nanoTime();
+		lastSnapshotDuration = end - start;
+		
+		synchronized( lock ){
+			boolean schedule = pending == null;
+			if( !schedule ){
+				skippedCount++;
+			}
+			pending = new PendingWrite( snapshot, file, end );
+			if( schedule ){
+				executor().execute( new Runnable(){
+					public void run(){
+						write();
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Blocks until all the snapshots that were already taken are written. This method does not
+	 * take a new snapshot, clients may call {@link #saveNow()} first.
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public void flush() throws InterruptedException{
+		ExecutorService executor;
+		synchronized( lock ){
+			executor = this.executor;
+		}
+		if( executor != null ){
+			try{
+				executor.submit( new Runnable(){
+					public void run(){
+						// nothing
+					}
+				}).get();
+			}
+			catch( ExecutionException ex ){
+				// cannot happen, the task does nothing
+				throw new IllegalStateException( ex );
+			}
+		}
+	}
+	
+	/**
+	 * Called by {@link CControl#destroy()} before the stations and dockables are released. Takes a last
+	 * snapshot if a change is pending, waits until all snapshots are written, and stops this service.
+	 */
+	void destroy(){
+		if( timer.isRunning() ){
+			saveNow();
+		}
+		setEnabled( false );
+		
+		try{
+			flush();
+		}
+		catch( InterruptedException ex ){
+			Thread.currentThread().interrupt();
+		}
+		
+		synchronized( lock ){
+			if( executor != null ){
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+	
+	private ExecutorService executor(){
+		if( executor == null ){
+			executor = Executors.newSingleThreadExecutor( new ThreadFactory(){
+				public Thread newThread( Runnable r ){
+					Thread thread = new Thread( r, "CLayoutAutoSave" );
+					thread.setDaemon( true );
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+	
+	/**
+	 * Writes the {@link #pending} snapshot, called by the background thread.
+	 */
+	private void write(){
+		PendingWrite write;
+		synchronized( lock ){
+			write = pending;
+			pending = null;
+		}
+		if( write != null ){
+			try{
+				lastBytesWritten = write.snapshot.writeFile( write.file );
+				lastWriteLatency = System.nanoTime() - write.time;
+				writeCount++;
+			}
+			catch( IOException ex ){
+				lastError = ex;
+				ex.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the time that was required to create the last snapshot on the EDT.
+	 * @return the duration in nanoseconds, or -1 if no snapshot was taken yet
+	 */
+	public long getLastSnapshotDuration(){
+		return lastSnapshotDuration;
+	}
+	
+	/**
+	 * Gets the number of bytes that were written the last time the layout was stored.
+	 * @return the size of the file, or -1 if nothing was written yet
+	 */
+	public long getLastBytesWritten(){
+		return lastBytesWritten;
+	}
+	
+	/**
+	 * Gets the time between creating the last snapshot and the moment when the file was replaced. This
+	 * includes the time needed to serialize the layout, and all the other resources that offer a 
+	 * {@link SnapshotApplicationResource.Snapshot}.
+	 * @return the duration in nanoseconds, or -1 if nothing was written yet
+	 */
+	public long getLastWriteLatency(){
+		return lastWriteLatency;
+	}
+	
+	/**
+	 * Gets the number of times the layout was written into the file.
+	 * @return the number of writes
+	 */
+	public int getWriteCount(){
+		return writeCount;
+	}
+	
+	/**
+	 * Gets the number of snapshots that were not written because a newer snapshot replaced them.
+	 * @return the number of skipped snapshots
+	 */
+	public int getSkippedCount(){
+		return skippedCount;
+	}
+	
+	/**
+	 * Gets the last exception that was thrown while taking or writing a snapshot.
+	 * @return the exception or <code>null</code>
+	 */
+	public IOException getLastError(){
+		return lastError;
+	}
+	
+	/**
+	 * A snapshot that waits to be written.
+	 * @author Benjamin Sigg
+	 */
+	private static class PendingWrite{
+		/** the content to write */
+		private final ApplicationResourceManager.Snapshot snapshot;
+		/** the destination */
+		private final File file;
+		/** when {@link #snapshot} was created */
+		private final long time;
+		
+		public PendingWrite( ApplicationResourceManager.Snapshot snapshot, File file, long time ){
+			this.snapshot = snapshot;
+			this.file = file;
+			this.time = time;
+		}
+	}
+}
@@ -46,7 +46,9 @@ public interface MultipleCDockableFactory<F extends MultipleCDockable, L extends
     public L write( F dockable );
     
     /**
-     * Creates a {@link MultipleCDockable} that gets its layout from <code>layout</code>.
+     * Creates a {@link MultipleCDockable} that gets its layout from <code>layout</code>. If many dockables
+     * are created while a layout is loaded, then implementations may return a lightweight stub whose content
+     * is created lazily, see {@link bibliothek.gui.dock.common.intern.DefaultCDockable#setContentFactory(bibliothek.gui.dock.common.intern.CDockableContentFactory)}.
      * @param layout the set of properties that can be used to create the new
      * {@link CDockable}.
      * @return the new dockable or <code>null</code> if the layout can't be read
@@ -34,7 +34,9 @@ package bibliothek.gui.dock.common;
  */
 public interface SingleCDockableFactory {
     /**
-     * Creates a backup of a {@link SingleCDockable}.
+     * Creates a backup of a {@link SingleCDockable}. If many dockables are created while a layout
+     * is loaded, then implementations may return a lightweight stub whose content is created lazily, see
+     * {@link bibliothek.gui.dock.common.intern.DefaultCDockable#setContentFactory(bibliothek.gui.dock.common.intern.CDockableContentFactory)}.
      * @param id the unique id that the result must have
      * @return the backup dockable or <code>null</code> if no dockable can
      * be created
@@ -0,0 +1,43 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common.intern;
+
+/**
+ * Creates the content of a {@link DefaultCDockable} lazily. A {@link DefaultCDockable} with a content factory
+ * is only a lightweight stub that shows a title, an icon and actions. The factory is called only once,
+ * the first time the dockable becomes {@link CDockable#isShowing() visible}. This saves time if a layout
+ * is restored that contains many dockables which are hidden behind other tabs or minimized.
+ * @author Benjamin Sigg
+ * @see DefaultCDockable#setContentFactory(CDockableContentFactory)
+ */
+public interface CDockableContentFactory {
+	/**
+	 * Creates the content of <code>dockable</code>. Implementations should add their components
+	 * to the {@link DefaultCDockable#getContentPane() content pane} of <code>dockable</code>.
+	 * @param dockable the dockable that is about to become visible for the first time
+	 */
+	public void createContent( DefaultCDockable dockable );
+}
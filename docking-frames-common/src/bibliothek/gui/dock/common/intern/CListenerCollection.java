@@ -27,8 +27,6 @@ package bibliothek.gui.dock.common.intern;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
 
 import bibliothek.gui.dock.common.action.CAction;
 import bibliothek.gui.dock.common.event.CDockableLocationEvent;
@@ -42,6 +40,7 @@ import bibliothek.gui.dock.common.event.CVetoClosingEvent;
 import bibliothek.gui.dock.common.event.CVetoClosingListener;
 import bibliothek.gui.dock.common.event.CVetoFocusListener;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
+import bibliothek.gui.dock.event.ListenerList;
 
 /**
  * A collection of the listeners which are normally added to a {@link CDockable}.
@@ -51,110 +50,110 @@ import bibliothek.gui.dock.common.mode.ExtendedMode;
  */
 public class CListenerCollection {
     /** a list of state listeners that were added to this dockable */
-    private List<CDockableStateListener> stateListeners = new ArrayList<CDockableStateListener>();
+    private ListenerList<CDockableStateListener> stateListeners = new ListenerList<CDockableStateListener>( CDockableStateListener.class );
     
     private CDockableStateListener stateListener = new CDockableStateListener(){
     	public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
-    	    for( CDockableStateListener listener : getCDockableStateListeners() )
+    	    for( CDockableStateListener listener : stateListeners.get() )
                 listener.extendedModeChanged( dockable, mode );
         }
 
         public void visibilityChanged( CDockable dockable ) {
-            for( CDockableStateListener listener : getCDockableStateListeners() )
+            for( CDockableStateListener listener : stateListeners.get() )
                 listener.visibilityChanged( dockable );
         }
     };
     
     /** a list of property listeners that were added to this dockable */
-    private List<CDockablePropertyListener> propertyListeners = new ArrayList<CDockablePropertyListener>();
+    private ListenerList<CDockablePropertyListener> propertyListeners = new ListenerList<CDockablePropertyListener>( CDockablePropertyListener.class );
     
     private CDockablePropertyListener propertyListener = new CDockablePropertyListener(){
         public void actionChanged( CDockable dockable, String key, CAction oldAction, CAction newAction ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.actionChanged( dockable, key, oldAction, newAction );
         }
 
         public void closeableChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.closeableChanged( dockable );
         }
 
         public void externalizableChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.externalizableChanged( dockable );
         }
 
         public void maximizableChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.maximizableChanged( dockable );
         }
 
         public void minimizableChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.minimizableChanged( dockable );
         }
         
         public void normalizeableChanged( CDockable dockable ){
-        	for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+        	for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.normalizeableChanged( dockable );	
         }
 
         public void minimizeSizeChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.minimizeSizeChanged( dockable );
         }
 
         public void stickyChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.stickyChanged( dockable );
         }
 
         public void stickySwitchableChanged( CDockable dockable ){
-        	for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+        	for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.stickySwitchableChanged( dockable );
         }
         
         public void resizeLockedChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.resizeLockedChanged( dockable );
         }
 
         public void titleShownChanged( CDockable dockable ) {
-            for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+            for( CDockablePropertyListener listener : propertyListeners.get() )
                 listener.titleShownChanged( dockable );
         }
         
         public void singleTabShownChanged( CDockable dockable ){
-	        for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+	        for( CDockablePropertyListener listener : propertyListeners.get() )
 	        	listener.singleTabShownChanged( dockable );
         }
         
         public void enabledChanged( CDockable dockable ){
-        	for( CDockablePropertyListener listener : getCDockablePropertyListeners() )
+        	for( CDockablePropertyListener listener : propertyListeners.get() )
 	        	listener.enabledChanged( dockable );
         }
     };
     
     /** the list of focus listeners */
-    private List<CFocusListener> focusListeners = new ArrayList<CFocusListener>();
+    private ListenerList<CFocusListener> focusListeners = new ListenerList<CFocusListener>( CFocusListener.class );
     
     private CFocusListener focusListener = new CFocusListener(){
         public void focusGained( CDockable dockable ) {
-            for( CFocusListener listener : getFocusListeners() )
+            for( CFocusListener listener : focusListeners.get() )
                 listener.focusGained( dockable );
         }
 
         public void focusLost( CDockable dockable ) {
-            for( CFocusListener listener : getFocusListeners() )
+            for( CFocusListener listener : focusListeners.get() )
                 listener.focusLost( dockable );
         }
     };
     
-    private List<CVetoFocusListener> vetoFocusListeners = new ArrayList<CVetoFocusListener>();
+    private ListenerList<CVetoFocusListener> vetoFocusListeners = new ListenerList<CVetoFocusListener>( CVetoFocusListener.class );
     
     private CVetoFocusListener vetoFocusListener = new CVetoFocusListener(){
     	public boolean willGainFocus( CDockable dockable ){
-	    	for( CVetoFocusListener listener : getVetoFocusListeners() ){
+	    	for( CVetoFocusListener listener : vetoFocusListeners.get() ){
 	    		if( !listener.willGainFocus( dockable )){
 	    			return false;
 	    		}
@@ -163,7 +162,7 @@ public class CListenerCollection {
     	}
     	
     	public boolean willLoseFocus( CDockable dockable ){
-    		for( CVetoFocusListener listener : getVetoFocusListeners() ){
+    		for( CVetoFocusListener listener : vetoFocusListeners.get() ){
 	    		if( !listener.willLoseFocus( dockable )){
 	    			return false;
 	    		}
@@ -172,11 +171,11 @@ public class CListenerCollection {
     	}
     };
     
-    private List<CKeyboardListener> keyboardListeners = new ArrayList<CKeyboardListener>();
+    private ListenerList<CKeyboardListener> keyboardListeners = new ListenerList<CKeyboardListener>( CKeyboardListener.class );
     
     private CKeyboardListener keyboardListener = new CKeyboardListener(){
         public boolean keyPressed( CDockable source, KeyEvent event ) {
-            for( CKeyboardListener listener : getKeyboardListeners() ){
+            for( CKeyboardListener listener : keyboardListeners.get() ){
                 if( listener.keyPressed( source, event ))
                     return true;
             }
@@ -184,7 +183,7 @@ public class CListenerCollection {
         }
 
         public boolean keyReleased( CDockable source, KeyEvent event ) {
-            for( CKeyboardListener listener : getKeyboardListeners() ){
+            for( CKeyboardListener listener : keyboardListeners.get() ){
                 if( listener.keyReleased( source, event ))
                     return true;
             }
@@ -192,7 +191,7 @@ public class CListenerCollection {
         }
 
         public boolean keyTyped( CDockable source, KeyEvent event ) {
-            for( CKeyboardListener listener : getKeyboardListeners() ){
+            for( CKeyboardListener listener : keyboardListeners.get() ){
                 if( listener.keyTyped( source, event ))
                     return true;
             }
@@ -200,11 +199,11 @@ public class CListenerCollection {
         }
     };
     
-    private List<CDoubleClickListener> doubleClickListeners = new ArrayList<CDoubleClickListener>();
+    private ListenerList<CDoubleClickListener> doubleClickListeners = new ListenerList<CDoubleClickListener>( CDoubleClickListener.class );
     
     private CDoubleClickListener doubleClickListener = new CDoubleClickListener(){
         public boolean clicked( CDockable source, MouseEvent event ) {
-            for( CDoubleClickListener listener : getDoubleClickListeners() ){
+            for( CDoubleClickListener listener : doubleClickListeners.get() ){
                 if( listener.clicked( source, event ))
                     return true;
             }
@@ -212,27 +211,27 @@ public class CListenerCollection {
         }
     };
     
-    private List<CVetoClosingListener> vetoClosingListeners = new ArrayList<CVetoClosingListener>();
+    private ListenerList<CVetoClosingListener> vetoClosingListeners = new ListenerList<CVetoClosingListener>( CVetoClosingListener.class );
     
     private CVetoClosingListener vetoClosingListener = new CVetoClosingListener() {
 		public void closing( CVetoClosingEvent event ){
-			for( CVetoClosingListener listener : getVetoClosingListeners() ){
+			for( CVetoClosingListener listener : vetoClosingListeners.get() ){
 				listener.closing( event );
 			}
 		}
 		
 		public void closed( CVetoClosingEvent event ){
-			for( CVetoClosingListener listener : getVetoClosingListeners() ){
+			for( CVetoClosingListener listener : vetoClosingListeners.get() ){
 				listener.closed( event );
 			}
 		}
 	};
 	
-	private List<CDockableLocationListener> locationListeners = new ArrayList<CDockableLocationListener>();
+	private ListenerList<CDockableLocationListener> locationListeners = new ListenerList<CDockableLocationListener>( CDockableLocationListener.class );
 	
 	private CDockableLocationListener locationListener = new CDockableLocationListener(){
 		public void changed( CDockableLocationEvent event ){
-			for( CDockableLocationListener listener : getCDockableLocationListeners() ){
+			for( CDockableLocationListener listener : locationListeners.get() ){
 				listener.changed( event );
 			}
 		}
@@ -262,7 +261,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CDockableStateListener[] getCDockableStateListeners(){
-        return stateListeners.toArray( new CDockableStateListener[ stateListeners.size() ] );
+        return stateListeners.get().clone();
     }
     
     /**
@@ -307,7 +306,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CDockableLocationListener[] getCDockableLocationListeners(){
-        return locationListeners.toArray( new CDockableLocationListener[ locationListeners.size() ] );
+        return locationListeners.get().clone();
     }
     
     /**
@@ -343,7 +342,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CDockablePropertyListener[] getCDockablePropertyListeners(){
-        return propertyListeners.toArray( new CDockablePropertyListener[ propertyListeners.size() ] );
+        return propertyListeners.get().clone();
     }
     
     /**
@@ -379,7 +378,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CFocusListener[] getFocusListeners(){
-        return focusListeners.toArray( new CFocusListener[ focusListeners.size() ] ); 
+        return focusListeners.get().clone(); 
     }
     
     /**
@@ -416,7 +415,7 @@ public class CListenerCollection {
      * @return an independent array of listeners
      */
     public CVetoFocusListener[] getVetoFocusListeners(){
-    	return vetoFocusListeners.toArray( new CVetoFocusListener[ vetoFocusListeners.size() ] );
+    	return vetoFocusListeners.get().clone();
     }
     
     /**
@@ -452,7 +451,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CKeyboardListener[] getKeyboardListeners(){
-        return keyboardListeners.toArray( new CKeyboardListener[ keyboardListeners.size() ]);
+        return keyboardListeners.get().clone();
     }
     
     /**
@@ -488,7 +487,7 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CDoubleClickListener[] getDoubleClickListeners(){
-        return doubleClickListeners.toArray( new CDoubleClickListener[ doubleClickListeners.size() ] );
+        return doubleClickListeners.get().clone();
     }
     
     /**
@@ -542,6 +541,6 @@ public class CListenerCollection {
      * @return the independent array of listeners
      */
     public CVetoClosingListener[] getVetoClosingListeners(){
-    	return vetoClosingListeners.toArray( new CVetoClosingListener[ vetoClosingListeners.size() ] );
+    	return vetoClosingListeners.get().clone();
     }
 }
@@ -82,6 +82,15 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     private List<MultipleCDockable> multiDockables = 
         new ArrayList<MultipleCDockable>();
     
+    /** the same elements as {@link #dockables}, allows fast lookup */
+    private Set<CDockable> dockableSet = new HashSet<CDockable>();
+    
+    /** all the {@link SingleCDockable}s, the key is their unique id */
+    private Map<String, SingleCDockable> singleIndex = new HashMap<String, SingleCDockable>();
+    
+    /** all the {@link MultipleCDockable}s, the key is their unique id without the "multi" prefix */
+    private Map<String, MultipleCDockable> multiIndex = new HashMap<String, MultipleCDockable>();
+    
     /** the stations known  */
     private List<CStation<?>> stations = new ArrayList<CStation<?>>();
     
@@ -265,22 +274,47 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     }
 
     public void addMultipleDockable( MultipleCDockable dockable ) {
-        dockables.add( dockable );
-        multiDockables.add( dockable );
+        if( dockableSet.add( dockable )){
+            dockables.add( dockable );
+            multiDockables.add( dockable );
+            String id = control.getUniqueId( dockable );
+            if( id != null ){
+                multiIndex.put( id, dockable );
+            }
+        }
     }
 
     public void addSingleDockable( SingleCDockable dockable ) {
-        dockables.add( dockable );
-        singleDockables.add( dockable );
+        if( dockableSet.add( dockable )){
+            dockables.add( dockable );
+            singleDockables.add( dockable );
+            singleIndex.put( dockable.getUniqueId(), dockable );
+        }
     }
     
     public SingleCDockable getSingleDockable( String id ){
-	    for( SingleCDockable dockable : singleDockables ){
-	    	if( dockable.getUniqueId().equals( id )){
-	    		return dockable;
-	    	}
-	    }
-	    return null;
+    	return singleIndex.get( id );
+    }
+    
+    /**
+     * Searches the one {@link MultipleCDockable} whose unique id equals <code>id</code>. The unique
+     * id of a dockable must be set before the dockable is {@link #addMultipleDockable(MultipleCDockable) added},
+     * otherwise this method may not find the dockable.
+     * @param id the unique id as returned by {@link bibliothek.gui.dock.common.CControl#getUniqueId(MultipleCDockable)}, 
+     * meaning without the prefix added by {@link #toMultiId(String)}
+     * @return the dockable with the same id or <code>null</code>
+     */
+    public MultipleCDockable getMultipleDockable( String id ){
+    	return multiIndex.get( id );
+    }
+    
+    /**
+     * Tells whether <code>dockable</code> is registered.
+     * @param dockable the element to search
+     * @return <code>true</code> if <code>dockable</code> is known to this register
+     */
+    public boolean contains( CDockable dockable ){
+    	return dockableSet.contains( dockable );
     }
 
     public void addStation( CStation<?> station ) {
@@ -356,16 +390,28 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     }
 
     public boolean removeMultipleDockable( MultipleCDockable dockable ) {
-        if( dockables.remove( dockable ) ){
+        if( dockableSet.remove( dockable ) ){
+            dockables.remove( dockable );
             multiDockables.remove( dockable );
+            String id = control.getUniqueId( dockable );
+            if( id != null && multiIndex.get( id ) == dockable ){
+                multiIndex.remove( id );
+            }
+            else{
+                multiIndex.values().remove( dockable );
+            }
             return true;
         }
         return false;
     }
 
     public boolean removeSingleDockable( SingleCDockable dockable ) {
-        if( dockables.remove( dockable )){
+        if( dockableSet.remove( dockable )){
+            dockables.remove( dockable );
             singleDockables.remove( dockable );
+            if( singleIndex.get( dockable.getUniqueId() ) == dockable ){
+                singleIndex.remove( dockable.getUniqueId() );
+            }
             return true;
         }
         return false;
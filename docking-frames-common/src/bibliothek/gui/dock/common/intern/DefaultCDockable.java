@@ -30,10 +30,13 @@ import java.awt.Container;
 import java.awt.LayoutManager;
 
 import javax.swing.Icon;
+import javax.swing.JComponent;
 
 import bibliothek.gui.dock.common.CStation;
 import bibliothek.gui.dock.common.action.CAction;
 import bibliothek.gui.dock.common.action.CSeparator;
+import bibliothek.gui.dock.dockable.DockableStateEvent;
+import bibliothek.gui.dock.dockable.DockableStateListener;
 import bibliothek.gui.dock.dockable.IconHandling;
 import bibliothek.util.FrameworkOnly;
 
@@ -191,6 +194,12 @@ public class DefaultCDockable extends AbstractCDockable{
     /** whether this dockable can be combined with other dockables */
     private boolean stackable;
     
+    /** the factory that will create the content of this dockable, <code>null</code> if the content is realized */
+    private CDockableContentFactory contentFactory;
+    
+    /** a listener waiting until this dockable becomes visible, then calls {@link #realizeContent()} */
+    private DockableStateListener contentRealizer;
+    
     /**
      * Creates a new dockable
      */
@@ -256,6 +265,83 @@ public class DefaultCDockable extends AbstractCDockable{
         getContentPane().remove( component );
     }
     
+    /**
+     * Sets a factory that creates the content of this dockable lazily. As long as the factory is not
+     * called, this dockable is only a lightweight stub showing title, icon and actions. The factory
+     * is called as soon as this dockable {@link #isShowing() becomes visible}, or when {@link #realizeContent()}
+     * is called. If this dockable is already visible, then the factory is called immediately.<br>
+     * Lazy content is especially useful for dockables that are created by a {@link bibliothek.gui.dock.common.SingleCDockableFactory}
+     * or a {@link bibliothek.gui.dock.common.MultipleCDockableFactory} while a layout is loaded: only the
+     * selected tab of each stack is visible, all the other dockables do not require their content yet.
+     * @param factory the factory creating the content, can be <code>null</code> to cancel a pending
+     * realization
+     */
+    public void setContentFactory( CDockableContentFactory factory ){
+        if( contentRealizer != null ){
+            intern().removeDockableStateListener( contentRealizer );
+            contentRealizer = null;
+        }
+        
+        contentFactory = factory;
+        
+        if( factory != null ){
+            if( isShowing() ){
+                realizeContent();
+            }
+            else{
+                contentRealizer = new DockableStateListener(){
+                    public void changed( DockableStateEvent event ){
+                        if( event.didShowingChange() && isShowing() ){
+                            realizeContent();
+                        }
+                    }
+                };
+                intern().addDockableStateListener( contentRealizer );
+            }
+        }
+    }
+    
+    /**
+     * Gets the factory that will create the content of this dockable.
+     * @return the factory or <code>null</code> if the content was already created
+     * @see #setContentFactory(CDockableContentFactory)
+     */
+    public CDockableContentFactory getContentFactory(){
+        return contentFactory;
+    }
+    
+    /**
+     * Tells whether the content of this dockable exists, meaning there is no pending
+     * {@link #setContentFactory(CDockableContentFactory) content factory}.
+     * @return <code>true</code> if the content exists
+     */
+    public boolean isContentRealized(){
+        return contentFactory == null;
+    }
+    
+    /**
+     * Calls the {@link #setContentFactory(CDockableContentFactory) content factory} of this dockable,
+     * if there is one. Clients usually do not need to call this method, it is called automatically
+     * once this dockable becomes visible.
+     */
+    public void realizeContent(){
+        if( contentFactory != null ){
+            CDockableContentFactory factory = contentFactory;
+            setContentFactory( null );
+            factory.createContent( this );
+            
+            Container content = getContentPane();
+            if( content instanceof JComponent ){
+                ((JComponent)content).revalidate();
+            }
+            else{
+                content.invalidate();
+                content.validate();
+            }
+            content.repaint();
+        }
+    }
+    
     /**
      * Sets the text that is shown as title.
      * @param text the title
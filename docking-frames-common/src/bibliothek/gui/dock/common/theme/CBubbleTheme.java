@@ -131,9 +131,7 @@ public class CBubbleTheme extends CDockTheme<BubbleTheme>{
         IconManager manager = controller.getIcons();
         Map<String, Icon> icons = DockUtilities.loadIcons(
                 "data/bibliothek/gui/dock/common/icons/bubble/icons.ini", null, CBubbleTheme.class.getClassLoader() );
-        for( Map.Entry<String, Icon> entry : icons.entrySet() ){
-            manager.setIconTheme( entry.getKey(), entry.getValue() );
-        }
+        manager.setIcons( Priority.THEME, icons );
         ActionViewConverter converter = controller.getActionViewConverter();
     	converter.putTheme( CPanelPopup.PANEL_POPUP, ViewTarget.TITLE, new BubblePanelPopupGenerator());
     	converter.putTheme( CPanelPopup.PANEL_POPUP, ViewTarget.MENU, new PanelMenuGenerator() );
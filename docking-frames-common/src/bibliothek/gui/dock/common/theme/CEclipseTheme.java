@@ -130,9 +130,7 @@ public class CEclipseTheme extends CDockTheme<EclipseTheme>{
         IconManager manager = controller.getIcons();
         Map<String, Icon> icons = DockUtilities.loadIcons(
                 "data/bibliothek/gui/dock/common/icons/eclipse/icons.ini", null, CEclipseTheme.class.getClassLoader() );
-        for( Map.Entry<String, Icon> entry : icons.entrySet() ){
-            manager.setIconTheme( entry.getKey(), entry.getValue() );
-        }
+        manager.setIcons( Priority.THEME, icons );
         ActionViewConverter converter = controller.getActionViewConverter();
     	converter.putTheme( CPanelPopup.PANEL_POPUP, ViewTarget.TITLE, new EclipsePanelPopupGenerator());
     	converter.putTheme( CPanelPopup.PANEL_POPUP, ViewTarget.MENU, new PanelMenuGenerator() );
@@ -28,7 +28,6 @@ package bibliothek.gui.dock.facile.mode;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +51,8 @@ import bibliothek.gui.dock.control.relocator.VetoableDockRelocatorAdapter;
 import bibliothek.gui.dock.event.DockHierarchyEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DoubleClickListener;
 import bibliothek.gui.dock.facile.mode.status.DefaultExtendedModeEnablement;
 import bibliothek.gui.dock.facile.mode.status.ExtendedModeEnablement;
@@ -452,18 +453,27 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 		}
 	}
 	
+	/**
+	 * Checks all the modes for <code>dockable</code>, if <code>dockable</code> is not in any mode, then
+	 * the mode of its parent is returned. 
+	 */
 	@Override
-	public M getCurrentMode( Dockable dockable ){
-		while( dockable != null ){
-			for( M mode : modes() ){
-				if( mode.isCurrentMode( dockable ))
-					return mode;
-			}
-			DockStation station = dockable.getDockParent();
-			dockable = station == null ? null : station.asDockable();
+	protected M findCurrentMode( Dockable dockable ){
+		if( dockable == null ){
+			return null;
 		}
 		
-		return null;
+		for( M mode : modes() ){
+			if( mode.isCurrentMode( dockable ))
+				return mode;
+		}
+		
+		DockStation station = dockable.getDockParent();
+		Dockable parent = station == null ? null : station.asDockable();
+		if( parent == null ){
+			return null;
+		}
+		return getCurrentMode( parent );
 	}
 	
 	/**
@@ -661,7 +671,7 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 	 * removes a {@link DockHierarchyListener}. 
 	 * @author Benjamin Sigg
 	 */
-	private class RegisterListener extends DockRegisterAdapter{
+	private class RegisterListener extends DockRegisterAdapter implements DockRegisterBatchListener{
 		private DockController controller;
 		
 		public void connect( DockController controller ){
@@ -685,22 +695,40 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 		
 		@Override
 		public void dockableRegistered( DockController controller, Dockable dockable ){
+			invalidateCurrentModes();
 			dockable.addDockHierarchyListener( hierarchyListener );
 			rebuild( dockable );
 		}
 		
 		@Override
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			invalidateCurrentModes();
 			dockable.removeDockHierarchyListener( hierarchyListener );
 		}
 		
+		public void registerBatch( DockRegisterBatchEvent event ){
+			invalidateCurrentModes();
+			for( Dockable dockable : event.getUnregisteredDockables() ){
+				dockable.removeDockHierarchyListener( hierarchyListener );
+			}
+			DockRegister register = event.getController().getRegister();
+			for( Dockable dockable : event.getRegisteredDockables() ){
+				if( register.isRegistered( dockable )){
+					// a dockable may be reported more than once, the listener must be added only once
+					dockable.removeDockHierarchyListener( hierarchyListener );
+					dockable.addDockHierarchyListener( hierarchyListener );
+					rebuild( dockable );
+				}
+			}
+		}
+		
 		@Override
 		public void registerUnstalled( DockController controller ){
-			while( pendingRefreshs.size() > 0 && !controller.getRegister().isStalled() ){
-				Iterator<Dockable> iter = pendingRefreshs.iterator();
-				Dockable next = iter.next();
-				iter.remove();
-				refresh( next, true );
+			if( pendingRefreshs.size() > 0 && !controller.getRegister().isStalled() ){
+				// refresh all the subtrees at once, each element is refreshed only once
+				List<Dockable> pending = new ArrayList<Dockable>( pendingRefreshs );
+				pendingRefreshs.clear();
+				addAffected( pending );
 			}
 		}
 	}
@@ -716,6 +744,7 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 		}
 
 		public void hierarchyChanged( DockHierarchyEvent event ){
+			invalidateCurrentModes();
             if( !isOnTransaction() ){
             	delayedRefresh( event.getDockable() );
             }	
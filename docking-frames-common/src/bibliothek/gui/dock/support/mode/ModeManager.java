@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -60,6 +61,18 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/** the ordered list of available modes */
 	private List<ModeHandle> modes = new ArrayList<ModeHandle>();
 	
+	/** all the {@link ModeHandle}s of {@link #modes} accessible through their mode */
+	private Map<M, ModeHandle> modeHandles = new IdentityHashMap<M, ModeHandle>();
+	
+	/** all the {@link ModeHandle}s of {@link #modes} accessible through the unique identifier of their mode */
+	private Map<Path, ModeHandle> modeHandlesById = new HashMap<Path, ModeHandle>();
+	
+	/** the results of {@link #getCurrentMode(Dockable)}, only available while {@link #currentModesCacheCount} is greater than 0 */
+	private Map<Dockable, M> currentModesCache;
+	
+	/** how often {@link #openCurrentModesCache()} was called */
+	private int currentModesCacheCount = 0;
+	
 	/** factories for creating {@link ModeSetting}s */
 	private Map<Path, ModeSettingFactory<H>> factories = new HashMap<Path, ModeSettingFactory<H>>();
 	
@@ -177,15 +190,20 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void putMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
-		for( ModeHandle handle : modes ){
-			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
-				fireRemoved( handle.mode );
-				handle.mode = mode;
-				fireAdded( mode );
-				return;
-			}
+		invalidateCurrentModes();
+		ModeHandle handle = modeHandlesById.get( mode.getUniqueIdentifier() );
+		if( handle != null ){
+			fireRemoved( handle.mode );
+			modeHandles.remove( handle.mode );
+			handle.mode = mode;
+			modeHandles.put( mode, handle );
+			fireAdded( mode );
+			return;
 		}
-		modes.add( new ModeHandle( mode ) );
+		handle = new ModeHandle( mode );
+		modes.add( handle );
+		modeHandles.put( mode, handle );
+		modeHandlesById.put( mode.getUniqueIdentifier(), handle );
 		fireAdded( mode );
 	}
 	
@@ -218,13 +236,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void removeMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
-		for( ModeHandle handle : modes ){
-			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
-				handle.mode = null;
-				fireRemoved( handle.mode );
-				modes.remove( handle );
-				return;
-			}
+		invalidateCurrentModes();
+		ModeHandle handle = modeHandlesById.remove( mode.getUniqueIdentifier() );
+		if( handle != null ){
+			modeHandles.remove( handle.mode );
+			handle.mode = null;
+			fireRemoved( handle.mode );
+			modes.remove( handle );
 		}
 	}
 	
@@ -239,11 +257,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	}
 	
 	private ModeHandle getAccess( Path path ){
-		for( ModeHandle mode : modes ){
-			if( mode.mode.getUniqueIdentifier().equals( path ))
-				return mode;
-		}
-		return null;
+		return modeHandlesById.get( path );
 	}
 	
 	/**
@@ -683,6 +697,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	if( set == null )
     		throw new IllegalArgumentException( "set is null" );
     	
+    	invalidateCurrentModes();
     	M dockableMode = getCurrentMode( dockable );
     	
     	if( dockableMode != null ){
@@ -697,7 +712,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 				if( historyRewriter != null ){
 					rewritten = historyRewriter.rewrite( dockable, mode, history );
 				}
-				mode.apply( dockable, rewritten, set );
+				try{
+					mode.apply( dockable, rewritten, set );
+				}
+				finally{
+					invalidateCurrentModes();
+				}
 			}
 		});
     }
@@ -756,8 +776,48 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * are registered at this {@link ModeManager}.
      */
     public void refresh(){
-    	for( Dockable dockable : dockables.keySet() ){
-    		refresh( dockable, false );
+    	openCurrentModesCache();
+    	try{
+	    	for( Dockable dockable : dockables.keySet() ){
+	    		refresh( dockable, false );
+	    	}
+    	}
+    	finally{
+    		closeCurrentModesCache();
+    	}
+    }
+    
+    /**
+     * Starts caching the results of {@link #getCurrentMode(Dockable)}. The cache is only used while the
+     * modes of many {@link Dockable}s are refreshed at once, and it is cleared whenever
+     * {@link #invalidateCurrentModes()} is called. Each call to this method must be followed by a call to
+     * {@link #closeCurrentModesCache()}.
+     */
+    private void openCurrentModesCache(){
+    	if( currentModesCacheCount == 0 ){
+    		currentModesCache = new HashMap<Dockable, M>();
+    	}
+    	currentModesCacheCount++;
+    }
+    
+    /**
+     * Stops caching the results of {@link #getCurrentMode(Dockable)}.
+     */
+    private void closeCurrentModesCache(){
+    	currentModesCacheCount--;
+    	if( currentModesCacheCount == 0 ){
+    		currentModesCache = null;
+    	}
+    }
+    
+    /**
+     * Informs this manager that the result of {@link #getCurrentMode(Dockable)} may have changed for
+     * any {@link Dockable}, e.g. because an element was moved. Subclasses should call this method
+     * whenever they detect such a change.
+     */
+    protected void invalidateCurrentModes(){
+    	if( currentModesCache != null ){
+    		currentModesCache = new HashMap<Dockable, M>();
     	}
     }
     
@@ -939,6 +999,30 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	 * @return the current mode or <code>null</code> if not found
 	 */
 	public M getCurrentMode( Dockable dockable ){
+		Map<Dockable, M> cache = currentModesCache;
+		if( cache == null ){
+			return findCurrentMode( dockable );
+		}
+		
+		M mode = cache.get( dockable );
+		if( mode == null && !cache.containsKey( dockable )){
+			mode = findCurrentMode( dockable );
+			if( cache == currentModesCache ){
+				cache.put( dockable, mode );
+			}
+		}
+		return mode;
+	}
+	
+	/**
+	 * Searches the mode <code>dockable</code> is currently in, this method is called by
+	 * {@link #getCurrentMode(Dockable)} if the mode is not cached. This
+	 * method calls {@link Mode#isCurrentMode(Dockable)} and returns the first
+	 * {@link Mode} where the answer was <code>true</code>.
+	 * @param dockable some dockable, not <code>null</code>
+	 * @return the current mode or <code>null</code> if not found
+	 */
+	protected M findCurrentMode( Dockable dockable ){
 		for( ModeHandle mode : modes ){
 			if( mode.mode.isCurrentMode( dockable )){
 				return mode.mode;
@@ -1083,13 +1167,11 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		if( mode == null )
 			return null;
 		
-		for( ModeHandle access : modes ){
-			if( access.mode == mode ){
-				return access;
-			}
+		ModeHandle access = modeHandles.get( mode );
+		if( access == null ){
+			throw new IllegalArgumentException( "unknown mode: " + mode );
 		}
-		
-		throw new IllegalArgumentException( "unknown mode: " + mode );
+		return access;
 	}
 
 	/**
@@ -1385,6 +1467,9 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         /** if <code>true</code>, then this entry is not deleted automatically */
         private boolean empty = false;
         
+        /** the sources that are currently stored in {@link #source} */
+        private List<DockActionSource> sources = new ArrayList<DockActionSource>();
+        
         /**
          * Creates a new entry
          * @param dockable the element whose properties are stores in this entry
@@ -1403,20 +1488,45 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          */
         public void updateActionSource(){
         	if( dockable != null ){
-	        	source.removeAll();
 	        	M mode = getCurrentMode( dockable );
 	        	if( mode == null )
 	        		mode = getDefaultMode( dockable );
 	        	
+	        	List<DockActionSource> nextSources = new ArrayList<DockActionSource>( modes.size() );
 	        	for( ModeHandle access : modes ){
 	        		DockActionSource next = access.mode.getActionsFor( dockable, mode );
 	        		if( next != null ){
+	        			nextSources.add( next );
+	        		}
+	        	}
+	        	
+	        	if( !sameSources( nextSources )){
+	        		source.removeAll();
+	        		for( DockActionSource next : nextSources ){
 	        			source.add( next );
 	        		}
+	        		sources = nextSources;
 	        	}
         	}
         }
         
+        /**
+         * Tells whether <code>nextSources</code> contains the same sources in the same order as {@link #sources}.
+         * @param nextSources the new sources
+         * @return <code>true</code> if {@link #source} does not need to be updated
+         */
+        private boolean sameSources( List<DockActionSource> nextSources ){
+        	if( nextSources.size() != sources.size() ){
+        		return false;
+        	}
+        	for( int i = 0, n = nextSources.size(); i<n; i++ ){
+        		if( nextSources.get( i ) != sources.get( i )){
+        			return false;
+        		}
+        	}
+        	return true;
+        }
+        
         /**
          * Stores <code>mode</code> in a stack that describes the history
          * through which this entry moved. If <code>mode</code> is already
@@ -1524,9 +1634,16 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * for each element known to this set.
          */
         public void finish(){
-            for( Dockable dockable : set ){
-            	refresh( dockable, false );
-            }
+        	invalidateCurrentModes();
+        	openCurrentModesCache();
+        	try{
+	            for( Dockable dockable : set ){
+	            	refresh( dockable, false );
+	            }
+        	}
+        	finally{
+        		closeCurrentModesCache();
+        	}
         }
     }
 }
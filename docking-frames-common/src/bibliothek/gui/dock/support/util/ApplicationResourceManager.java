@@ -27,11 +27,14 @@ package bibliothek.gui.dock.support.util;
 
 import java.io.*;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.prefs.Preferences;
 
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * Manages a set of {@link ApplicationResource}s, can load and store the
@@ -106,14 +109,16 @@ public class ApplicationResourceManager {
         // number of elements
         out.writeInt( resources.size() );
         
-        // elements
+        // elements, one buffer is reused for all of them
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream( array );
+        
         for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
             out.writeUTF( resource.getKey() );
             
-            ByteArrayOutputStream array = new ByteArrayOutputStream();
-            DataOutputStream data = new DataOutputStream( array );
+            array.reset();
             resource.getValue().write( data );
-            data.close();
+            data.flush();
             
             // write out the array
             out.writeInt( array.size() );
@@ -121,6 +126,34 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Creates a copy of the current state of all {@link ApplicationResource}s. Resources implementing
+     * {@link SnapshotApplicationResource} are asked for a {@link SnapshotApplicationResource#snapshot() snapshot},
+     * all other resources are written into an array of bytes immediately. The result can be written
+     * by any thread, e.g. to store the resources in the background.
+     * @return the copy of the current state
+     * @throws IOException if one of the resources can't be written
+     */
+    public Snapshot snapshot() throws IOException{
+        Snapshot snapshot = new Snapshot();
+        
+        for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+            ApplicationResource value = resource.getValue();
+            if( value instanceof SnapshotApplicationResource ){
+                snapshot.entries.put( resource.getKey(), ((SnapshotApplicationResource)value).snapshot() );
+            }
+            else{
+                ByteArrayOutputStream array = new ByteArrayOutputStream();
+                DataOutputStream data = new DataOutputStream( array );
+                value.write( data );
+                data.close();
+                snapshot.entries.put( resource.getKey(), array.toByteArray() );
+            }
+        }
+        
+        return snapshot;
+    }
+    
     /**
      * Lets all {@link ApplicationResource}s read from <code>in</code>.
      * @param in the stream to read from
@@ -162,6 +195,23 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Writes the content of this manager in xml format. Each resource is converted into an
+     * {@link XElement} and written before the next resource is converted. The output is the
+     * same as the output of {@link #writeXML(XElement)}.
+     * @param out the writer to write into, the resources are added as children of the element
+     * that is currently open in <code>out</code>
+     * @throws IOException if an I/O-error occurs
+     */
+    public void writeXML( XWriter out ) throws IOException{
+        for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+            XElement xresource = new XElement( "resource" );
+            xresource.addString( "name", resource.getKey() );
+            resource.getValue().writeXML( xresource );
+            out.writeElement( xresource );
+        }
+    }
+    
     /**
      * Reads the contents of this manager from a xml element.
      * @param element the element to read
@@ -178,6 +228,28 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Reads the contents of this manager from <code>in</code>. The resources are read one
+     * after the other, only the xml data of the resource that is currently read is stored in memory.
+     * @param in the reader to read from, all the remaining children of the element that is 
+     * currently open in <code>in</code> are read
+     * @throws IOException if an I/O-error occurs
+     */
+    public void readXML( XReader in ) throws IOException{
+        XElement xresource;
+        while( (xresource = in.readElement()) != null ){
+            if( xresource.getName().equals( "resource" )){
+                String name = xresource.getString( "name" );
+                ApplicationResource resource = resources.get( name );
+                if( resource != null ){
+                    resource.readXML( xresource );
+                }
+                else
+                    buffer.put( name, xresource );
+            }
+        }
+    }
+    
     /**
      * Writes the contents of this manager into <code>file</code>.
      * @param file the file to write into
@@ -194,11 +266,21 @@ public class ApplicationResourceManager {
     }
     
     /**
-     * Reads the contents of this manager from <code>file</code>.
+     * Reads the contents of this manager from <code>file</code>. If <code>file</code> does not exist, but
+     * a {@link Snapshot#writeFile(File) snapshot} could not replace <code>file</code>, then the
+     * {@link #getTemporaryFile(File) temporary file} of the snapshot is read instead. The temporary file
+     * is only read if it is {@link #isComplete(File) complete}, a temporary file that was not completely
+     * written, e.g. because the application was killed, is ignored.
      * @param file the file to read
      * @throws IOException if the operation can't be completed
      */
     public void readFile( File file ) throws IOException{
+        if( !file.exists() ){
+            File temp = getTemporaryFile( file );
+            if( temp.exists() && isComplete( temp ) ){
+                file = temp;
+            }
+        }
         DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file )));
         try{
             readStream( in );
@@ -208,6 +290,58 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Tells whether <code>file</code> contains exactly one complete stream as written by {@link #writeStream(DataOutputStream)}.
+     * This method checks the version, the number of resources and the length of each resource, but not the
+     * content of the resources.
+     * @param file the file to check
+     * @return <code>true</code> if the file has the expected length
+     * @throws IOException if the file can't be opened
+     */
+    public static boolean isComplete( File file ) throws IOException{
+        DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file )));
+        try{
+            Version.read( in );
+            int size = in.readInt();
+            if( size < 0 ){
+                return false;
+            }
+            // skipping is not an option, a file can skip beyond its end
+            byte[] buffer = new byte[ 4096 ];
+            for( int i = 0; i < size; i++ ){
+                in.readUTF();
+                int length = in.readInt();
+                if( length < 0 ){
+                    return false;
+                }
+                while( length > 0 ){
+                    int read = in.read( buffer, 0, Math.min( length, buffer.length ));
+                    if( read < 0 ){
+                        return false;
+                    }
+                    length -= read;
+                }
+            }
+            return in.read() == -1;
+        }
+        catch( IOException ex ){
+            // the file ends too early or does not start with a version
+            return false;
+        }
+        finally{
+            in.close();
+        }
+    }
+    
+    /**
+     * Gets the file into which {@link Snapshot#writeFile(File)} writes before replacing <code>file</code>.
+     * @param file the file that is to be written
+     * @return the temporary file in the same directory as <code>file</code>
+     */
+    public static File getTemporaryFile( File file ){
+        return new File( file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp" );
+    }
+    
     /**
      * Writes the contents of this manager into an array of bytes.
      * @return the contents as stream of bytes
@@ -254,6 +388,111 @@ public class ApplicationResourceManager {
         if( array != null )
             readArray( array );
     }
+    
+    /**
+     * The state of all the {@link ApplicationResource}s of an {@link ApplicationResourceManager} at
+     * some point in time. A snapshot does not depend on the resources, it can be written by any thread.
+     * The format is the same as for {@link ApplicationResourceManager#writeStream(DataOutputStream)}.
+     * @author Benjamin Sigg
+     * @see ApplicationResourceManager#snapshot()
+     */
+    public static class Snapshot{
+        /** the content of this snapshot, either <code>byte[]</code> or {@link SnapshotApplicationResource.Snapshot} */
+        private Map<String, Object> entries = new LinkedHashMap<String, Object>();
+        
+        private Snapshot(){
+            // nothing
+        }
+        
+        /**
+         * Writes the content of this snapshot into <code>out</code>.
+         * @param out the stream to write into
+         * @throws IOException if the operation can't be completed
+         */
+        public void writeStream( DataOutputStream out ) throws IOException{
+            Version.write( out, Version.VERSION_1_0_4 );
+            out.writeInt( entries.size() );
+            
+            ByteArrayOutputStream array = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream( array );
+            
+            for( Map.Entry<String, Object> entry : entries.entrySet() ){
+                out.writeUTF( entry.getKey() );
+                
+                Object value = entry.getValue();
+                if( value instanceof byte[] ){
+                    byte[] bytes = (byte[])value;
+                    out.writeInt( bytes.length );
+                    out.write( bytes );
+                }
+                else{
+                    array.reset();
+                    ((SnapshotApplicationResource.Snapshot)value).write( data );
+                    data.flush();
+                    out.writeInt( array.size() );
+                    array.writeTo( out );
+                }
+            }
+        }
+        
+        /**
+         * Writes the content of this snapshot into an array of bytes.
+         * @return the content as stream of bytes
+         * @throws IOException if the operation can't be completed
+         */
+        public byte[] writeArray() throws IOException{
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream( out );
+            writeStream( data );
+            data.close();
+            return out.toByteArray();
+        }
+        
+        /**
+         * Writes the content of this snapshot into <code>file</code>. The content is first written
+         * into a {@link ApplicationResourceManager#getTemporaryFile(File) temporary file} in the same directory,
+         * which then replaces <code>file</code>. Hence <code>file</code> never contains an incomplete layout.<br>
+         * On systems which cannot rename a file onto an existing file, <code>file</code> is deleted before
+         * the temporary file is renamed. If that rename fails, the temporary file is not deleted, and
+         * {@link ApplicationResourceManager#readFile(File)} reads the temporary file instead of the missing <code>file</code>.
+         * A temporary file that was left behind by an earlier, interrupted, call is overridden.
+         * @param file the file to write into
+         * @return the number of bytes that were written
+         * @throws IOException if the operation can't be completed
+         */
+        public long writeFile( File file ) throws IOException{
+            File temp = getTemporaryFile( file );
+            boolean keepTemp = false;
+            
+            try{
+                DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( temp )));
+                try{
+                    writeStream( out );
+                }
+                finally{
+                    out.close();
+                }
+                
+                long length = temp.length();
+                if( !temp.renameTo( file )){
+                    // some systems do not replace existing files
+                    if( file.exists() && !file.delete() ){
+                        throw new IOException( "cannot replace '" + file + "'" );
+                    }
+                    if( !temp.renameTo( file )){
+                        keepTemp = true;
+                        throw new IOException( "cannot rename '" + temp + "' to '" + file + "', the content remains stored in '" + temp + "'" );
+                    }
+                }
+                return length;
+            }
+            finally{
+                if( !keepTemp && temp.exists() ){
+                    temp.delete();
+                }
+            }
+        }
+    }
 }
 
 
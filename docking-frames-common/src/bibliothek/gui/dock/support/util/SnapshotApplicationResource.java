@@ -0,0 +1,62 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * An {@link ApplicationResource} that is able to create a cheap copy of its current state. The copy
+ * can be written by any thread, allowing the {@link ApplicationResourceManager} to store
+ * resources without blocking the EDT for a long time.
+ * @author Benjamin Sigg
+ * @see ApplicationResourceManager#snapshot()
+ */
+public interface SnapshotApplicationResource extends ApplicationResource {
+	/**
+	 * Creates a copy of the current state of this resource. This method is called by the same
+	 * thread that would call {@link #write(DataOutputStream)}, usually the EDT. The copy must not
+	 * access any object that can be modified after this method returned, e.g. the live tree of
+	 * stations and dockables.
+	 * @return the copy, not <code>null</code>
+	 */
+	public Snapshot snapshot();
+	
+	/**
+	 * The state of a {@link SnapshotApplicationResource} at some point in time.
+	 * @author Benjamin Sigg
+	 */
+	public static interface Snapshot{
+		/**
+		 * Writes the content of this snapshot, this method may be called by any thread. The result
+		 * must be the same as if {@link ApplicationResource#write(DataOutputStream)} would have
+		 * been called when this snapshot was created.
+		 * @param out the stream to write into
+		 * @throws IOException if the operation can't be completed
+		 */
+		public void write( DataOutputStream out ) throws IOException;
+	}
+}
@@ -0,0 +1,116 @@
+package bibliothek.gui.dock.common;
+
+import static junit.framework.Assert.*;
+
+import java.awt.EventQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+
+public class CControlXMLTest {
+	private CControl control;
+	private DefaultSingleCDockable a;
+	private DefaultSingleCDockable b;
+	private File file;
+	
+	@Before
+	public void setup() throws Exception{
+		file = File.createTempFile( "layout", ".xml" );
+		
+		onEDT( new Runnable(){
+			public void run(){
+				control = new CControl();
+				CGridArea area = control.createGridArea( "area" );
+				a = new DefaultSingleCDockable( "a", "A" );
+				b = new DefaultSingleCDockable( "b", "B" );
+				control.addDockable( a );
+				control.addDockable( b );
+				CGrid grid = new CGrid( (CControl)null );
+				grid.add( 0, 0, 1, 1, a );
+				grid.add( 1, 0, 1, 1, b );
+				area.deploy( grid );
+			}
+		});
+	}
+	
+	@After
+	public void cleanup() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				control.destroy();
+			}
+		});
+		file.delete();
+	}
+	
+	@Test
+	public void writeSameBytesAsXIO() throws Exception{
+		final byte[][] expected = new byte[1][];
+		onEDT( new Runnable(){
+			public void run(){
+				try{
+					control.save( "layout" );
+					XElement root = new XElement( "root" );
+					control.writeXML( root );
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					XIO.writeUTF( root, out );
+					expected[0] = out.toByteArray();
+					
+					control.writeXML( file );
+				}
+				catch( IOException ex ){
+					throw new IllegalStateException( ex );
+				}
+			}
+		});
+		
+		assertTrue( Arrays.equals( expected[0], read( file ) ) );
+	}
+	
+	@Test
+	public void readWrittenFile() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				try{
+					b.setVisible( false );
+					control.writeXML( file );
+					b.setVisible( true );
+					assertTrue( b.isVisible() );
+					
+					control.readXML( file );
+					assertFalse( b.isVisible() );
+					assertTrue( a.isVisible() );
+				}
+				catch( IOException ex ){
+					throw new IllegalStateException( ex );
+				}
+			}
+		});
+	}
+	
+	private byte[] read( File file ) throws IOException{
+		byte[] content = new byte[ (int)file.length() ];
+		DataInputStream in = new DataInputStream( new FileInputStream( file ) );
+		try{
+			in.readFully( content );
+		}
+		finally{
+			in.close();
+		}
+		return content;
+	}
+	
+	private void onEDT( Runnable run ) throws Exception{
+		EventQueue.invokeAndWait( run );
+	}
+}
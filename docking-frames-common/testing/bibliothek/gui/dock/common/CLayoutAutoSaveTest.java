@@ -0,0 +1,175 @@
+package bibliothek.gui.dock.common;
+
+import static junit.framework.Assert.*;
+
+import java.awt.EventQueue;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+
+public class CLayoutAutoSaveTest {
+	private CControl control;
+	private CLayoutAutoSave autoSave;
+	private DefaultSingleCDockable a;
+	private DefaultSingleCDockable b;
+	private File file;
+
+	@Before
+	public void setup() throws Exception{
+		file = File.createTempFile( "layout", ".bin" );
+		file.delete();
+
+		onEDT( new Runnable(){
+			public void run(){
+				control = new CControl();
+				CGridArea area = control.createGridArea( "area" );
+				a = new DefaultSingleCDockable( "a", "A" );
+				b = new DefaultSingleCDockable( "b", "B" );
+				control.addDockable( a );
+				control.addDockable( b );
+				CGrid grid = new CGrid( (CControl)null );
+				grid.add( 0, 0, 1, 1, a );
+				grid.add( 1, 0, 1, 1, b );
+				area.deploy( grid );
+
+				autoSave = control.getAutoSave();
+				autoSave.setFile( file );
+				autoSave.setDelay( 50 );
+				autoSave.setEnabled( true );
+			}
+		});
+	}
+
+	@After
+	public void cleanup() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				control.destroy();
+			}
+		});
+		file.delete();
+		ApplicationResourceManager.getTemporaryFile( file ).delete();
+	}
+
+	@Test
+	public void debounceChanges() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				for( int i = 0; i < 10; i++ ){
+					autoSave.requestSave();
+				}
+				assertTrue( autoSave.isSavePending() );
+			}
+		});
+
+		waitForSave();
+		autoSave.flush();
+
+		assertEquals( 1, autoSave.getWriteCount() );
+		assertNull( autoSave.getLastError() );
+		assertTrue( file.exists() );
+		assertEquals( file.length(), autoSave.getLastBytesWritten() );
+	}
+
+	@Test
+	public void layoutChangeTriggersSave() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				b.setVisible( false );
+				assertTrue( autoSave.isSavePending() );
+			}
+		});
+
+		waitForSave();
+		autoSave.flush();
+		assertEquals( 1, autoSave.getWriteCount() );
+	}
+
+	@Test
+	public void writtenFileEqualsLayout() throws Exception{
+		final byte[][] expected = new byte[1][];
+		onEDT( new Runnable(){
+			public void run(){
+				b.setVisible( false );
+				autoSave.saveNow();
+				try{
+					expected[0] = control.getResources().writeArray();
+				}
+				catch( IOException ex ){
+					throw new IllegalStateException( ex );
+				}
+			}
+		});
+
+		autoSave.flush();
+		assertFalse( ApplicationResourceManager.getTemporaryFile( file ).exists() );
+		assertTrue( Arrays.equals( expected[0], read( file ) ) );
+
+		onEDT( new Runnable(){
+			public void run(){
+				b.setVisible( true );
+				try{
+					control.read( file );
+				}
+				catch( IOException ex ){
+					throw new IllegalStateException( ex );
+				}
+				assertFalse( b.isVisible() );
+				assertTrue( a.isVisible() );
+			}
+		});
+	}
+
+	@Test
+	public void flushWritesPendingSnapshots() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				for( int i = 0; i < 5; i++ ){
+					autoSave.saveNow();
+				}
+				assertFalse( autoSave.isSavePending() );
+			}
+		});
+
+		autoSave.flush();
+		assertTrue( autoSave.getWriteCount() >= 1 );
+		assertEquals( 5, autoSave.getWriteCount() + autoSave.getSkippedCount() );
+		assertTrue( file.exists() );
+	}
+
+	private void waitForSave() throws Exception{
+		final boolean[] pending = { true };
+		while( pending[0] ){
+			Thread.sleep( 10 );
+			onEDT( new Runnable(){
+				public void run(){
+					pending[0] = autoSave.isSavePending();
+				}
+			});
+		}
+	}
+
+	private byte[] read( File file ) throws IOException{
+		byte[] content = new byte[ (int)file.length() ];
+		DataInputStream in = new DataInputStream( new FileInputStream( file ) );
+		try{
+			in.readFully( content );
+		}
+		finally{
+			in.close();
+		}
+		return content;
+	}
+
+	private void onEDT( Runnable run ) throws Exception{
+		EventQueue.invokeAndWait( run );
+	}
+}
@@ -0,0 +1,249 @@
+package bibliothek.gui.dock.support.util;
+
+import static junit.framework.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
+
+public class ApplicationResourceManagerTest {
+	/** a resource that stores one number */
+	private static class NumberResource implements ApplicationResource{
+		protected int value;
+
+		public NumberResource( int value ){
+			this.value = value;
+		}
+
+		public void write( DataOutputStream out ) throws IOException{
+			out.writeInt( value );
+		}
+
+		public void read( DataInputStream in ) throws IOException{
+			value = in.readInt();
+		}
+
+		public void writeXML( XElement element ){
+			element.setInt( value );
+		}
+
+		public void readXML( XElement element ){
+			value = element.getInt();
+		}
+	}
+
+	/** a resource that stores one number, and that offers a snapshot of the number */
+	private static class SnapshotNumberResource extends NumberResource implements SnapshotApplicationResource{
+		public SnapshotNumberResource( int value ){
+			super( value );
+		}
+
+		public Snapshot snapshot(){
+			final int copy = value;
+			return new Snapshot(){
+				public void write( DataOutputStream out ) throws IOException{
+					out.writeInt( copy );
+				}
+			};
+		}
+	}
+
+	private File file;
+	private File temp;
+
+	@Before
+	public void setup() throws IOException{
+		file = File.createTempFile( "resources", ".bin" );
+		file.delete();
+		temp = ApplicationResourceManager.getTemporaryFile( file );
+	}
+
+	@After
+	public void cleanup(){
+		file.delete();
+		temp.delete();
+	}
+
+	@Test
+	public void snapshotWritesSameBytes() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 1 ) );
+		manager.put( "b", new SnapshotNumberResource( 2 ) );
+
+		assertTrue( Arrays.equals( manager.writeArray(), manager.snapshot().writeArray() ) );
+	}
+
+	@Test
+	public void snapshotDoesNotChange() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		SnapshotNumberResource resource = new SnapshotNumberResource( 5 );
+		manager.put( "a", resource );
+
+		byte[] expected = manager.writeArray();
+		ApplicationResourceManager.Snapshot snapshot = manager.snapshot();
+		resource.value = 6;
+		assertTrue( Arrays.equals( expected, snapshot.writeArray() ) );
+	}
+
+	@Test
+	public void writeFileReplacesFile() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		NumberResource resource = new NumberResource( 1 );
+		manager.put( "a", resource );
+		manager.snapshot().writeFile( file );
+
+		resource.value = 2;
+		long length = manager.snapshot().writeFile( file );
+
+		assertTrue( file.exists() );
+		assertFalse( temp.exists() );
+		assertEquals( file.length(), length );
+
+		NumberResource read = new NumberResource( 0 );
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", read );
+		reader.readFile( file );
+		assertEquals( 2, read.value );
+	}
+
+	@Test
+	public void writeFileOverridesStaleTemporaryFile() throws IOException{
+		write( temp, new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9 } );
+
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 3 ) );
+		manager.snapshot().writeFile( file );
+
+		assertFalse( temp.exists() );
+		assertTrue( Arrays.equals( manager.writeArray(), read( file ) ) );
+	}
+
+	@Test
+	public void readCompleteTemporaryFile() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 4 ) );
+		write( temp, manager.writeArray() );
+
+		assertTrue( ApplicationResourceManager.isComplete( temp ) );
+
+		NumberResource read = new NumberResource( 0 );
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", read );
+		reader.readFile( file );
+		assertEquals( 4, read.value );
+	}
+
+	@Test
+	public void ignoreTruncatedTemporaryFile() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 4 ) );
+		manager.put( "b", new NumberResource( 5 ) );
+		byte[] complete = manager.writeArray();
+
+		for( int length = 0; length < complete.length; length++ ){
+			write( temp, Arrays.copyOf( complete, length ) );
+			assertFalse( "length " + length, ApplicationResourceManager.isComplete( temp ) );
+		}
+
+		byte[] longer = Arrays.copyOf( complete, complete.length + 1 );
+		write( temp, longer );
+		assertFalse( ApplicationResourceManager.isComplete( temp ) );
+
+		write( temp, Arrays.copyOf( complete, complete.length - 1 ) );
+		NumberResource read = new NumberResource( 0 );
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", read );
+		try{
+			reader.readFile( file );
+			fail( "the truncated file must not be read" );
+		}
+		catch( FileNotFoundException ex ){
+			// expected
+		}
+		assertEquals( 0, read.value );
+	}
+
+	@Test
+	public void streamedXMLEqualsXML() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 1 ) );
+		manager.put( "b", new SnapshotNumberResource( 2 ) );
+		
+		XElement root = new XElement( "root" );
+		manager.writeXML( root );
+		StringBuilder expected = new StringBuilder();
+		XIO.write( root, expected );
+		
+		StringBuilder actual = new StringBuilder();
+		XWriter writer = new XWriter( actual );
+		writer.writeDeclaration();
+		writer.openElement( new XElement( "root" ) );
+		manager.writeXML( writer );
+		writer.closeElement();
+		writer.flush();
+		
+		assertEquals( expected.toString(), actual.toString() );
+	}
+	
+	@Test
+	public void readStreamedXML() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new NumberResource( 7 ) );
+		manager.put( "b", new NumberResource( 8 ) );
+		XElement root = new XElement( "root" );
+		manager.writeXML( root );
+		StringBuilder text = new StringBuilder();
+		XIO.write( root, text );
+		
+		NumberResource read = new NumberResource( 0 );
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", read );
+		XReader in = new XReader( new StringReader( text.toString() ) );
+		in.openElement();
+		reader.readXML( in );
+		in.closeElement();
+		assertEquals( 7, read.value );
+		
+		// resources that are added later get the data that was buffered
+		NumberResource late = new NumberResource( 0 );
+		reader.put( "b", late );
+		assertEquals( 8, late.value );
+	}
+	
+	private void write( File file, byte[] content ) throws IOException{
+		FileOutputStream out = new FileOutputStream( file );
+		try{
+			out.write( content );
+		}
+		finally{
+			out.close();
+		}
+	}
+
+	private byte[] read( File file ) throws IOException{
+		byte[] content = new byte[ (int)file.length() ];
+		DataInputStream in = new DataInputStream( new FileInputStream( file ) );
+		try{
+			in.readFully( content );
+		}
+		finally{
+			in.close();
+		}
+		return content;
+	}
+}
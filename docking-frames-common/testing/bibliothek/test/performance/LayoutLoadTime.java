@@ -0,0 +1,119 @@
+package bibliothek.test.performance;
+
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CGrid;
+import bibliothek.gui.dock.common.CGridArea;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.event.DockHierarchyEvent;
+import bibliothek.gui.dock.event.DockHierarchyListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+
+/**
+ * Measures how long it takes to load a layout with many {@link DefaultSingleCDockable}s, and how many
+ * events are dispatched while loading. Two layouts are stored, one places the dockables in many small
+ * stacks, the other places them in a few big stacks. The two layouts are then loaded alternately. The
+ * dockables are shown on a {@link CGridArea}, which does not require a screen.
+ * The first rounds pay for loading classes and for the JIT, the later rounds show the cost of the events
+ * and listeners. No window is shown.
+ */
+public class LayoutLoadTime {
+	private static int hierarchyEvents = 0;
+	private static int registerEvents = 0;
+
+	public static void main( String[] args ) throws InterruptedException, InvocationTargetException{
+		final int count = args.length > 0 ? Integer.parseInt( args[0] ) : 1000;
+		final int rounds = args.length > 1 ? Integer.parseInt( args[1] ) : 10;
+
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				CControl control = new CControl();
+				DefaultSingleCDockable[] dockables = new DefaultSingleCDockable[ count ];
+
+				DockHierarchyListener hierarchyListener = new DockHierarchyListener(){
+					public void hierarchyChanged( DockHierarchyEvent event ){
+						hierarchyEvents++;
+					}
+					public void controllerChanged( DockHierarchyEvent event ){
+						hierarchyEvents++;
+					}
+				};
+				control.getController().getRegister().addDockRegisterListener( new DockRegisterAdapter(){
+					@Override
+					public void dockableRegistered( DockController controller, Dockable dockable ){
+						registerEvents++;
+					}
+					@Override
+					public void dockableUnregistered( DockController controller, Dockable dockable ){
+						registerEvents++;
+					}
+					@Override
+					public void dockStationRegistered( DockController controller, DockStation station ){
+						registerEvents++;
+					}
+					@Override
+					public void dockStationUnregistered( DockController controller, DockStation station ){
+						registerEvents++;
+					}
+				});
+
+				for( int i = 0; i < count; i++ ){
+					dockables[i] = new DefaultSingleCDockable( "dockable" + i, "Dockable " + i );
+					dockables[i].intern().addDockHierarchyListener( hierarchyListener );
+				}
+				control.addDockables( Arrays.asList( dockables ) );
+				CGridArea area = control.createGridArea( "area" );
+
+				long start = System.nanoTime();
+				deploy( area, dockables, 10 );
+				control.save( "small" );
+				deploy( area, dockables, count / 10 );
+				control.save( "big" );
+				System.out.println( count + " dockables, creating the layouts " + millis( System.nanoTime() - start ) + " ms" );
+
+				for( int i = 0; i < rounds; i++ ){
+					String name = i % 2 == 0 ? "small" : "big";
+					hierarchyEvents = 0;
+					registerEvents = 0;
+
+					start = System.nanoTime();
+					control.load( name );
+					long time = System.nanoTime() - start;
+
+					System.out.println( "round " + i + ": load '" + name + "' " + millis( time ) + " ms, hierarchy events " +
+							hierarchyEvents + ", register events " + registerEvents );
+				}
+
+				control.destroy();
+			}
+		});
+	}
+
+	/**
+	 * Puts all <code>dockables</code> onto <code>area</code>, grouped in stacks of <code>stackSize</code> elements.
+	 */
+	private static void deploy( CGridArea area, DefaultSingleCDockable[] dockables, int stackSize ){
+		int stacks = (dockables.length + stackSize - 1) / stackSize;
+		int columns = (int)Math.ceil( Math.sqrt( stacks ) );
+
+		CGrid grid = new CGrid( (CControl)null );
+		for( int i = 0; i < stacks; i++ ){
+			int from = i * stackSize;
+			int to = Math.min( dockables.length, from + stackSize );
+			DefaultSingleCDockable[] stack = new DefaultSingleCDockable[ to - from ];
+			System.arraycopy( dockables, from, stack, 0, stack.length );
+			grid.add( i % columns, i / columns, 1, 1, stack );
+		}
+		area.deploy( grid );
+	}
+
+	private static String millis( long nanos ){
+		return String.valueOf( nanos / 100000 / 10.0 );
+	}
+}
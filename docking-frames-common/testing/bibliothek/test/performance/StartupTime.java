@@ -0,0 +1,56 @@
+package bibliothek.test.performance;
+
+import java.awt.EventQueue;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+
+import bibliothek.gui.dock.common.CContentArea;
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.util.icon.IconCache;
+
+/**
+ * Measures how long it takes to create an empty {@link CControl} and paint its {@link CContentArea} for the
+ * first time. Several controllers are created one after the other, the first one pays for loading classes and
+ * resources, the others show the cost of each additional controller of an application. The content area
+ * is painted into an image, no window is shown.
+ */
+public class StartupTime {
+	public static void main( String[] args ) throws InterruptedException, InvocationTargetException{
+		final int count = args.length > 0 ? Integer.parseInt( args[0] ) : 10;
+		
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				BufferedImage image = new BufferedImage( 800, 600, BufferedImage.TYPE_INT_ARGB );
+				CControl[] controls = new CControl[ count ];
+				
+				for( int i = 0; i < count; i++ ){
+					long start = System.nanoTime();
+					controls[i] = new CControl();
+					long created = System.nanoTime();
+					
+					CContentArea area = controls[i].getContentArea();
+					area.setBounds( 0, 0, image.getWidth(), image.getHeight() );
+					area.addNotify();
+					area.validate();
+					Graphics g = image.createGraphics();
+					area.paint( g );
+					g.dispose();
+					long painted = System.nanoTime();
+					
+					System.out.println( "control " + i + ": created " + millis( created - start ) + " ms, first paint " + 
+							millis( painted - start ) + " ms, cached icons " + IconCache.size() );
+				}
+				
+				for( CControl control : controls ){
+					control.getContentArea().removeNotify();
+					control.destroy();
+				}
+			}
+		});
+	}
+	
+	private static String millis( long nanos ){
+		return String.valueOf( nanos / 100000 / 10.0 );
+	}
+}
@@ -44,6 +44,7 @@ import bibliothek.gui.dock.themes.color.TitleColor;
 import bibliothek.gui.dock.title.AbstractDockTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
 import bibliothek.gui.dock.util.Transparency;
+import bibliothek.gui.dock.util.render.BackgroundImageCache;
 import bibliothek.util.Path;
 
 /**
@@ -221,7 +222,7 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
      */
     protected void pulse(){
         setForeground( animation.getColor( ANIMATION_KEY_TEXT ));
-        repaint();
+        animation.getClock().repaint( this );
     }
 
     @Override
@@ -253,12 +254,36 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
      * @param component the component that is painted
      */
     protected void doPaintBackground( Graphics g, JComponent component ){
-    	Graphics2D g2 = (Graphics2D)g;
-    	
-        Insets insets = getInsets();
+        final Insets insets = getInsets();
+        final Color top = animation.getColor( ANIMATION_KEY_BACKGROUND_TOP );
+        final Color bottom = animation.getColor( ANIMATION_KEY_BACKGROUND_BOTTOM );
+
+        if( top != null && bottom != null ){
+            BackgroundImageCache cache = BackgroundImageCache.get( getDockable().getController() );
+            if( cache == null || animation.isRunning() ){
+                paintRoundRectBackground( (Graphics2D)g, component.getWidth(), component.getHeight(), insets, top, bottom );
+            }
+            else{
+                cache.paint( g, component.getWidth(), component.getHeight(), new BackgroundImageCache.Painter(){
+                    public void paint( Graphics2D g, int width, int height ){
+                        paintRoundRectBackground( g, width, height, insets, top, bottom );
+                    }
+                }, AbstractBubbleDockTitle.class, getOrientation(), arc, insets == null ? null : insets.clone(), top, bottom );
+            }
+        }
+    }
+    
+    /**
+     * Paints a gradient round rectangle as background, without using a {@link BackgroundImageCache}.
+     * @param g2 the graphics context to use
+     * @param w the width of the component
+     * @param h the height of the component
+     * @param insets the insets of the component, can be <code>null</code>
+     * @param top the color at the top of the gradient
+     * @param bottom the color at the bottom of the gradient
+     */
+    private void paintRoundRectBackground( Graphics2D g2, int w, int h, Insets insets, Color top, Color bottom ){
         int x = 0, y = 0;
-        int w = component.getWidth();
-        int h = component.getHeight();
         if( insets != null ){
             x = insets.left;
             y = insets.top;
@@ -266,19 +291,13 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
             h -= insets.top + insets.bottom;
         }
 
-        // set color
-        Color top = animation.getColor( ANIMATION_KEY_BACKGROUND_TOP );
-        Color bottom = animation.getColor( ANIMATION_KEY_BACKGROUND_BOTTOM );
+        if( getOrientation().isHorizontal() )
+            g2.setPaint( new GradientPaint( 0, 0, top, 0, h, bottom ));
+        else
+            g2.setPaint( new GradientPaint( 0, 0, top, w, 0, bottom ));
 
-        if( top != null && bottom != null ){
-            if( getOrientation().isHorizontal() )
-                g2.setPaint( new GradientPaint( 0, 0, top, 0, h, bottom ));
-            else
-                g2.setPaint( new GradientPaint( 0, 0, top, w, 0, bottom ));
-
-            // draw
-            drawRoundRect( g2, x, y, w, h );
-        }    	
+        // draw
+        drawRoundRect( g2, x, y, w, h );
     }
     
     @Override
@@ -27,14 +27,13 @@
 package bibliothek.extension.gui.dock.theme.bubble;
 
 import java.awt.Color;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.AnimationTask;
 
 /**
  * A <code>BubbleColorAnimation</code> has the ability to convert one or many color-pairs smoothly from source
@@ -42,7 +41,8 @@ import javax.swing.Timer;
  * Clients have to call {@link #putColor(String, Color)} to start an animation. They
  * can call {@link #getColor(String)} any time to get the current intermediate color. Adding a {@link #addTask(Runnable) task}
  * will allow a client to be informed whenever the colors change.<br>
- * The animation itself takes {@link #setDuration(int) duration} milliseconds.  
+ * The animation itself takes {@link #setDuration(int) duration} milliseconds, it is driven
+ * by the {@link AnimationClock#getDefault() default} {@link AnimationClock}.
  * @author Benjamin Sigg
  */
 public class BubbleColorAnimation {
@@ -51,8 +51,10 @@ public class BubbleColorAnimation {
     
     /** The color pairs that can be animated */
     private Map<String, Entry> colors = new HashMap<String, Entry>();
-    /** The timer that triggers steps of the animation */
-    private Timer timer;
+    /** The clock that triggers steps of the animation */
+    private AnimationClock clock;
+    /** The task that is executed by {@link #clock} */
+    private AnimationTask task;
     /** The current time in milliseconds*/
     private long time = 0;
     
@@ -63,14 +65,24 @@ public class BubbleColorAnimation {
      * Creates a new animation.
      */
     public BubbleColorAnimation(){
-    	timer = new Timer( 25, new ActionListener(){
-            public void actionPerformed( ActionEvent e ) {
-                pulse();
-            }
-        });
-    	timer.setCoalesce( true );
+    	clock = AnimationClock.getDefault();
+    	task = new AnimationTask(){
+    		public boolean step( AnimationClock clock, long time ){
+    			pulse();
+    			return clock.isRunning( this );
+    		}
+    	};
     }
     
+    /**
+     * Gets the clock which drives this animation. Clients should use the clock to repaint
+     * their {@link java.awt.Component}s when the animation makes a step.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getClock(){
+		return clock;
+	}
+    
     /**
      * Sets a color-pair. The color <code>destination</code> is shown
      * after maximal {@link #getDuration() duration} milliseconds. This method
@@ -162,14 +174,14 @@ public class BubbleColorAnimation {
      *
      */
     public void stop(){
-        timer.stop();
+        clock.stop( task );
     }
     
     /**
      * Immediately puts all colors to their final state and stops the animation.
      */
     public void kick(){
-        if( timer.isRunning() ){
+        if( clock.isRunning( task ) ){
             stop();
             for( Entry entry : colors.values() )
                 entry.kick();
@@ -179,13 +191,22 @@ public class BubbleColorAnimation {
         }
     }
     
+    /**
+     * Tells whether the animation is currently running, meaning that the colors of
+     * this animation are changing.
+     * @return whether the animation is running
+     */
+    public boolean isRunning(){
+    	return clock.isRunning( task );
+    }
+    
     /**
      * Starts the animation if it is not yet running.
      */
     protected void start(){
-        if( !timer.isRunning() ){
-            time = System.currentTimeMillis();
-            timer.start();
+        if( !clock.isRunning( task ) ){
+            time = clock.getTime();
+            clock.start( task );
         }
     }
     
@@ -194,7 +215,7 @@ public class BubbleColorAnimation {
      */
     protected void pulse(){
         boolean run = false;
-        long current = System.currentTimeMillis();
+        long current = clock.getTime();
         int delta = (int)( current - time );
         time = current;
         
@@ -202,7 +223,7 @@ public class BubbleColorAnimation {
             run = entry.step( delta ) | run;
         
         if( !run )
-            timer.stop();
+            clock.stop( task );
         
         for( Runnable task : tasks )
             task.run();
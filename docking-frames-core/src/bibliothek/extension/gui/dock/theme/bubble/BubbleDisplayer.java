@@ -214,7 +214,7 @@ public class BubbleDisplayer extends BasicDockableDisplayer {
      * be repainted.
      */
     protected void pulse(){
-        dockable.repaint();
+        animation.getClock().repaint( dockable );
     }
     
     @Override
@@ -75,6 +75,7 @@ import bibliothek.gui.dock.util.Transparency;
 import bibliothek.gui.dock.util.color.ColorCodes;
 import bibliothek.gui.dock.util.font.DockFont;
 import bibliothek.gui.dock.util.font.FontModifier;
+import bibliothek.gui.dock.util.render.BackgroundImageCache;
 import bibliothek.gui.dock.util.render.DockRenderingHints;
 import bibliothek.gui.dock.util.swing.OrientedLabel;
 
@@ -442,7 +443,7 @@ public class BubbleTab extends ConfiguredBackgroundPanel implements CombinedTab,
 
 	public void run() {
 		label.setForeground( animation.getColor( "text" ));
-		repaint();
+		animation.getClock().repaint( this );
 	}
 
 	public Dimension getPreferredSize( Tab[] tabs ){
@@ -464,58 +465,80 @@ public class BubbleTab extends ConfiguredBackgroundPanel implements CombinedTab,
 	@Override
 	public void paintBackground( Graphics g ){
 		if( getTransparency() != Transparency.TRANSPARENT ){
-			Graphics2D g2 = (Graphics2D)g.create();
-			g2.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+			final Color bottom = animation.getColor( "bottom" );
+			final Color top = animation.getColor( "top" );
+			final Color border = animation.getColor( "border" );
 			
-			Color bottom = animation.getColor( "bottom" );
-			Color top = animation.getColor( "top" );
-			Color border = animation.getColor( "border" );
-	
-			int w = getWidth();
-			int h = getHeight();
-	
-			// Rectangle clip = g.getClipBounds();
-		
-			// draw border
-			g2.setColor( border );
-			switch( orientation ){
-				case TOP_OF_DOCKABLE:
-					g2.fillRoundRect( 0, 0, w, h+arc, 2*arc, 2*arc );
-					break;
-				case BOTTOM_OF_DOCKABLE:
-					g2.fillRoundRect( 0, -arc, w, h+arc, 2*arc, 2*arc );
-					break;
-				case LEFT_OF_DOCKABLE:
-					g2.fillRoundRect( 0, 0, w+arc, h, 2*arc, 2*arc );
-					break;
-				case RIGHT_OF_DOCKABLE:
-					g2.fillRoundRect( -arc, 0, w+arc, h, 2*arc, 2*arc );
-					break;
+			BackgroundImageCache cache = BackgroundImageCache.get( controller );
+			if( cache == null || animation.isRunning() ){
+				// the colors change with every step of the animation, caching them is useless
+				paintBackground( g, top, bottom, border );
 			}
-		
-			// draw background
-			if( orientation.isHorizontal() )
-				g2.setPaint( new GradientPaint( 0, 0, top, 0, h-borderSize, bottom ) );
-			else
-				g2.setPaint( new GradientPaint( 0, 0, top, w-borderSize, 0, bottom ) );
-			switch( orientation ){
-				case TOP_OF_DOCKABLE:
-					g2.fillRoundRect( borderSize, borderSize, w-2*borderSize, h+arc-borderSize, 2*arc, 2*arc );
-					break;
-				case BOTTOM_OF_DOCKABLE:
-					g2.fillRoundRect( borderSize, -arc, w-2*borderSize, h+arc-borderSize, 2*arc, 2*arc );
-					break;
-				case LEFT_OF_DOCKABLE:
-					g2.fillRoundRect( borderSize, borderSize, w+arc-borderSize, h-2*borderSize, 2*arc, 2*arc );
-					break;
-				case RIGHT_OF_DOCKABLE:
-					g2.fillRoundRect( -arc, borderSize, w+arc-borderSize, h-2*borderSize, 2*arc, 2*arc );
-					break;
+			else{
+				cache.paint( g, getWidth(), getHeight(), new BackgroundImageCache.Painter(){
+					public void paint( Graphics2D g, int width, int height ){
+						paintBackground( g, top, bottom, border );
+					}
+				}, BubbleTab.class, orientation, arc, borderSize, top, bottom, border );
 			}
-			
-			g2.dispose();
 		}
 	}
+	
+	/**
+	 * Paints the background of this tab without using a {@link BackgroundImageCache}.
+	 * @param g the graphics context to use
+	 * @param top the color at the top of the gradient
+	 * @param bottom the color at the bottom of the gradient
+	 * @param border the color of the border
+	 */
+	private void paintBackground( Graphics g, Color top, Color bottom, Color border ){
+		Graphics2D g2 = (Graphics2D)g.create();
+		g2.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+
+		int w = getWidth();
+		int h = getHeight();
+
+		// Rectangle clip = g.getClipBounds();
+	
+		// draw border
+		g2.setColor( border );
+		switch( orientation ){
+			case TOP_OF_DOCKABLE:
+				g2.fillRoundRect( 0, 0, w, h+arc, 2*arc, 2*arc );
+				break;
+			case BOTTOM_OF_DOCKABLE:
+				g2.fillRoundRect( 0, -arc, w, h+arc, 2*arc, 2*arc );
+				break;
+			case LEFT_OF_DOCKABLE:
+				g2.fillRoundRect( 0, 0, w+arc, h, 2*arc, 2*arc );
+				break;
+			case RIGHT_OF_DOCKABLE:
+				g2.fillRoundRect( -arc, 0, w+arc, h, 2*arc, 2*arc );
+				break;
+		}
+	
+		// draw background
+		if( orientation.isHorizontal() )
+			g2.setPaint( new GradientPaint( 0, 0, top, 0, h-borderSize, bottom ) );
+		else
+			g2.setPaint( new GradientPaint( 0, 0, top, w-borderSize, 0, bottom ) );
+		switch( orientation ){
+			case TOP_OF_DOCKABLE:
+				g2.fillRoundRect( borderSize, borderSize, w-2*borderSize, h+arc-borderSize, 2*arc, 2*arc );
+				break;
+			case BOTTOM_OF_DOCKABLE:
+				g2.fillRoundRect( borderSize, -arc, w-2*borderSize, h+arc-borderSize, 2*arc, 2*arc );
+				break;
+			case LEFT_OF_DOCKABLE:
+				g2.fillRoundRect( borderSize, borderSize, w+arc-borderSize, h-2*borderSize, 2*arc, 2*arc );
+				break;
+			case RIGHT_OF_DOCKABLE:
+				g2.fillRoundRect( -arc, borderSize, w+arc-borderSize, h-2*borderSize, 2*arc, 2*arc );
+				break;
+		}
+		
+		g2.dispose();
+	}
 
 	@Override
 	public void paintForeground( Graphics g ){
@@ -145,7 +145,7 @@ public class RoundButton extends JComponent implements RoundButtonConnectable{
 
 		animation.addTask(new Runnable() {
 			public void run(){
-				repaint();	
+				animation.getClock().repaint( RoundButton.this );
 			}
 		});
 		
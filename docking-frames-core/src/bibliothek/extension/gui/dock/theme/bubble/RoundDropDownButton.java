@@ -172,7 +172,7 @@ public class RoundDropDownButton extends JComponent implements RoundButtonConnec
         
         animation.addTask( new Runnable(){
             public void run() {
-                repaint();
+                animation.getClock().repaint( RoundDropDownButton.this );
             }
         });
         
@@ -48,6 +48,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.util.Transparency;
 import bibliothek.gui.dock.util.color.ColorCodes;
+import bibliothek.gui.dock.util.render.BackgroundImageCache;
 import bibliothek.util.Colors;
 
 
@@ -300,14 +301,8 @@ public class ArchGradientPainter extends BaseTabComponent {
 	
 	@Override
 	public void paintBackground( Graphics g ){
-		int x = 0;
-		int y = 0;
-		int w = getWidth();
-		int h = getHeight();
-		Graphics2D g2d = (Graphics2D) g;
-
-		Color color1;
-		Color color2;
+		final Color color1;
+		final Color color2;
 
 		boolean focusTemporarilyLost = isFocusTemporarilyLost();
 
@@ -332,6 +327,32 @@ public class ArchGradientPainter extends BaseTabComponent {
 			color2 = colorStackTabBottom.value();
 		}
 
+		BackgroundImageCache cache = BackgroundImageCache.get( getController() );
+		if( cache == null ){
+			paintBackground( (Graphics2D)g, color1, color2 );
+		}
+		else{
+			cache.paint( g, getWidth(), getHeight(), new BackgroundImageCache.Painter(){
+				public void paint( Graphics2D g, int width, int height ){
+					paintBackground( g, color1, color2 );
+				}
+			}, ArchGradientPainter.class, getOrientation(), isSelected(), getTransparency(), color1, color2,
+			colorStackBorder.value(), getBackground(), isShadowUnderBorder(), getLabelMin() );
+		}
+	}
+	
+	/**
+	 * Paints the background of this tab without using a {@link BackgroundImageCache}.
+	 * @param g2d the graphics context to use
+	 * @param color1 the color at the top
+	 * @param color2 the color at the bottom
+	 */
+	private void paintBackground( Graphics2D g2d, Color color1, Color color2 ){
+		int x = 0;
+		int y = 0;
+		int w = getWidth();
+		int h = getHeight();
+
 		// draw tab if selected
 		if (isSelected()) {
 			switch( getOrientation() ){
@@ -435,8 +456,6 @@ public class ArchGradientPainter extends BaseTabComponent {
 		Graphics2D g2d = (Graphics2D) g;
 		Color lineColor = colorStackBorder.value();
 		
-		boolean firstTab = getTabIndex() == 0;
-		
 		TabPlacement orientation = getOrientation();
 		
 		Polygon left, right;
@@ -451,12 +470,10 @@ public class ArchGradientPainter extends BaseTabComponent {
 		g2d.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF );
 		
 		// draw shadow
-		if ( firstTab ){
-			// draw under border if near border
-			// ... this is not a very good solution ...
-			if( orientation.isHorizontal() && getX() <= 1 )
+		if( isShadowUnderBorder() ){
+			if( orientation.isHorizontal() )
 				left.translate( -1, 0 );
-			else if( orientation.isVertical() && getY() <= 1 )
+			else
 				left.translate( 0, -1 );
 		}
 		
@@ -557,6 +574,44 @@ public class ArchGradientPainter extends BaseTabComponent {
 		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_DEFAULT);
 	}
 	
+	/**
+	 * Tells whether the shadow of a selected tab is painted under the border of the
+	 * {@link EclipseTabPane}, which is the case if this is the first tab and the tab is
+	 * near the border.<br>
+	 * ... this is not a very good solution ...
+	 * @return whether the shadow is moved by one pixel
+	 */
+	private boolean isShadowUnderBorder(){
+		if( getTabIndex() != 0 ){
+			return false;
+		}
+		if( getOrientation().isHorizontal() ){
+			return getX() <= 1;
+		}
+		else{
+			return getY() <= 1;
+		}
+	}
+	
+	/**
+	 * Gets the minimal space that has to be left free for the icon of this tab
+	 * when painting the right side of the tab.
+	 * @return the space for the icon
+	 */
+	private int getLabelMin(){
+		int labelMin = 6;
+		
+		if( getIcon() != null ){
+			if( getOrientation().isHorizontal() ){
+				labelMin += getIcon().getIconWidth() + getLabel().getIconOffset();
+			}
+			else{
+				labelMin += getIcon().getIconHeight() + getLabel().getIconOffset();
+			}
+		}
+		return labelMin;
+	}
+	
 	/**
 	 * Mirrors <code>coordinates</code>, an element that has the value
 	 * <code>min + x</code> afterwards has the value <code>max - x</code>.
@@ -651,16 +706,7 @@ public class ArchGradientPainter extends BaseTabComponent {
 	 * @return the new polygon
 	 */
 	private Polygon rightSide( int x, int y, int w, int h ){
-		int labelMin = 6;
-		
-		if( getIcon() != null ){
-			if( getOrientation().isHorizontal() ){
-				labelMin += getIcon().getIconWidth() + getLabel().getIconOffset();
-			}
-			else{
-				labelMin += getIcon().getIconHeight() + getLabel().getIconOffset();
-			}
-		}
+		int labelMin = getLabelMin();
 		
 		if( getOrientation().isVertical() ){
 			int t = x;
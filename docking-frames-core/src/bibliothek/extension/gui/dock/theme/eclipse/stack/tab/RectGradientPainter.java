@@ -45,6 +45,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.util.Transparency;
 import bibliothek.gui.dock.util.color.ColorCodes;
+import bibliothek.gui.dock.util.render.BackgroundImageCache;
 
 /**
  * This {@link TabComponent} draws a compact tab.
@@ -238,9 +239,6 @@ public class RectGradientPainter extends BaseTabComponent {
 	
 	@Override
 	public void paintBackground( Graphics g ){
-		int height = getHeight(), width = getWidth();
-		Graphics2D g2d = (Graphics2D) g;
-		Color lineColor = colorStackBorder.value();
 		Color color1, color2;
 		boolean focusTemporarilyLost = isFocusTemporarilyLost();
 		boolean isSelected = isSelected();
@@ -268,6 +266,44 @@ public class RectGradientPainter extends BaseTabComponent {
             color2 = colorStackTabBottom.value();
         }
         
+        final Color top = color1;
+        final Color bottom = color2;
+        
+        BackgroundImageCache cache = BackgroundImageCache.get( getController() );
+        if( cache == null ){
+        	paintBackground( (Graphics2D)g, top, bottom );
+        }
+        else{
+        	int tabIndex = getTabIndex();
+        	boolean leftBorder;
+        	if( orientation.isHorizontal() ){
+        		leftBorder = tabIndex != 0 || getX() > 1;
+        	}
+        	else{
+        		leftBorder = tabIndex != 0 || getY() > 1;
+        	}
+        	
+        	cache.paint( g, getWidth(), getHeight(), new BackgroundImageCache.Painter(){
+        		public void paint( Graphics2D g, int width, int height ){
+        			paintBackground( g, top, bottom );
+        		}
+        	}, RectGradientPainter.class, orientation, isSelected, getTransparency(), top, bottom,
+        	colorStackBorder.value(), leftBorder );
+        }
+	}
+	
+	/**
+	 * Paints the background of this tab without using a {@link BackgroundImageCache}.
+	 * @param g2d the graphics context to use
+	 * @param color1 the color at the top
+	 * @param color2 the color at the bottom
+	 */
+	private void paintBackground( Graphics2D g2d, Color color1, Color color2 ){
+		int height = getHeight(), width = getWidth();
+		Color lineColor = colorStackBorder.value();
+		boolean isSelected = isSelected();
+		TabPlacement orientation = getOrientation();
+		
         if( orientation == TabPlacement.BOTTOM_OF_DOCKABLE || orientation == TabPlacement.RIGHT_OF_DOCKABLE ){
         	Color temp = color1;
         	color1 = color2;
@@ -300,16 +336,16 @@ public class RectGradientPainter extends BaseTabComponent {
 			if( getTransparency() != Transparency.TRANSPARENT ){
 				switch( orientation ){
 					case TOP_OF_DOCKABLE:
-						g.fillRect( 0, 0, getWidth(), getHeight()-1 );
+						g2d.fillRect( 0, 0, getWidth(), getHeight()-1 );
 						break;
 					case BOTTOM_OF_DOCKABLE:
-						g.fillRect( 0, 1, getWidth(), getHeight()-1 );
+						g2d.fillRect( 0, 1, getWidth(), getHeight()-1 );
 						break;
 					case LEFT_OF_DOCKABLE:
-						g.fillRect( 0, 0, getWidth()-1, getHeight() );
+						g2d.fillRect( 0, 0, getWidth()-1, getHeight() );
 						break;
 					case RIGHT_OF_DOCKABLE:
-						g.fillRect( 1, 0, getWidth()-1, getHeight() );
+						g2d.fillRect( 1, 0, getWidth()-1, getHeight() );
 						break;
 				}
 			}
@@ -42,6 +42,7 @@ import bibliothek.gui.dock.themes.font.TabFont;
 import bibliothek.gui.dock.util.BackgroundAlgorithm;
 import bibliothek.gui.dock.util.ConfiguredBackgroundPanel;
 import bibliothek.gui.dock.util.Transparency;
+import bibliothek.gui.dock.util.render.BackgroundImageCache;
 import bibliothek.gui.dock.util.color.ColorCodes;
 import bibliothek.gui.dock.util.font.DockFont;
 import bibliothek.gui.dock.util.font.FontModifier;
@@ -681,21 +682,46 @@ public class FlatTab extends ConfiguredBackgroundPanel implements CombinedTab, D
 	            }
 	        }
 	
-	        if( top.equals( bottom ))
+	        if( top.equals( bottom )){
 	            g.setColor( top );
+	            g.fillRect( 0, 0, w, h );
+	        }
 	        else{
-	        	if( orientation.isHorizontal() )
-	        		g2.setPaint( new GradientPaint( 0, 0, top, 0, h, bottom ) );
-	        	else
-	        		g2.setPaint( new GradientPaint( 0, 0, top, w, 0, bottom ) );
+	        	BackgroundImageCache cache = BackgroundImageCache.get( controller );
+	        	if( cache == null ){
+	        		paintGradient( g2, w, h, top, bottom );
+	        	}
+	        	else{
+	        		final Color gradientTop = top;
+	        		final Color gradientBottom = bottom;
+	        		cache.paint( g, w, h, new BackgroundImageCache.Painter(){
+	        			public void paint( Graphics2D g, int width, int height ){
+	        				paintGradient( g, width, height, gradientTop, gradientBottom );
+	        			}
+	        		}, FlatTab.class, orientation, top, bottom );
+	        	}
 	        }
 	        
-	        g.fillRect( 0, 0, w, h );
-	        
 	        g2.setPaint( oldPaint );
     	}
     }
     
+    /**
+     * Fills the area <code>0, 0, w, h</code> with a gradient from <code>top</code> to <code>bottom</code>.
+     * @param g2 the graphics context to use
+     * @param w the width of the area
+     * @param h the height of the area
+     * @param top the first color of the gradient
+     * @param bottom the second color of the gradient
+     */
+    private void paintGradient( Graphics2D g2, int w, int h, Color top, Color bottom ){
+    	if( orientation.isHorizontal() )
+    		g2.setPaint( new GradientPaint( 0, 0, top, 0, h, bottom ) );
+    	else
+    		g2.setPaint( new GradientPaint( 0, 0, top, w, 0, bottom ) );
+    	g2.fillRect( 0, 0, w, h );
+    }
+    
     /**
      * A color of this tab.
      * @author Benjamin Sigg
@@ -29,14 +29,16 @@ package bibliothek.extension.gui.dock.theme.smooth;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.AnimationTask;
 
 /**
  * A class which counts milliseconds from 0 to {@link #setDuration(int) duration}
  * or in the other direction. This class contains an array of states: one state is
  * counted upwards (the {@link #destination()}), all the other states are counted
  * downwards. Clients can use this class to smoothly switch between different states.<br>
- * This class works on the EDT, no new threads are created.
+ * This class works on the EDT, no new threads are created. The changer is driven
+ * by the {@link AnimationClock#getDefault() default} {@link AnimationClock}.
  * @author Benjamin Sigg
  *
  */
@@ -50,8 +52,15 @@ public abstract class SmoothChanger implements ActionListener{
     /** the duration of the change */
     private int duration;
     
-    /** a timer which pulses this changer */
-    private Timer timer;
+    /** the clock which pulses this changer */
+    private AnimationClock clock;
+    
+    /** the task which is executed by {@link #clock} */
+    private AnimationTask task = new AnimationTask(){
+    	public boolean step( AnimationClock clock, long time ){
+    		return pulse( time );
+    	}
+    };
     
     /**
      * Constructor, sets {@link #setDuration(int) duration} to 250 milliseconds.
@@ -69,7 +78,7 @@ public abstract class SmoothChanger implements ActionListener{
      */
     public SmoothChanger( int duration, int states ){
         this.duration = duration;
-        timer = new Timer( 15, this );
+        clock = AnimationClock.getDefault();
         current = new int[ states ];
     }
     
@@ -111,8 +120,17 @@ public abstract class SmoothChanger implements ActionListener{
      * @return <code>true</code> if active, <code>false</code> if not
      */
     public boolean isRunning(){
-    	return timer.isRunning();
-    }
+    	return clock.isRunning( task );
+    }
+    
+    /**
+     * Gets the clock which drives this changer. Subclasses should use the clock to repaint
+     * their {@link java.awt.Component}s in {@link #repaint(int[])}.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getClock(){
+		return clock;
+	}
     
     /**
      * Gets the duration of a transition
@@ -127,12 +145,24 @@ public abstract class SmoothChanger implements ActionListener{
      * Starts a transition
      */
     public void trigger(){
-        timer.start();
-        last = System.currentTimeMillis();
+    	if( !clock.isRunning( task )){
+    		last = clock.getTime();
+    		clock.start( task );
+    	}
     }
     
     public void actionPerformed( ActionEvent e ){
-        long time = System.currentTimeMillis();
+    	if( !pulse( clock.getTime() )){
+    		clock.stop( task );
+    	}
+    }
+    
+    /**
+     * Makes one step of the transition.
+     * @param time the current time in milliseconds
+     * @return whether the transition is not yet finished
+     */
+    private boolean pulse( long time ){
         int delta = (int)( time - last );
         last = time;
         
@@ -150,10 +180,7 @@ public abstract class SmoothChanger implements ActionListener{
         	}
         }
         
-        if( !incomplete ){
-        	timer.stop();
-        }
-                
-        repaint( current );
+        repaint( current );
+        return incomplete;
     }
 }
\ No newline at end of file
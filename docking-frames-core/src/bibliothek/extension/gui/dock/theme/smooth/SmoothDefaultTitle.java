@@ -69,7 +69,7 @@ public class SmoothDefaultTitle extends BasicDockTitle{
         protected void repaint( int[] current ) {
             SmoothDefaultTitle.this.current = current;
             updateForegroundColor();
-            SmoothDefaultTitle.this.repaint();
+            getClock().repaint( SmoothDefaultTitle.this );
         }
     };
     
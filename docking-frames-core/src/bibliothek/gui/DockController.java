@@ -94,10 +94,12 @@ import bibliothek.gui.dock.event.DockableFocusListener;
 import bibliothek.gui.dock.event.DockableListener;
 import bibliothek.gui.dock.event.DockableSelectionEvent;
 import bibliothek.gui.dock.event.DockableSelectionListener;
+import bibliothek.gui.dock.event.ListenerList;
 import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.title.ActivityDockTitleEvent;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleManager;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.gui.dock.util.CoreWarningDialog;
 import bibliothek.gui.dock.util.DirectWindowProvider;
 import bibliothek.gui.dock.util.DockProperties;
@@ -172,9 +174,9 @@ public class DockController {
 	private DockableSelector dockableSelector;
     
     /** Listeners observing the selected {@link Dockable}s */
-    private List<DockableSelectionListener> dockableSelectionListeners = new ArrayList<DockableSelectionListener>();
+    private ListenerList<DockableSelectionListener> dockableSelectionListeners = new ListenerList<DockableSelectionListener>( DockableSelectionListener.class );
     /** Listeners observing the bound-state of {@link DockTitle}s */
-    private List<DockTitleBindingListener> dockTitleBindingListeners = new ArrayList<DockTitleBindingListener>();
+    private ListenerList<DockTitleBindingListener> dockTitleBindingListeners = new ListenerList<DockTitleBindingListener>( DockTitleBindingListener.class );
     
     /** a special controller listening to AWT-events and changing the focused dockable */
     private MouseFocusObserver focusObserver;
@@ -239,8 +241,8 @@ public class DockController {
     private Map<Component, DockElementRepresentative> componentToDockElements = 
     	new HashMap<Component, DockElementRepresentative>();
     /** a list of listeners listening for changes in {@link #componentToDockElements} */
-    private List<DockControllerRepresentativeListener> componentToDockElementsListeners =
-        new ArrayList<DockControllerRepresentativeListener>();
+    private ListenerList<DockControllerRepresentativeListener> componentToDockElementsListeners =
+        new ListenerList<DockControllerRepresentativeListener>( DockControllerRepresentativeListener.class );
     
     /** the root window of the application */
     private WindowProviderWrapper rootWindowProvider;
@@ -454,6 +456,7 @@ public class DockController {
 	    theme.kill();
 	    extensions.kill();
 	    mouseDispatcher.kill();
+	    relocator.kill();
     }
     
     /**
@@ -509,6 +512,16 @@ public class DockController {
 		return mouseDispatcher;
 	}
     
+    /**
+     * Gets the {@link AnimationClock} which drives all the animations of the framework. The clock
+     * is shared by all {@link DockController}s, since all animations run on the
+     * <code>EventDispatchThread</code> anyway.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getAnimationClock(){
+    	return AnimationClock.getDefault();
+    }
+    
     /**
      * Gets the set of {@link Dockable Dockables} and {@link DockStation DockStations}
      * known to this controller.
@@ -850,8 +863,7 @@ public class DockController {
      * @see #searchElement(Component)
      */
     public void addRepresentative( DockElementRepresentative representative ) {
-        DockControllerRepresentativeListener[] listeners = componentToDockElementsListeners
-                .toArray( new DockControllerRepresentativeListener[componentToDockElementsListeners.size()] );
+        DockControllerRepresentativeListener[] listeners = componentToDockElementsListeners.get();
         
         DockElementRepresentative old = componentToDockElements.put( representative.getComponent(), representative );
     	
@@ -873,8 +885,7 @@ public class DockController {
      */
     public void removeRepresentative( DockElementRepresentative representative ){
         if( componentToDockElements.remove( representative.getComponent() ) != null ){
-            DockControllerRepresentativeListener[] listeners = componentToDockElementsListeners
-                .toArray( new DockControllerRepresentativeListener[componentToDockElementsListeners.size()] );
+            DockControllerRepresentativeListener[] listeners = componentToDockElementsListeners.get();
         
             for( DockControllerRepresentativeListener listener : listeners ){
                 listener.representativeRemoved( this, representative );
@@ -1349,8 +1360,7 @@ public class DockController {
      * @return the modifiable array
      */
     protected DockTitleBindingListener[] dockTitleBindingListeners(){
-        return dockTitleBindingListeners.toArray(
-                new DockTitleBindingListener[ dockTitleBindingListeners.size() ] );
+        return dockTitleBindingListeners.get().clone();
     }
     
     /**
@@ -1395,7 +1405,7 @@ public class DockController {
      * @return the modifiable array
      */
     protected DockableSelectionListener[] dockableSelectionListeners(){
-        return dockableSelectionListeners.toArray( new DockableSelectionListener[ dockableSelectionListeners.size() ] );
+        return dockableSelectionListeners.get().clone();
     }
     
     /**
@@ -1405,7 +1415,7 @@ public class DockController {
      * @param dockable the owner of <code>title</code>
      */
     protected void fireTitleBound( DockTitle title, Dockable dockable ){
-        for( DockTitleBindingListener listener : dockTitleBindingListeners() )
+        for( DockTitleBindingListener listener : dockTitleBindingListeners.get() )
             listener.titleBound( this, title, dockable );
     }
     
@@ -1416,7 +1426,7 @@ public class DockController {
      * @param dockable the former owner of <code>title</code>
      */
     protected void fireTitleUnbound( DockTitle title, Dockable dockable ){
-        for( DockTitleBindingListener listener : dockTitleBindingListeners() )
+        for( DockTitleBindingListener listener : dockTitleBindingListeners.get() )
             listener.titleUnbound( this, title, dockable );
     }
     
@@ -1430,7 +1440,7 @@ public class DockController {
     protected void fireDockableSelected( DockStation station, Dockable oldSelected, Dockable newSelected){
         DockableSelectionEvent event = new DockableSelectionEvent( this, station, oldSelected, newSelected );
         
-        for( DockableSelectionListener listener : dockableSelectionListeners() )
+        for( DockableSelectionListener listener : dockableSelectionListeners.get() )
             listener.dockableSelected( event );
     }
     
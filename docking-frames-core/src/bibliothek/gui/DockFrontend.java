@@ -1953,6 +1953,18 @@ public class DockFrontend {
      * @throws IOException if there are any problems
      */
     public void writeBlop( SettingsBlop blop, DataOutputStream out ) throws IOException{
+    	writeBlop( blop, null, out );
+    }
+    
+    /**
+     * Writes the contents of <code>blop</code> into <code>out</code>.
+     * @param blop the {@link Setting}s to write
+     * @param snapshot the {@link DockSituation}s and the {@link PropertyTransformer} to use, if <code>null</code> 
+     * then {@link #write(Setting, boolean, DataOutputStream)} is used to write each setting
+     * @param out the stream to write into
+     * @throws IOException if there are any problems
+     */
+    private void writeBlop( SettingsBlop blop, SettingsSnapshot snapshot, DataOutputStream out ) throws IOException{
     	Version.write( out, Version.VERSION_1_1_1a );
     	
     	String currentSetting = blop.getCurrentName();
@@ -1968,10 +1980,20 @@ public class DockFrontend {
         out.writeInt( names.length );
         for( String name : names ){
             out.writeUTF( name );
-            write( blop.getSetting( name ), true, out );
+            if( snapshot == null ){
+            	write( blop.getSetting( name ), true, out );
+            }
+            else{
+            	blop.getSetting( name ).write( snapshot.entrySituation, snapshot.transformer, true, out );
+            }
         }
         
-        write( blop.getCurrentSetting(), false, out );
+        if( snapshot == null ){
+        	write( blop.getCurrentSetting(), false, out );
+        }
+        else{
+        	blop.getCurrentSetting().write( snapshot.finalSituation, snapshot.transformer, false, out );
+        }
     }
     
     /**
@@ -2193,6 +2215,22 @@ public class DockFrontend {
     	return blop;
     }
     
+    /**
+     * Stores all the current {@link Setting}s of this {@link DockFrontend} in a new {@link SettingsBlop}, and
+     * creates the {@link DockSituation}s and the {@link PropertyTransformer} that are required to write them.
+     * Creating the snapshot requires access to the stations, dockables and factories of this frontend, hence this
+     * method must be called by the EDT. Writing the snapshot only needs the layouts and factories collected
+     * by this method, hence it can be written by any thread.
+     * @return the snapshot of all the settings of this frontend
+     */
+    public SettingsSnapshot writeSnapshot(){
+    	Internals internals = new Internals();
+    	return new SettingsSnapshot( writeBlop(), 
+    			layoutChangeStrategy.createSituation( internals, true ),
+    			layoutChangeStrategy.createSituation( internals, false ),
+    			layoutChangeStrategy.createTransformer( internals ));
+    }
+    
     /**
      * Reads and applies the {@link Setting}s stored in <code>blop</code>.
      * @param blop the settings to read
@@ -2505,6 +2543,48 @@ public class DockFrontend {
 		}
     }
     
+    /**
+     * All the {@link Setting}s of a {@link DockFrontend} together with the {@link DockSituation}s
+     * and the {@link PropertyTransformer} that are required to write them, created by {@link DockFrontend#writeSnapshot()}.
+     * @author Benjamin Sigg
+     */
+    public class SettingsSnapshot{
+    	/** the settings to write */
+    	private SettingsBlop blop;
+    	/** the situation used to write the named settings */
+    	private DockSituation entrySituation;
+    	/** the situation used to write the current setting */
+    	private DockSituation finalSituation;
+    	/** the transformer used to write the locations of invisible elements */
+    	private PropertyTransformer transformer;
+    	
+    	private SettingsSnapshot( SettingsBlop blop, DockSituation entrySituation, DockSituation finalSituation, PropertyTransformer transformer ){
+    		this.blop = blop;
+    		this.entrySituation = entrySituation;
+    		this.finalSituation = finalSituation;
+    		this.transformer = transformer;
+    	}
+    	
+    	/**
+    	 * Gets the settings that are stored in this snapshot.
+    	 * @return the settings
+    	 */
+    	public SettingsBlop getBlop(){
+			return blop;
+		}
+    	
+    	/**
+    	 * Writes the settings of this snapshot into <code>out</code>, the result is the same as if 
+    	 * {@link DockFrontend#write(DataOutputStream)} would have been called when this snapshot was created.
+    	 * This method may be called by any thread.
+    	 * @param out the stream to write into
+    	 * @throws IOException if there are any problems
+    	 */
+    	public void write( DataOutputStream out ) throws IOException{
+    		writeBlop( blop, this, out );
+    	}
+    }
+    
     /**
      * Information about a {@link Dockable}.
      * @author Benjamin Sigg
@@ -49,6 +49,7 @@ import bibliothek.gui.dock.station.layer.DockStationDropLayer;
 import bibliothek.gui.dock.station.support.PlaceholderList;
 import bibliothek.gui.dock.station.support.PlaceholderMap;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleManager;
@@ -111,7 +112,8 @@ public interface DockStation extends DockElement{
      * this station. If the controller is <code>null</code>, this method
      * should return immediately.<br>
      * You may use {@link DockUI#updateTheme(DockStation, DockFactory)} 
-     * to implement this method.
+     * to implement this method. If {@link ThemeManager#isStationRebuildRequired(DockStation)}
+     * returns <code>false</code>, then the station may keep its children and their displayers.
      */
     public void updateTheme();
     
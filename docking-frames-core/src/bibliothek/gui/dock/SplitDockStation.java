@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +80,7 @@ import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.event.DockableListener;
 import bibliothek.gui.dock.event.DoubleClickListener;
+import bibliothek.gui.dock.event.ListenerList;
 import bibliothek.gui.dock.event.SplitDockListener;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.location.AsideAnswer;
@@ -241,7 +243,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private DockTitleVersion title;
 
 	/** A list of {@link DockableListener} which will be invoked when something noticable happens */
-	private List<DockableListener> dockableListeners = new ArrayList<DockableListener>();
+	private ListenerList<DockableListener> dockableListeners = new ListenerList<DockableListener>( DockableListener.class );
 
 	/** All {@link DockableStateListener}s of this station */
 	private DockableStateListenerManager dockableStateListeners;
@@ -250,7 +252,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private DockHierarchyObserver hierarchyObserver;
 
 	/** A list of {@link SplitDockListener} which will be invoked when something noticable happens */
-	private List<SplitDockListener> splitListeners = new ArrayList<SplitDockListener>();
+	private ListenerList<SplitDockListener> splitListeners = new ListenerList<SplitDockListener>( SplitDockListener.class );
 
 	/** The handler for events and listeners concerning the visibility of children */
 	private DockableShowingManager visibility;
@@ -279,7 +281,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			if( newValue == null )
 				newValue = "";
 
-			for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+			for( DockableListener listener : dockableListeners.get() )
 				listener.titleTextChanged(SplitDockStation.this, oldValue, newValue);
 		}
 	};
@@ -291,7 +293,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private PropertyValue<String> titleToolTip = new PropertyValue<String>(PropertyKey.DOCK_STATION_TOOLTIP){
 		@Override
 		protected void valueChanged( String oldValue, String newValue ){
-			for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+			for( DockableListener listener : dockableListeners.get() )
 				listener.titleToolTipChanged(SplitDockStation.this, oldValue, newValue);
 		}
 	};
@@ -366,6 +368,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	/** The list of {@link Dockable Dockables} which are shown on this station */
 	private List<StationChildHandle> dockables = new ArrayList<StationChildHandle>();
+	
+	/** the location of each {@link Dockable} in {@link #dockables}, <code>null</code> if not yet calculated */
+	private Map<Dockable, Integer> dockableIndices;
 
 	/** The {@link Dockable} which has the focus */
 	private Dockable frontDockable;
@@ -506,7 +511,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		
 		titleIcon = new DockStationIcon( "dockStation.default", this ){
 			protected void changed( Icon oldValue, Icon newValue ){
-				for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] )){
+				for( DockableListener listener : dockableListeners.get()){
 					listener.titleIconChanged( SplitDockStation.this, oldValue, newValue );
 				}
 			}
@@ -585,6 +590,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	@Override
 	public Dimension getMinimumSize(){
+		validateSizeCache();
 		Insets insets = getInsets();
 		Dimension base = getRoot().getMinimumSize();
 		if( insets != null ) {
@@ -595,6 +601,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	
 	@Override
 	public Dimension getPreferredSize(){
+		validateSizeCache();
 		Insets insets = getInsets();
 		Dimension base = getRoot().getPreferredSize();
 		if( insets != null ) {
@@ -603,6 +610,42 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		return base;
 	}
 
+	/**
+	 * Discards the sizes cached by the {@link Leaf}s whose {@link DockableDisplayer} is not valid, and by their
+	 * parents, if the content of this station is not valid. Swing does not forward an invalidation to a 
+	 * {@link java.awt.Container} that is already invalid, hence while the content is invalid, the station cannot know
+	 * whether the minimum or preferred size of a {@link DockableDisplayer} changed.
+	 */
+	private void validateSizeCache(){
+		if( root != null && !content.isValid() ){
+			invalidateChangedLeafSizes();
+		}
+	}
+	
+	/**
+	 * Calls {@link Leaf#invalidateSizeIfChanged()} on all the leaves of the tree. Only the cached sizes of the 
+	 * leaves whose displayer is invalid, and of their parents, are discarded.
+	 */
+	private void invalidateChangedLeafSizes(){
+		root.visit( new SplitNodeVisitor(){
+			public void handleLeaf( Leaf leaf ){
+				leaf.invalidateSizeIfChanged();
+			}
+			
+			public void handleNode( Node node ){
+				// ignore
+			}
+			
+			public void handleRoot( Root root ){
+				// ignore
+			}
+			
+			public void handlePlaceholder( Placeholder placeholder ){
+				// ignore
+			}
+		});
+	}
+
 	public DockTheme getTheme(){
 		return theme;
 	}
@@ -613,11 +656,13 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			DockTheme newTheme = controller.getTheme();
 			if( newTheme != theme ) {
 				theme = newTheme;
-				try {
-					callDockUiUpdateTheme();
-				}
-				catch( IOException ex ) {
-					throw new RuntimeException(ex);
+				if( controller.getThemeManager().isStationRebuildRequired( this ) ) {
+					try {
+						callDockUiUpdateTheme();
+					}
+					catch( IOException ex ) {
+						throw new RuntimeException(ex);
+					}
 				}
 			}
 		}
@@ -1006,6 +1051,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			throw new IllegalArgumentException("dividerSize must not be less than 0");
 
 		this.dividerSize = dividerSize;
+		if( root != null ){
+			root.invalidateAllSizes();
+		}
 		doLayout();
 	}
 
@@ -1095,6 +1143,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			throw new IllegalArgumentException( "minimumLeafSize must not be null" );
 		}
 		this.minimumLeafSize = minimumLeafSize;
+		if( root != null ){
+			root.invalidateAllSizes();
+		}
 		revalidate();
 	}
 	
@@ -1151,7 +1202,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		if( titles.contains(title) )
 			throw new IllegalArgumentException("Title is already bound");
 		titles.add(title);
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleBound(this, title);
 	}
 
@@ -1159,7 +1210,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		if( !titles.contains(title) )
 			throw new IllegalArgumentException("Title is unknown");
 		titles.remove(title);
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleUnbound(this, title);
 	}
 
@@ -2645,7 +2696,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param newDockable the new fullscreen-Dockable, can be <code>null</code>
 	 */
 	protected void fireFullScreenChanged( Dockable oldDockable, Dockable newDockable ){
-		for( SplitDockListener listener : splitListeners.toArray(new SplitDockListener[splitListeners.size()]) )
+		for( SplitDockListener listener : splitListeners.get() )
 			listener.fullScreenDockableChanged(this, oldDockable, newDockable);
 	}
 
@@ -2655,7 +2706,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param title a title, can be <code>null</code>
 	 */
 	protected void fireTitleExchanged( DockTitle title ){
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleExchanged(this, title);
 	}
 
@@ -2902,6 +2953,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			}
 	
 			dockables.add(handle);
+			if( dockableIndices != null && !dockableIndices.containsKey( dockable ) ){
+				dockableIndices.put( dockable, dockables.size()-1 );
+			}
 			dockable.setDockParent(this);
 	
 			handle.updateDisplayer();
@@ -2952,11 +3006,20 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @return the index or -1 if the child was not found
 	 */
 	public int indexOfDockable( Dockable dockable ){
-		for( int i = 0, n = dockables.size(); i < n; i++ )
-			if( dockables.get(i).getDockable() == dockable )
-				return i;
+		if( dockableIndices == null ){
+			dockableIndices = new IdentityHashMap<Dockable, Integer>();
+			for( int i = 0, n = dockables.size(); i < n; i++ ){
+				Dockable next = dockables.get( i ).getDockable();
+				if( !dockableIndices.containsKey( next ) ){
+					dockableIndices.put( next, i );
+				}
+			}
+		}
+		Integer index = dockableIndices.get( dockable );
+		if( index == null )
+			return -1;
 
-		return -1;
+		return index;
 	}
 
 	/**
@@ -3102,6 +3165,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 				dockStationListeners.fireDockableRemoving(dockable);
 	
 			dockables.remove(index);
+			dockableIndices = null;
 	
 			DockableDisplayer displayer = handle.getDisplayer();
 	
@@ -3149,42 +3213,11 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param id the id to search
 	 * @return the node with the id <code>id</code>
 	 */
-	public SplitNode getNode( final long id ){
-		class Visitor implements SplitNodeVisitor {
-			private SplitNode result;
-
-			public void handleRoot( Root root ){
-				if( root.getId() == id ) {
-					result = root;
-				}
-			}
-
-			public void handleLeaf( Leaf leaf ){
-				if( leaf.getId() == id ) {
-					result = leaf;
-				}
-			}
-
-			public void handlePlaceholder( Placeholder placeholder ){
-				if( placeholder.getId() == id ) {
-					result = placeholder;
-				}
-			}
-
-			public void handleNode( Node node ){
-				if( node.getId() == id ) {
-					result = node;
-				}
-			}
-		}
-		;
-
+	public SplitNode getNode( long id ){
 		if( root == null )
 			return null;
 
-		Visitor visitor = new Visitor();
-		getRoot().visit(visitor);
-		return visitor.result;
+		return getRoot().getNode( id );
 	}
 
 	public String getFactoryID(){
@@ -3248,6 +3281,10 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		
 		@Override
 		public void doLayout(){
+			// a displayer may have changed its size while this panel was already invalid
+			if( root != null ){
+				invalidateChangedLeafSizes();
+			}
 			updateBounds();
 
 			Insets insets = getInsets();
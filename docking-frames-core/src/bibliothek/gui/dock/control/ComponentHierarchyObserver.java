@@ -37,6 +37,8 @@ import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverEvent;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
+import bibliothek.gui.dock.station.DockableDisplayer;
+import bibliothek.gui.dock.title.DockTitle;
 
 /**
  * A class collecting all {@link Component}s which are somehow used on or with
@@ -44,7 +46,14 @@ import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
  * A global instance of {@link ComponentHierarchyObserver} can be obtained
  * through {@link DockController#getComponentHierarchyObserver()}.<br>
  * Note that a hierarchy observer may also know {@link Component}s which are
- * not directly associated with {@link Dockable}s.
+ * not directly associated with {@link Dockable}s.<br>
+ * If the observer is {@link #setBounded(boolean) bounded}, then the children of the
+ * {@link Dockable#getComponent() component} of a {@link Dockable} that is not a station
+ * are not observed. In this mode the observer only knows the framework {@link Component}s like
+ * {@link DockableDisplayer}s or {@link DockTitle}s, but not the content provided by the client.
+ * The content gets observed lazily if it is {@link #expand(Component) explicitly requested}, or
+ * if a listener is {@link #addListener(ComponentHierarchyObserverListener, boolean) registered}
+ * that needs to know all {@link Component}s.
  * @author Benjamin Sigg
  */
 public class ComponentHierarchyObserver {
@@ -57,6 +66,24 @@ public class ComponentHierarchyObserver {
     /** the currently known components */
     private Set<Component> components = new HashSet<Component>();
     
+    /** the components of {@link Dockable}s whose children are not observed in bounded mode */
+    private Set<Component> boundaries = new HashSet<Component>();
+    
+    /** the boundaries which were {@link #expand(Component) expanded} explicitly */
+    private Set<Component> expanded = new HashSet<Component>();
+    
+    /** the known boundaries whose children are currently not observed */
+    private Set<Component> collapsed = new HashSet<Component>();
+    
+    /** whether observation stops at the {@link #boundaries} */
+    private boolean bounded = false;
+    
+    /** how many {@link Component}s were added to this observer since its creation */
+    private long addedCount = 0;
+    
+    /** how many {@link Component}s were removed from this observer since its creation */
+    private long removedCount = 0;
+    
     /** a listener to all {@link Container}s */
     private Listener listener = new Listener();
     
@@ -67,6 +94,10 @@ public class ComponentHierarchyObserver {
     private List<ComponentHierarchyObserverListener> listeners =
         new ArrayList<ComponentHierarchyObserverListener>();
     
+    /** the observers of this {@link ComponentHierarchyObserver} which need to know all {@link Component}s */
+    private List<ComponentHierarchyObserverListener> deepListeners =
+        new ArrayList<ComponentHierarchyObserverListener>();
+    
     /**
      * Creates a new observer.
      * @param controller the controller whose {@link Dockable}s will be observed.
@@ -76,24 +107,84 @@ public class ComponentHierarchyObserver {
         
         controller.addRepresentativeListener( new DockControllerRepresentativeListener(){
             public void representativeAdded( DockController controller, DockElementRepresentative representative ) {
-                add( representative.getComponent() );
+                Component component = representative.getComponent();
+                if( isBoundary( representative ) && boundaries.add( component )){
+                    if( components.contains( component )){
+                        update( component );
+                    }
+                }
+                add( component );
             }
             public void representativeRemoved( DockController controller, DockElementRepresentative representative ) {
-                remove( representative.getComponent() );
+                Component component = representative.getComponent();
+                remove( component );
+                if( isBoundary( representative )){
+                    boundaries.remove( component );
+                    expanded.remove( component );
+                    update( component );
+                }
             }
         });
     }
     
+    /**
+     * Tells whether the {@link Component} of <code>representative</code> is the place where observation
+     * stops if this observer is {@link #setBounded(boolean) bounded}.
+     * @param representative some representative
+     * @return whether the component of <code>representative</code> is the content of a {@link Dockable}
+     */
+    private boolean isBoundary( DockElementRepresentative representative ){
+        Dockable dockable = representative.getElement().asDockable();
+        if( dockable == null || dockable.asDockStation() != null ){
+            return false;
+        }
+        return dockable.getComponent() == representative.getComponent();
+    }
+    
     /**
      * Gets a {@link Set} containing all {@link Component}s which are 
      * used on {@link Dockable}s known in the realm of the {@link DockController}
-     * of this observer.
+     * of this observer. If this observer is {@link #isBounded() bounded}, then
+     * the set may not contain the content of the {@link Dockable}s.
      * @return the set of <code>Component</code>s.
      */
     public Set<Component> getComponents() {
         return Collections.unmodifiableSet( components );
     }
     
+    /**
+     * Gets the number of {@link Component}s that are currently observed.
+     * @return the number of components, equal to the size of {@link #getComponents()}
+     */
+    public int getComponentCount(){
+        return components.size();
+    }
+    
+    /**
+     * Gets the number of {@link Component}s whose children are currently not observed because
+     * this observer is {@link #setBounded(boolean) bounded}.
+     * @return the number of collapsed boundaries
+     */
+    public int getCollapsedCount(){
+        return collapsed.size();
+    }
+    
+    /**
+     * Gets the total number of {@link Component}s that were added to this observer since it was created.
+     * @return the number of added components
+     */
+    public long getAddedCount(){
+        return addedCount;
+    }
+    
+    /**
+     * Gets the total number of {@link Component}s that were removed from this observer since it was created.
+     * @return the number of removed components
+     */
+    public long getRemovedCount(){
+        return removedCount;
+    }
+    
     /**
      * Gets the controller in whose realm this observer searches for
      * {@link Component}s.
@@ -104,21 +195,113 @@ public class ComponentHierarchyObserver {
     }
     
     /**
-     * Adds a listener to this observer.
+     * Sets whether this observer stops at the {@link Component}s of {@link Dockable}s, not
+     * observing the content provided by the client. Setting this property fires events for
+     * all the {@link Component}s that are added or removed because of the new mode.
+     * @param bounded whether to stop at the components of the dockables
+     */
+    public void setBounded( boolean bounded ){
+        if( this.bounded != bounded ){
+            this.bounded = bounded;
+            updateAll();
+        }
+    }
+    
+    /**
+     * Tells whether this observer stops at the {@link Component}s of {@link Dockable}s.
+     * @return whether this observer is bounded
+     * @see #setBounded(boolean)
+     */
+    public boolean isBounded(){
+        return bounded;
+    }
+    
+    /**
+     * Ensures that all the children of the boundary containing <code>component</code> are
+     * observed, even if this observer is {@link #isBounded() bounded}. The boundary
+     * remains expanded until {@link #collapse(Component)} is called or until it is removed
+     * from this observer.
+     * @param component some component, the boundary itself or one of its children
+     * @return <code>true</code> if a boundary containing <code>component</code> was found
+     */
+    public boolean expand( Component component ){
+        Component boundary = getBoundary( component );
+        if( boundary == null ){
+            return false;
+        }
+        if( expanded.add( boundary )){
+            update( boundary );
+        }
+        return true;
+    }
+    
+    /**
+     * Reverts the effects of {@link #expand(Component)}.
+     * @param component some component, the boundary itself or one of its children
+     * @return <code>true</code> if a boundary containing <code>component</code> was found
+     */
+    public boolean collapse( Component component ){
+        Component boundary = getBoundary( component );
+        if( boundary == null ){
+            return false;
+        }
+        if( expanded.remove( boundary )){
+            update( boundary );
+        }
+        return true;
+    }
+    
+    private Component getBoundary( Component component ){
+        while( component != null ){
+            if( boundaries.contains( component )){
+                return component;
+            }
+            component = component.getParent();
+        }
+        return null;
+    }
+    
+    /**
+     * Adds a listener to this observer. This listener does not need to know
+     * the content of the {@link Dockable}s if this observer is {@link #isBounded() bounded}.
      * @param listener the new listener, not <code>null</code>
      */
     public void addListener( ComponentHierarchyObserverListener listener ){
+        addListener( listener, false );
+    }
+    
+    /**
+     * Adds a listener to this observer.
+     * @param listener the new listener, not <code>null</code>
+     * @param deep if <code>true</code>, then this observer will observe all {@link Component}s
+     * as long as <code>listener</code> is registered, even if this observer is {@link #isBounded() bounded}.
+     * The events for the {@link Component}s that are added because of <code>listener</code>
+     * are forwarded to <code>listener</code> as well.
+     */
+    public void addListener( ComponentHierarchyObserverListener listener, boolean deep ){
         if( listener == null )
             throw new NullPointerException( "listener must not be null" );
         listeners.add( listener );
+        if( deep ){
+            deepListeners.add( listener );
+            if( deepListeners.size() == 1 ){
+                updateAll();
+            }
+        }
     }
     
     /**
-     * Removes a listener from this observer.
+     * Removes a listener from this observer. If <code>listener</code> was the last
+     * listener that needed to know all {@link Component}s, then the content of the
+     * {@link Dockable}s is no longer observed. The events for these {@link Component}s
+     * are not forwarded to <code>listener</code>.
      * @param listener the listener to remove
      */
     public void removeListener( ComponentHierarchyObserverListener listener ){
         listeners.remove( listener );
+        if( deepListeners.remove( listener ) && deepListeners.isEmpty() ){
+            updateAll();
+        }
     }
     
     /**
@@ -130,6 +313,55 @@ public class ComponentHierarchyObserver {
         return listeners.toArray( new ComponentHierarchyObserverListener[ listeners.size() ] );
     }
     
+    /**
+     * Tells whether the children of <code>component</code> should currently not be observed.
+     * @param component some component that is known to this observer
+     * @return whether the children of <code>component</code> have to be ignored
+     */
+    private boolean isCollapsed( Component component ){
+        return bounded && deepListeners.isEmpty() && boundaries.contains( component ) && !expanded.contains( component );
+    }
+    
+    /**
+     * Makes sure that the children of all the boundaries are either observed or ignored.
+     */
+    private void updateAll(){
+        for( Component boundary : boundaries.toArray( new Component[ boundaries.size() ] )){
+            update( boundary );
+        }
+    }
+    
+    /**
+     * Makes sure that the children of <code>boundary</code> are either observed or ignored,
+     * depending on the current mode of this observer.
+     * @param boundary the component whose children may need to be added or removed
+     */
+    private void update( Component boundary ){
+        if( !components.contains( boundary ) || !(boundary instanceof Container) ){
+            collapsed.remove( boundary );
+            return;
+        }
+        
+        Container container = (Container)boundary;
+        boolean collapse = isCollapsed( boundary );
+        if( collapse && collapsed.add( boundary )){
+            container.removeContainerListener( listener );
+            List<Component> list = new LinkedList<Component>();
+            for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
+                remove( container.getComponent( i ), list );
+            }
+            fireRemoved( list );
+        }
+        else if( !collapse && collapsed.remove( boundary )){
+            container.addContainerListener( listener );
+            List<Component> list = new LinkedList<Component>();
+            for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
+                add( container.getComponent( i ), list );
+            }
+            fireAdded( list );
+        }
+    }
+    
     /**
      * Adds <code>component</code> and all its children to the set of
      * known {@link Component}s. Components that are already known will
@@ -158,17 +390,29 @@ public class ComponentHierarchyObserver {
             list = new LinkedList<Component>();
         
         if( components.add( component )){
+            addedCount++;
             list.add( component );
             if( component instanceof Container ){
-                Container container = (Container)component;
-                container.addContainerListener( listener );
-                for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
-                    add( container.getComponent( i ), list );
+                if( isCollapsed( component )){
+                    collapsed.add( component );
+                }
+                else{
+                    Container container = (Container)component;
+                    container.addContainerListener( listener );
+                    for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
+                        add( container.getComponent( i ), list );
+                    }
                 }
             }
         }
         
-        if( fire && !list.isEmpty() ){
+        if( fire ){
+            fireAdded( list );
+        }
+    }
+    
+    private void fireAdded( List<Component> list ){
+        if( !list.isEmpty() ){
             list = Collections.unmodifiableList( list );
             ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
             for( ComponentHierarchyObserverListener listener : listeners() )
@@ -202,25 +446,34 @@ public class ComponentHierarchyObserver {
                 list = new LinkedList<Component>();
             
             if( components.remove( component )){
+                removedCount++;
                 list.add( component );
                 if( component instanceof Container ){
                     Container container = (Container)component;
                     container.removeContainerListener( listener );
-                    for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
-                        remove( container.getComponent( i ), list );
+                    if( !collapsed.remove( component )){
+                        for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
+                            remove( container.getComponent( i ), list );
+                        }
                     }
                 }
             }
             
-            if( fire && !list.isEmpty() ){
-                list = Collections.unmodifiableList( list );
-                ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
-                for( ComponentHierarchyObserverListener listener : listeners() )
-                    listener.removed( event );
+            if( fire ){
+                fireRemoved( list );
             }
         }
     }
     
+    private void fireRemoved( List<Component> list ){
+        if( !list.isEmpty() ){
+            list = Collections.unmodifiableList( list );
+            ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
+            for( ComponentHierarchyObserverListener listener : listeners() )
+                listener.removed( event );
+        }
+    }
+    
     /**
      * A listener to {@link Container}s, triggered when {@link Component}s
      * are added or removed.
@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.control;
 
 import java.awt.AWTEvent;
+import java.awt.Component;
 import java.awt.Toolkit;
 import java.awt.event.AWTEventListener;
 import java.awt.event.MouseEvent;
@@ -33,8 +34,11 @@ import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.event.ControllerSetupListener;
@@ -42,7 +46,9 @@ import bibliothek.gui.dock.util.PropertyValue;
 
 /**
  * This default implementation of a {@link GlobalMouseDispatcher} uses an {@link AWTEventListener} is possible, or
- * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method.
+ * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method. Listeners that are registered
+ * for a {@link Component} are stored in a map, to find them the dispatcher only needs to follow the path from the 
+ * source of an event up to the root of the tree of {@link Component}s.
  * @author Benjamin Sigg
  */
 public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
@@ -57,6 +63,12 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 
 	private List<MouseWheelListener> mouseWheelListeners = new ArrayList<MouseWheelListener>();
 	private MouseWheelListener[] mouseWheelListenersCache = null;
+	
+	/** {@link MouseListener}s that are only interested in the events of some {@link Component} */
+	private Map<Component, MouseListener[]> componentMouseListeners = new HashMap<Component, MouseListener[]>();
+	
+	/** {@link MouseMotionListener}s that are only interested in the events of some {@link Component} */
+	private Map<Component, MouseMotionListener[]> componentMouseMotionListeners = new HashMap<Component, MouseMotionListener[]>();
 
 	/** whether the application is in restricted mode or not */
 	private PropertyValue<Boolean> restricted = new PropertyValue<Boolean>( DockController.RESTRICTED_ENVIRONMENT ){
@@ -82,37 +94,37 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	public void dispatch( MouseEvent event ){
 		switch( event.getID() ){
 			case MouseEvent.MOUSE_CLICKED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : getMouseListeners( event ) ){
 					listener.mouseClicked( event );
 				}
 				break;
 			case MouseEvent.MOUSE_DRAGGED:
-				for( MouseMotionListener listener : getMouseMotionListeners() ){
+				for( MouseMotionListener listener : getMouseMotionListeners( event ) ){
 					listener.mouseDragged( event );
 				}
 				break;
 			case MouseEvent.MOUSE_ENTERED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : getMouseListeners( event ) ){
 					listener.mouseEntered( event );
 				}
 				break;
 			case MouseEvent.MOUSE_EXITED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : getMouseListeners( event ) ){
 					listener.mouseExited( event );
 				}
 				break;
 			case MouseEvent.MOUSE_MOVED:
-				for( MouseMotionListener listener : getMouseMotionListeners() ){
+				for( MouseMotionListener listener : getMouseMotionListeners( event ) ){
 					listener.mouseMoved( event );
 				}
 				break;
 			case MouseEvent.MOUSE_PRESSED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : getMouseListeners( event ) ){
 					listener.mousePressed( event );
 				}
 				break;
 			case MouseEvent.MOUSE_RELEASED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : getMouseListeners( event ) ){
 					listener.mouseReleased( event );
 				}
 				break;
@@ -168,6 +180,132 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 		return mouseMotionListenersCache;
 	}
 	
+	public synchronized void addMouseListener( Component component, MouseListener listener ){
+		componentMouseListeners.put( component, add( componentMouseListeners.get( component ), listener, MouseListener.class ) );
+	}
+	
+	public synchronized void removeMouseListener( Component component, MouseListener listener ){
+		MouseListener[] listeners = remove( componentMouseListeners.get( component ), listener, MouseListener.class );
+		if( listeners == null ){
+			componentMouseListeners.remove( component );
+		}
+		else{
+			componentMouseListeners.put( component, listeners );
+		}
+	}
+	
+	public synchronized void addMouseMotionListener( Component component, MouseMotionListener listener ){
+		componentMouseMotionListeners.put( component, add( componentMouseMotionListeners.get( component ), listener, MouseMotionListener.class ) );
+	}
+	
+	public synchronized void removeMouseMotionListener( Component component, MouseMotionListener listener ){
+		MouseMotionListener[] listeners = remove( componentMouseMotionListeners.get( component ), listener, MouseMotionListener.class );
+		if( listeners == null ){
+			componentMouseMotionListeners.remove( component );
+		}
+		else{
+			componentMouseMotionListeners.put( component, listeners );
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <L> L[] add( L[] listeners, L listener, Class<L> type ){
+		if( listeners == null ){
+			listeners = (L[])Array.newInstance( type, 1 );
+			listeners[0] = listener;
+			return listeners;
+		}
+		L[] result = (L[])Array.newInstance( type, listeners.length+1 );
+		System.arraycopy( listeners, 0, result, 0, listeners.length );
+		result[ listeners.length ] = listener;
+		return result;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <L> L[] remove( L[] listeners, L listener, Class<L> type ){
+		if( listeners == null ){
+			return null;
+		}
+		for( int i = 0; i < listeners.length; i++ ){
+			if( listeners[i] == listener ){
+				if( listeners.length == 1 ){
+					return null;
+				}
+				L[] result = (L[])Array.newInstance( type, listeners.length-1 );
+				System.arraycopy( listeners, 0, result, 0, i );
+				System.arraycopy( listeners, i+1, result, i, listeners.length-i-1 );
+				return result;
+			}
+		}
+		return listeners;
+	}
+	
+	/**
+	 * Gets all the {@link MouseListener}s that have to be informed about <code>event</code>. These are
+	 * all the {@link #getMouseListeners() global listeners} and the listeners that were registered for
+	 * the source of <code>event</code> or one of its parents. 
+	 * @param event the event that is to be dispatched
+	 * @return the listeners to inform
+	 */
+	protected synchronized MouseListener[] getMouseListeners( MouseEvent event ){
+		MouseListener[] global = getMouseListeners();
+		if( componentMouseListeners.isEmpty() ){
+			return global;
+		}
+		List<MouseListener> result = null;
+		for( Component component = event.getComponent(); component != null; component = component.getParent() ){
+			MouseListener[] listeners = componentMouseListeners.get( component );
+			if( listeners != null ){
+				if( result == null ){
+					result = new ArrayList<MouseListener>( global.length + listeners.length );
+					for( MouseListener listener : global ){
+						result.add( listener );
+					}
+				}
+				for( MouseListener listener : listeners ){
+					result.add( listener );
+				}
+			}
+		}
+		if( result == null ){
+			return global;
+		}
+		return result.toArray( new MouseListener[ result.size() ] );
+	}
+	
+	/**
+	 * Gets all the {@link MouseMotionListener}s that have to be informed about <code>event</code>. These are
+	 * all the {@link #getMouseMotionListeners() global listeners} and the listeners that were registered for
+	 * the source of <code>event</code> or one of its parents. 
+	 * @param event the event that is to be dispatched
+	 * @return the listeners to inform
+	 */
+	protected synchronized MouseMotionListener[] getMouseMotionListeners( MouseEvent event ){
+		MouseMotionListener[] global = getMouseMotionListeners();
+		if( componentMouseMotionListeners.isEmpty() ){
+			return global;
+		}
+		List<MouseMotionListener> result = null;
+		for( Component component = event.getComponent(); component != null; component = component.getParent() ){
+			MouseMotionListener[] listeners = componentMouseMotionListeners.get( component );
+			if( listeners != null ){
+				if( result == null ){
+					result = new ArrayList<MouseMotionListener>( global.length + listeners.length );
+					for( MouseMotionListener listener : global ){
+						result.add( listener );
+					}
+				}
+				for( MouseMotionListener listener : listeners ){
+					result.add( listener );
+				}
+			}
+		}
+		if( result == null ){
+			return global;
+		}
+		return result.toArray( new MouseMotionListener[ result.size() ] );
+	}
+	
 	public synchronized void addMouseWheelListener( MouseWheelListener listener ){
 		mouseWheelListeners.add( listener );
 		mouseWheelListenersCache = null;
@@ -116,16 +116,16 @@ public class DefaultKeyboardController extends AbstractKeyboardController {
 	                component.addKeyListener( keyListener );
 	            }
 				
-				getController().getComponentHierarchyObserver().addListener( hierarchyListener );
+				getController().getComponentHierarchyObserver().addListener( hierarchyListener, true );
 			}
 		}
 		else{
 			if( keyListener != null ){
-				getController().getComponentHierarchyObserver().removeListener( hierarchyListener );
-				
 				for( Component component : getController().getComponentHierarchyObserver().getComponents()){
 	                component.removeKeyListener( keyListener );
 	            }
+				
+				getController().getComponentHierarchyObserver().removeListener( hierarchyListener );
 				hierarchyListener = null;
 				keyListener = null;
 			}
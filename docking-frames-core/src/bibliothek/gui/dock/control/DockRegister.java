@@ -30,6 +30,8 @@ import java.util.*;
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockRegisterListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
@@ -47,9 +49,9 @@ public class DockRegister {
 	/** these protected stations can never be removed through a drag and drop operation */
 	private Set<DockStation> protectedStations = new HashSet<DockStation>();
 	/** the known stations */
-    private List<DockStation> stations = new ArrayList<DockStation>();
+    private ElementList<DockStation> stations = new ElementList<DockStation>();
     /** the known dockables */
-    private List<Dockable> dockables = new ArrayList<Dockable>();
+    private ElementList<Dockable> dockables = new ElementList<Dockable>();
     
     /** The controller for which the dockables and stations are stored */
     private DockController controller;
@@ -68,6 +70,9 @@ public class DockRegister {
 	
 	/** the order in which the elements of {@link #changeMap} first appeared */
 	private LinkedList<Dockable> changeQueue = new LinkedList<Dockable>();
+	
+	/** collects the changes while the stalled events are fired, <code>null</code> if no stalled events are fired */
+	private DockRegisterBatchEvent batch;
     
     /**
      * Creates a new register.
@@ -113,8 +118,7 @@ public class DockRegister {
      * known to this register.
      */
     public void kill(){
-        List<DockStation> stations = new ArrayList<DockStation>( this.stations );
-        for( DockStation station : stations )
+        for( DockStation station : listDockStations() )
             remove( station );
     }
     
@@ -265,7 +269,7 @@ public class DockRegister {
      */
     public DockStation[] listRoots(){
         List<DockStation> list = new LinkedList<DockStation>();
-        for( DockStation station : stations ){
+        for( DockStation station : listDockStations() ){
             Dockable dockable = station.asDockable();
             if( dockable == null || dockable.getDockParent() == null )
                 list.add( station );
@@ -427,8 +431,14 @@ public class DockRegister {
      * @param dockable the registered Dockable
      */
     protected void fireDockableRegistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableRegistered( controller, dockable );
+    	if( batch != null ){
+    		batch.addRegisteredDockable( dockable );
+    	}
+        for( DockRegisterListener listener : listDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableRegistered( controller, dockable );
+        	}
+        }
     }
 
     /**
@@ -437,8 +447,14 @@ public class DockRegister {
      * @param dockable the unregistered Dockable
      */
     protected void fireDockableUnregistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableUnregistered( controller, dockable );
+    	if( batch != null ){
+    		batch.addUnregisteredDockable( dockable );
+    	}
+        for( DockRegisterListener listener : listDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableUnregistered( controller, dockable );
+        	}
+        }
     }
 
     /**
@@ -455,8 +471,14 @@ public class DockRegister {
      * @param station the new station
      */
     protected void fireDockStationRegistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockStationRegistered( controller, station );
+    	if( batch != null ){
+    		batch.addRegisteredStation( station );
+    	}
+        for( DockRegisterListener listener : listDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockStationRegistered( controller, station );
+        	}
+        }
     }
     
     /**
@@ -464,8 +486,14 @@ public class DockRegister {
      * @param station the unregistered station
      */
     protected void fireDockStationUnregistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockStationUnregistered( controller, station );
+    	if( batch != null ){
+    		batch.addUnregisteredStation( station );
+    	}
+        for( DockRegisterListener listener : listDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockStationUnregistered( controller, station );
+        	}
+        }
     }
     
     /**
@@ -474,8 +502,38 @@ public class DockRegister {
      * @param dockable the cycling element
      */
     protected void fireStalledChange( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableCycledRegister( controller, dockable );
+    	if( batch != null ){
+    		batch.addCycledDockable( dockable );
+    	}
+        for( DockRegisterListener listener : listDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableCycledRegister( controller, dockable );
+        	}
+        }
+    }
+    
+    /**
+     * Tells whether <code>listener</code> is currently not receiving single events because
+     * it will receive a {@link DockRegisterBatchEvent} later.
+     * @param listener the listener to check
+     * @return <code>true</code> if <code>listener</code> is to be ignored
+     */
+    private boolean isBatched( DockRegisterListener listener ){
+    	return batch != null && listener instanceof DockRegisterBatchListener;
+    }
+    
+    /**
+     * Informs all {@link DockRegisterBatchListener}s about the changes described by <code>batch</code>.
+     * @param batch all the changes that were made while firing the stalled events
+     */
+    protected void fireBatch( DockRegisterBatchEvent batch ){
+    	if( !batch.isEmpty() ){
+    		for( DockRegisterListener listener : listDockRegisterListeners() ){
+    			if( listener instanceof DockRegisterBatchListener ){
+    				((DockRegisterBatchListener)listener).registerBatch( batch );
+    			}
+    		}
+    	}
     }
     
     /**
@@ -505,7 +563,9 @@ public class DockRegister {
      * all pending events will be handled immediately.<br>
      * Nested calls to this method are possible, if <code>setStalled</code> was
      * called two times with <code>true</code>, then the events will be fired only
-     * after <code>setStalled</code> was called twice with <code>false</code>.
+     * after <code>setStalled</code> was called twice with <code>false</code>.<br>
+     * {@link DockRegisterBatchListener}s do not receive the pending events one by one, instead
+     * they are informed about all the changes with one single {@link DockRegisterBatchEvent}.
      * @param stalled <code>true</code> if events should be stalled, <code>false</code>
      * if all pending events should be handled and new events should be handled
      * immediately
@@ -560,8 +620,13 @@ public class DockRegister {
         
         public void fire(){
             if( !firing ){
+            	DockRegisterBatchEvent batch = null;
                 try{
                     firing = true;
+                    if( !changeQueue.isEmpty() ){
+                    	batch = new DockRegisterBatchEvent( controller );
+                    	DockRegister.this.batch = batch;
+                    }
                     
                     while( !changeQueue.isEmpty() ){
                     	Dockable next = changeQueue.removeFirst();
@@ -583,6 +648,10 @@ public class DockRegister {
                 }
                 finally{
                     firing = false;
+                    DockRegister.this.batch = null;
+                }
+                if( batch != null ){
+                	fireBatch( batch );
                 }
             }
         }
@@ -724,4 +793,112 @@ public class DockRegister {
             }
         }
     }
+    
+    /**
+     * An ordered list of elements that are compared by identity. Elements can be removed without
+     * searching or shifting the list: a removed element only leaves a hole, the holes are
+     * closed the next time the order of the elements is requested, or once there are more
+     * holes than elements.
+     * @author Benjamin Sigg
+     * @param <T> the kind of elements stored in this list
+     */
+    private static class ElementList<T>{
+    	/** the elements in the order they were added, may contain <code>null</code> holes */
+    	private List<T> elements = new ArrayList<T>();
+    	/** the current position of each element in {@link #elements} */
+    	private Map<T, Integer> positions = new IdentityHashMap<T, Integer>();
+    	/** the number of <code>null</code> holes in {@link #elements} */
+    	private int holes = 0;
+    	
+    	/**
+    	 * Adds <code>element</code> at the end of this list.
+    	 * @param element the new element, must not be known to this list
+    	 */
+    	public void add( T element ){
+    		positions.put( element, elements.size() );
+    		elements.add( element );
+    	}
+    	
+    	/**
+    	 * Removes <code>element</code> from this list.
+    	 * @param element the element to remove
+    	 * @return <code>true</code> if <code>element</code> was found
+    	 */
+    	public boolean remove( T element ){
+    		Integer position = positions.remove( element );
+    		if( position == null ){
+    			return false;
+    		}
+    		int index = position.intValue();
+    		if( index == elements.size()-1 ){
+    			elements.remove( index );
+    		}
+    		else{
+    			elements.set( index, null );
+    			holes++;
+    			if( holes > positions.size() ){
+    				compact();
+    			}
+    		}
+    		return true;
+    	}
+    	
+    	/**
+    	 * Tells whether <code>element</code> is stored in this list.
+    	 * @param element the element to search
+    	 * @return <code>true</code> if <code>element</code> was found
+    	 */
+    	public boolean contains( T element ){
+    		return positions.containsKey( element );
+    	}
+    	
+    	/**
+    	 * Gets the number of elements in this list.
+    	 * @return the number of elements
+    	 */
+    	public int size(){
+    		return positions.size();
+    	}
+    	
+    	/**
+    	 * Gets the <code>index</code>'th element of this list.
+    	 * @param index the index of the element
+    	 * @return the element
+    	 */
+    	public T get( int index ){
+    		compact();
+    		return elements.get( index );
+    	}
+    	
+    	/**
+    	 * Copies all elements of this list into <code>array</code>.
+    	 * @param array an array with the size of this list
+    	 * @return <code>array</code> or a new array
+    	 */
+    	public T[] toArray( T[] array ){
+    		compact();
+    		return elements.toArray( array );
+    	}
+    	
+    	/**
+    	 * Closes all the holes that were left by {@link #remove(Object)}.
+    	 */
+    	private void compact(){
+    		if( holes > 0 ){
+    			int next = 0;
+    			for( int i = 0, n = elements.size(); i < n; i++ ){
+    				T element = elements.get( i );
+    				if( element != null ){
+    					elements.set( next, element );
+    					positions.put( element, next );
+    					next++;
+    				}
+    			}
+    			for( int i = elements.size()-1; i >= next; i-- ){
+    				elements.remove( i );
+    			}
+    			holes = 0;
+    		}
+    	}
+    }
 }
@@ -25,6 +25,7 @@
  */
 package bibliothek.gui.dock.control;
 
+import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.control.relocator.Inserter;
@@ -146,6 +147,13 @@ public interface DockRelocator {
      */
     public void cancel();
     
+    /**
+     * Frees all the resources of this relocator, e.g. windows that were kept for the next drag and
+     * drop operation. This method is called by {@link DockController#kill()}, the relocator will not
+     * be used afterwards.
+     */
+    public void kill();
+    
     /**
      * Creates a device with which drag&amp;drop operations concerning
      * <code>dockable</code> can be initiated and executed.
@@ -75,6 +75,40 @@ public interface GlobalMouseDispatcher {
 	 * @param listener the listener to remove
 	 */
 	public void removeMouseMotionListener( MouseMotionListener listener );
+	
+	/**
+	 * Adds the observer <code>listener</code> to this dispatcher. The listener is only informed about
+	 * events whose source is <code>component</code> or any child of <code>component</code>. Finding these 
+	 * listeners does not depend on the total number of listeners, hence this method should be preferred
+	 * over {@link #addMouseListener(MouseListener)} by clients that are only interested in a part of the
+	 * user interface.
+	 * @param component the component whose events are observed, not <code>null</code>
+	 * @param listener the new listener, not <code>null</code>
+	 */
+	public void addMouseListener( Component component, MouseListener listener );
+	
+	/**
+	 * Removes the observer <code>listener</code> from this dispatcher.
+	 * @param component the component which was observed by <code>listener</code>
+	 * @param listener the listener to remove
+	 */
+	public void removeMouseListener( Component component, MouseListener listener );
+	
+	/**
+	 * Adds the observer <code>listener</code> to this dispatcher. The listener is only informed about
+	 * events whose source is <code>component</code> or any child of <code>component</code>.
+	 * @param component the component whose events are observed, not <code>null</code>
+	 * @param listener the new listener, not <code>null</code>
+	 * @see #addMouseListener(Component, MouseListener)
+	 */
+	public void addMouseMotionListener( Component component, MouseMotionListener listener );
+	
+	/**
+	 * Removes the observer <code>listener</code> from this dispatcher.
+	 * @param component the component which was observed by <code>listener</code>
+	 * @param listener the listener to remove
+	 */
+	public void removeMouseMotionListener( Component component, MouseMotionListener listener );
 
 	/**
 	 * Adds the observer <code>listener</code> to this dispatcher.
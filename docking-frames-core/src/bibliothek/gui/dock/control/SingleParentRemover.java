@@ -33,6 +33,8 @@ import bibliothek.gui.dock.accept.DockAcceptance;
 import bibliothek.gui.dock.control.relocator.DockRelocatorEvent;
 import bibliothek.gui.dock.control.relocator.VetoableDockRelocatorAdapter;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 
 /**
  * An observer of a {@link DockController}. The remover
@@ -199,7 +201,23 @@ public class SingleParentRemover{
      * if the structure of the dock-tree changes.
      * @author Benjamin Sigg
      */
-    private class DockRegisterObserver extends DockRegisterAdapter{
+    private class DockRegisterObserver extends DockRegisterAdapter implements DockRegisterBatchListener{
+        public void registerBatch( DockRegisterBatchEvent event ){
+        	final DockController controller = event.getController();
+        	if( !event.getRegisteredStations().isEmpty() ){
+        		controller.getHierarchyLock().onRelease( new Runnable(){
+    				public void run(){
+    					testAll( controller );	
+    				}
+    			});
+        	}
+        	
+        	boolean changed = !event.getRegisteredDockables().isEmpty() || !event.getUnregisteredDockables().isEmpty();
+        	if( !event.getCycledDockables().isEmpty() || (changed && !controller.getRelocator().isOnPut()) ){
+        		testAll( controller );
+        	}
+        }
+        
         @Override
         public void dockableCycledRegister( DockController controller, Dockable dockable ) {
             testAll( controller );
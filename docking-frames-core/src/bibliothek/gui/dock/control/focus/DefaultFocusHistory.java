@@ -25,13 +25,19 @@
  */
 package bibliothek.gui.dock.control.focus;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
 import bibliothek.gui.dock.util.DockUtilities;
@@ -110,7 +116,42 @@ public class DefaultFocusHistory implements FocusHistory{
 	 * focus, and which {@link Dockable}s are to be removed.
 	 * @author Benjamin Sigg
 	 */
-	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
+	private class Listener extends DockRegisterAdapter implements DockRegisterBatchListener, DockableFocusListener{
+		public void registerBatch( DockRegisterBatchEvent event ){
+			List<Dockable> unregistered = event.getUnregisteredDockables();
+			if( !unregistered.isEmpty() ){
+				Set<Dockable> removed = newIdentitySet();
+				removed.addAll( unregistered );
+				removeAll( history, removed );
+				removeAll( unfocused, removed );
+			}
+			
+			List<Dockable> registered = event.getRegisteredDockables();
+			if( !registered.isEmpty() ){
+				Set<Dockable> known = newIdentitySet();
+				known.addAll( history );
+				known.addAll( unfocused );
+				for( Dockable dockable : registered ){
+					if( event.getController().getRegister().isRegistered( dockable ) && known.add( dockable )){
+						unfocused.add( dockable );
+					}
+				}
+			}
+		}
+		
+		private Set<Dockable> newIdentitySet(){
+			return Collections.newSetFromMap( new IdentityHashMap<Dockable, Boolean>() );
+		}
+		
+		private void removeAll( List<Dockable> list, Set<Dockable> removed ){
+			Iterator<Dockable> iterator = list.iterator();
+			while( iterator.hasNext() ){
+				if( removed.contains( iterator.next() )){
+					iterator.remove();
+				}
+			}
+		}
+		
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
 			history.remove( dockable );
 			unfocused.remove( dockable );
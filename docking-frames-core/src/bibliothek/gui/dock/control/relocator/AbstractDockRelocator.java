@@ -89,6 +89,10 @@ public abstract class AbstractDockRelocator implements DockRelocator{
 		return controller;
 	}
 	
+	public void kill(){
+		// nothing to do
+	}
+	
 	public void addVetoableDockRelocatorListener( VetoableDockRelocatorListener listener ){
 		if( listener == null ){
 			throw new IllegalArgumentException( "listener must not be null" );
@@ -38,6 +38,9 @@ import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowListener;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,6 +95,17 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 			new PropertyKey<Boolean>( "dock.default.relocator.autodrop", 
 					new ConstantPropertyFactory<Boolean>( true ), true );
 	
+	/**
+	 * If <code>true</code>, then a {@link StationSpatialIndex} is used to find the {@link DockStation}s that
+	 * are under the mouse during a drag and drop operation. This speeds up operations in applications with many
+	 * nested stations, but {@link bibliothek.gui.dock.station.layer.DockStationDropLayer}s that reach far over
+	 * the boundaries of their station may be ignored.<br>
+	 * The default value is <code>false</code>.
+	 */
+	public static final PropertyKey<Boolean> SPATIAL_STATION_INDEX =
+			new PropertyKey<Boolean>( "dock.default.relocator.spatialIndex",
+					new ConstantPropertyFactory<Boolean>( false ), true );
+	
 	/** Path of an {@link ExtensionName} that adds new {@link Merger}s */
 	public static final Path MERGE_EXTENSION = new Path( "dock.merger" );
 	
@@ -114,6 +128,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     
     /** a window painting a title onto the screen */
     private ImageWindow movingImageWindow;
+    /** a hidden window that was used by an earlier drag and drop operation and that can be reused */
+    private ImageWindow unusedImageWindow;
     /** the point where the mouse was pressed on the currently dragged title */
     private Point pressPointScreen;
     /** the point where the mouse was pressed on the currently dragged title */
@@ -127,6 +143,17 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** The {@link DockControllerRepresentativeListener} that creates all the {@link MouseListener}s */
     private Listener listeners;
     
+    /** the index of the stations, only set if {@link #SPATIAL_STATION_INDEX} is <code>true</code> */
+    private StationSpatialIndex spatialIndex;
+    
+    /** tells whether {@link #spatialIndex} should be used */
+    private PropertyValue<Boolean> spatialIndexEnabled = new PropertyValue<Boolean>( SPATIAL_STATION_INDEX ){
+    	@Override
+    	protected void valueChanged( Boolean oldValue, Boolean newValue ){
+    		setSpatialIndexEnabled( newValue );
+    	}
+	};
+    
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller whose dockables are moved
@@ -160,6 +187,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 				
 				GlobalMouseReleaseListener globalMouseReleaseListener = new GlobalMouseReleaseListener();
 				globalMouseReleaseListener.link();
+				
+				spatialIndexEnabled.setProperties( controller );
+				setSpatialIndexEnabled( spatialIndexEnabled.getValue() );
 		    }
 		});
 		
@@ -167,6 +197,20 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 		setInserter( inserter );
 	}
 	
+	@Override
+	public void kill(){
+		if( movingImageWindow != null ){
+			movingImageWindow.close();
+			movingImageWindow = null;
+		}
+		if( unusedImageWindow != null ){
+			unusedImageWindow.dispose();
+			unusedImageWindow = null;
+		}
+		spatialIndexEnabled.setProperties( (DockController)null );
+		setSpatialIndexEnabled( false );
+	}
+	
 	public boolean isOnMove(){
         return onMove;
     }
@@ -179,6 +223,38 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     	return operation != null;
     }
     
+    /**
+     * Creates or destroys the {@link StationSpatialIndex} that is used by {@link #listStationsOrdered(int, int, Dockable)}.
+     * @param enabled whether the index should be used
+     */
+    private void setSpatialIndexEnabled( boolean enabled ){
+    	if( enabled && spatialIndex == null ){
+    		spatialIndex = createSpatialIndex();
+    		spatialIndex.setController( getController() );
+    	}
+    	else if( !enabled && spatialIndex != null ){
+    		spatialIndex.setController( null );
+    		spatialIndex = null;
+    	}
+    }
+    
+    /**
+     * Creates a new {@link StationSpatialIndex} which will be used if {@link #SPATIAL_STATION_INDEX} is set.
+     * Subclasses may override this method to configure the index.
+     * @return the new index, must not be <code>null</code>
+     */
+    protected StationSpatialIndex createSpatialIndex(){
+    	return new StationSpatialIndex();
+    }
+    
+    /**
+     * Gets the {@link StationSpatialIndex} that is currently in use.
+     * @return the index or <code>null</code> if {@link #SPATIAL_STATION_INDEX} is not set
+     */
+    public StationSpatialIndex getSpatialIndex(){
+		return spatialIndex;
+	}
+    
     public DirectRemoteRelocator createDirectRemote( Dockable dockable ){
     	return createDirectRemote( dockable, false );
     }
@@ -390,7 +466,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     
     /**
      * Makes a list of all stations which are visible and contain the point
-     * <code>x/y</code>. The stations are ordered by their visibility.
+     * <code>x/y</code>. The stations are ordered by their visibility. If {@link #SPATIAL_STATION_INDEX}
+     * is set, then only the stations near <code>x/y</code> are checked.
      * @param x x-coordinate on the screen
      * @param y y-coordinate on the screen
      * @param moved a Dockable which is dragged. If this is a 
@@ -405,7 +482,14 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     	if( disabling == null || !disabling.isDisabled( moved )){
 	        DockStation movedStation = moved.asDockStation();
 	        if( !isCancelLocation( x, y, moved )){
-	        	for( DockStation station : controller.getRegister().listDockStations() ){
+	        	DockStation[] stations;
+	        	if( spatialIndex != null ){
+	        		stations = spatialIndex.getStationsAt( x, y );
+	        	}
+	        	else{
+	        		stations = controller.getRegister().listDockStations();
+	        	}
+	        	for( DockStation station : stations ){
 	        		if( disabling == null || !disabling.isDisabled( station )){
 		        		if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
 		        			if( station.isStationShowing() && isStationValid( station ) ){
@@ -1002,7 +1086,16 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         else
             parent = SwingUtilities.getWindowAncestor( title.getComponent() );
         
-        ImageWindow window = new ImageWindow( parent, image );
+        ImageWindow window = unusedImageWindow;
+        unusedImageWindow = null;
+        if( window != null && window.getParentWindow() != parent ){
+        	window.dispose();
+        	window = null;
+        }
+        if( window == null ){
+        	window = new ImageWindow( parent );
+        }
+        window.setImage( image );
         window.pack();
         return window;
     }
@@ -1224,20 +1317,43 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     }
     
     /**
-     * A window which shows a single {@link DockTitle}.
+     * A window which shows a single {@link DockTitle}. The window is not disposed when it
+     * is closed, instead it is kept hidden and reused by the next drag and drop operation.
      * @author Benjamin Sigg
      */
     private class ImageWindow extends JWindow{
         /** the image to display */
         private MovingImage image;
         
+        /** the parent of this window */
+        private Window parent;
+        
+        /** whether this window supports transparency */
+        private boolean transparency;
+        
+        /** disposes this window if {@link #parent} is disposed */
+        private WindowListener parentListener;
+        
         /**
          * Constructs a new window
          * @param parent the parent of the window
-         * @param image the image to display
          */
-        public ImageWindow( Window parent, MovingImage image ){
+        public ImageWindow( Window parent ){
             super( parent );
+            this.parent = parent;
+            
+            if( parent != null ){
+            	parentListener = new WindowAdapter(){
+            		@Override
+            		public void windowClosed( WindowEvent e ){
+            			if( unusedImageWindow == ImageWindow.this ){
+            				unusedImageWindow = null;
+            			}
+            			dispose();
+            		}
+            	};
+            	parent.addWindowListener( parentListener );
+            }
             
             addComponentListener( new ComponentListener(){
 				public void componentHidden( ComponentEvent e ){
@@ -1276,11 +1392,34 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
                 // ignore
             }
             
-            boolean transparency = Workarounds.getDefault().setTranslucent( this );
-            
-            image.bind( transparency );
-            content.add( image.getComponent() );
-            this.image = image;
+            transparency = Workarounds.getDefault().setTranslucent( this );
+        }
+        
+        @Override
+        public void dispose(){
+        	if( parentListener != null ){
+        		parent.removeWindowListener( parentListener );
+        		parentListener = null;
+        	}
+        	super.dispose();
+        }
+        
+        /**
+         * Gets the window that was used as parent of this window.
+         * @return the parent, can be <code>null</code>
+         */
+        public Window getParentWindow(){
+			return parent;
+		}
+        
+        /**
+         * Sets the image that is shown on this window.
+         * @param image the new image, not <code>null</code>
+         */
+        public void setImage( MovingImage image ){
+        	image.bind( transparency );
+        	getContentPane().add( image.getComponent() );
+        	this.image = image;
         }
         
         /**
@@ -1294,15 +1433,23 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         /**
          * Closes this window and ensures that the title has the same
          * binding-state as it had at the time when this window was
-         * constructed. 
+         * constructed. The window is kept for the next drag and drop operation,
+         * if there is not already another window waiting to be reused.
          */
         public void close(){
-            dispose();
+            setVisible( false );
             if( image != null ){
                 image.unbind();
                 image = null;
             }
             getContentPane().removeAll();
+            
+            if( unusedImageWindow == null ){
+            	unusedImageWindow = this;
+            }
+            else if( unusedImageWindow != this ){
+            	dispose();
+            }
         }
     }
 }
@@ -0,0 +1,446 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.relocator;
+
+import java.awt.Component;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.HierarchyBoundsListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
+import bibliothek.gui.dock.event.DockRegisterListener;
+
+/**
+ * A screen-space index of the {@link DockStation}s known to a {@link DockController}. The index
+ * divides the screen into a uniform grid of cells and remembers which stations cover which cells. The
+ * {@link DefaultDockRelocator} can use this index to find the stations that are under the mouse, instead
+ * of checking every single registered station on every mouse-drag event.<br>
+ * The bounds of the stations are not updated eagerly, instead each station is only marked as dirty if one
+ * of its {@link Component}s, or a parent of the {@link Component}, is moved, resized or changes its parent.<br>
+ * Stations which are not {@link Dockable}s, or which have no parent, are treated as "unbounded" and are
+ * always reported. The same is true for the ancestors of any station that is reported, since
+ * {@link bibliothek.gui.dock.station.layer.DockStationDropLayer}s of a parent may modify the layers of their
+ * children. Since layers can reach beyond the boundaries of their station, each station is stored with
+ * a {@link #setMargin(int) margin} around its bounds.
+ * @author Benjamin Sigg
+ */
+public class StationSpatialIndex {
+	/** the default size of one cell of the grid, in pixels */
+	public static final int DEFAULT_CELL_SIZE = 128;
+
+	/** the default margin added around the bounds of each station */
+	public static final int DEFAULT_MARGIN = 32;
+
+	/** the controller whose stations are observed */
+	private DockController controller;
+
+	/** all the stations that are currently known */
+	private Map<DockStation, Entry> entries = new HashMap<DockStation, Entry>();
+
+	/** the stations that have to be reported for any location */
+	private Set<Entry> unbounded = new LinkedHashSet<Entry>();
+
+	/** the stations whose bounds are no longer valid */
+	private Set<Entry> dirty = new HashSet<Entry>();
+
+	/** the cells of the grid */
+	private Map<Long, List<Entry>> cells = new HashMap<Long, List<Entry>>();
+
+	/** the size of one cell */
+	private int cellSize;
+
+	/** how much the bounds of each station get extended */
+	private int margin = DEFAULT_MARGIN;
+
+	/** a listener to {@link #controller} adding and removing stations */
+	private DockRegisterListener registerListener = new RegisterListener();
+
+	/**
+	 * Creates a new index using {@link #DEFAULT_CELL_SIZE} as size of the cells.
+	 */
+	public StationSpatialIndex(){
+		this( DEFAULT_CELL_SIZE );
+	}
+
+	/**
+	 * Creates a new index.
+	 * @param cellSize the size of one cell of the grid, at least 1
+	 */
+	public StationSpatialIndex( int cellSize ){
+		if( cellSize < 1 ){
+			throw new IllegalArgumentException( "cellSize must be at least 1: " + cellSize );
+		}
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Sets the controller whose stations are indexed. All the stations of the old controller are
+	 * removed from this index, all the stations of the new controller are added.
+	 * @param controller the new controller, can be <code>null</code>
+	 */
+	public void setController( DockController controller ){
+		if( this.controller != controller ){
+			if( this.controller != null ){
+				this.controller.getRegister().removeDockRegisterListener( registerListener );
+				for( Entry entry : entries.values() ){
+					entry.destroy();
+				}
+				entries.clear();
+				unbounded.clear();
+				dirty.clear();
+				cells.clear();
+			}
+
+			this.controller = controller;
+
+			if( controller != null ){
+				controller.getRegister().addDockRegisterListener( registerListener );
+				for( DockStation station : controller.getRegister().listDockStations() ){
+					add( station );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the controller whose stations are observed by this index.
+	 * @return the controller, can be <code>null</code>
+	 */
+	public DockController getController(){
+		return controller;
+	}
+
+	/**
+	 * Sets the margin that is added around the bounds of each station. The margin should
+	 * be big enough to cover any {@link bibliothek.gui.dock.station.layer.DockStationDropLayer}
+	 * that reaches over the boundaries of its station.
+	 * @param margin the margin, at least 0
+	 */
+	public void setMargin( int margin ){
+		if( margin < 0 ){
+			throw new IllegalArgumentException( "margin must not be negative: " + margin );
+		}
+		if( this.margin != margin ){
+			this.margin = margin;
+			dirty.addAll( entries.values() );
+		}
+	}
+
+	/**
+	 * Gets the margin that is added around the bounds of each station.
+	 * @return the margin
+	 */
+	public int getMargin(){
+		return margin;
+	}
+
+	/**
+	 * Gets the number of stations that are currently known to this index.
+	 * @return the number of stations
+	 */
+	public int getStationCount(){
+		return entries.size();
+	}
+
+	/**
+	 * Gets all the stations that may be interested in a drop at <code>x/y</code>. The result includes
+	 * all stations that are near <code>x/y</code>, all unbounded stations, and all the ancestors of
+	 * these stations. The result may contain stations that are not showing, clients still have to
+	 * filter the stations.
+	 * @param x the x-coordinate on the screen
+	 * @param y the y-coordinate on the screen
+	 * @return the stations that are near <code>x/y</code>, never <code>null</code>
+	 */
+	public DockStation[] getStationsAt( int x, int y ){
+		validate();
+
+		Set<DockStation> result = new LinkedHashSet<DockStation>();
+		for( Entry entry : unbounded ){
+			result.add( entry.station );
+		}
+
+		List<Entry> cell = cells.get( key( cell( x ), cell( y ) ));
+		if( cell != null ){
+			for( Entry entry : cell ){
+				if( entry.bounds.contains( x, y )){
+					if( result.add( entry.station )){
+						addAncestors( entry.station, result );
+					}
+				}
+			}
+		}
+
+		return result.toArray( new DockStation[ result.size() ] );
+	}
+
+	private void addAncestors( DockStation station, Set<DockStation> result ){
+		Dockable dockable = station.asDockable();
+		while( dockable != null ){
+			DockStation parent = dockable.getDockParent();
+			if( parent == null || !entries.containsKey( parent ) || !result.add( parent )){
+				return;
+			}
+			dockable = parent.asDockable();
+		}
+	}
+
+	/**
+	 * Gets the boundaries of <code>component</code> on the screen. This method is called whenever the
+	 * location of a station has to be updated.
+	 * @param component the {@link Component} of a station
+	 * @return the boundaries on the screen, or <code>null</code> if <code>component</code> is not showing
+	 */
+	protected Rectangle getBoundsOnScreen( Component component ){
+		if( !component.isShowing() ){
+			return null;
+		}
+		Point location = component.getLocationOnScreen();
+		return new Rectangle( location.x, location.y, component.getWidth(), component.getHeight() );
+	}
+
+	/**
+	 * Adds <code>station</code> to this index.
+	 * @param station the new station
+	 */
+	private void add( DockStation station ){
+		if( !entries.containsKey( station )){
+			Entry entry = new Entry( station );
+			entries.put( station, entry );
+			dirty.add( entry );
+		}
+	}
+
+	/**
+	 * Removes <code>station</code> from this index.
+	 * @param station the station to remove
+	 */
+	private void remove( DockStation station ){
+		Entry entry = entries.remove( station );
+		if( entry != null ){
+			entry.clear();
+			entry.destroy();
+			dirty.remove( entry );
+		}
+	}
+
+	/**
+	 * Updates the bounds of all dirty stations.
+	 */
+	private void validate(){
+		if( !dirty.isEmpty() ){
+			for( Entry entry : dirty ){
+				entry.update();
+			}
+			dirty.clear();
+		}
+	}
+
+	private int cell( int coordinate ){
+		return (int)Math.floor( coordinate / (double)cellSize );
+	}
+
+	private long key( int cellX, int cellY ){
+		return (((long)cellX) << 32) | (cellY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Adds and removes the stations of {@link StationSpatialIndex#controller} to and from the index.
+	 * @author Benjamin Sigg
+	 */
+	private class RegisterListener extends DockRegisterAdapter implements DockRegisterBatchListener{
+		@Override
+		public void dockStationRegistered( DockController controller, DockStation station ){
+			add( station );
+		}
+
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			remove( station );
+		}
+
+		public void registerBatch( DockRegisterBatchEvent event ){
+			for( DockStation station : event.getUnregisteredStations() ){
+				remove( station );
+			}
+			for( DockStation station : event.getRegisteredStations() ){
+				if( station.getController() == event.getController() ){
+					add( station );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Information about one {@link DockStation} that is stored in the grid.
+	 * @author Benjamin Sigg
+	 */
+	private class Entry implements ComponentListener, HierarchyBoundsListener, HierarchyListener{
+		/** the station represented by this entry */
+		private DockStation station;
+		/** the component that is observed, can be <code>null</code> */
+		private Component component;
+		/** the current bounds of {@link #station} on the screen, including the margin */
+		private Rectangle bounds;
+		/** the cells in which this entry is currently stored, minX, minY, maxX, maxY */
+		private int[] range;
+
+		/**
+		 * Creates a new entry.
+		 * @param station the station represented by this entry
+		 */
+		public Entry( DockStation station ){
+			this.station = station;
+			Dockable dockable = station.asDockable();
+			if( dockable != null ){
+				component = dockable.getComponent();
+				if( component != null ){
+					component.addComponentListener( this );
+					component.addHierarchyBoundsListener( this );
+					component.addHierarchyListener( this );
+				}
+			}
+		}
+
+		/**
+		 * Removes all listeners that were added by this entry.
+		 */
+		public void destroy(){
+			if( component != null ){
+				component.removeComponentListener( this );
+				component.removeHierarchyBoundsListener( this );
+				component.removeHierarchyListener( this );
+			}
+		}
+
+		/**
+		 * Removes this entry from all the cells and from {@link StationSpatialIndex#unbounded}.
+		 */
+		public void clear(){
+			unbounded.remove( this );
+			if( range != null ){
+				for( int cx = range[0]; cx <= range[2]; cx++ ){
+					for( int cy = range[1]; cy <= range[3]; cy++ ){
+						Long key = key( cx, cy );
+						List<Entry> list = cells.get( key );
+						if( list != null ){
+							list.remove( this );
+							if( list.isEmpty() ){
+								cells.remove( key );
+							}
+						}
+					}
+				}
+				range = null;
+			}
+			bounds = null;
+		}
+
+		/**
+		 * Recalculates the bounds of this entry and updates the grid.
+		 */
+		public void update(){
+			clear();
+
+			Dockable dockable = station.asDockable();
+			if( component == null || dockable == null || dockable.getDockParent() == null ){
+				unbounded.add( this );
+				return;
+			}
+
+			Rectangle screen = getBoundsOnScreen( component );
+			if( screen == null ){
+				return;
+			}
+
+			bounds = new Rectangle( screen.x - margin, screen.y - margin, screen.width + 2*margin, screen.height + 2*margin );
+			range = new int[]{
+					cell( bounds.x ), cell( bounds.y ),
+					cell( bounds.x + bounds.width ), cell( bounds.y + bounds.height ) };
+
+			for( int cx = range[0]; cx <= range[2]; cx++ ){
+				for( int cy = range[1]; cy <= range[3]; cy++ ){
+					Long key = key( cx, cy );
+					List<Entry> list = cells.get( key );
+					if( list == null ){
+						list = new ArrayList<Entry>( 4 );
+						cells.put( key, list );
+					}
+					list.add( this );
+				}
+			}
+		}
+
+		private void invalidate(){
+			if( entries.get( station ) == this ){
+				dirty.add( this );
+			}
+		}
+
+		public void componentHidden( ComponentEvent e ){
+			invalidate();
+		}
+
+		public void componentMoved( ComponentEvent e ){
+			invalidate();
+		}
+
+		public void componentResized( ComponentEvent e ){
+			invalidate();
+		}
+
+		public void componentShown( ComponentEvent e ){
+			invalidate();
+		}
+
+		public void ancestorMoved( HierarchyEvent e ){
+			invalidate();
+		}
+
+		public void ancestorResized( HierarchyEvent e ){
+			invalidate();
+		}
+
+		public void hierarchyChanged( HierarchyEvent e ){
+			invalidate();
+		}
+	}
+}
@@ -52,6 +52,7 @@ import bibliothek.gui.dock.displayer.DockableDisplayerHints;
 import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.event.DockableListener;
 import bibliothek.gui.dock.event.KeyboardListener;
+import bibliothek.gui.dock.event.ListenerList;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleRequest;
 import bibliothek.gui.dock.util.DockProperties;
@@ -81,7 +82,7 @@ public abstract class AbstractDockable implements Dockable {
     private DockController controller;
     
     /** a list of dockableListeners which will be informed when some properties changes */
-    private List<DockableListener> dockableListeners = new ArrayList<DockableListener>();
+    private ListenerList<DockableListener> dockableListeners = new ListenerList<DockableListener>( DockableListener.class );
     /** a listener to the hierarchy of the parent */
     private DockHierarchyObserver hierarchyObserver;
     /** a listener for monitoring the location of this dockable */
@@ -554,7 +555,7 @@ public abstract class AbstractDockable implements Dockable {
      * @param newTitle the new title
      */
     protected void fireTitleTextChanged( String oldTitle, String newTitle ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleTextChanged( this, oldTitle, newTitle );
     }
     
@@ -565,7 +566,7 @@ public abstract class AbstractDockable implements Dockable {
      * @param newTooltip the new value
      */
     protected void fireTitleTooltipChanged( String oldTooltip, String newTooltip ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleToolTipChanged( this, oldTooltip, newTooltip );
     }
 
@@ -577,7 +578,7 @@ public abstract class AbstractDockable implements Dockable {
      */
     protected void fireTitleIconChanged( Icon oldIcon, Icon newIcon ){
     	currentTitleIcon = newIcon;
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleIconChanged( this, oldIcon, newIcon );
     }
     
@@ -586,7 +587,7 @@ public abstract class AbstractDockable implements Dockable {
      * @param title the title which was bound
      */
     protected void fireTitleBound( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleBound( this, title );
     }
     
@@ -595,7 +596,7 @@ public abstract class AbstractDockable implements Dockable {
      * @param title the title which was unbound
      */
     protected void fireTitleUnbound( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleUnbound( this, title );
     }
     
@@ -605,7 +606,7 @@ public abstract class AbstractDockable implements Dockable {
      * @param title a title, can be <code>null</code>
      */
     protected void fireTitleExchanged( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleExchanged( this, title );
     }
     
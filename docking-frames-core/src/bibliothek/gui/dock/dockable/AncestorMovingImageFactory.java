@@ -36,6 +36,7 @@ import javax.swing.SwingUtilities;
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.title.DockTitle;
+import bibliothek.gui.dock.util.BufferedImagePool;
 
 /**
  * This factory tries to find a common anchestor of {@link DockTitle} and
@@ -84,6 +85,7 @@ public class AncestorMovingImageFactory extends ScreencaptureMovingImageFactory{
 			TrueMovingImage moving = new TrueMovingImage();
 			moving.setAlpha( getAlpha() );
 	        moving.setImage( image );
+	        moving.setPool( BufferedImagePool.get( controller ) );
 	        return moving;
 		}
 	}
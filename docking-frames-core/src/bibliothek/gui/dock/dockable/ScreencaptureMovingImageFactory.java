@@ -38,6 +38,7 @@ import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.util.AWTComponentCaptureStrategy;
+import bibliothek.gui.dock.util.BufferedImagePool;
 import bibliothek.gui.dock.util.DockSwingUtilities;
 
 /**
@@ -52,6 +53,9 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     
     /** the transparency */
     private float alpha;
+    
+    /** whether to paint components directly with their reduced size */
+    private boolean scaledPainting = false;
 
     /**
      * Creates a new factory.
@@ -93,6 +97,27 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     public float getAlpha(){
 		return alpha;
 	}
+    
+    /**
+     * Sets whether {@link Component}s that are larger than the maximum size of this factory, and that
+     * do not contain any AWT components, are painted directly with their reduced size. Otherwise the 
+     * {@link Component}s are painted with their full size first, and the image is scaled down 
+     * afterwards. Painting scaled {@link Component}s is much faster and requires less memory, but the
+     * preview may look a bit less smooth.
+     * @param scaledPainting whether to paint the preview directly with its reduced size
+     */
+    public void setScaledPainting( boolean scaledPainting ){
+		this.scaledPainting = scaledPainting;
+	}
+    
+    /**
+     * Tells whether {@link Component}s are painted directly with their reduced size.
+     * @return whether the preview is painted with its reduced size
+     * @see #setScaledPainting(boolean)
+     */
+    public boolean isScaledPainting(){
+		return scaledPainting;
+	}
 
     public MovingImage create( DockController controller, DockTitle snatched ) {
         return create( controller, snatched.getDockable() );
@@ -104,6 +129,7 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
         TrueMovingImage moving = new TrueMovingImage();
         moving.setAlpha( alpha );
         moving.setImage( image );
+        moving.setPool( BufferedImagePool.get( controller ) );
         return moving;
     }
     
@@ -137,7 +163,8 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     }
     
     /**
-     * This method creates a new image that contains the contents of <code>c</code>.
+     * This method creates a new image that contains the contents of <code>c</code>. The
+     * image may be taken from the {@link BufferedImagePool} of <code>controller</code>.
      * @param controller the controller for which the image is made
      * @param c the {@link Component} whose image should be taken
      * @return an image of <code>c</code> which is not larger than the
@@ -153,41 +180,53 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
         BufferedImage image = null;
         
         if( size.width >= 10 && size.height >= 10 ){
+            double factor = 1.0;
+            if( max != null ){
+            	factor = Math.min( 
+                    max.getWidth() / size.getWidth(), 
+                    max.getHeight() / size.getHeight() );
+            }
+            
+            int w = size.width;
+            int h = size.height;
+            if( factor < 1.0 ){
+            	w = Math.max( (int)( factor * size.getWidth() ), 1 );
+            	h = Math.max( (int)( factor * size.getHeight() ), 1 );
+            }
+            
             if( DockSwingUtilities.containsAWTComponents( c )){
                 image = controller.getProperties().get( AWTComponentCaptureStrategy.STRATEGY ).createCapture( controller, c );
             }
+            else if( scaledPainting && (w != size.width || h != size.height) ){
+            	image = BufferedImagePool.acquire( controller, w, h );
+            	Graphics2D g = image.createGraphics();
+            	g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+            	g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+            	g.scale( w / size.getWidth(), h / size.getHeight() );
+            	c.paint( g );
+            	g.dispose();
+            	return image;
+            }
             else{
-                image = new BufferedImage( size.width, size.height, BufferedImage.TYPE_INT_ARGB );
+                image = BufferedImagePool.acquire( controller, size.width, size.height );
                 Graphics g = image.createGraphics();
                 c.paint( g );
                 g.dispose();
             }
             
-            if( image != null ){
-                double factor = 1.0;
-                if( max != null ){
-                	factor = Math.min( 
-                        max.getWidth() / size.getWidth(), 
-                        max.getHeight() / size.getHeight() );
-                }
-
-                if( factor < 1.0 ){
-                    int w = (int)( factor * size.getWidth() );
-                    int h = (int)( factor * size.getHeight() );
-
-                    w = Math.max( w, 1 );
-                    h = Math.max( h, 1 );
-
-                    if( w != size.width || h != size.height ){
-                        BufferedImage small = new BufferedImage( w, h, image.getType() );
-                        Graphics2D g = small.createGraphics();
-                        g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
-                        g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
-                        g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
-                        g.dispose();
-                        image = small;
-                    }
+            if( image != null && (w != size.width || h != size.height) ){
+                BufferedImage small = BufferedImagePool.acquire( controller, w, h );
+                Graphics2D g = small.createGraphics();
+                g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+                g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+                g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
+                g.dispose();
+                
+                BufferedImagePool pool = BufferedImagePool.get( controller );
+                if( pool != null ){
+                	pool.release( image );
                 }
+                image = small;
             }
         }
         
@@ -37,6 +37,8 @@ import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
+import bibliothek.gui.dock.util.BufferedImagePool;
+
 /**
  * A {@link MovingImage} that truly uses an {@link Image} to paint its content.
  * @author Benjamin Sigg
@@ -52,6 +54,9 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     /** whether transparency is supported */
     private boolean transparent = true;
     
+    /** the pool from which {@link #image} was taken, can be <code>null</code> */
+    private BufferedImagePool pool;
+    
     /**
      * Sets the transparency, 0 means the image is invisible, 1 means the image is opaque.
      * @param alpha the new transparency
@@ -100,6 +105,24 @@ public class TrueMovingImage extends JPanel implements MovingImage{
         repaint();
     }
     
+    /**
+     * Sets the pool from which the image of this {@link MovingImage} was taken. The image
+     * is put back into <code>pool</code> once this {@link MovingImage} is {@link #unbind() unbound},
+     * and this {@link MovingImage} must not be used afterwards.
+     * @param pool the pool, can be <code>null</code>
+     */
+    public void setPool( BufferedImagePool pool ){
+		this.pool = pool;
+	}
+    
+    /**
+     * Gets the pool to which the image is put back once this {@link MovingImage} is no longer used.
+     * @return the pool, can be <code>null</code>
+     */
+    public BufferedImagePool getPool(){
+		return pool;
+	}
+    
     public Point getOffset( Point pressPoint ){
     	return null;
     }
@@ -110,7 +133,11 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     }
     
     public void unbind() {
-        // ignore
+        if( pool != null ){
+        	pool.release( image );
+        	image = null;
+        	pool = null;
+        }
     }
     
     public Component getComponent() {
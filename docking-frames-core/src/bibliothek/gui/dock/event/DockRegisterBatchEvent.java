@@ -0,0 +1,164 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * Describes all the changes that happened while a {@link DockRegister} fired the events it collected
+ * during the time it was {@link DockRegister#setStalled(boolean) stalled}. This event is delivered
+ * to {@link DockRegisterBatchListener}s.
+ * @author Benjamin Sigg
+ */
+public class DockRegisterBatchEvent {
+	/** the controller whose register fired this event */
+	private DockController controller;
+	
+	/** all the dockables that were registered */
+	private List<Dockable> registeredDockables = new ArrayList<Dockable>();
+	/** all the stations that were registered */
+	private List<DockStation> registeredStations = new ArrayList<DockStation>();
+	/** all the dockables that were unregistered */
+	private List<Dockable> unregisteredDockables = new ArrayList<Dockable>();
+	/** all the stations that were unregistered */
+	private List<DockStation> unregisteredStations = new ArrayList<DockStation>();
+	/** all the dockables that were added and removed, or removed and added */
+	private List<Dockable> cycledDockables = new ArrayList<Dockable>();
+	
+	/**
+	 * Creates a new, empty event.
+	 * @param controller the controller whose register fires this event
+	 */
+	public DockRegisterBatchEvent( DockController controller ){
+		this.controller = controller;
+	}
+	
+	/**
+	 * Gets the controller whose {@link DockRegister} fired this event.
+	 * @return the controller
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Tells whether this event does not contain any changes at all.
+	 * @return <code>true</code> if nothing changed
+	 */
+	public boolean isEmpty(){
+		return registeredDockables.isEmpty() && registeredStations.isEmpty() && 
+			unregisteredDockables.isEmpty() && unregisteredStations.isEmpty() && cycledDockables.isEmpty();
+	}
+	
+	/**
+	 * Called by the {@link DockRegister} when <code>dockable</code> was registered.
+	 * @param dockable the new dockable
+	 */
+	public void addRegisteredDockable( Dockable dockable ){
+		registeredDockables.add( dockable );
+	}
+	
+	/**
+	 * Called by the {@link DockRegister} when <code>station</code> was registered.
+	 * @param station the new station
+	 */
+	public void addRegisteredStation( DockStation station ){
+		registeredStations.add( station );
+	}
+	
+	/**
+	 * Called by the {@link DockRegister} when <code>dockable</code> was unregistered.
+	 * @param dockable the removed dockable
+	 */
+	public void addUnregisteredDockable( Dockable dockable ){
+		unregisteredDockables.add( dockable );
+	}
+	
+	/**
+	 * Called by the {@link DockRegister} when <code>station</code> was unregistered.
+	 * @param station the removed station
+	 */
+	public void addUnregisteredStation( DockStation station ){
+		unregisteredStations.add( station );
+	}
+	
+	/**
+	 * Called by the {@link DockRegister} when <code>dockable</code> cycled the register.
+	 * @param dockable the cycling dockable
+	 * @see DockRegisterListener#dockableCycledRegister(DockController, Dockable)
+	 */
+	public void addCycledDockable( Dockable dockable ){
+		cycledDockables.add( dockable );
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were registered, in the order in which they were registered.
+	 * @return the new dockables, an unmodifiable list
+	 */
+	public List<Dockable> getRegisteredDockables(){
+		return Collections.unmodifiableList( registeredDockables );
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were registered, in the order in which they were registered.
+	 * @return the new stations, an unmodifiable list
+	 */
+	public List<DockStation> getRegisteredStations(){
+		return Collections.unmodifiableList( registeredStations );
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were unregistered, in the order in which they were unregistered.
+	 * @return the removed dockables, an unmodifiable list
+	 */
+	public List<Dockable> getUnregisteredDockables(){
+		return Collections.unmodifiableList( unregisteredDockables );
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were unregistered, in the order in which they were unregistered.
+	 * @return the removed stations, an unmodifiable list
+	 */
+	public List<DockStation> getUnregisteredStations(){
+		return Collections.unmodifiableList( unregisteredStations );
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were added and removed, or removed and added. It is unknown
+	 * whether these dockables are now registered or not.
+	 * @return the cycling dockables, an unmodifiable list
+	 */
+	public List<Dockable> getCycledDockables(){
+		return Collections.unmodifiableList( cycledDockables );
+	}
+}
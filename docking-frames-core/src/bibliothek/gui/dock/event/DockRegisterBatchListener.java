@@ -0,0 +1,56 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * A {@link DockRegisterListener} that prefers to receive one single event after a {@link DockRegister} was
+ * {@link DockRegister#setStalled(boolean) stalled}, instead of one event for each {@link Dockable} and 
+ * {@link DockStation} that changed.<br>
+ * While the stalled events are fired, the methods {@link #dockableRegistered(DockController, Dockable) dockableRegistered},
+ * {@link #dockStationRegistered(DockController, DockStation) dockStationRegistered},
+ * {@link #dockableUnregistered(DockController, Dockable) dockableUnregistered},
+ * {@link #dockStationUnregistered(DockController, DockStation) dockStationUnregistered} and
+ * {@link #dockableCycledRegister(DockController, Dockable) dockableCycledRegister} are not called, instead
+ * {@link #registerBatch(DockRegisterBatchEvent)} is called once all the events are handled. The 
+ * <code>...Registering</code> methods are still called for each element. If the register is not stalled, 
+ * then all the events are delivered as usual.
+ * @author Benjamin Sigg
+ */
+public interface DockRegisterBatchListener extends DockRegisterListener{
+	/**
+	 * Called after a {@link DockRegister} fired all the events it collected while it was
+	 * {@link DockRegister#isStalled() stalled}. This method is called after 
+	 * {@link #registerUnstalled(DockController)}, it is not called if <code>event</code>
+	 * does not contain any changes.
+	 * @param event all the changes that happened
+	 */
+	public void registerBatch( DockRegisterBatchEvent event );
+}
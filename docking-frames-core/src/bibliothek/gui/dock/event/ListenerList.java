@@ -0,0 +1,136 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of listeners that is optimized for being read much more often than it is modified. The
+ * list offers a {@link #get() snapshot} of its listeners as array. The snapshot is created lazily
+ * and only replaced once a listener is added or removed, hence firing an event does not need to
+ * copy the listeners. A snapshot is never modified, so listeners can safely be added or removed
+ * while an event is fired.<br>
+ * This class is not thread safe.
+ * @author Benjamin Sigg
+ * @param <L> the kind of listener stored in this list
+ */
+public class ListenerList<L> {
+	/** all the listeners */
+	private List<L> listeners = new ArrayList<L>( 2 );
+
+	/** the current content of {@link #listeners}, <code>null</code> if not yet created */
+	private L[] snapshot;
+
+	/** an array without elements, used as snapshot if there are no listeners */
+	private final L[] empty;
+
+	/**
+	 * Creates a new list.
+	 * @param type the type of the listeners, used to create the snapshot arrays
+	 */
+	@SuppressWarnings("unchecked")
+	public ListenerList( Class<L> type ){
+		if( type == null ){
+			throw new IllegalArgumentException( "type must not be null" );
+		}
+		empty = (L[])Array.newInstance( type, 0 );
+		snapshot = empty;
+	}
+
+	/**
+	 * Adds <code>listener</code> to this list. The same listener can be added more than once.
+	 * @param listener the new listener, not <code>null</code>
+	 */
+	public void add( L listener ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		listeners.add( listener );
+		snapshot = null;
+	}
+
+	/**
+	 * Removes one occurrence of <code>listener</code> from this list.
+	 * @param listener the listener to remove
+	 * @return whether <code>listener</code> was found
+	 */
+	public boolean remove( L listener ){
+		if( listeners.remove( listener ) ){
+			snapshot = null;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all listeners from this list.
+	 */
+	public void clear(){
+		listeners.clear();
+		snapshot = empty;
+	}
+
+	/**
+	 * Tells whether <code>listener</code> is stored in this list.
+	 * @param listener the listener to search
+	 * @return whether <code>listener</code> was found
+	 */
+	public boolean contains( L listener ){
+		return listeners.contains( listener );
+	}
+
+	/**
+	 * Gets the number of listeners in this list.
+	 * @return the number of listeners
+	 */
+	public int size(){
+		return listeners.size();
+	}
+
+	/**
+	 * Tells whether there are no listeners in this list.
+	 * @return <code>true</code> if there are no listeners
+	 */
+	public boolean isEmpty(){
+		return listeners.isEmpty();
+	}
+
+	/**
+	 * Gets all the listeners of this list. The array is shared with other callers of this method
+	 * and must not be modified.
+	 * @return all the listeners, in the order in which they were added
+	 */
+	public L[] get(){
+		L[] result = snapshot;
+		if( result == null ){
+			result = listeners.toArray( empty );
+			snapshot = result;
+		}
+		return result;
+	}
+}
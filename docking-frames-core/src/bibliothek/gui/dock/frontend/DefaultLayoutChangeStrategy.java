@@ -25,7 +25,10 @@
  */
 package bibliothek.gui.dock.frontend;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -64,6 +67,40 @@ import bibliothek.util.xml.XException;
 public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
 	private boolean updatingFullLayout = false;
 	
+	/** whether roots whose layout does not change are left untouched */
+	private boolean layoutDiff = false;
+	
+	/** the names of the roots which are not touched by the current call to {@link #setLayout(DockFrontendInternals, Setting, boolean)} */
+	private Set<String> unchangedRoots;
+	
+	/** the stations inside changed roots which keep their children during the current call to {@link #setLayout(DockFrontendInternals, Setting, boolean)} */
+	private Set<DockStation> unchangedStations;
+	
+	/** the new layouts of the roots, with missing information already filled in, used to find the unchanged stations */
+	private Map<String, DockLayoutComposition> preparedRoots;
+	
+	/**
+	 * Sets whether this strategy compares the current layout with the new layout before applying a {@link Setting}. 
+	 * If <code>true</code>, then root stations whose layout does not change are neither cleaned nor rebuilt. Inside
+	 * the other roots, every subtree whose layout does not change is kept as it is: the station at the top of the subtree
+	 * is moved to its new location, but its children are not removed from it. Their {@link bibliothek.gui.dock.station.DockableDisplayer}s
+	 * and {@link bibliothek.gui.dock.title.DockTitle}s are reused. {@link Dockable}s which are direct children of a changed
+	 * station are always put into new displayers.
+	 * @param layoutDiff whether to skip unchanged roots and subtrees
+	 */
+	public void setLayoutDiff( boolean layoutDiff ){
+		this.layoutDiff = layoutDiff;
+	}
+	
+	/**
+	 * Tells whether root stations and subtrees with an unchanged layout are skipped when applying a {@link Setting}.
+	 * @return whether unchanged roots and subtrees are skipped
+	 * @see #setLayoutDiff(boolean)
+	 */
+	public boolean isLayoutDiff(){
+		return layoutDiff;
+	}
+	
 	public boolean setLayout( DockFrontendInternals frontend, Setting setting, boolean entry ) throws IOException, XException{
 		try{
 			updatingFullLayout = true;
@@ -106,16 +143,196 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         	return false;
         }
         
-        // split up all child parent relations
-        frontend.clean( ignore );
-        
-        // apply the new layout
-        applyLayout( frontend, situation, access, entry );
-        applyInvisibleLayout( frontend, situation, access );
+        try{
+        	if( isLayoutDiff() ){
+        		preparedRoots = new HashMap<String, DockLayoutComposition>();
+        		unchangedStations = new HashSet<DockStation>();
+        		unchangedRoots = listUnchangedRoots( frontend, situation, access );
+        		if( !unchangedRoots.isEmpty() || !unchangedStations.isEmpty() ){
+        			ignore = new UnchangedRootsIgnore( frontend, ignore );
+        		}
+        	}
+        	
+        	// split up all child parent relations
+        	frontend.clean( ignore );
+        	
+        	// apply the new layout
+        	applyLayout( frontend, situation, access, entry );
+        	applyInvisibleLayout( frontend, situation, access );
+        }
+        finally{
+        	unchangedRoots = null;
+        	unchangedStations = null;
+        	preparedRoots = null;
+        	situation.clearExisting();
+        }
         
         return true;
 	}
 	
+	/**
+	 * Searches all the root stations whose current layout is equal to the layout that is stored in <code>setting</code>.
+	 * These roots are neither cleaned nor rebuilt if {@link #isLayoutDiff() layout diff} is enabled. Roots which are
+	 * children of another station are never reported, as their layout is always applied by their parent. For the
+	 * roots whose layout changes, {@link #listUnchangedStations(DockSituation, DockStation, DockLayoutComposition)} is
+	 * called.
+	 * @param frontend the caller of this method
+	 * @param situation used to convert the layout
+	 * @param setting the new layout
+	 * @return the names of the roots that do not change, not <code>null</code>
+	 * @throws IOException if the layout cannot be converted
+	 * @throws XException if the layout cannot be converted
+	 */
+	protected Set<String> listUnchangedRoots( DockFrontendInternals frontend, DockSituation situation, SettingAccess setting ) throws IOException, XException{
+		Set<String> result = new HashSet<String>();
+		for( RootInfo info : frontend.getRoots() ){
+			Dockable dockable = info.getStation().asDockable();
+			if( dockable != null && dockable.getDockParent() != null ){
+				continue;
+			}
+			
+			DockLayoutComposition layout = setting.getRoot( info.getName() );
+			if( layout != null ){
+				layout = situation.fillMissing( layout );
+				DockLayoutComposition current = situation.convert( info.getStation() );
+				if( current != null && isEqualLayout( situation, current, layout )){
+					result.add( info.getName() );
+				}
+				else{
+					if( preparedRoots != null ){
+						preparedRoots.put( info.getName(), layout );
+					}
+					listUnchangedStations( situation, info.getStation(), layout );
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Searches the subtrees of <code>root</code> whose layout is equal to a subtree of <code>layout</code>. The stations
+	 * at the top of these subtrees keep their children, and are registered at <code>situation</code> as
+	 * {@link DockSituation#putExisting(DockLayoutComposition, DockElement) existing} elements.
+	 * @param situation used to convert the layout
+	 * @param root a root station whose layout changes
+	 * @param layout the new layout of <code>root</code>
+	 */
+	protected void listUnchangedStations( DockSituation situation, DockStation root, DockLayoutComposition layout ){
+		Map<LayoutKey, List<DockStation>> current = new HashMap<LayoutKey, List<DockStation>>();
+		listStations( situation, root, current );
+		if( !current.isEmpty() ){
+			for( DockLayoutComposition child : layout.getChildren() ){
+				listUnchangedStations( situation, child, current );
+			}
+		}
+	}
+	
+	private void listStations( DockSituation situation, DockStation parent, Map<LayoutKey, List<DockStation>> stations ){
+		for( int i = 0, n = parent.getDockableCount(); i<n; i++ ){
+			Dockable dockable = parent.getDockable( i );
+			DockStation station = dockable.asDockStation();
+			if( station != null && station.getDockableCount() > 0 ){
+				DockLayoutComposition composition = situation.convert( dockable );
+				if( composition != null && !composition.isIgnoreChildren() ){
+					try{
+						LayoutKey key = new LayoutKey( toByteArray( situation, composition ) );
+						List<DockStation> list = stations.get( key );
+						if( list == null ){
+							list = new ArrayList<DockStation>( 1 );
+							stations.put( key, list );
+						}
+						list.add( station );
+					}
+					catch( IOException e ){
+						// ignore this station
+					}
+					catch( IllegalArgumentException e ){
+						// ignore this station
+					}
+				}
+				listStations( situation, station, stations );
+			}
+		}
+	}
+	
+	private void listUnchangedStations( DockSituation situation, DockLayoutComposition layout, Map<LayoutKey, List<DockStation>> current ){
+		if( layout.isIgnoreChildren() || layout.getChildren().isEmpty() ){
+			return;
+		}
+		
+		try{
+			List<DockStation> list = current.get( new LayoutKey( toByteArray( situation, layout ) ));
+			if( list != null && !list.isEmpty() ){
+				DockStation station = list.remove( 0 );
+				unchangedStations.add( station );
+				situation.putExisting( layout, station.asDockable() );
+				return;
+			}
+		}
+		catch( IOException e ){
+			// check the children
+		}
+		catch( IllegalArgumentException e ){
+			// check the children
+		}
+		
+		for( DockLayoutComposition child : layout.getChildren() ){
+			listUnchangedStations( situation, child, current );
+		}
+	}
+	
+	/**
+	 * Tells whether <code>current</code> and <code>layout</code> describe the same layout. The default implementation
+	 * writes both compositions into a byte array and compares the arrays.
+	 * @param situation the situation which was used to create the compositions
+	 * @param current the layout of a root station as it is now
+	 * @param layout the new layout of the same root station
+	 * @return <code>true</code> if applying <code>layout</code> would not change anything
+	 */
+	protected boolean isEqualLayout( DockSituation situation, DockLayoutComposition current, DockLayoutComposition layout ){
+		try{
+			return Arrays.equals( toByteArray( situation, current ), toByteArray( situation, layout ) );
+		}
+		catch( IOException e ){
+			return false;
+		}
+		catch( IllegalArgumentException e ){
+			// one of the compositions was never translated
+			return false;
+		}
+	}
+	
+	private byte[] toByteArray( DockSituation situation, DockLayoutComposition composition ) throws IOException{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bout );
+		situation.writeComposition( composition, out );
+		out.close();
+		return bout.toByteArray();
+	}
+	
+	/**
+	 * Tells whether the root station <code>root</code> is left untouched by the current call to
+	 * {@link #setLayout(DockFrontendInternals, Setting, boolean)}.
+	 * @param root the name of a root station
+	 * @return <code>true</code> if the layout of <code>root</code> is not applied
+	 * @see #setLayoutDiff(boolean)
+	 */
+	protected boolean isUnchangedRoot( String root ){
+		return unchangedRoots != null && unchangedRoots.contains( root );
+	}
+	
+	/**
+	 * Tells whether <code>station</code> keeps its children during the current call to
+	 * {@link #setLayout(DockFrontendInternals, Setting, boolean)}, because the layout of the subtree starting
+	 * at <code>station</code> does not change.
+	 * @param station some station
+	 * @return <code>true</code> if the children of <code>station</code> are not touched
+	 * @see #setLayoutDiff(boolean)
+	 */
+	protected boolean isUnchangedStation( DockStation station ){
+		return unchangedStations != null && unchangedStations.contains( station );
+	}
+	
 	/**
 	 * Creates a wrapper around <code>setting</code> that allows the algorithm of this 
 	 * {@link LayoutChangeStrategy} to access the setting.
@@ -292,8 +509,15 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
     	
     	for( RootInfo info : frontend.getRoots() ){
             DockLayoutComposition layout = setting.getRoot( info.getName() );
-            if( layout != null ){
-                layout = situation.fillMissing( layout );
+            if( layout != null && !isUnchangedRoot( info.getName() )){
+            	DockLayoutComposition prepared = preparedRoots == null ? null : preparedRoots.get( info.getName() );
+            	if( prepared != null ){
+            		// the unchanged stations were registered for exactly this composition
+            		layout = prepared;
+            	}
+            	else{
+            		layout = situation.fillMissing( layout );
+            	}
                 
                 Map<String, DockableProperty> missingLocations =  listEstimateLocations( situation, layout );
                 if( missingLocations != null ){
@@ -625,4 +849,83 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
             setting.fillMissing( situation );
         }
     }
+    
+    /**
+     * A {@link DockSituationIgnore} that ignores all the root stations which are
+     * {@link DefaultLayoutChangeStrategy#isUnchangedRoot(String) unchanged}, and the children of all the stations
+     * which are {@link DefaultLayoutChangeStrategy#isUnchangedStation(DockStation) unchanged}. Otherwise all calls
+     * are forwarded to another filter.
+     * @author Benjamin Sigg
+     */
+    private class UnchangedRootsIgnore implements DockSituationIgnore{
+    	private DockSituationIgnore delegate;
+    	private Set<DockStation> stations = new HashSet<DockStation>();
+    	
+    	/**
+    	 * Creates a new filter.
+    	 * @param frontend the frontend whose roots are filtered
+    	 * @param delegate the filter used for all elements that are not unchanged roots
+    	 */
+    	public UnchangedRootsIgnore( DockFrontendInternals frontend, DockSituationIgnore delegate ){
+    		this.delegate = delegate;
+    		for( RootInfo info : frontend.getRoots() ){
+    			if( isUnchangedRoot( info.getName() )){
+    				stations.add( info.getStation() );
+    			}
+    		}
+    	}
+    	
+    	public boolean ignoreElement( DockElement element ){
+    		DockStation station = element.asDockStation();
+    		if( station != null && stations.contains( station )){
+    			return true;
+    		}
+    		return delegate.ignoreElement( element );
+    	}
+    	
+    	public boolean ignoreChildren( DockStation station ){
+    		if( isUnchangedStation( station )){
+    			return true;
+    		}
+    		return delegate.ignoreChildren( station );
+    	}
+    	
+    	public boolean ignoreElement( PerspectiveElement element ){
+    		return delegate.ignoreElement( element );
+    	}
+    	
+    	public boolean ignoreChildren( PerspectiveStation station ){
+    		return delegate.ignoreChildren( station );
+    	}
+    }
+    
+    /**
+     * The serialized form of a {@link DockLayoutComposition}, used as key to find equal layouts.
+     * @author Benjamin Sigg
+     */
+    private static class LayoutKey{
+    	private byte[] data;
+    	private int hash;
+    	
+    	public LayoutKey( byte[] data ){
+    		this.data = data;
+    		this.hash = Arrays.hashCode( data );
+    	}
+    	
+    	@Override
+    	public int hashCode(){
+    		return hash;
+    	}
+    	
+    	@Override
+    	public boolean equals( Object obj ){
+    		if( obj == this ){
+    			return true;
+    		}
+    		if( obj instanceof LayoutKey ){
+    			return Arrays.equals( data, ((LayoutKey)obj).data );
+    		}
+    		return false;
+    	}
+    }
 }
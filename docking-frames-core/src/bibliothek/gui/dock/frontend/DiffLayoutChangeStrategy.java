@@ -0,0 +1,44 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+/**
+ * A {@link DefaultLayoutChangeStrategy} which compares the current layout with the new layout, and only rebuilds
+ * those roots whose layout actually changes. Inside a changed root, every station whose subtree keeps its layout
+ * also keeps its children, hence their {@link bibliothek.gui.dock.station.DockableDisplayer}s
+ * and {@link bibliothek.gui.dock.title.DockTitle}s are reused. Only the {@link bibliothek.gui.Dockable}s that are 
+ * direct children of a changed station are put into new displayers.
+ * @author Benjamin Sigg
+ * @see DefaultLayoutChangeStrategy#setLayoutDiff(boolean)
+ */
+public class DiffLayoutChangeStrategy extends DefaultLayoutChangeStrategy{
+	/**
+	 * Creates a new strategy.
+	 */
+	public DiffLayoutChangeStrategy(){
+		setLayoutDiff( true );
+	}
+}
@@ -35,8 +35,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -59,6 +63,7 @@ import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.gui.dock.util.extension.ExtensionManager;
 import bibliothek.gui.dock.util.extension.ExtensionName;
 import bibliothek.util.Path;
+import bibliothek.util.PathOutputStream;
 import bibliothek.util.Todo;
 import bibliothek.util.Version;
 import bibliothek.util.Todo.Compatibility;
@@ -66,6 +71,8 @@ import bibliothek.util.Todo.Priority;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * A <code>DockSituation</code> is a converter: the relationship of {@link DockStation}s and {@link Dockable}s,
@@ -82,6 +89,22 @@ public class DockSituation {
 	
 	/** Name of a parameter of an {@link ExtensionName} pointing to <code>this</code> */
 	public static final String EXTENSION_PARAM = "situation";
+	
+	/**
+	 * The version that is written in front of a composition using the {@link #setCompactFormat(boolean) compact format}. The 
+	 * marker is greater than {@link Version#CURRENT}, hence older versions of this library refuse to read the compact format,
+	 * while {@link #readComposition(DataInputStream)} recognizes the marker before checking the version.
+	 */
+	private static final Version COMPACT_FORMAT = new Version( 1, 1, 2, "compact" );
+	
+	/**
+	 * The string tables of the streams into which compositions were written using the compact format. All the compositions
+	 * that are written into the same stream share one table, the streams are only weakly referenced.
+	 */
+	private static final Map<DataOutputStream, Map<String, Integer>> COMPACT_WRITE_TABLES = new WeakHashMap<DataOutputStream, Map<String, Integer>>();
+	
+	/** The string tables of the streams from which compositions in the compact format were read, the counterpart of {@link #COMPACT_WRITE_TABLES} */
+	private static final Map<DataInputStream, CompactTable> COMPACT_READ_TABLES = new WeakHashMap<DataInputStream, CompactTable>();
 	
     /** the factories used to create new {@link DockElement elements}*/
     private Map<String, DockFactory<?,?,?>> factories = new HashMap<String, DockFactory<?,?,?>>();
@@ -96,13 +119,22 @@ public class DockSituation {
     private MissingDockFactory missingAdjacent;
 
     /** a filter for elements which should be ignored */
-    private DockSituationIgnore ignore;
+    private DockSituationIgnore ignore;
+    
+    /** whether {@link #writeComposition(DockLayoutComposition, DataOutputStream)} uses the compact format */
+    private boolean compactFormat = false;
+    
+    /** whether the compact format gets compressed */
+    private boolean compressed = false;
     
     /** strategy used to filter placeholders in the intermediate format */
     private PlaceholderStrategy intermediatePlaceholders;
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
-    private PlaceholderStrategy placeholders;
+    private PlaceholderStrategy placeholders;
+    
+    /** compositions that are not converted by a factory, but represented by an existing element */
+    private Map<DockLayoutComposition, DockElement> existing = new IdentityHashMap<DockLayoutComposition, DockElement>();
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -179,6 +211,71 @@ public class DockSituation {
      */
     public DockSituationIgnore getIgnore() {
         return ignore;
+    }
+    
+    /**
+     * Sets whether {@link #writeComposition(DockLayoutComposition, DataOutputStream)} writes the compact
+     * format instead of the format of version {@link Version#VERSION_1_0_8}. The compact format stores each factory 
+     * identifier and each placeholder only once per stream and uses variable length integers. This includes the placeholders
+     * that factories write using {@link PathOutputStream#writePath(Path, DataOutputStream)}. Compositions written into the same
+     * stream share their table of strings, hence they have to be read from one stream in the same order as they were written.
+     * Both formats can always be read, but the compact format cannot be read by versions of this library that are older than 1.1.2p17.
+     * @param compactFormat whether to use the compact format, the default value is <code>false</code>
+     */
+    public void setCompactFormat( boolean compactFormat ){
+		this.compactFormat = compactFormat;
+	}
+    
+    /**
+     * Tells whether the compact format is written.
+     * @return whether the compact format is used
+     * @see #setCompactFormat(boolean)
+     */
+    public boolean isCompactFormat(){
+		return compactFormat;
+	}
+    
+    /**
+     * Sets whether the compact format is compressed using a {@link DeflaterOutputStream}. This setting has no
+     * effect if the {@link #setCompactFormat(boolean) compact format} is not used.
+     * @param compressed whether to compress the compact format, the default value is <code>false</code>
+     */
+    public void setCompressed( boolean compressed ){
+		this.compressed = compressed;
+	}
+    
+    /**
+     * Tells whether the compact format is compressed.
+     * @return whether the data gets compressed
+     * @see #setCompressed(boolean)
+     */
+    public boolean isCompressed(){
+		return compressed;
+	}
+    
+    /**
+     * Tells this situation that <code>element</code> already has exactly the layout described by <code>composition</code>. If
+     * {@link #convert(DockLayoutComposition)} encounters <code>composition</code>, it returns <code>element</code> as it is, 
+     * without asking any factory and without converting the children of <code>composition</code>. Compositions are 
+     * compared by identity.
+     * @param composition the composition that does not need to be converted
+     * @param element the element representing <code>composition</code>, <code>null</code> to remove an
+     * earlier entry
+     */
+    public void putExisting( DockLayoutComposition composition, DockElement element ){
+    	if( element == null ){
+    		existing.remove( composition );
+    	}
+    	else{
+    		existing.put( composition, element );
+    	}
+    }
+    
+    /**
+     * Removes all the elements that were added by {@link #putExisting(DockLayoutComposition, DockElement)}.
+     */
+    public void clearExisting(){
+    	existing.clear();
     }
     
     /**
@@ -360,6 +457,11 @@ public class DockSituation {
      */
     @SuppressWarnings("unchecked")
     public DockElement convert( DockLayoutComposition composition ){
+    	DockElement existingElement = existing.get( composition );
+    	if( existingElement != null ){
+    		return existingElement;
+    	}
+    	
         DockLayoutInfo info = composition.getLayout();
         if( info == null )
             return null;
@@ -434,8 +536,29 @@ public class DockSituation {
      * @throws IOException if an I/O-error occurs
      */
     public void writeComposition( DockLayoutComposition composition, DataOutputStream out ) throws IOException{
-        Version.write( out, Version.VERSION_1_0_8 );
-        writeCompositionStream( composition, out );
+    	if( isCompactFormat() ){
+    		Version.write( out, COMPACT_FORMAT );
+    		CompactWriter writer = new CompactWriter( getCompactTable( out ) );
+    		
+    		if( isCompressed() ){
+    			out.writeBoolean( true );
+    			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    			DataOutputStream zout = new DataOutputStream( new DeflaterOutputStream( bout ) );
+    			writer.write( composition, zout );
+    			zout.close();
+    			
+    			writeVarInt( bout.size(), out );
+    			bout.writeTo( out );
+    		}
+    		else{
+    			out.writeBoolean( false );
+    			writer.write( composition, out );
+    		}
+    	}
+    	else{
+    		Version.write( out, Version.VERSION_1_0_8 );
+    		writeCompositionStream( composition, out );
+    	}
     }
 
     /**
@@ -527,9 +650,36 @@ public class DockSituation {
      */
     public DockLayoutComposition readComposition( DataInputStream in ) throws IOException{
         Version version = Version.read( in );
+        if( COMPACT_FORMAT.equals( version )){
+        	return readCompactComposition( in );
+        }
         version.checkCurrent();
         return readCompositionStream( in, version );
     }
+    
+    /**
+     * Reads one {@link DockLayoutComposition} that was written in the {@link #setCompactFormat(boolean) compact format}.
+     * @param in the stream to read from, the version was already read
+     * @return the new composition
+     * @throws IOException if an I/O-error occurs
+     */
+    private DockLayoutComposition readCompactComposition( DataInputStream in ) throws IOException{
+    	CompactReader reader = new CompactReader( getCompactTable( in ) );
+    	if( in.readBoolean() ){
+    		byte[] compressed = new byte[ readVarInt( in ) ];
+    		in.readFully( compressed );
+    		DataInputStream zin = new DataInputStream( new InflaterInputStream( new ByteArrayInputStream( compressed ) ) );
+    		try{
+    			return reader.read( zin );
+    		}
+    		finally{
+    			zin.close();
+    		}
+    	}
+    	else{
+    		return reader.read( in );
+    	}
+    }
 
     /**
      * Reads one {@link DockLayoutComposition} and all its children.
@@ -545,7 +695,7 @@ public class DockSituation {
     	
     	if( Version.VERSION_1_0_8.compareTo( version ) <= 0 ){
     		if( in.readBoolean() ){
-	    		entryPlaceholder = new Path( in.readUTF() );
+	    		entryPlaceholder = Path.valueOf( in.readUTF() );
 	   		}
     	}
     	
@@ -719,7 +869,467 @@ public class DockSituation {
         dout.close();
         return out.toByteArray();
     }
+
+    /**
+     * Gets the table of strings that were already written into <code>out</code> using the compact format.
+     * @param out the stream to write into
+     * @return the table of strings, the value is the index of the string
+     */
+    private static Map<String, Integer> getCompactTable( DataOutputStream out ){
+    	synchronized( COMPACT_WRITE_TABLES ){
+    		Map<String, Integer> table = COMPACT_WRITE_TABLES.get( out );
+    		if( table == null ){
+    			table = new HashMap<String, Integer>();
+    			COMPACT_WRITE_TABLES.put( out, table );
+    		}
+    		return table;
+    	}
+    }
+    
+    /**
+     * Gets the table of strings that were already read from <code>in</code> using the compact format.
+     * @param in the stream to read from
+     * @return the table of strings
+     */
+    private static CompactTable getCompactTable( DataInputStream in ){
+    	synchronized( COMPACT_READ_TABLES ){
+    		CompactTable table = COMPACT_READ_TABLES.get( in );
+    		if( table == null ){
+    			table = new CompactTable();
+    			COMPACT_READ_TABLES.put( in, table );
+    		}
+    		return table;
+    	}
+    }
+    
+    /**
+     * Writes <code>value</code> using as few bytes as possible. Each byte stores
+     * 7 bits of <code>value</code>, the highest bit tells whether another byte follows.
+     * @param value the value to write, must not be negative
+     * @param out the stream to write into
+     * @throws IOException if an I/O-error occurs
+     */
+    private static void writeVarInt( int value, DataOutputStream out ) throws IOException{
+    	if( value < 0 ){
+    		throw new IllegalArgumentException( "value must not be negative: " + value );
+    	}
+    	while( (value & ~0x7F) != 0 ){
+    		out.writeByte( (value & 0x7F) | 0x80 );
+    		value >>>= 7;
+    	}
+    	out.writeByte( value );
+    }
+    
+    /**
+     * Reads an integer that was written by {@link #writeVarInt(int, DataOutputStream)}.
+     * @param in the stream to read from
+     * @return the value that was read
+     * @throws IOException if an I/O-error occurs or the value is malformed
+     */
+    private static int readVarInt( DataInputStream in ) throws IOException{
+    	int result = 0;
+    	for( int shift = 0; shift < 32; shift += 7 ){
+    		int next = in.readUnsignedByte();
+    		result |= (next & 0x7F) << shift;
+    		if( (next & 0x80) == 0 ){
+    			return result;
+    		}
+    	}
+    	throw new IOException( "malformed variable length integer" );
+    }
+    
+    /**
+     * Writes {@link DockLayoutComposition}s in the {@link #setCompactFormat(boolean) compact format}.
+     * Strings and placeholders are written only once, the first time they are used. Afterwards they are
+     * referenced by their index in a table that is built up by the reader in the same order.<br>
+     * The {@link Path}s that factories write with {@link PathOutputStream#writePath(Path, DataOutputStream)} are
+     * cut out of their data and written as references in front of the data. The reader puts them back at their
+     * offset, hence factories always read their data in the normal format, even if they are missing when reading.
+     * @author Benjamin Sigg
+     */
+    private class CompactWriter{
+    	/** all the strings that were already written, and their index */
+    	private Map<String, Integer> strings;
+    	
+    	/** buffer used to find the size of the data written by factories, reused for every element */
+    	private ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+    	
+    	/** the offsets of the {@link Path}s that were cut out of {@link #scratch} */
+    	private List<Integer> pathOffsets = new ArrayList<Integer>();
+    	
+    	/** the {@link Path}s that were cut out of {@link #scratch} */
+    	private List<Path> paths = new ArrayList<Path>();
+    	
+    	/** stream writing into {@link #scratch}, remembers the {@link Path}s instead of writing them */
+    	private DataOutputStream scratchOut = new PathOutputStream( scratch ){
+    		@Override
+    		public void writePath( Path path ) throws IOException{
+    			pathOffsets.add( scratch.size() );
+    			paths.add( path );
+    		}
+    	};
+    	
+    	/**
+    	 * Creates a new writer.
+    	 * @param strings the strings that were already written into the stream, will be modified by this writer
+    	 */
+    	public CompactWriter( Map<String, Integer> strings ){
+    		this.strings = strings;
+    	}
+    	
+    	/**
+    	 * Writes <code>composition</code> and all its children.
+    	 * @param composition the composition to write
+    	 * @param out the stream to write into
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	@SuppressWarnings("unchecked")
+    	public void write( DockLayoutComposition composition, DataOutputStream out ) throws IOException{
+    		DockLayoutInfo info = composition.getLayout();
+    		
+    		// placeholder
+    		Path placeholder = info.getPlaceholder();
+    		writeString( placeholder == null ? null : placeholder.toString(), out );
+    		
+    		if( info.getKind() == DockLayoutInfo.Data.BYTE ){
+    			// data is still in the format used by readBuffer
+    			byte[] entry = info.getDataByte();
+    			DataInputStream entryIn = new DataInputStream( new ByteArrayInputStream( entry ));
+    			String factoryId = entryIn.readUTF();
+    			int count = entryIn.readInt();
+    			entryIn.close();
+    			
+    			writeString( factoryId, out );
+    			writeVarInt( 0, out );
+    			writeVarInt( count, out );
+    			out.write( entry, entry.length - count, count );
+    		}
+    		else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
+    			DockLayout<?> layout = info.getDataLayout();
+    			DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+    			if( factory == null )
+    				throw new IOException( "Missing factory: " + layout.getFactoryID() );
+    			
+    			writeString( getID( factory ), out );
+    			
+    			resetScratch();
+    			factory.write( layout.getData(), scratchOut );
+    			flushScratch( out );
+    		}
+    		else{
+    			throw new IllegalArgumentException( "Cannot store layout in stream: it was never translated and its raw format is not a byte stream" );
+    		}
+    		
+    		// adjacent
+    		List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
+    		if( adjacentLayouts == null ){
+    			writeVarInt( 0, out );
+    		}
+    		else{
+    			writeVarInt( adjacentLayouts.size(), out );
+    			for( DockLayout<?> adjacentLayout : adjacentLayouts ){
+    				AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+    				if( adjacentFactory == null )
+    					throw new IOException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
+    				
+    				writeString( getAdjacentID( adjacentFactory ), out );
+    				
+    				resetScratch();
+    				adjacentFactory.write( adjacentLayout.getData(), scratchOut );
+    				flushScratch( out );
+    			}
+    		}
+    		
+    		// ignore
+    		out.writeBoolean( composition.isIgnoreChildren() );
+    		
+    		// children
+    		List<DockLayoutComposition> children = composition.getChildren();
+    		writeVarInt( children.size(), out );
+    		for( DockLayoutComposition child : children ){
+    			write( child, out );
+    		}
+    	}
+    	
+    	/**
+    	 * Clears {@link #scratch} and the {@link Path}s that were cut out of it.
+    	 */
+    	private void resetScratch(){
+    		scratch.reset();
+    		pathOffsets.clear();
+    		paths.clear();
+    	}
+    	
+    	/**
+    	 * Writes the {@link Path}s that were cut out of {@link #scratch}, and the size and the content of 
+    	 * {@link #scratch} into <code>out</code>.
+    	 * @param out the stream to write into
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	private void flushScratch( DataOutputStream out ) throws IOException{
+    		scratchOut.flush();
+    		writeVarInt( paths.size(), out );
+    		int offset = 0;
+    		for( int i = 0, n = paths.size(); i<n; i++ ){
+    			int next = pathOffsets.get( i );
+    			writeVarInt( next - offset, out );
+    			writeString( paths.get( i ).toString(), out );
+    			offset = next;
+    		}
+    		writeVarInt( scratch.size(), out );
+    		scratch.writeTo( out );
+    	}
+    	
+    	/**
+    	 * Writes either the index of <code>value</code>, or <code>value</code> itself if it was
+    	 * never written before.
+    	 * @param value the value to write, can be <code>null</code>
+    	 * @param out the stream to write into
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	private void writeString( String value, DataOutputStream out ) throws IOException{
+    		if( value == null ){
+    			writeVarInt( 0, out );
+    		}
+    		else{
+    			Integer index = strings.get( value );
+    			if( index == null ){
+    				int next = strings.size();
+    				writeVarInt( next+1, out );
+    				out.writeUTF( value );
+    				strings.put( value, next );
+    			}
+    			else{
+    				writeVarInt( index+1, out );
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Reads {@link DockLayoutComposition}s that were written by a {@link CompactWriter}.
+     * @author Benjamin Sigg
+     */
+    private class CompactReader{
+    	/** all the strings that were read so far */
+    	private List<String> strings;
+    	
+    	/** the {@link Path}s that were created out of {@link #strings}, may contain <code>null</code> values */
+    	private List<Path> paths;
+    	
+    	/** buffer used to store the data of factories, reused for every element */
+    	private byte[] scratch = new byte[ 256 ];
+    	
+    	/** buffer used to put the {@link Path}s back into the data of factories */
+    	private ByteArrayOutputStream spliced = new ByteArrayOutputStream();
+    	
+    	/** stream writing into {@link #spliced} */
+    	private DataOutputStream splicedOut = new DataOutputStream( spliced );
+    	
+    	/**
+    	 * Creates a new reader.
+    	 * @param table the strings that were already read from the stream, will be modified by this reader
+    	 */
+    	public CompactReader( CompactTable table ){
+    		strings = table.strings;
+    		paths = table.paths;
+    	}
+    	
+    	/**
+    	 * Reads one {@link DockLayoutComposition} and all its children.
+    	 * @param in the stream to read from
+    	 * @return the new composition
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	@SuppressWarnings("unchecked")
+    	public DockLayoutComposition read( DataInputStream in ) throws IOException{
+    		// placeholder
+    		Path placeholder = null;
+    		int placeholderIndex = readIndex( in );
+    		if( placeholderIndex >= 0 ){
+    			placeholder = paths.get( placeholderIndex );
+    			if( placeholder == null ){
+    				placeholder = Path.valueOf( strings.get( placeholderIndex ) );
+    				paths.set( placeholderIndex, placeholder );
+    			}
+    		}
+    		
+    		// factory
+    		String factoryId = readString( in );
+    		DataInputStream factoryIn = readData( in );
+    		int count = factoryIn.available();
+    		DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+    		DockLayoutInfo info = null;
+    		
+    		if( factory == null ){
+    			byte[] data = new byte[ count ];
+    			factoryIn.readFully( data );
+    			
+    			if( missingFactory != null ){
+    				DataInputStream din = new DataInputStream( new ByteArrayInputStream( data ));
+    				Object layout = missingFactory.read( getFactoryID( factoryId ), din, count );
+    				din.close();
+    				
+    				if( layout != null ){
+    					info = new DockLayoutInfo( new DockLayout<Object>( factoryId, layout ));
+    				}
+    			}
+    			
+    			if( info == null ){
+    				// store the data in the format that readEntry understands
+    				ByteArrayOutputStream bout = new ByteArrayOutputStream( factoryId.length()*4 + 4 + count );
+    				DataOutputStream dout = new DataOutputStream( bout );
+    				dout.writeUTF( factoryId );
+    				dout.writeInt( count );
+    				dout.write( data );
+    				dout.close();
+    				
+    				info = new DockLayoutInfo( bout.toByteArray() );
+    			}
+    			info.setPlaceholder( placeholder );
+    		}
+    		else{
+    			Object data = factory.read( factoryIn, intermediatePlaceholders );
+    			factoryIn.close();
+    			
+    			if( data != null ){
+    				info = new DockLayoutInfo( new DockLayout<Object>( factoryId, data ) );
+    				info.setPlaceholder( placeholder );
+    			}
+    		}
+    		
+    		// adjacent
+    		List<DockLayout<?>> adjacentLayouts = null;
+    		int layoutCount = readVarInt( in );
+    		if( layoutCount > 0 ){
+    			adjacentLayouts = new ArrayList<DockLayout<?>>( layoutCount );
+    			
+    			for( int i = 0; i < layoutCount; i++ ){
+    				String adjacentFactoryId = readString( in );
+    				DataInputStream din = readData( in );
+    				int adjacentCount = din.available();
+    				AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId );
+    				Object data = null;
+    				
+    				if( adjacentFactory == null ){
+    					if( missingAdjacent != null ){
+    						data = missingAdjacent.read( getAdjacentFactoryID( adjacentFactoryId ), din, adjacentCount );
+    					}
+    				}
+    				else{
+    					data = adjacentFactory.read( din, intermediatePlaceholders );
+    				}
+    				din.close();
+    				
+    				if( data != null ){
+    					adjacentLayouts.add( new DockLayout<Object>( adjacentFactoryId, data ) );
+    				}
+    			}
+    		}
+    		
+    		// ignore
+    		boolean ignore = in.readBoolean();
+    		
+    		// children
+    		int childCount = readVarInt( in );
+    		List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>( childCount );
+    		for( int i = 0; i < childCount; i++ ){
+    			children.add( read( in ) );
+    		}
+    		
+    		return new DockLayoutComposition( info, adjacentLayouts, children, ignore );
+    	}
+    	
+    	/**
+    	 * Reads the data of a factory that was written by {@link CompactWriter#flushScratch(DataOutputStream)}, and
+    	 * puts the {@link Path}s back into the data. The data is stored in buffers that are reused for the next element.
+    	 * @param in the stream to read from
+    	 * @return a stream reading the data, {@link DataInputStream#available()} tells the size of the data
+    	 * @throws IOException if <code>in</code> does not have enough bytes or is malformed
+    	 */
+    	private DataInputStream readData( DataInputStream in ) throws IOException{
+    		int pathCount = readVarInt( in );
+    		int[] offsets = new int[ pathCount ];
+    		String[] values = new String[ pathCount ];
+    		int offset = 0;
+    		for( int i = 0; i < pathCount; i++ ){
+    			offset += readVarInt( in );
+    			offsets[i] = offset;
+    			values[i] = readString( in );
+    			if( values[i] == null ){
+    				throw new IOException( "missing path" );
+    			}
+    		}
+    		
+    		int count = readVarInt( in );
+    		if( offset > count ){
+    			throw new IOException( "path offset outside data: " + offset );
+    		}
+    		if( scratch.length < count ){
+    			scratch = new byte[ Math.max( count, scratch.length*2 ) ];
+    		}
+    		in.readFully( scratch, 0, count );
+    		if( pathCount == 0 ){
+    			return new DataInputStream( new ByteArrayInputStream( scratch, 0, count ));
+    		}
+    		
+    		spliced.reset();
+    		offset = 0;
+    		for( int i = 0; i < pathCount; i++ ){
+    			splicedOut.write( scratch, offset, offsets[i] - offset );
+    			splicedOut.writeUTF( values[i] );
+    			offset = offsets[i];
+    		}
+    		splicedOut.write( scratch, offset, count - offset );
+    		splicedOut.flush();
+    		return new DataInputStream( new ByteArrayInputStream( spliced.toByteArray() ));
+    	}
+    	
+    	/**
+    	 * Reads a string that was written by {@link CompactWriter#writeString(String, DataOutputStream)}.
+    	 * @param in the stream to read from
+    	 * @return the string, may be <code>null</code>
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	private String readString( DataInputStream in ) throws IOException{
+    		int index = readIndex( in );
+    		if( index < 0 ){
+    			return null;
+    		}
+    		return strings.get( index );
+    	}
+    	
+    	/**
+    	 * Reads the reference to a string, and reads the string itself if it is new.
+    	 * @param in the stream to read from
+    	 * @return the index of the string in {@link #strings} or -1 if the string is <code>null</code>
+    	 * @throws IOException if an I/O-error occurs
+    	 */
+    	private int readIndex( DataInputStream in ) throws IOException{
+    		int index = readVarInt( in ) - 1;
+    		if( index == strings.size() ){
+    			strings.add( in.readUTF() );
+    			paths.add( null );
+    		}
+    		else if( index < -1 || index > strings.size() ){
+    			throw new IOException( "invalid string index: " + index );
+    		}
+    		return index;
+    	}
+    }
 
+    /**
+     * The strings that were read by one or several {@link CompactReader}s from the same stream.
+     * @author Benjamin Sigg
+     */
+    private static class CompactTable{
+    	/** all the strings that were read so far */
+    	private List<String> strings = new ArrayList<String>();
+    	
+    	/** the {@link Path}s that were created out of {@link #strings}, may contain <code>null</code> values */
+    	private List<Path> paths = new ArrayList<Path>();
+    }
+    
     /**
      * Writes all locations and relationships of the {@link DockStation DockStations}
      * <code>stations</code> and their children into an array of bytes.
@@ -951,7 +1561,7 @@ public class DockSituation {
             Path placeholder = null;
             XAttribute xplaceholder = element.getAttribute( "placeholder" );
             if( xplaceholder != null ){
-            	placeholder = new Path( xplaceholder.getString() );
+            	placeholder = Path.valueOf( xplaceholder.getString() );
             }
             DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
             if( factory != null ){
@@ -1013,6 +1623,25 @@ public class DockSituation {
         }
     }
     
+    /**
+     * Writes the contents of <code>stations</code> into <code>out</code>. Each root station is converted
+     * into an {@link XElement} and written before the next station is converted, hence the whole document
+     * never needs to be stored in memory. The output can be read by {@link #readCompositionsXML(XElement)} or
+     * by {@link #readCompositionsXML(XReader)}.
+     * @param stations the items to write
+     * @param out the writer to write into, the elements are added as children of the element that is currently
+     * open in <code>out</code>
+     * @throws IOException if an I/O-error occurs
+     */
+    public void writeCompositionsXML( Map<String, DockLayoutComposition> stations, XWriter out ) throws IOException{
+    	for( Map.Entry<String, DockLayoutComposition> entry : stations.entrySet() ){
+    		XElement xchild = new XElement( "element" );
+    		xchild.addString( "name", entry.getKey() );
+    		writeCompositionXML( entry.getValue(), xchild );
+    		out.writeElement( xchild );
+    	}
+    }
+    
     /**
      * Reads a set of {@link DockStation}s that were stored earlier.
      * @param root the xml element from which to read
@@ -1048,6 +1677,29 @@ public class DockSituation {
         return result;
     }
     
+    /**
+     * Reads a set of {@link DockLayoutComposition}s that were stored earlier. The root stations are read one
+     * after the other, only the xml data of the root station that is currently read is stored in memory.
+     * @param in the reader from which to read, all the remaining children of the element that is currently 
+     * open in <code>in</code> are read
+     * @return the set of compositions
+     * @throws IOException if an I/O-error occurs
+     */
+    public Map<String, DockLayoutComposition> readCompositionsXML( XReader in ) throws IOException{
+    	Map<String, DockLayoutComposition> result = new HashMap<String, DockLayoutComposition>();
+    	XElement xelement;
+    	while( (xelement = in.readElement()) != null ){
+    		if( "element".equals( xelement.getName() )){
+    			String name = xelement.getString( "name" );
+    			DockLayoutComposition composition = readCompositionXML( xelement );
+    			if( composition != null ){
+    				result.put( name, composition );
+    			}
+    		}
+    	}
+    	return result;
+    }
+    
     /**
      * Using the factories currently known to this {@link DockSituation}, this
      * method tries to fill gaps in <code>composition</code>. It checks
@@ -113,11 +113,13 @@ public abstract class AbstractDockStation implements DockStation {
     		DockTheme newTheme = controller.getTheme();
     		if( newTheme != theme ){
     			theme = newTheme;
-    			try{
-    				callDockUiUpdateTheme();
-    			}
-    			catch( IOException ex ){
-    				throw new RuntimeException( ex );
+    			if( controller.getThemeManager().isStationRebuildRequired( this )){
+	    			try{
+	    				callDockUiUpdateTheme();
+	    			}
+	    			catch( IOException ex ){
+	    				throw new RuntimeException( ex );
+	    			}
     			}
     		}
     	}
@@ -111,11 +111,13 @@ public abstract class AbstractDockableStation extends AbstractDockable implement
     		DockTheme newTheme = controller.getTheme();
     		if( newTheme != theme ){
     			theme = newTheme;
-    			try{
-    				callDockUiUpdateTheme();
-    			}
-    			catch( IOException ex ){
-    				throw new RuntimeException( ex );
+    			if( controller.getThemeManager().isStationRebuildRequired( this )){
+	    			try{
+	    				callDockUiUpdateTheme();
+	    			}
+	    			catch( IOException ex ){
+	    				throw new RuntimeException( ex );
+	    			}
     			}
     		}
     	}
@@ -27,9 +27,14 @@ package bibliothek.gui.dock.station.screen.magnet;
 
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
@@ -47,7 +52,11 @@ import bibliothek.util.FrameworkOnly;
  * and of several {@link AttractorStrategy}s to modify the location and size of the currently
  * moved {@link ScreenDockWindow}.<br>
  * {@link ScreenDockWindow}s have to call {@link #start(ScreenDockWindow)} when they start
- * moving or resizing.
+ * moving or resizing.<br>
+ * The {@link MagnetController} keeps an index of the boundaries of all windows, ordered by the location
+ * of their sides. The index is updated whenever an operation starts, and while an operation is running. Strategies can use {@link #getAttracted(ScreenDockWindow, int)}
+ * and {@link #getNear(ScreenDockWindow, int, boolean)} to find the windows near a moved window without
+ * checking every single window. 
  * @author Benjamin Sigg
  */
 public class MagnetController {
@@ -57,6 +66,9 @@ public class MagnetController {
 	/** the currently executed operation */
 	private Operation current;
 	
+	/** index over the boundaries of all windows, updated whenever an operation starts */
+	private WindowIndex index = new WindowIndex();
+	
 	/** the current strategy to calculate the new boundaries */
 	private PropertyValue<MagnetStrategy> strategy = new PropertyValue<MagnetStrategy>( ScreenDockStation.MAGNET_STRATEGY ){
 		@Override
@@ -211,6 +223,77 @@ public class MagnetController {
 		return result.toArray( new ScreenDockWindow[ result.size() ] );
 	}
 	
+	/**
+	 * Gets all the {@link ScreenDockWindow}s of the {@link #getStation() station} that are attracted to <code>window</code>
+	 * and whose boundaries are at most <code>distance</code> pixels away from the boundaries of <code>window</code>. Any
+	 * window whose side is at most <code>distance</code> pixels away from a side of <code>window</code>, and which
+	 * {@link #intersectHorizontally(ScreenDockWindow, ScreenDockWindow, boolean) intersects} <code>window</code> in the
+	 * other direction, is part of the result. The result may contain additional windows.
+	 * @param window the window that has moved and whose partners are searched
+	 * @param distance the maximal distance between the sides of two windows, at least 0
+	 * @return all the partner windows in the same order as {@link #getAttracted(ScreenDockWindow)} would return them,
+	 * may be empty, is never <code>null</code>, does not contain <code>window</code>
+	 */
+	public ScreenDockWindow[] getAttracted( ScreenDockWindow window, int distance ){
+		List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>();
+		for( ScreenDockWindow next : getNear( window, distance, false ) ){
+			Attraction attraction = getAttraction( window.getDockable(), next.getDockable() );
+			switch( attraction ){
+				case STRONGLY_ATTRACTED:
+				case ATTRACTED:
+					result.add( next );
+					break;
+			}
+		}
+		return result.toArray( new ScreenDockWindow[ result.size() ] );
+	}
+	
+	/**
+	 * Gets all the {@link ScreenDockWindow}s of the {@link #getStation() station} whose boundaries are at most <code>distance</code>
+	 * pixels away from the boundaries of <code>window</code>. While an operation is running this method only needs
+	 * <code>O(log n)</code> time to find the windows, otherwise all windows have to be checked.
+	 * @param window the window whose neighbors are searched
+	 * @param distance the maximal distance between the sides of two windows, at least 0
+	 * @param initialBoundaries if <code>true</code>, then the initial boundaries of all windows are used
+	 * @return the windows near <code>window</code>, in the order in which the {@link #getStation() station} stores them,
+	 * does not contain <code>window</code>, may contain windows that are a bit farther away than <code>distance</code>
+	 */
+	public ScreenDockWindow[] getNear( ScreenDockWindow window, int distance, boolean initialBoundaries ){
+		if( distance < 0 ){
+			throw new IllegalArgumentException( "distance must not be negative: " + distance );
+		}
+		
+		Rectangle bounds = new Rectangle( 
+				getValue( window, Side.WEST, initialBoundaries ),
+				getValue( window, Side.NORTH, initialBoundaries ),
+				getValue( window, Side.EAST, initialBoundaries ) - getValue( window, Side.WEST, initialBoundaries ) + 1,
+				getValue( window, Side.SOUTH, initialBoundaries ) - getValue( window, Side.NORTH, initialBoundaries ) + 1 );
+		
+		if( current != null ){
+			return current.getIndex( initialBoundaries ).getNear( window, bounds, distance, current.getOrder() );
+		}
+		
+		List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>();
+		for( ScreenDockWindow next : getWindows() ){
+			if( next != window && WindowIndex.isNear( bounds, next.getWindowBounds(), distance )){
+				result.add( next );
+			}
+		}
+		return result.toArray( new ScreenDockWindow[ result.size() ] );
+	}
+	
+	/**
+	 * Informs this controller that the boundaries of <code>window</code> have been changed. Any code that
+	 * calls {@link ScreenDockWindow#setWindowBounds(Rectangle)} while an operation is running has to call this
+	 * method afterwards, otherwise {@link #getNear(ScreenDockWindow, int, boolean)} may miss <code>window</code>. 
+	 * @param window the window whose boundaries changed
+	 */
+	public void updateBounds( ScreenDockWindow window ){
+		if( current != null ){
+			current.updateBounds( window );
+		}
+	}
+	
 	/**
 	 * Calculates the distance between <code>sideA</code> of <code>windowA</code> to <code>sideB</code> of <code>windowB</code>.
 	 * If either window is the {@link #getCurrent() current} window, then its {@link MagnetRequest#getBounds() base boundaries}
@@ -371,6 +454,18 @@ public class MagnetController {
 		/** the currently executer operation */
 		private MagnetOperation operation;
 		
+		/** the order in which the windows were found when this operation started */
+		private Map<ScreenDockWindow, Integer> order = new IdentityHashMap<ScreenDockWindow, Integer>();
+		
+		/** 
+		 * index over the initial boundaries, only created if {@link MagnetController#index} no longer
+		 * contains the initial boundaries 
+		 */
+		private WindowIndex initialIndex;
+		
+		/** whether {@link MagnetController#index} was modified since this operation started */
+		private boolean modified = false;
+		
 		/**
 		 * Creates a new operation.
 		 * @param window the window that is reshaped
@@ -379,7 +474,48 @@ public class MagnetController {
 			this.window = window;
 			
 			for( ScreenDockWindow check : getWindows() ){
-				initialBoundaries.put( check, check.getWindowBounds() );
+				Rectangle bounds = check.getWindowBounds();
+				initialBoundaries.put( check, bounds );
+				order.put( check, order.size() );
+				index.put( check, bounds );
+			}
+			index.retain( order.keySet() );
+		}
+		
+		/**
+		 * Gets the index over the initial or current boundaries of all windows. 
+		 * @param initial whether to get the index of the initial boundaries
+		 * @return the index
+		 */
+		public WindowIndex getIndex( boolean initial ){
+			if( initial && modified ){
+				if( initialIndex == null ){
+					initialIndex = new WindowIndex();
+					for( Map.Entry<ScreenDockWindow, Rectangle> entry : initialBoundaries.entrySet() ){
+						initialIndex.put( entry.getKey(), entry.getValue() );
+					}
+				}
+				return initialIndex;
+			}
+			return index;
+		}
+		
+		/**
+		 * Gets the order in which the windows were found when this operation started.
+		 * @return the order of the windows
+		 */
+		public Map<ScreenDockWindow, Integer> getOrder(){
+			return order;
+		}
+		
+		/**
+		 * Updates the boundaries of <code>window</code> in the index of the current boundaries.
+		 * @param window the window whose boundaries changed
+		 */
+		public void updateBounds( ScreenDockWindow window ){
+			if( order.containsKey( window )){
+				modified = true;
+				index.put( window, window.getWindowBounds() );
 			}
 		}
 		
@@ -582,4 +718,136 @@ public class MagnetController {
 			}
 		}
 	}
+	
+	/**
+	 * An index over the boundaries of a set of {@link ScreenDockWindow}s. The windows are sorted by the location
+	 * of their west side, together with the width of the widest window this allows to find all the windows
+	 * that intersect some horizontal interval without checking all the windows. 
+	 * @author Benjamin Sigg
+	 */
+	private static class WindowIndex{
+		/** all the windows, ordered by the location of their west side */
+		private TreeMap<Integer, List<ScreenDockWindow>> windows = new TreeMap<Integer, List<ScreenDockWindow>>();
+		
+		/** the widths of all the windows, and how often each width is used */
+		private TreeMap<Integer, Integer> widths = new TreeMap<Integer, Integer>();
+		
+		/** the boundaries of all the windows, as they are stored in this index */
+		private Map<ScreenDockWindow, Rectangle> bounds = new IdentityHashMap<ScreenDockWindow, Rectangle>();
+		
+		/**
+		 * Tells whether <code>bounds</code> is at most <code>distance</code> pixels away from <code>base</code>.
+		 * @param base the boundaries of the window whose neighbors are searched
+		 * @param bounds the boundaries of some other window
+		 * @param distance the maximal distance
+		 * @return whether <code>bounds</code> is near <code>base</code>
+		 */
+		public static boolean isNear( Rectangle base, Rectangle bounds, int distance ){
+			return bounds.x <= base.x + base.width - 1 + distance &&
+				bounds.x + bounds.width - 1 >= base.x - distance &&
+				bounds.y <= base.y + base.height - 1 + distance &&
+				bounds.y + bounds.height - 1 >= base.y - distance;
+		}
+		
+		/**
+		 * Adds or updates <code>window</code>.
+		 * @param window the window to store
+		 * @param windowBounds the boundaries of <code>window</code>
+		 */
+		public void put( ScreenDockWindow window, Rectangle windowBounds ){
+			Rectangle oldBounds = bounds.get( window );
+			if( oldBounds != null && oldBounds.equals( windowBounds )){
+				return;
+			}
+			remove( window );
+			windowBounds = new Rectangle( windowBounds );
+			bounds.put( window, windowBounds );
+			
+			List<ScreenDockWindow> list = windows.get( windowBounds.x );
+			if( list == null ){
+				list = new ArrayList<ScreenDockWindow>( 2 );
+				windows.put( windowBounds.x, list );
+			}
+			list.add( window );
+			
+			Integer count = widths.get( windowBounds.width );
+			widths.put( windowBounds.width, count == null ? 1 : count+1 );
+		}
+		
+		/**
+		 * Removes <code>window</code> from this index.
+		 * @param window the window to remove
+		 */
+		public void remove( ScreenDockWindow window ){
+			Rectangle windowBounds = bounds.remove( window );
+			if( windowBounds != null ){
+				List<ScreenDockWindow> list = windows.get( windowBounds.x );
+				list.remove( window );
+				if( list.isEmpty() ){
+					windows.remove( windowBounds.x );
+				}
+				
+				int count = widths.get( windowBounds.width );
+				if( count == 1 ){
+					widths.remove( windowBounds.width );
+				}
+				else{
+					widths.put( windowBounds.width, count-1 );
+				}
+			}
+		}
+		
+		/**
+		 * Removes all windows from this index that are not in <code>windows</code>.
+		 * @param windows the windows to keep
+		 */
+		public void retain( Set<ScreenDockWindow> windows ){
+			if( bounds.size() > windows.size() ){
+				List<ScreenDockWindow> removed = new ArrayList<ScreenDockWindow>();
+				for( ScreenDockWindow window : bounds.keySet() ){
+					if( !windows.contains( window )){
+						removed.add( window );
+					}
+				}
+				for( ScreenDockWindow window : removed ){
+					remove( window );
+				}
+			}
+		}
+		
+		/**
+		 * Searches all windows that are near <code>base</code>.
+		 * @param window the window whose neighbors are searched, will not be part of the result
+		 * @param base the boundaries of <code>window</code>
+		 * @param distance the maximal distance between <code>base</code> and the boundaries of the neighbors
+		 * @param order the order in which the windows have to be reported, windows that are not in this map are ignored
+		 * @return all windows near <code>base</code>
+		 */
+		public ScreenDockWindow[] getNear( ScreenDockWindow window, Rectangle base, int distance, final Map<ScreenDockWindow, Integer> order ){
+			if( bounds.isEmpty() ){
+				return new ScreenDockWindow[]{};
+			}
+			
+			int maxX = base.x + base.width - 1 + distance;
+			int minX = base.x - distance - Math.max( 0, widths.lastKey() ) + 1;
+			
+			List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>();
+			if( minX <= maxX ){
+				for( List<ScreenDockWindow> list : windows.subMap( minX, true, maxX, true ).values() ){
+					for( ScreenDockWindow next : list ){
+						if( next != window && order.containsKey( next ) && isNear( base, bounds.get( next ), distance )){
+							result.add( next );
+						}
+					}
+				}
+			}
+			
+			Collections.sort( result, new Comparator<ScreenDockWindow>(){
+				public int compare( ScreenDockWindow a, ScreenDockWindow b ){
+					return order.get( a ).compareTo( order.get( b ) );
+				}
+			});
+			return result.toArray( new ScreenDockWindow[ result.size() ] );
+		}
+	}
 }
@@ -63,6 +63,9 @@ public class MultiAttractorStrategy implements AttractorStrategy{
 		for( AttractorStrategy strategy : strategies ){
 			Attraction next = strategy.attract( parent, moved, fixed );
 			attraction = attraction.stronger( next );
+			if( attraction == Attraction.STRONGLY_ATTRACTED ){
+				break;
+			}
 		}
 		return attraction;
 	}
@@ -72,6 +75,9 @@ public class MultiAttractorStrategy implements AttractorStrategy{
 		for( AttractorStrategy strategy : strategies ){
 			Attraction next = strategy.stick( parent, moved, fixed );
 			attraction = attraction.stronger( next );
+			if( attraction == Attraction.STRONGLY_ATTRACTED ){
+				break;
+			}
 		}
 		return attraction;
 	}
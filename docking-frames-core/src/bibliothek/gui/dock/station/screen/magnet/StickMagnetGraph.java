@@ -29,8 +29,10 @@ import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import bibliothek.gui.dock.ScreenDockStation;
 import bibliothek.gui.dock.station.screen.BoundaryRestriction;
@@ -172,14 +174,21 @@ public class StickMagnetGraph {
 			nodes[index] = new DefaultNode( index, windows[index] );
 		}
 
+		Map<ScreenDockWindow, Integer> indices = new IdentityHashMap<ScreenDockWindow, Integer>();
+		for( int i = 0; i < windows.length; i++ ){
+			indices.put( windows[i], i );
+		}
+		
 		LinkedList<Integer> queue = new LinkedList<Integer>();
 		queue.add( index );
 		
 		while( !queue.isEmpty() ){
 			index = queue.poll();
 			
-			for( int i = 0, n = nodes.length; i < n; i++ ) {
-				if( i != index ) {
+			// only windows touching windows[index] can stick to it
+			for( ScreenDockWindow near : controller.getNear( windows[index], 1, true ) ) {
+				Integer i = indices.get( near );
+				if( i != null && i != index ) {
 					Side relation = relation( windows[index], windows[i] );
 					if( relation != null ) {
 						if( nodes[i] == null ){
@@ -266,6 +275,7 @@ public class StickMagnetGraph {
 					bounds.x += dx;
 					bounds.y += dy;
 					window.setWindowBounds( bounds );
+					controller.updateBounds( window );
 				}
 				
 				return true;
@@ -675,6 +685,7 @@ public class StickMagnetGraph {
 						
 						
 						node.getWindow().setWindowBounds( initial );
+						controller.updateBounds( node.getWindow() );
 					}
 				}
 				node.getConstraints().reset();
@@ -33,7 +33,6 @@ import java.awt.MouseInfo;
 import java.awt.Point;
 import java.awt.PointerInfo;
 import java.awt.Rectangle;
-import java.awt.Toolkit;
 import java.awt.event.AWTEventListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -47,6 +46,7 @@ import javax.swing.SwingUtilities;
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.SplitDockStation.Orientation;
+import bibliothek.gui.dock.control.GlobalMouseDispatcher;
 import bibliothek.gui.dock.event.DockHierarchyEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.security.GlassedPane;
@@ -116,6 +116,25 @@ public class DefaultSplitDividerStrategy implements SplitDividerStrategy {
 		private boolean withinBounds = false;
 		/** Flag indicating if AWTEventListener is registered successfully. */
 		private boolean awtListenerEnabled = false;
+		
+		/** the dispatcher to which {@link #globalListener} is currently added */
+		private GlobalMouseDispatcher dispatcher;
+		
+		/** 
+		 * Listener added to the {@link GlobalMouseDispatcher} of the {@link DockController}, receives all the events 
+		 * of {@link #station} and its children 
+		 */
+		private MouseAdapter globalListener = new MouseAdapter(){
+			@Override
+			public void mouseMoved( MouseEvent e ){
+				eventDispatched( e );
+			}
+			
+			@Override
+			public void mouseReleased( MouseEvent e ){
+				eventDispatched( e );
+			}
+		};
 	
 		/** the current bounds of the divider */
 		private Rectangle bounds = new Rectangle();
@@ -183,23 +202,31 @@ public class DefaultSplitDividerStrategy implements SplitDividerStrategy {
 		}
 		
 		private void updateEventListener(){
-			boolean expected = controller != null && !controller.isRestrictedEnvironment();
-			if( expected != awtListenerEnabled ){
-				awtListenerEnabled = expected;
-				if( expected ){
-					// if this goes wrong, the offending client rightly gets an exception. It's his fault because he did set the "restricted environment" property wrong.
-					Toolkit.getDefaultToolkit().addAWTEventListener( Handler.this, AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK );
+			GlobalMouseDispatcher expected = null;
+			if( controller != null && !controller.isRestrictedEnvironment() ){
+				expected = controller.getGlobalMouseDispatcher();
+			}
+			if( expected != dispatcher ){
+				if( dispatcher != null ){
+					dispatcher.removeMouseListener( station, globalListener );
+					dispatcher.removeMouseMotionListener( station, globalListener );
 				}
-				else{
-					Toolkit.getDefaultToolkit().removeAWTEventListener( Handler.this );
+				dispatcher = expected;
+				if( dispatcher != null ){
+					// instead of adding one AWTEventListener per station, all stations share the listener of the GlobalMouseDispatcher 
+					// which forwards only the events of the children of the station
+					dispatcher.addMouseListener( station, globalListener );
+					dispatcher.addMouseMotionListener( station, globalListener );
 				}
+				awtListenerEnabled = dispatcher != null;
 			}
 		}
 		
 		/**
-		 * AWT event listener.
+		 * Called for mouse events of any child of the {@link #getStation() station}, these events are forwarded
+		 * by the {@link GlobalMouseDispatcher} of the current {@link DockController}.
 		 * Used to reset the mouse cursor when divider was changed and mouse exited event had not occurred normally.
-		 * @param event
+		 * @param event the event to process
 		 */
 		public void eventDispatched(AWTEvent event) {
 			if (event.getID() == MouseEvent.MOUSE_MOVED || event.getID() == MouseEvent.MOUSE_RELEASED) {
@@ -242,12 +269,6 @@ public class DefaultSplitDividerStrategy implements SplitDividerStrategy {
 				container.removeMouseListener( this );
 				container.removeMouseMotionListener( this );
 				container = null;
-				
-				try {
-					java.awt.Toolkit.getDefaultToolkit().removeAWTEventListener(this);
-				} catch (Throwable e) {
-					e.printStackTrace();
-				}
 			
 				setController( null );
 				station.removeDockHierarchyListener( this );
@@ -83,11 +83,56 @@ public class Leaf extends SpanSplitNode{
      * @param handle the element
      */
     public void setHandle( StationChildHandle handle ){
+    	Dockable oldDockable = getDockable();
 		this.handle = handle;
+		dockableChanged( oldDockable );
+		invalidateSize();
 	}
-    
-    @Override
+    
+    /**
+     * Discards the cached sizes of this leaf and of its parents if the {@link DockableDisplayer} of this leaf
+     * is not valid. Swing does not tell which child of a {@link java.awt.Container} was invalidated, but a
+     * displayer whose minimum or preferred size may have changed remains invalid until the next layout.
+     */
+    public void invalidateSizeIfChanged(){
+    	DockableDisplayer displayer = getDisplayer();
+    	if( displayer != null && !displayer.getComponent().isValid() ){
+    		invalidateSize();
+    	}
+    }
+    
+    private void dockableChanged( Dockable oldDockable ){
+    	Root root = getRoot();
+    	if( root != null ){
+    		root.leafDockableChanged( this, oldDockable );
+    	}
+    }
+    
+    @Override
     public Dimension getMinimumSize() {
+    	Dimension result = getCachedMinimumSize();
+    	if( result == null ){
+    		result = getCurrentMinimumSize();
+    		setCachedMinimumSize( result );
+    	}
+    	return new Dimension( result );
+    }
+    
+    @Override
+    public Dimension getPreferredSize(){
+    	Dimension result = getCachedPreferredSize();
+    	if( result == null ){
+    		result = getCurrentPreferredSize();
+    		setCachedPreferredSize( result );
+    	}
+    	return new Dimension( result );
+    }
+    
+    /**
+     * Calculates the minimum size of this leaf without using any cached value.
+     * @return the minimum size of the {@link DockableDisplayer} of this leaf
+     */
+    protected Dimension getCurrentMinimumSize(){
     	SplitDockStation station = getStation();
     	DockableDisplayer displayer = null;
     	if( handle != null ){
@@ -108,8 +153,11 @@ public class Leaf extends SpanSplitNode{
     	return displayer.getComponent().getMinimumSize();
     }
     
-    @Override
-    public Dimension getPreferredSize(){
+    /**
+     * Calculates the preferred size of this leaf without using any cached value.
+     * @return the preferred size of the {@link DockableDisplayer} of this leaf
+     */
+    protected Dimension getCurrentPreferredSize(){
     	if( handle == null )
     		return new Dimension( 0, 0 );
     	
@@ -178,12 +226,15 @@ public class Leaf extends SpanSplitNode{
     			setPlaceholderMap( station.getPlaceholders() );
     		}
     		
+    		Dockable oldDockable = handle.getDockable();
     		getAccess().removeHandle( handle, token );
     		handle = null;
+    		dockableChanged( oldDockable );
     	}
     	
         if( dockable != null ){
         	handle = getAccess().newHandle( dockable );
+        	dockableChanged( null );
             
         	if( updatePlaceholders ){
         		getAccess().getPlaceholderSet().set( this, dockable );
@@ -247,29 +247,40 @@ public class Node extends VisibleSplitNode implements Divideable{
         if( orientation == null )
             throw new NullPointerException( "orientation must not be null" );
         this.orientation = orientation;
+        invalidateSize();
         getAccess().getOwner().revalidate();
     }
     
     @Override
     public Dimension getMinimumSize() {
-    	boolean leftVisible = left == null || left.isVisible();
-    	boolean rightVisible = right == null || right.isVisible();
-    	
-	    Dimension minLeft = leftVisible ? left.getMinimumSize() : null;
-	    Dimension minRight = rightVisible ? right.getMinimumSize() : null;
-	    
-	    return getSize( minLeft, minRight );
+    	Dimension result = getCachedMinimumSize();
+    	if( result == null ){
+	    	boolean leftVisible = left == null || left.isVisible();
+	    	boolean rightVisible = right == null || right.isVisible();
+	    	
+		    Dimension minLeft = leftVisible ? left.getMinimumSize() : null;
+		    Dimension minRight = rightVisible ? right.getMinimumSize() : null;
+		    
+		    result = getSize( minLeft, minRight );
+		    setCachedMinimumSize( result );
+    	}
+    	return new Dimension( result );
     }
     
     @Override
     public Dimension getPreferredSize(){
-    	boolean leftVisible = left == null || left.isVisible();
-    	boolean rightVisible = right == null || right.isVisible();
-    	
-	    Dimension minLeft = leftVisible ? left.getPreferredSize() : null;
-	    Dimension minRight = rightVisible ? right.getPreferredSize() : null;
-	    
-	    return getSize( minLeft, minRight );
+    	Dimension result = getCachedPreferredSize();
+    	if( result == null ){
+	    	boolean leftVisible = left == null || left.isVisible();
+	    	boolean rightVisible = right == null || right.isVisible();
+	    	
+		    Dimension minLeft = leftVisible ? left.getPreferredSize() : null;
+		    Dimension minRight = rightVisible ? right.getPreferredSize() : null;
+		    
+		    result = getSize( minLeft, minRight );
+		    setCachedPreferredSize( result );
+    	}
+    	return new Dimension( result );
     }
     
     private Dimension getSize( Dimension left, Dimension right ){
@@ -30,6 +30,8 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Insets;
 import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import javax.swing.JComponent;
@@ -52,7 +54,27 @@ public class Root extends SpanSplitNode{
     
     /** The result of {@link #getBaseBounds()} */
     private Rectangle baseBounds = null;
-    
+    
+    /** all the nodes of this tree, accessible by their {@link SplitNode#getId() id} */
+    private Map<Long, SplitNode> nodes = new HashMap<Long, SplitNode>();
+    
+    /** all the {@link Leaf}s of this tree that currently show a {@link Dockable} */
+    private Map<Dockable, Leaf> leaves = new IdentityHashMap<Dockable, Leaf>();
+    
+    /**
+     * Whether at some point two nodes with the same id, or two leaves with the same {@link Dockable},
+     * were part of this tree. In this case an entry of {@link #nodes} or {@link #leaves} may have been
+     * removed while another node still needs it, and a miss in the indices has to be verified
+     * by searching the tree.
+     */
+    private boolean ambiguous = false;
+    
+    /** the last stamp that was handed out by any root, used to create {@link #sizeStamp} */
+    private static int lastSizeStamp = 0;
+    
+    /** cached sizes of the nodes of this tree are only valid if they were stored with this stamp */
+    private int sizeStamp = ++lastSizeStamp;
+    
     /**
      * Creates a new root.
      * @param access the access to internal methods of the
@@ -70,11 +92,159 @@ public class Root extends SpanSplitNode{
      */
     public Root( SplitDockAccess access, long id ){
         super( access, id );
+        nodes.put( getId(), this );
+    }
+    
+    /**
+     * Gets the stamp that marks the currently valid cached sizes of the nodes of this tree.
+     * @return the current stamp, never 0
+     * @see #nextSizeStamp()
+     */
+    public int getSizeStamp(){
+		return sizeStamp;
+	}
+    
+    /**
+     * Changes the {@link #getSizeStamp() stamp} of this tree, this discards all the cached minimum
+     * and preferred sizes of all the nodes of this tree.
+     */
+    public void nextSizeStamp(){
+    	sizeStamp = ++lastSizeStamp;
+    	if( sizeStamp == 0 ){
+    		sizeStamp = ++lastSizeStamp;
+    	}
+    }
+    
+    /**
+     * Searches the node whose {@link SplitNode#getId() id} equals <code>id</code>. This method
+     * uses an index of all the nodes and does not need to visit the entire tree, unless two nodes
+     * of this tree ever shared the same id.
+     * @param id the id to search
+     * @return the node with the id <code>id</code> or <code>null</code>
+     */
+    public SplitNode getNode( long id ){
+    	SplitNode node = nodes.get( id );
+    	if( node != null && node.getId() == id && node.getRoot() == this ){
+    		return node;
+    	}
+    	if( node == null && !ambiguous ){
+    		return null;
+    	}
+    	node = searchNode( this, id );
+    	if( node != null ){
+    		nodes.put( id, node );
+    	}
+    	return node;
+    }
+    
+    private SplitNode searchNode( SplitNode node, long id ){
+    	SplitNode result = null;
+    	if( node.getId() == id ){
+    		result = node;
+    	}
+    	for( int i = 0, n = node.getMaxChildrenCount(); i<n; i++ ){
+    		SplitNode child = node.getChild( i );
+    		if( child != null ){
+    			SplitNode next = searchNode( child, id );
+    			if( next != null ){
+    				result = next;
+    			}
+    		}
+    	}
+    	return result;
+    }
+    
+    /**
+     * Called by <code>node</code> if it was added to this tree. Stores <code>node</code> and all
+     * its children in the indices of this root.
+     * @param node the node that was added
+     */
+    void nodeAdded( SplitNode node ){
+    	putNode( node );
+    	if( node instanceof Leaf ){
+    		Leaf leaf = (Leaf)node;
+    		Dockable dockable = leaf.getDockable();
+    		if( dockable != null ){
+    			putLeaf( dockable, leaf );
+    		}
+    	}
+    	for( int i = 0, n = node.getMaxChildrenCount(); i<n; i++ ){
+    		SplitNode child = node.getChild( i );
+    		if( child != null ){
+    			nodeAdded( child );
+    		}
+    	}
+    }
+    
+    /**
+     * Called by <code>node</code> if it was removed from this tree. Removes <code>node</code> and all
+     * its children from the indices of this root.
+     * @param node the node that was removed
+     */
+    void nodeRemoved( SplitNode node ){
+    	if( nodes.get( node.getId() ) == node ){
+    		nodes.remove( node.getId() );
+    	}
+    	if( node instanceof Leaf ){
+    		Leaf leaf = (Leaf)node;
+    		Dockable dockable = leaf.getDockable();
+    		if( dockable != null && leaves.get( dockable ) == leaf ){
+    			leaves.remove( dockable );
+    		}
+    	}
+    	for( int i = 0, n = node.getMaxChildrenCount(); i<n; i++ ){
+    		SplitNode child = node.getChild( i );
+    		if( child != null ){
+    			nodeRemoved( child );
+    		}
+    	}
+    }
+    
+    /**
+     * Called by <code>node</code> if its id changed.
+     * @param node the node whose id changed
+     * @param oldId the old id of <code>node</code>
+     */
+    void nodeIdChanged( SplitNode node, long oldId ){
+    	if( nodes.get( oldId ) == node ){
+    		nodes.remove( oldId );
+    	}
+    	putNode( node );
+    }
+    
+    /**
+     * Called by <code>leaf</code> if the {@link Dockable} it shows changed.
+     * @param leaf the leaf whose dockable changed
+     * @param oldDockable the old dockable, can be <code>null</code>
+     */
+    void leafDockableChanged( Leaf leaf, Dockable oldDockable ){
+    	if( oldDockable != null && leaves.get( oldDockable ) == leaf ){
+    		leaves.remove( oldDockable );
+    	}
+    	Dockable dockable = leaf.getDockable();
+    	if( dockable != null ){
+    		putLeaf( dockable, leaf );
+    	}
+    }
+    
+    private void putNode( SplitNode node ){
+    	SplitNode previous = nodes.put( node.getId(), node );
+    	if( previous != null && previous != node && previous.getId() == node.getId() && previous.getRoot() == this ){
+    		ambiguous = true;
+    	}
+    }
+    
+    private void putLeaf( Dockable dockable, Leaf leaf ){
+    	Leaf previous = leaves.put( dockable, leaf );
+    	if( previous != null && previous != leaf && previous.getDockable() == dockable && previous.getRoot() == this ){
+    		ambiguous = true;
+    	}
     }
     
     @Override
     protected void treeChanged(){
 	    treeChanged = true;
+	    invalidateSize();
     }
     
     /**
@@ -166,18 +336,26 @@ public class Root extends SpanSplitNode{
     
     @Override
     public Dimension getMinimumSize() {
-    	Dimension result = child == null ? null : child.getMinimumSize();
-    	if( result == null )
-    		return new Dimension( 0, 0 );
-    	return result;
-    }
-    
-    @Override
-    public Dimension getPreferredSize(){
-    	Dimension result = child == null ? null : child.getPreferredSize();
-    	if( result == null )
-    		return new Dimension( 0, 0 );
-    	return result;
+    	Dimension result = getCachedMinimumSize();
+    	if( result == null ){
+    		result = child == null ? null : child.getMinimumSize();
+    		if( result == null )
+    			result = new Dimension( 0, 0 );
+    		setCachedMinimumSize( result );
+    	}
+    	return new Dimension( result );
+    }
+    
+    @Override
+    public Dimension getPreferredSize(){
+    	Dimension result = getCachedPreferredSize();
+    	if( result == null ){
+	    	result = child == null ? null : child.getPreferredSize();
+	    	if( result == null )
+	    		result = new Dimension( 0, 0 );
+	    	setCachedPreferredSize( result );
+    	}
+    	return new Dimension( result );
     }
         
     /**
@@ -398,7 +576,18 @@ public class Root extends SpanSplitNode{
     
     @Override
     public Leaf getLeaf( Dockable dockable ) {
-        return child == null ? null : child.getLeaf( dockable );
+    	Leaf leaf = leaves.get( dockable );
+    	if( leaf != null && leaf.getDockable() == dockable && leaf.getRoot() == this ){
+    		return leaf;
+    	}
+    	if( (leaf == null && !ambiguous) || child == null ){
+    		return null;
+    	}
+    	leaf = child.getLeaf( dockable );
+    	if( leaf != null ){
+    		leaves.put( dockable, leaf );
+    	}
+    	return leaf;
     }
     
     @Override
@@ -48,6 +48,7 @@ import bibliothek.gui.dock.station.support.PlaceholderMap;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.Path;
+import bibliothek.util.PathOutputStream;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
@@ -441,7 +442,7 @@ public class SplitDockStationFactory implements DockFactory<SplitDockStation, Sp
         if( placeholders != null && placeholders.length > 0 ){
     		out.writeInt( placeholders.length );
     		for( Path placeholder : placeholders ){
-    			out.writeUTF( placeholder.toString() );
+    			PathOutputStream.writePath( placeholder, out );
     		}
     	}
         if( placeholderMap != null ){
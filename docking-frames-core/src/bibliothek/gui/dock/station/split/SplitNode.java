@@ -71,6 +71,13 @@ public abstract class SplitNode{
     
     /** whether {@link #ensureIdUnique()} was invoked since the last call of {@link #ensureIdUniqueAsync()} */
     private boolean idChecked = true;
+    
+    /** the last result of {@link #getMinimumSize()}, <code>null</code> if not yet calculated */
+    private Dimension cachedMinimumSize;
+    /** the last result of {@link #getPreferredSize()}, <code>null</code> if not yet calculated */
+    private Dimension cachedPreferredSize;
+    /** the value of {@link Root#getSizeStamp()} at the time the cached sizes were stored */
+    private int cachedSizeStamp;
     
     /**
      * Creates a new SplitNode.
@@ -91,6 +98,8 @@ public abstract class SplitNode{
      * Called if a child of this node changed.
      */
     protected void treeChanged(){
+    	cachedMinimumSize = null;
+    	cachedPreferredSize = null;
     	if( parent != null ){
     		parent.treeChanged();
     	}
@@ -401,12 +410,23 @@ public abstract class SplitNode{
      * @param parent the new parent, can be <code>null</code>
      */
     public void setParent( SplitNode parent ){
+    	Root oldRoot = getRoot();
     	if( this.parent != null ){
     		SplitNode node = this.parent;
     		this.parent = null;
     		node.setChild( null, node.getChildLocation( this ) );
-    	}
-        this.parent = parent;
+    	}
+        this.parent = parent;
+        
+        Root newRoot = getRoot();
+        if( oldRoot != newRoot ){
+        	if( oldRoot != null ){
+        		oldRoot.nodeRemoved( this );
+        	}
+        	if( newRoot != null ){
+        		newRoot.nodeAdded( this );
+        	}
+        }
     }
     
     /**
@@ -487,6 +507,10 @@ public abstract class SplitNode{
     		for( int i = 0; i < delta; i++ ){
     			if( ids[offset+i] == id ){
     				this.id = access.uniqueID();
+    				Root root = getRoot();
+    				if( root != null ){
+    					root.nodeIdChanged( this, id );
+    				}
     				issue = true;
     				break;
     			}
@@ -547,7 +571,113 @@ public abstract class SplitNode{
      * Gets the preferred size of this node.
      * @return the preferred size in pixel
      */
-    public abstract Dimension getPreferredSize();
+    public abstract Dimension getPreferredSize();
+    
+    /**
+     * Gets the minimum size that was calculated and stored by a subclass using
+     * {@link #setCachedMinimumSize(Dimension)}.
+     * @return the cached size or <code>null</code> if the size is not known or no longer valid
+     */
+    protected Dimension getCachedMinimumSize(){
+    	if( cachedSizeStamp != currentSizeStamp() ){
+    		return null;
+    	}
+		return cachedMinimumSize;
+	}
+    
+    /**
+     * Stores the result of {@link #getMinimumSize()}, the value remains valid until
+     * {@link #invalidateSize()} or {@link #invalidateAllSizes()} is called.
+     * @param size the minimum size of this node, can be <code>null</code>
+     */
+    protected void setCachedMinimumSize( Dimension size ){
+    	updateSizeStamp();
+		this.cachedMinimumSize = size;
+	}
+    
+    /**
+     * Gets the preferred size that was calculated and stored by a subclass using
+     * {@link #setCachedPreferredSize(Dimension)}.
+     * @return the cached size or <code>null</code> if the size is not known or no longer valid
+     */
+    protected Dimension getCachedPreferredSize(){
+    	if( cachedSizeStamp != currentSizeStamp() ){
+    		return null;
+    	}
+		return cachedPreferredSize;
+	}
+    
+    /**
+     * Stores the result of {@link #getPreferredSize()}, the value remains valid until
+     * {@link #invalidateSize()} or {@link #invalidateAllSizes()} is called.
+     * @param size the preferred size of this node, can be <code>null</code>
+     */
+    protected void setCachedPreferredSize( Dimension size ){
+    	updateSizeStamp();
+		this.cachedPreferredSize = size;
+	}
+    
+    /**
+     * Gets the stamp of the root of this node, cached sizes that were stored with another
+     * stamp are no longer valid.
+     * @return the current stamp
+     */
+    private int currentSizeStamp(){
+    	Root root = getRoot();
+    	if( root == null ){
+    		return 0;
+    	}
+    	return root.getSizeStamp();
+    }
+    
+    /**
+     * Ensures that the cached sizes of this node are marked with the {@link #currentSizeStamp() current stamp}.
+     * Cached sizes with an older stamp are discarded.
+     */
+    private void updateSizeStamp(){
+    	int stamp = currentSizeStamp();
+    	if( stamp != cachedSizeStamp ){
+    		cachedSizeStamp = stamp;
+    		cachedMinimumSize = null;
+    		cachedPreferredSize = null;
+    	}
+    }
+    
+    /**
+     * Discards the cached minimum and preferred size of this node and of all the parents of this
+     * node. This method needs to be called whenever the size of this node may have changed.
+     */
+    public void invalidateSize(){
+    	SplitNode node = this;
+    	while( node != null ){
+    		node.cachedMinimumSize = null;
+    		node.cachedPreferredSize = null;
+    		node = node.parent;
+    	}
+    }
+    
+    /**
+     * Discards the cached minimum and preferred size of this node and of all its children. This method
+     * is called if a setting of the station that affects all the nodes changed. If this
+     * node is part of a tree, then the sizes of the whole tree are discarded by changing the stamp of
+     * the {@link Root}, which does not require visiting any node.
+     */
+    public void invalidateAllSizes(){
+    	Root root = getRoot();
+    	if( root != null ){
+    		root.nextSizeStamp();
+    	}
+    	else{
+	    	cachedMinimumSize = null;
+	    	cachedPreferredSize = null;
+	    	for( int i = 0, n = getMaxChildrenCount(); i<n; i++ ){
+	    		SplitNode child = getChild( i );
+	    		if( child != null ){
+	    			child.invalidateAllSizes();
+	    		}
+	    	}
+    	}
+    }
     
     /**
      * Updates the bounds of this node. If the node represents a {@link Component}, then 
@@ -33,6 +33,7 @@ import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.ListenerList;
 import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.util.PropertyValue;
 
@@ -81,7 +82,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	private Map<Dockable, M> menuPosition = new HashMap<Dockable, M>();
 	
 	/** a list of listeners to be informed when the content or the selection changes */
-	private List<TabPaneListener> listeners = new ArrayList<TabPaneListener>();
+	private ListenerList<TabPaneListener> listeners = new ListenerList<TabPaneListener>( TabPaneListener.class );
     
     /** additional information shown somewhere on this component */
     private I info;
@@ -182,14 +183,14 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	 * @return an array of listeners
 	 */
 	protected TabPaneListener[] listeners(){
-		return listeners.toArray( new TabPaneListener[ listeners.size() ] );
+		return listeners.get().clone();
 	}
 
     /**
      * Informs all {@link TabPaneListener}s that the selection changed.
      */
     protected void fireSelectionChanged(){
-       for( TabPaneListener listener : listeners() ){
+       for( TabPaneListener listener : listeners.get() ){
     	   listener.selectionChanged( this );
        }
     }
@@ -200,7 +201,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
      * @param dockable the new child
      */
     protected void fireAdded( Dockable dockable ){
-    	for( TabPaneListener listener : listeners() ){
+    	for( TabPaneListener listener : listeners.get() ){
     		listener.added( this, dockable );
     	}
     }
@@ -211,7 +212,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
      * @param dockable the removed child
      */
     protected void fireRemoved( Dockable dockable ){
-    	for( TabPaneListener listener : listeners() ){
+    	for( TabPaneListener listener : listeners.get() ){
     		listener.removed( this, dockable );
     	}
     }
@@ -223,7 +224,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
      * @param newInfo the new info component
      */
     protected void fireInfoComponentChanged( I oldInfo, I newInfo ){
-    	for( TabPaneListener listener : listeners() ){
+    	for( TabPaneListener listener : listeners.get() ){
     		listener.infoComponentChanged( this, oldInfo, newInfo );
     	}
     }
@@ -232,7 +233,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
      * Informs all {@link TabPaneListener} that the current {@link DockController} changed.
      */
     protected void fireControllerChanged(){
-    	for( TabPaneListener listener : listeners() ){
+    	for( TabPaneListener listener : listeners.get() ){
     		listener.controllerChanged( this, controller );
     	}
     }
@@ -515,10 +515,29 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 	protected class TabsSize extends Size{
 		/** tabs required for this size */
 		private Tab[] tabs;
+		/** how many entries of {@link #tabs} are actually required for this size */
+		private int count;
 		
 		public TabsSize( Type type, Dimension size, Tab[] tabs, double score ){
+			this( type, size, tabs, tabs.length, score );
+		}
+		
+		/**
+		 * Creates a new size which requires the first <code>count</code> tabs of <code>tabs</code>. The
+		 * array <code>tabs</code> can be shared by many sizes, it is only copied if {@link #getTabs()} is called.
+		 * @param type the kind of size this is
+		 * @param size the amount of needed pixels
+		 * @param tabs the tabs, the array must not be modified afterwards
+		 * @param count the number of tabs that are actually used
+		 * @param score how well this size is liked
+		 */
+		public TabsSize( Type type, Dimension size, Tab[] tabs, int count, double score ){
 			super( type, size, score );
+			if( count < 0 || count > tabs.length ){
+				throw new IllegalArgumentException( "count out of bounds: " + count );
+			}
 			this.tabs = tabs;
+			this.count = count;
 		}
 		
 		/**
@@ -526,6 +545,11 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 		 * @return the tabs
 		 */
 		public Tab[] getTabs(){
+			if( count < tabs.length ){
+				Tab[] copy = new Tab[ count ];
+				System.arraycopy( tabs, 0, copy, 0, count );
+				tabs = copy;
+			}
 			return tabs;
 		}
 		
@@ -534,12 +558,12 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 		 * @return the number of tabs
 		 */
 		public int getTabCount(){
-			return tabs.length;
+			return count;
 		}
 		
 		@Override
 		public String toString(){
-			return "[width=" + getWidth() + ", height=" + getHeight() + ", tabs=" + Arrays.toString( tabs ) + "]";
+			return "[width=" + getWidth() + ", height=" + getHeight() + ", tabs=" + Arrays.toString( getTabs() ) + "]";
 		}
 	}
 }
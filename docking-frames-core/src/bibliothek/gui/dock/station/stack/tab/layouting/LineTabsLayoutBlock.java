@@ -29,10 +29,13 @@ import java.awt.Dimension;
 import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.station.stack.tab.AxisConversion;
@@ -52,6 +55,14 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	 */
 	private boolean sameSize = true;
 	
+	/**
+	 * If set, then the size of a tab is assumed to depend only on its direct neighbors
+	 */
+	private boolean localTabSizes = true;
+	
+	/** the boundaries of the tabs as they were set by the last call to {@link #doLayout()} */
+	private TabBounds tabBounds;
+	
 	/**
 	 * If set, then all tabs have the same height (width) if laid out
 	 * horizontal (vertical).
@@ -70,6 +81,28 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		this.sameSize = sameSize;
 	}
 	
+	/**
+	 * Tells whether the size of a {@link Tab} depends only on its direct neighbors, see
+	 * {@link #setLocalTabSizes(boolean)}.
+	 * @return whether the sizes of the tabs are local
+	 */
+	public boolean isLocalTabSizes(){
+		return localTabSizes;
+	}
+	
+	/**
+	 * Tells this block whether the result of {@link Tab#getMinimumSize(Tab[])} and of
+	 * {@link Tab#getPreferredSize(Tab[])} depends only on the direct neighbors of a tab. If set, then
+	 * adding a tab to a line requires only the sizes of the new tab and of its two neighbors to be
+	 * recalculated, and {@link #getSizes()} needs only <code>O(n log n)</code> time. If not set, then
+	 * the sizes of all tabs are recalculated whenever a tab is added. The default value is <code>true</code>,
+	 * which is correct for all the tabs that are part of this framework.
+	 * @param localTabSizes whether the size of a tab depends only on its neighbors
+	 */
+	public void setLocalTabSizes( boolean localTabSizes ){
+		this.localTabSizes = localTabSizes;
+	}
+	
 	public boolean isAllTabs( Size size ){
 		return ((LineSize)size).isAllTabs();
 	}
@@ -112,10 +145,7 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			collector.insert( tabs[i] );
 			
 			Dimension size = collector.getMinimumSize();
-			Tab[] selection = new Tab[ i+1 ];
-			System.arraycopy( tabs, 0, selection, 0, i+1 );
-			
-			result[i] = new LineSize( Size.Type.MINIMUM, size, selection, i+1 == tabs.length, i / (double)tabs.length );
+			result[i] = new LineSize( Size.Type.MINIMUM, size, tabs, i+1, i+1 == tabs.length, i / (double)tabs.length );
 		}
 		
 		Dimension preferred = collector.getPreferredSize();
@@ -124,6 +154,14 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	}
 
 	public int getIndexOfTabAt( Point mouseLocation ){
+		if( tabBounds != null ){
+			Tab tab = tabBounds.getTabAt( mouseLocation );
+			if( tab != null || tabBounds.isValid() ){
+				return tab == null ? -1 : indexOfDockable( tab.getDockable() );
+			}
+			tabBounds = null;
+		}
+		
 		Tab[] tabs = getCurrentTabs();
 		
 		int[] overlapPrevious = getOverlapToPrevious( tabs );
@@ -149,15 +187,33 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 				}
 				
 				if( exact ){
-					return i;
+					return indexOfDockable( tabs[i].getDockable() );
 				} 
-				else{
+				else if( backup == -1 ){
 					backup = i;
 				}
 			}
 		}
 		
-		return backup;
+		if( backup == -1 ){
+			return -1;
+		}
+		return indexOfDockable( tabs[backup].getDockable() );
+	}
+	
+	/**
+	 * Gets the location of <code>dockable</code> in the {@link TabPane}.
+	 * @param dockable the element to search
+	 * @return the index of <code>dockable</code> or -1
+	 */
+	private int indexOfDockable( Dockable dockable ){
+		Dockable[] dockables = getPane().getDockables();
+		for( int i = 0; i < dockables.length; i++ ){
+			if( dockables[i] == dockable ){
+				return i;
+			}
+		}
+		return -1;
 	}
 	
 	/**
@@ -220,10 +276,13 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		int z = 0;
 		Tab[] zOrdered = zorder.getOrderedByZ();
 		for( Tab tab : zOrdered ){
-			if( tab != null ){
-				tab.setZOrder( z++ );
+			if( tab.getZOrder() != z ){
+				tab.setZOrder( z );
 			}
+			z++;
 		}
+		
+		tabBounds = new TabBounds( tabs, overlapPrevious, overlapNext );
 	}
 
 	/**
@@ -374,6 +433,20 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			super( type, size, tabs, score );
 			this.allTabs = allTabs;
 		}
+		
+		/**
+		 * Creates a new size which shows the first <code>count</code> tabs of <code>tabs</code>.
+		 * @param type the kind of size this is
+		 * @param size the amount of needed pixels
+		 * @param tabs the tabs, this array can be shared by many sizes and must not be modified
+		 * @param count the number of tabs shown with this size
+		 * @param allTabs whether <code>tabs</code> includes all available tabs
+		 * @param score how well this size is liked
+		 */
+		public LineSize( Type type, Dimension size, Tab[] tabs, int count, boolean allTabs, double score ){
+			super( type, size, tabs, count, score );
+			this.allTabs = allTabs;
+		}
 
 		/**
 		 * Tells whether this size represents a size where all tabs are shown.
@@ -384,6 +457,140 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		}
 	}
 	
+	/**
+	 * The boundaries of the tabs as they were set by {@link LineTabsLayoutBlock#doLayout()}. The
+	 * tabs are sorted by their location, allowing {@link LineTabsLayoutBlock#getIndexOfTabAt(Point)} to
+	 * find a tab with a binary search. 
+	 * @author Benjamin Sigg
+	 */
+	private class TabBounds{
+		/** the tabs, sorted by the location of their left (top) side */
+		private Tab[] tabs;
+		/** the boundaries of {@link #tabs} */
+		private Rectangle[] bounds;
+		/** the start of the exact area of each tab */
+		private int[] begin;
+		/** the end of the exact area of each tab */
+		private int[] end;
+		/** the maximum value of the right (bottom) side of all the tabs up to some index */
+		private int[] maxEnd;
+		/** whether the tabs are ordered horizontally */
+		private boolean horizontal;
+		/** whether the last search found that the boundaries are no longer correct */
+		private boolean valid = true;
+		
+		/**
+		 * Creates a new set of boundaries.
+		 * @param tabs the tabs in the order in which they are shown
+		 * @param overlapPrevious how much each tab can be overlapped by its previous tab
+		 * @param overlapNext how much each tab can be overlapped by its next tab
+		 */
+		public TabBounds( Tab[] tabs, int[] overlapPrevious, int[] overlapNext ){
+			horizontal = getOrientation().isHorizontal();
+			
+			final Rectangle[] lineBounds = new Rectangle[ tabs.length ];
+			Integer[] order = new Integer[ tabs.length ];
+			for( int i = 0; i < tabs.length; i++ ){
+				lineBounds[i] = tabs[i].getBounds();
+				order[i] = i;
+			}
+			
+			Arrays.sort( order, new Comparator<Integer>(){
+				public int compare( Integer a, Integer b ){
+					int startA = start( lineBounds[a] );
+					int startB = start( lineBounds[b] );
+					if( startA != startB ){
+						return startA < startB ? -1 : 1;
+					}
+					return a.compareTo( b );
+				}
+			});
+			
+			this.tabs = new Tab[ tabs.length ];
+			bounds = new Rectangle[ tabs.length ];
+			begin = new int[ tabs.length ];
+			end = new int[ tabs.length ];
+			maxEnd = new int[ tabs.length ];
+			
+			for( int i = 0; i < order.length; i++ ){
+				int index = order[i];
+				this.tabs[i] = tabs[index];
+				bounds[i] = lineBounds[index];
+				begin[i] = start( bounds[i] ) + overlapPrevious[index];
+				end[i] = start( bounds[i] ) + length( bounds[i] ) - overlapNext[index];
+				maxEnd[i] = start( bounds[i] ) + length( bounds[i] );
+				if( i > 0 ){
+					maxEnd[i] = Math.max( maxEnd[i], maxEnd[i-1] );
+				}
+			}
+		}
+		
+		private int start( Rectangle bounds ){
+			return horizontal ? bounds.x : bounds.y;
+		}
+		
+		private int length( Rectangle bounds ){
+			return horizontal ? bounds.width : bounds.height;
+		}
+		
+		/**
+		 * Tells whether the boundaries stored in this object are still correct.
+		 * @return <code>false</code> if a tab was moved since this object was created
+		 */
+		public boolean isValid(){
+			return valid;
+		}
+		
+		/**
+		 * Searches the tab at <code>mouseLocation</code>. If more than one tab contains
+		 * <code>mouseLocation</code> then tabs whose exact area, the area that is not overlapped by
+		 * neighbors, contains the point are preferred. Otherwise the tab with the lowest 
+		 * {@link Tab#getZOrder() z-order} is preferred.
+		 * @param mouseLocation the location to search
+		 * @return the tab at <code>mouseLocation</code> or <code>null</code>, the result is not
+		 * defined if this object is no longer {@link #isValid() valid}
+		 */
+		public Tab getTabAt( Point mouseLocation ){
+			int location = horizontal ? mouseLocation.x : mouseLocation.y;
+			
+			// search the last tab that starts at or before location
+			int min = 0;
+			int max = tabs.length-1;
+			while( min <= max ){
+				int middle = (min + max) >>> 1;
+				if( start( bounds[ middle ] ) <= location ){
+					min = middle + 1;
+				}
+				else{
+					max = middle - 1;
+				}
+			}
+			
+			Tab exact = null;
+			Tab backup = null;
+			
+			for( int i = max; i >= 0 && maxEnd[i] > location; i-- ){
+				Tab tab = tabs[i];
+				if( !tab.isPaneVisible() || !bounds[i].equals( tab.getBounds() )){
+					valid = false;
+					return null;
+				}
+				if( bounds[i].contains( mouseLocation )){
+					if( location >= begin[i] && location < end[i] ){
+						if( exact == null || exact.getZOrder() > tab.getZOrder() ){
+							exact = tab;
+						}
+					}
+					else if( backup == null || backup.getZOrder() > tab.getZOrder() ){
+						backup = tab;
+					}
+				}
+			}
+			
+			return exact != null ? exact : backup;
+		}
+	}
+	
 	/**
 	 * Calculates the {@link TabPaneComponent#setZOrder(int) z-order} of various
 	 * components requiring only a subset of all comparisons 
@@ -391,23 +598,34 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	protected class ZOrder{
 		private Tab[] tabs;
 		
-		private List<Integer>[] onTop;
-		private List<Integer>[] onBottom;
+		/** the location of each tab in {@link #tabs} */
+		private Map<Tab, Integer> indices = new IdentityHashMap<Tab, Integer>();
+		
+		/** for each tab the number of tabs that must be in front of it */
+		private int[] onTop;
+		/** for each tab the tabs that must be behind it, a linked list using {@link #nextBottom} */
+		private int[] firstBottom;
+		/** the tab behind, index of the tab, next entry in the list */
+		private int[] bottom;
+		private int[] nextBottom;
+		/** the number of entries in {@link #bottom} */
+		private int edges = 0;
 		
 		/**
 		 * Creates a new {@link ZOrder}
 		 * @param tabs the tabs whose z-order needs to be calculated.
 		 */
-		@SuppressWarnings("unchecked")
 		public ZOrder( Tab[] tabs ){
 			this.tabs = tabs;
 			
-			onTop = new List[ tabs.length ];
-			onBottom = new List[ tabs.length ];
+			onTop = new int[ tabs.length ];
+			firstBottom = new int[ tabs.length ];
+			Arrays.fill( firstBottom, -1 );
+			bottom = new int[ Math.max( 4, tabs.length ) ];
+			nextBottom = new int[ bottom.length ];
 			
 			for( int i = 0; i < tabs.length; i++ ){
-				onTop[i] = new ArrayList<Integer>( 5 );
-				onBottom[i] = new ArrayList<Integer>( 5 );
+				indices.put( tabs[i], i );
 			}
 		}
 		
@@ -419,17 +637,68 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @param back the back tab
 		 */
 		public void putOrder( Tab front, Tab back ){
-			for( int f = 0; f < tabs.length; f++ ){
-				if( tabs[f] == front ){
-					for( int b = 0; b < tabs.length; b++ ){
-						if( tabs[b] == back ){
-							onTop[b].add( f );
-							onBottom[f].add( b );
-							return;
+			Integer f = indices.get( front );
+			Integer b = indices.get( back );
+			if( f == null || b == null ){
+				return;
+			}
+			
+			if( edges == bottom.length ){
+				bottom = Arrays.copyOf( bottom, edges * 2 );
+				nextBottom = Arrays.copyOf( nextBottom, edges * 2 );
+			}
+			bottom[ edges ] = b;
+			nextBottom[ edges ] = firstBottom[ f ];
+			firstBottom[ f ] = edges;
+			edges++;
+			onTop[ b ]++;
+		}
+		
+		/**
+		 * Sorts the tabs such that each tab is behind all the tabs that must be in front of it. 
+		 * If there is a choice, then the tab with the smaller index comes first.
+		 * @return the indices of the tabs, the first index is the tab in front of all other tabs
+		 */
+		private int[] sort(){
+			int[] remaining = onTop.clone();
+			int[] result = new int[ tabs.length ];
+			int size = 0;
+			
+			PriorityQueue<Integer> free = new PriorityQueue<Integer>( Math.max( 1, tabs.length ) );
+			for( int i = 0; i < tabs.length; i++ ){
+				if( remaining[i] == 0 ){
+					free.add( i );
+				}
+			}
+			
+			while( size < result.length ){
+				if( free.isEmpty() ){
+					// there is a cycle, just pick the first tab that is not yet handled
+					for( int i = 0; i < remaining.length; i++ ){
+						if( remaining[i] > 0 ){
+							remaining[i] = 0;
+							free.add( i );
+							break;
+						}
+					}
+				}
+				
+				int next = free.poll();
+				remaining[ next ] = -1;
+				result[ size++ ] = next;
+				
+				for( int edge = firstBottom[ next ]; edge != -1; edge = nextBottom[ edge ] ){
+					int back = bottom[ edge ];
+					if( remaining[ back ] > 0 ){
+						remaining[ back ]--;
+						if( remaining[ back ] == 0 ){
+							free.add( back );
 						}
 					}
 				}
 			}
+			
+			return result;
 		}
 		
 		/**
@@ -437,23 +706,10 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @return the z order.
 		 */
 		public int[] getZOrders(){
+			int[] order = sort();
 			int[] results = new int[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[j] = results.length-i;
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-						}
-					}
-				}
+			for( int i = 0; i < order.length; i++ ){
+				results[ order[i] ] = results.length-i;
 			}
 			return results;
 		}
@@ -464,24 +720,10 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @return the tabs ordered by z
 		 */
 		public Tab[] getOrderedByZ(){
+			int[] order = sort();
 			Tab[] results = new Tab[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			base:for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[i] = tabs[j];
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-							continue base;
-						}
-					}
-				}
+			for( int i = 0; i < order.length; i++ ){
+				results[i] = tabs[ order[i] ];
 			}
 			return results;
 		}
@@ -489,11 +731,12 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	
 	/**
 	 * Used to calculate the minimum and preferred size of a set of 
-	 * {@link Tab}s.
+	 * {@link Tab}s. The collector keeps track of the sum of all sizes, adding
+	 * a tab requires only <code>O(log n)</code> time if the {@link LineTabsLayoutBlock#isLocalTabSizes() sizes 
+	 * are local}.
 	 * @author Benjamin Sigg
 	 */
 	protected class SizeCollector{
-		private Dockable[] dockables;
 		private Tab[] tabs;
 		
 		private Dimension[] minimum;
@@ -501,12 +744,28 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		private int[] overlapPrevious;
 		private int[] overlapNext;
 		
+		/** the location of each {@link Dockable} */
+		private Map<Dockable, Integer> indices;
+		/** the indices of all the tabs that are not <code>null</code> */
+		private TreeSet<Integer> visible = new TreeSet<Integer>();
+		
+		/** whether the tabs are ordered horizontally */
+		private boolean horizontal;
+		
+		/** the sum of the minimum sizes along the line */
+		private int minimumLength = 0;
+		/** the sum of the preferred sizes along the line */
+		private int preferredLength = 0;
+		/** all the minimum sizes orthogonal to the line, and how often they are used */
+		private TreeMap<Integer, Integer> minimumBreadths = new TreeMap<Integer, Integer>();
+		/** all the preferred sizes orthogonal to the line, and how often they are used */
+		private TreeMap<Integer, Integer> preferredBreadths = new TreeMap<Integer, Integer>();
+		
 		/**
 		 * Creates a new collector
 		 * @param dockables underlying set of {@link Dockable}s.
 		 */
 		public SizeCollector( Dockable[] dockables ){
-			this.dockables = dockables;
 			int size = dockables.length;
 			
 			tabs = new Tab[ size ];
@@ -514,6 +773,15 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			preferred = new Dimension[ size ];
 			overlapPrevious = new int[ size ];
 			overlapNext = new int[ size ];
+			
+			indices = new IdentityHashMap<Dockable, Integer>( size );
+			for( int i = 0; i < size; i++ ){
+				if( !indices.containsKey( dockables[i] )){
+					indices.put( dockables[i], i );
+				}
+			}
+			
+			horizontal = getOrientation().isHorizontal();
 		}
 		
 		/**
@@ -522,12 +790,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @param tab the new tab
 		 */
 		public void insert( Tab tab ){
-			Dockable dockable = tab.getDockable();
-			for( int i = 0; i < dockables.length; i++ ){
-				if( dockables[i] == dockable ){
-					insert( tab, i );
-					return;
-				}
+			Integer index = indices.get( tab.getDockable() );
+			if( index != null ){
+				insert( tab, index );
 			}
 		}
 		
@@ -536,62 +801,148 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @return the visible tabs
 		 */
 		private Tab[] getVisibleTabs(){
-			int count = 0;
-			for( Tab tab : tabs ){
-				if( tab != null ){
-					count++;
-				}
-			}
-			Tab[] visible = new Tab[count];
+			Tab[] result = new Tab[ visible.size() ];
 			int index = 0;
-			for( Tab tab : tabs ){
-				if( tab != null ){
-					visible[ index++ ] = tab;
-				}
+			for( int i : visible ){
+				result[ index++ ] = tabs[i];
+			}
+			return result;
+		}
+		
+		/**
+		 * Gets the tab at <code>index</code> and its direct neighbors.
+		 * @param index the index of a visible tab
+		 * @return the tab and its neighbors
+		 */
+		private Tab[] getNeighborhood( int index ){
+			Integer previous = visible.lower( index );
+			Integer next = visible.higher( index );
+			
+			Tab[] result = new Tab[ 1 + (previous == null ? 0 : 1) + (next == null ? 0 : 1) ];
+			int offset = 0;
+			if( previous != null ){
+				result[ offset++ ] = tabs[ previous ];
+			}
+			result[ offset++ ] = tabs[ index ];
+			if( next != null ){
+				result[ offset ] = tabs[ next ];
 			}
-			return visible;
+			return result;
 		}
 		
 		private void insert( Tab tab, int index ){
+			if( tabs[ index ] != null ){
+				return;
+			}
+			
+			Integer previous = visible.lower( index );
+			Integer next = visible.higher( index );
+			
+			if( previous != null && next != null ){
+				removeOverlap( previous, next );
+			}
+			
 			tabs[ index ] = tab;
-			Tab[] visibleTabs = getVisibleTabs();
+			visible.add( index );
 			
-			for( int i = 0; i < tabs.length; i++ ){
-				if( tabs[i] != null ){
-					minimum[ i ] = tabs[i].getMinimumSize( visibleTabs );
-					preferred[ i ] = tabs[i].getPreferredSize( visibleTabs );
+			if( previous != null ){
+				if( horizontal ){
+					overlapNext[ previous ] = tabs[ previous ].getOverlap( tab ).right;
+					overlapPrevious[ index ] = tab.getOverlap( tabs[ previous ] ).left;
+				}
+				else{
+					overlapNext[ previous ] = tabs[ previous ].getOverlap( tab ).bottom;
+					overlapPrevious[ index ] = tab.getOverlap( tabs[ previous ] ).top;
 				}
+				addOverlap( previous, index );
 			}
 			
-			boolean horizontal = getOrientation().isHorizontal();
+			if( next != null ){
+				if( horizontal ){
+					overlapNext[ index ] = tab.getOverlap( tabs[ next ] ).right;
+					overlapPrevious[ next ] = tabs[ next ].getOverlap( tab ).left;
+				}
+				else{
+					overlapNext[ index ] = tab.getOverlap( tabs[ next ] ).bottom;
+					overlapPrevious[ next ] = tabs[ next ].getOverlap( tab ).top;
+				}
+				addOverlap( index, next );
+			}
 			
-			// search previous
-			for( int i = index-1; i >= 0; i-- ){
-				if( tabs[i] != null ){
-					if( horizontal ){
-						overlapNext[i] = tabs[i].getOverlap( tab ).right;
-						overlapPrevious[ index ] = tab.getOverlap( tabs[i] ).left;
-					}
-					else{
-						overlapNext[i] = tabs[i].getOverlap( tab ).bottom;
-						overlapPrevious[ index ] = tab.getOverlap( tabs[i] ).top;
-					}
-					break;
+			if( isLocalTabSizes() ){
+				if( previous != null ){
+					update( previous, getNeighborhood( previous ) );
+				}
+				update( index, getNeighborhood( index ) );
+				if( next != null ){
+					update( next, getNeighborhood( next ) );
+				}
+			}
+			else{
+				Tab[] visibleTabs = getVisibleTabs();
+				for( int i : visible ){
+					update( i, visibleTabs );
 				}
 			}
+		}
+		
+		private void addOverlap( int previous, int next ){
+			int delta = Math.max( overlapNext[ previous ], overlapPrevious[ next ] );
+			minimumLength -= delta;
+			preferredLength -= delta;
+		}
+		
+		private void removeOverlap( int previous, int next ){
+			int delta = Math.max( overlapNext[ previous ], overlapPrevious[ next ] );
+			minimumLength += delta;
+			preferredLength += delta;
+		}
+		
+		/**
+		 * Recalculates the minimum and preferred size of the tab at <code>index</code>.
+		 * @param index the index of the tab
+		 * @param visibleTabs the tabs to use for calculating the size
+		 */
+		private void update( int index, Tab[] visibleTabs ){
+			if( minimum[ index ] != null ){
+				minimumLength -= length( minimum[ index ] );
+				remove( minimumBreadths, breadth( minimum[ index ] ) );
+			}
+			if( preferred[ index ] != null ){
+				preferredLength -= length( preferred[ index ] );
+				remove( preferredBreadths, breadth( preferred[ index ] ) );
+			}
 			
-			// search next
-			for( int i = index+1; i < tabs.length; i++ ){
-				if( tabs[i] != null ){
-					if( horizontal ){
-						overlapNext[ index ] = tab.getOverlap( tabs[i] ).right;
-						overlapPrevious[i] = tabs[i].getOverlap( tab ).left;
-					}
-					else{
-						overlapNext[ index ] = tab.getOverlap( tabs[i] ).bottom;
-						overlapPrevious[i] = tabs[i].getOverlap( tab ).top;
-					}
-					break;
+			minimum[ index ] = tabs[ index ].getMinimumSize( visibleTabs );
+			preferred[ index ] = tabs[ index ].getPreferredSize( visibleTabs );
+			
+			minimumLength += length( minimum[ index ] );
+			add( minimumBreadths, breadth( minimum[ index ] ) );
+			preferredLength += length( preferred[ index ] );
+			add( preferredBreadths, breadth( preferred[ index ] ) );
+		}
+		
+		private int length( Dimension size ){
+			return horizontal ? size.width : size.height;
+		}
+		
+		private int breadth( Dimension size ){
+			return horizontal ? size.height : size.width;
+		}
+		
+		private void add( TreeMap<Integer, Integer> breadths, int breadth ){
+			Integer count = breadths.get( breadth );
+			breadths.put( breadth, count == null ? 1 : count+1 );
+		}
+		
+		private void remove( TreeMap<Integer, Integer> breadths, int breadth ){
+			Integer count = breadths.get( breadth );
+			if( count != null ){
+				if( count == 1 ){
+					breadths.remove( breadth );
+				}
+				else{
+					breadths.put( breadth, count-1 );
 				}
 			}
 		}
@@ -601,7 +952,7 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @return minimum size
 		 */
 		public Dimension getMinimumSize(){
-			return getSize( minimum );
+			return getSize( minimumLength, minimumBreadths );
 		}
 		
 		/**
@@ -609,51 +960,18 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @return preferred size
 		 */
 		public Dimension getPreferredSize(){
-			return getSize( preferred );
-		}
-		
-		private Dimension getSize( Dimension[] required ){
-			int width = 0;
-			int height = 0;
-			
-			int previous = -1;
-			
-			if( getOrientation().isHorizontal() ){
-				for( int i = 0; i < tabs.length; i++ ){
-					if( tabs[i] != null ){
-						Dimension size = required[i];
-						
-						height = Math.max( height, size.height );
-						
-						width += size.width;
-						
-						if( previous != -1 ){
-							width -= Math.max( overlapNext[ previous ], overlapPrevious[ i ] );
-						}
-						
-						previous = i;
-					}
-				}
+			return getSize( preferredLength, preferredBreadths );
+		}
+		
+		private Dimension getSize( int length, TreeMap<Integer, Integer> breadths ){
+			int breadth = breadths.isEmpty() ? 0 : Math.max( 0, breadths.lastKey() );
+			
+			if( horizontal ){
+				return new Dimension( length, breadth );
 			}
 			else{
-				for( int i = 0; i < tabs.length; i++ ){
-					if( tabs[i] != null ){
-						Dimension size = required[i];
-						
-						width = Math.max( width, size.width );
-						
-						height += size.height;
-						
-						if( previous != -1 ){
-							height -= Math.max( overlapNext[ previous ], overlapPrevious[ i ] );
-						}
-						
-						previous = i;
-					}
-				}
+				return new Dimension( breadth, length );
 			}
-				
-			return new Dimension( width, height );			
 		}
 	}
 }
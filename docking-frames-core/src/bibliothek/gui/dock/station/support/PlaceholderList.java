@@ -25,9 +25,15 @@
  */
 package bibliothek.gui.dock.station.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -42,6 +48,9 @@ import bibliothek.util.Path;
  * of placeholders.<br>
  * Clients should call {@link #bind()} and {@link #unbind()} to manage the
  * lifecycle of this list.<br>
+ * A {@link PlaceholderList} can be {@link #setIndexed(boolean) indexed}, in which case searching
+ * an element by index, by placeholder or by dockable no longer requires a walk through the entire list. A list
+ * builds its index automatically once it has {@link #setIndexThreshold(int) enough entries}.<br>
  * A {@link PlaceholderList} is not thread-safe.
  * @author Benjamin Sigg
  * @param <D> the kind of object that should be treated as {@link Dockable}
@@ -61,6 +70,21 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	/** head of the dockables sublist */
 	private Entry headDockable = null;
 
+	/**
+	 * The default value of {@link #getIndexThreshold()}: the number of entries from which on a list
+	 * automatically builds an index.
+	 */
+	public static final int DEFAULT_INDEX_THRESHOLD = 64;
+	
+	/** optional index of all the entries, <code>null</code> if this list is not indexed */
+	private Index index = null;
+	
+	/** the number of entries in this list */
+	private int entryCount = 0;
+	
+	/** the number of entries from which on this list builds an index automatically, 0 to never build an index automatically */
+	private int indexThreshold = DEFAULT_INDEX_THRESHOLD;
+
 	/** identifiers for the various sublists this list consists of */
 	public static enum Level {
 		BASE, DOCKABLE, PLACEHOLDER;
@@ -483,12 +507,16 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			Iterator<Item> iter = list().iterator();
 			while( iter.hasNext() ) {
 				Item item = iter.next();
-				Set<Path> placeholders = item.getPlaceholderSet();
+				Set<Path> placeholders = item.placeholderSet;
 				if( placeholders != null ) {
 					Iterator<Path> paths = placeholders.iterator();
 					while( paths.hasNext() ) {
-						if( !strategy.isValidPlaceholder( paths.next() ) ) {
+						Path path = paths.next();
+						if( !strategy.isValidPlaceholder( path ) ) {
 							paths.remove();
+							if( index != null ){
+								index.placeholderRemoved( item.owner, path );
+							}
 						}
 					}
 				}
@@ -557,6 +585,18 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	 * @param placeholders the placeholders to remove
 	 */
 	public void removeAll( Set<Path> placeholders ){
+		if( index != null ){
+			for( Entry entry : index.candidates( placeholders )){
+				if( entry.node != null ){
+					entry.item.removeAll( placeholders );
+					if( entry.item.getPlaceholderSet() == null && entry.item.isPlaceholder() ){
+						entry.remove();
+					}
+				}
+			}
+			return;
+		}
+		
 		Iterator<Item> iter = list().iterator();
 		while( iter.hasNext() ) {
 			Item item = iter.next();
@@ -578,6 +618,18 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 	
 	private void ensureRemoved( Item ignore, Path placeholder ){
+		if( index != null ){
+			for( Entry entry : index.candidates( Collections.singleton( placeholder ) )){
+				if( entry.node != null && entry.item != ignore ){
+					entry.item.remove( placeholder );
+					if( entry.item.getPlaceholderSet() == null && entry.item.isPlaceholder() ){
+						entry.remove();
+					}
+				}
+			}
+			return;
+		}
+		
 		Iterator<Item> iter = list().iterator();
 		while( iter.hasNext() ) {
 			Item item = iter.next();
@@ -908,6 +960,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( Path placeholder ){
+		if( index != null ){
+			return index.search( placeholder, Level.BASE );
+		}
 		Entry entry = this.head;
 		while( entry != null ) {
 			Set<Path> set = entry.item.getPlaceholderSet();
@@ -920,6 +975,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 	
 	private Entry search( D dockable ){
+		if( index != null ){
+			return index.search( dockable );
+		}
 		Entry entry = head( Level.DOCKABLE );
 		while( entry != null ) {
 			if( entry.item.getDockable().asDockable() == dockable ) {
@@ -931,6 +989,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( P dockable ){
+		if( index != null ){
+			return index.search( dockable );
+		}
 		Entry entry = head( Level.DOCKABLE );
 		while( entry != null ) {
 			if( entry.item.getDockable() == dockable ) {
@@ -942,6 +1003,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( int index, Level level ){
+		if( this.index != null ){
+			return this.index.select( Math.max( index, 0 ), level );
+		}
 		Entry entry = head( level );
 
 		while( entry != null && index > 0 ) {
@@ -990,8 +1054,84 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		head = null;
 		headDockable = null;
 		headPlaceholder = null;
+		entryCount = 0;
+		if( index != null ){
+			index = new Index();
+		}
 		invalidate();
 	}
+	
+	/**
+	 * Sets whether this list should maintain an index of its entries. An indexed list stores its entries
+	 * additionally in a balanced tree and remembers where each placeholder and each dockable is stored.
+	 * Searching an entry by its position, by a placeholder or by a dockable then requires logarithmic or
+	 * constant time instead of linear time, at the cost of some memory and slightly slower modifications. 
+	 * Indexing pays off for lists with many entries, e.g. a station showing hundreds of {@link Dockable}s 
+	 * or a layout with many placeholders.<br>
+	 * While this list is indexed, the sets returned by {@link Item#getPlaceholderSet()} cannot be modified,
+	 * clients have to use the methods of {@link Item} to change the placeholders.<br>
+	 * A list that is not indexed builds its index automatically once it reaches the {@link #setIndexThreshold(int) threshold}.
+	 * @param indexed whether to build an index
+	 */
+	public void setIndexed( boolean indexed ){
+		if( indexed != isIndexed() ){
+			if( indexed ){
+				index = new Index();
+				Entry predecessor = null;
+				for( Entry entry = head; entry != null; entry = entry.next ){
+					if( entry.item.placeholderSet != null ){
+						entry.item.placeholderSet = new HashSet<Path>( entry.item.placeholderSet );
+					}
+					index.add( entry, predecessor );
+					predecessor = entry;
+				}
+			}
+			else{
+				for( Entry entry = head; entry != null; entry = entry.next ){
+					entry.node = null;
+					entry.indexedValue = null;
+				}
+				index = null;
+			}
+		}
+	}
+	
+	/**
+	 * Tells whether this list maintains an index of its entries.
+	 * @return whether this list is indexed
+	 * @see #setIndexed(boolean)
+	 */
+	public boolean isIndexed(){
+		return index != null;
+	}
+	
+	/**
+	 * Sets the number of entries from which on this list automatically {@link #setIndexed(boolean) builds an index}. 
+	 * The threshold is checked whenever a new entry is added. The index is never removed automatically.
+	 * @param indexThreshold the minimal number of entries of an indexed list, 0 or less to never build an index automatically
+	 */
+	public void setIndexThreshold( int indexThreshold ){
+		this.indexThreshold = indexThreshold;
+		checkIndexThreshold();
+	}
+	
+	/**
+	 * Gets the number of entries from which on this list automatically builds an index.
+	 * @return the threshold, 0 or less if no index is built automatically
+	 * @see #setIndexThreshold(int)
+	 */
+	public int getIndexThreshold(){
+		return indexThreshold;
+	}
+	
+	/**
+	 * Builds an index if this list is not yet indexed and has at least {@link #getIndexThreshold()} entries.
+	 */
+	private void checkIndexThreshold(){
+		if( index == null && indexThreshold > 0 && entryCount >= indexThreshold ){
+			setIndexed( true );
+		}
+	}
 
 	private Entry head( Level level ){
 		switch( level ){
@@ -1023,6 +1163,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 		private Entry next, previous;
 		private Entry nextLevel, previousLevel;
+		
+		/** the node representing this entry in {@link PlaceholderList#index}, <code>null</code> if not indexed */
+		private PlaceholderListTree.Node<Entry> node;
+		/** the dockable under which this entry is currently known to {@link PlaceholderList#index} */
+		private P indexedValue;
 
 		public Entry( Entry predecessor, Item item ){
 			this.item = item;
@@ -1031,6 +1176,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 		public void insertAfter( Entry predecessor ){
 			invalidate();
+			entryCount++;
 
 			item.setOwner( this );
 			itemWasPlaceholder = item.isPlaceholder();
@@ -1055,12 +1201,17 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				predecessor.next = this;
 				this.previous = predecessor;
 
-				Entry search = predecessor;
-				while( search != null && predecessorLevel == null ) {
-					if( search.item.isPlaceholder() == item.isPlaceholder() ) {
-						predecessorLevel = search;
+				if( index != null ){
+					predecessorLevel = index.levelPredecessor( predecessor, item.isPlaceholder() );
+				}
+				else{
+					Entry search = predecessor;
+					while( search != null && predecessorLevel == null ) {
+						if( search.item.isPlaceholder() == item.isPlaceholder() ) {
+							predecessorLevel = search;
+						}
+						search = search.previous( Level.BASE );
 					}
-					search = search.previous( Level.BASE );
 				}
 			}
 
@@ -1089,6 +1240,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				nextLevel = successorLevel;
 				successorLevel.previousLevel = this;
 			}
+			
+			if( index != null ){
+				index.add( this, predecessor );
+			}
 		}
 
 		public void move( int delta, Level level ){
@@ -1096,7 +1251,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				return;
 			}
 			Entry newPredecessor = this;
-			if( delta > 0 ) {
+			if( index != null ){
+				newPredecessor = index.movePredecessor( this, delta, level );
+			}
+			else if( delta > 0 ) {
 				for( int i = 0; i < delta; i++ ) {
 					newPredecessor = newPredecessor.next( level );
 					if( newPredecessor == null ) {
@@ -1142,6 +1300,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public int index( Level level ){
+			if( index != null ){
+				return index.indexOf( this, level );
+			}
 			Entry entry = head( level );
 			int index = 0;
 			while( entry != this && entry != null ) {
@@ -1159,6 +1320,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public void set( Item item ){
+			Item oldItem = this.item;
+			if( index != null && oldItem != item ){
+				index.removeItem( this, oldItem );
+			}
+			
 			this.item.setOwner( null );
 			item.setOwner( this );
 
@@ -1168,8 +1334,18 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				invalidate();
 				removeLevel();
 
-				Entry levelPredecessor = findLevelPredecessor( item.isPlaceholder() );
-				Entry levelSuccessor = findLevelSuccessor( item.isPlaceholder() );
+				Entry levelPredecessor;
+				Entry levelSuccessor;
+				
+				if( index != null ){
+					index.levelChanged( this );
+					levelPredecessor = index.levelNeighbor( this, -1 );
+					levelSuccessor = index.levelNeighbor( this, 1 );
+				}
+				else{
+					levelPredecessor = findLevelPredecessor( item.isPlaceholder() );
+					levelSuccessor = findLevelSuccessor( item.isPlaceholder() );
+				}
 
 				if( levelPredecessor == null ) {
 					if( item.isPlaceholder() ) {
@@ -1194,6 +1370,13 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				}
 			}
 			this.item = item;
+			
+			if( index != null ){
+				if( oldItem != item ){
+					index.addItem( this, item );
+				}
+				index.updateDockable( this );
+			}
 		}
 
 		private Entry findLevelPredecessor( boolean placeholder ){
@@ -1220,6 +1403,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 		public void remove(){
 			invalidate();
+			entryCount--;
 
 			if( next != null ) {
 				next.previous = previous;
@@ -1235,6 +1419,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			next = null;
 			previous = null;
 
+			if( index != null ){
+				index.remove( this );
+			}
+			
 			this.item.setOwner( null );
 
 			removeLevel();
@@ -1267,6 +1455,321 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 	}
 
+	/**
+	 * The index of an {@link PlaceholderList#setIndexed(boolean) indexed} list. Stores all the entries in
+	 * an order-statistic tree and remembers where each placeholder and each dockable is stored.
+	 * @author Benjamin Sigg
+	 */
+	private class Index {
+		/** all the entries in the order of the list */
+		private PlaceholderListTree<Entry> tree = new PlaceholderListTree<Entry>();
+		/** tells for each placeholder which entries contain it */
+		private Map<Path, List<Entry>> placeholders = new HashMap<Path, List<Entry>>();
+		/** all the entries whose item has a {@link PlaceholderMap} */
+		private Set<Entry> mapped = new LinkedHashSet<Entry>();
+		/** tells which entry represents which dockable */
+		private Map<D, Entry> dockables = new IdentityHashMap<D, Entry>();
+		/** tells which entry represents which item */
+		private Map<P, Entry> items = new IdentityHashMap<P, Entry>();
+
+		/**
+		 * Adds <code>entry</code> to this index.
+		 * @param entry the new entry
+		 * @param predecessor the entry after which <code>entry</code> was inserted, can be <code>null</code>
+		 */
+		public void add( Entry entry, Entry predecessor ){
+			entry.node = tree.insertAfter( predecessor == null ? null : predecessor.node, entry, !entry.itemWasPlaceholder );
+			addItem( entry, entry.item );
+			updateDockable( entry );
+		}
+
+		/**
+		 * Removes <code>entry</code> from this index.
+		 * @param entry the entry to remove
+		 */
+		public void remove( Entry entry ){
+			if( entry.node != null ){
+				removeItem( entry, entry.item );
+				removeDockable( entry );
+				tree.remove( entry.node );
+				entry.node = null;
+			}
+		}
+
+		/**
+		 * Stores the placeholders of <code>item</code>, which is now part of <code>entry</code>.
+		 * @param entry the owner of <code>item</code>
+		 * @param item the new item of <code>entry</code>
+		 */
+		public void addItem( Entry entry, Item item ){
+			if( item.placeholderSet != null ){
+				for( Path placeholder : item.placeholderSet ){
+					placeholderAdded( entry, placeholder );
+				}
+			}
+			if( item.placeholderMap != null ){
+				mapped.add( entry );
+			}
+		}
+
+		/**
+		 * Forgets the placeholders of <code>item</code>, which is no longer part of <code>entry</code>.
+		 * @param entry the old owner of <code>item</code>
+		 * @param item the old item of <code>entry</code>
+		 */
+		public void removeItem( Entry entry, Item item ){
+			if( item.placeholderSet != null ){
+				for( Path placeholder : item.placeholderSet ){
+					placeholderRemoved( entry, placeholder );
+				}
+			}
+			mapped.remove( entry );
+		}
+
+		/**
+		 * Called if the dockable of <code>entry</code> may have changed.
+		 * @param entry the entry whose dockable may have changed
+		 */
+		public void updateDockable( Entry entry ){
+			P value = entry.item.getDockable();
+			if( value != entry.indexedValue ){
+				removeDockable( entry );
+				if( value != null ){
+					entry.indexedValue = value;
+					items.put( value, entry );
+					dockables.put( value.asDockable(), entry );
+				}
+			}
+		}
+
+		private void removeDockable( Entry entry ){
+			P value = entry.indexedValue;
+			if( value != null ){
+				if( items.get( value ) == entry ){
+					items.remove( value );
+				}
+				D dockable = value.asDockable();
+				if( dockables.get( dockable ) == entry ){
+					dockables.remove( dockable );
+				}
+				entry.indexedValue = null;
+			}
+		}
+
+		/**
+		 * Called if <code>placeholder</code> was added to the item of <code>entry</code>.
+		 * @param entry the owner of the item
+		 * @param placeholder the new placeholder
+		 */
+		public void placeholderAdded( Entry entry, Path placeholder ){
+			if( entry.node != null ){
+				List<Entry> list = placeholders.get( placeholder );
+				if( list == null ){
+					list = new ArrayList<Entry>( 1 );
+					placeholders.put( placeholder, list );
+				}
+				if( !list.contains( entry )){
+					list.add( entry );
+				}
+			}
+		}
+
+		/**
+		 * Called if <code>placeholder</code> was removed from the item of <code>entry</code>.
+		 * @param entry the owner of the item
+		 * @param placeholder the removed placeholder
+		 */
+		public void placeholderRemoved( Entry entry, Path placeholder ){
+			List<Entry> list = placeholders.get( placeholder );
+			if( list != null ){
+				list.remove( entry );
+				if( list.isEmpty() ){
+					placeholders.remove( placeholder );
+				}
+			}
+		}
+
+		/**
+		 * Called if the {@link PlaceholderMap} of <code>item</code> changed.
+		 * @param entry the owner of <code>item</code>
+		 * @param item the item whose map changed
+		 */
+		public void mapChanged( Entry entry, Item item ){
+			if( entry.node != null && entry.item == item ){
+				if( item.placeholderMap == null ){
+					mapped.remove( entry );
+				}
+				else{
+					mapped.add( entry );
+				}
+			}
+		}
+
+		/**
+		 * Called if <code>entry</code> moved from the dockables to the placeholders or the other way round.
+		 * @param entry the entry whose level changed
+		 */
+		public void levelChanged( Entry entry ){
+			tree.setDockable( entry.node, !entry.itemWasPlaceholder );
+		}
+
+		/**
+		 * Gets the entry that is on the same level as <code>entry</code>, in front of it or behind it.
+		 * @param entry some entry of the list
+		 * @param delta either -1 or 1
+		 * @return the neighbor or <code>null</code>
+		 */
+		public Entry levelNeighbor( Entry entry, int delta ){
+			Level level = entry.itemWasPlaceholder ? Level.PLACEHOLDER : Level.DOCKABLE;
+			return select( tree.rank( entry.node, level ) + delta, level );
+		}
+
+		/**
+		 * Searches the last entry that is in front of, or equal to, <code>predecessor</code> and that is either a 
+		 * placeholder or a dockable.
+		 * @param predecessor some entry of the list
+		 * @param placeholder whether to search a placeholder or a dockable
+		 * @return the entry or <code>null</code>
+		 */
+		public Entry levelPredecessor( Entry predecessor, boolean placeholder ){
+			Level level = placeholder ? Level.PLACEHOLDER : Level.DOCKABLE;
+			int rank = tree.rank( predecessor.node, level );
+			if( tree.isPartOf( predecessor.node, level )){
+				rank++;
+			}
+			return select( rank-1, level );
+		}
+
+		/**
+		 * Searches the entry after which <code>entry</code> has to be inserted if it is moved by <code>delta</code>.
+		 * @param entry the entry to move
+		 * @param delta how far to move <code>entry</code>
+		 * @param level the level in which to move <code>entry</code>
+		 * @return the new predecessor, can be <code>null</code>
+		 * @throws IllegalArgumentException if <code>delta</code> is too big
+		 */
+		public Entry movePredecessor( Entry entry, int delta, Level level ){
+			int position = tree.rank( entry.node, level );
+			int target = delta > 0 ? position + delta : position + delta - 1;
+			if( target == -1 ){
+				return null;
+			}
+			Entry result = select( target, level );
+			if( result == null ){
+				throw new IllegalArgumentException( "delta too big" );
+			}
+			return result;
+		}
+
+		/**
+		 * Gets the location of <code>entry</code> in <code>level</code>.
+		 * @param entry some entry
+		 * @param level the level in which to search
+		 * @return the location or -1 if <code>entry</code> is not part of <code>level</code>
+		 */
+		public int indexOf( Entry entry, Level level ){
+			if( entry.node == null || !tree.isPartOf( entry.node, level )){
+				return -1;
+			}
+			return tree.rank( entry.node, level );
+		}
+
+		/**
+		 * Gets the entry at <code>index</code> in <code>level</code>.
+		 * @param index the location of the entry
+		 * @param level the level in which to search
+		 * @return the entry or <code>null</code> if <code>index</code> is out of bounds
+		 */
+		public Entry select( int index, Level level ){
+			PlaceholderListTree.Node<Entry> node = tree.select( index, level );
+			if( node == null ){
+				return null;
+			}
+			return node.getValue();
+		}
+
+		/**
+		 * Gets the last entry of the list.
+		 * @return the last entry or <code>null</code>
+		 */
+		public Entry last(){
+			PlaceholderListTree.Node<Entry> node = tree.last();
+			if( node == null ){
+				return null;
+			}
+			return node.getValue();
+		}
+
+		/**
+		 * Gets the size of <code>level</code>.
+		 * @param level the level to count
+		 * @return the number of entries in <code>level</code>
+		 */
+		public int size( Level level ){
+			return tree.size( level );
+		}
+
+		/**
+		 * Searches the first entry of <code>level</code> whose item contains <code>placeholder</code>.
+		 * @param placeholder the placeholder to search
+		 * @param level the level in which to search
+		 * @return the entry or <code>null</code>
+		 */
+		public Entry search( Path placeholder, Level level ){
+			List<Entry> list = placeholders.get( placeholder );
+			if( list == null ){
+				return null;
+			}
+			Entry best = null;
+			int bestRank = -1;
+			for( Entry entry : list ){
+				if( tree.isPartOf( entry.node, level )){
+					int rank = tree.rank( entry.node, Level.BASE );
+					if( best == null || rank < bestRank ){
+						best = entry;
+						bestRank = rank;
+					}
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Searches the entry whose item represents <code>dockable</code>.
+		 * @param dockable the dockable to search
+		 * @return the entry or <code>null</code>
+		 */
+		public Entry search( D dockable ){
+			return dockables.get( dockable );
+		}
+
+		/**
+		 * Searches the entry whose item is <code>dockable</code>.
+		 * @param dockable the item to search
+		 * @return the entry or <code>null</code>
+		 */
+		public Entry search( P dockable ){
+			return items.get( dockable );
+		}
+
+		/**
+		 * Gets all the entries that may contain any of <code>paths</code>, either in their placeholder set
+		 * or in their {@link PlaceholderMap}.
+		 * @param paths the placeholders to search
+		 * @return a new collection containing the entries
+		 */
+		public Set<Entry> candidates( Set<Path> paths ){
+			Set<Entry> result = new LinkedHashSet<Entry>( mapped );
+			for( Path path : paths ){
+				List<Entry> list = placeholders.get( path );
+				if( list != null ){
+					result.addAll( list );
+				}
+			}
+			return result;
+		}
+	}
+
 	/**
 	 * A single item in a {@link PlaceholderList}
 	 * @author Benjamin Sigg
@@ -1361,6 +1864,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 * @see #isPlaceholder()
 		 */
 		public Set<Path> getPlaceholderSet(){
+			if( index != null && placeholderSet != null ){
+				return Collections.unmodifiableSet( placeholderSet );
+			}
 			return placeholderSet;
 		}
 
@@ -1372,7 +1878,22 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet != null && placeholderSet.contains( null ) ) {
 				throw new IllegalArgumentException( "placeholderSet contains a null value" );
 			}
+			if( index != null ){
+				if( this.placeholderSet != null ){
+					for( Path placeholder : this.placeholderSet ){
+						placeholderRemoved( placeholder );
+					}
+				}
+				if( placeholderSet != null ){
+					placeholderSet = new HashSet<Path>( placeholderSet );
+				}
+			}
 			this.placeholderSet = placeholderSet;
+			if( index != null && placeholderSet != null ){
+				for( Path placeholder : placeholderSet ){
+					placeholderAdded( placeholder );
+				}
+			}
 		}
 
 		/**
@@ -1381,7 +1902,19 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void removeAll( Set<Path> placeholders ){
 			if( placeholderSet != null ) {
-				placeholderSet.removeAll( placeholders );
+				if( index != null ){
+					Iterator<Path> iter = placeholderSet.iterator();
+					while( iter.hasNext() ){
+						Path placeholder = iter.next();
+						if( placeholders.contains( placeholder )){
+							iter.remove();
+							placeholderRemoved( placeholder );
+						}
+					}
+				}
+				else{
+					placeholderSet.removeAll( placeholders );
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1400,7 +1933,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void remove( Path placeholder ){
 			if( placeholderSet != null ) {
-				placeholderSet.remove( placeholder );
+				if( placeholderSet.remove( placeholder )){
+					placeholderRemoved( placeholder );
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1425,7 +1960,21 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet == null ) {
 				placeholderSet = new HashSet<Path>();
 			}
-			placeholderSet.add( placeholder );
+			if( placeholderSet.add( placeholder )){
+				placeholderAdded( placeholder );
+			}
+		}
+		
+		private void placeholderAdded( Path placeholder ){
+			if( index != null && owner != null ){
+				index.placeholderAdded( owner, placeholder );
+			}
+		}
+		
+		private void placeholderRemoved( Path placeholder ){
+			if( index != null && owner != null ){
+				index.placeholderRemoved( owner, placeholder );
+			}
 		}
 
 		/**
@@ -1482,6 +2031,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			else {
 				this.placeholderMap = placeholders;
 			}
+			if( index != null && owner != null ){
+				index.mapChanged( owner, this );
+			}
 		}
 
 		/**
@@ -1673,6 +2225,14 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( index < 0 )
 				throw new IndexOutOfBoundsException("index < 0: " + index);
 
+			if( PlaceholderList.this.index != null ){
+				Entry entry = PlaceholderList.this.index.select( index, level );
+				if( entry == null ){
+					throw new IndexOutOfBoundsException( "index=" + index + ", size=" + size() );
+				}
+				return entry;
+			}
+			
 			Entry entry = head( level );
 			int start = index;
 			
@@ -1717,7 +2277,16 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		private void insert( int index, Item item ){
+			insertEntry( index, item );
+			checkIndexThreshold();
+		}
+		
+		private void insertEntry( int index, Item item ){
 			if( size() == index ) {
+				if( PlaceholderList.this.index != null ){
+					new Entry( PlaceholderList.this.index.last(), item );
+					return;
+				}
 				Entry entry = head;
 				Entry predecessor = null;
 				while( entry != null ) {
@@ -1754,6 +2323,13 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int indexOfPlaceholder( Path placeholder ){
+			if( PlaceholderList.this.index != null ){
+				Entry entry = PlaceholderList.this.index.search( placeholder, level );
+				if( entry == null ){
+					return -1;
+				}
+				return entry.index( level );
+			}
 			int index = 0;
 			Entry entry = head( level );
 			while( entry != null ) {
@@ -1794,6 +2370,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int size(){
+			if( index != null ){
+				return index.size( level );
+			}
 			if( size == -1 ) {
 				size = 0;
 				Entry entry = head( level );
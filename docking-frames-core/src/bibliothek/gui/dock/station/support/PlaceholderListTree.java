@@ -0,0 +1,366 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.support;
+
+import java.util.Random;
+
+import bibliothek.gui.dock.station.support.PlaceholderList.Level;
+
+/**
+ * An order-statistic tree used by an indexed {@link PlaceholderList}. The tree stores a sequence of
+ * values, each value is either a dockable or a placeholder. Every node knows how many dockables and how
+ * many placeholders are stored in its subtree, hence the position of a node in any {@link Level} and the
+ * node at some position of a {@link Level} can be found in logarithmic time.<br>
+ * The tree is a treap with implicit keys: the order of the nodes is only defined by the order in
+ * which they were inserted, and the tree is kept balanced by random priorities.
+ * @author Benjamin Sigg
+ * @param <T> the kind of values stored in this tree
+ */
+public class PlaceholderListTree<T> {
+	/** the root of the tree, can be <code>null</code> */
+	private Node<T> root;
+
+	/** generator for the priorities of new nodes */
+	private Random random = new Random();
+
+	/**
+	 * A single node of a {@link PlaceholderListTree}.
+	 * @author Benjamin Sigg
+	 * @param <T> the kind of value stored in this node
+	 */
+	public static class Node<T>{
+		/** the value of this node */
+		private T value;
+		/** whether this node represents a dockable */
+		private boolean dockable;
+		/** the random priority of this node, parents always have a higher priority than their children */
+		private int priority;
+		/** the neighbors of this node */
+		private Node<T> left, right, parent;
+		/** the number of nodes in the subtree of this node */
+		private int size = 1;
+		/** the number of dockables in the subtree of this node */
+		private int dockables;
+
+		private Node( T value, boolean dockable, int priority ){
+			this.value = value;
+			this.dockable = dockable;
+			this.priority = priority;
+			this.dockables = dockable ? 1 : 0;
+		}
+
+		/**
+		 * Gets the value of this node.
+		 * @return the value
+		 */
+		public T getValue(){
+			return value;
+		}
+
+		/**
+		 * Tells whether this node represents a dockable.
+		 * @return whether this node is part of {@link Level#DOCKABLE}
+		 */
+		public boolean isDockable(){
+			return dockable;
+		}
+
+		private void update(){
+			size = 1;
+			dockables = dockable ? 1 : 0;
+			if( left != null ){
+				size += left.size;
+				dockables += left.dockables;
+			}
+			if( right != null ){
+				size += right.size;
+				dockables += right.dockables;
+			}
+		}
+	}
+
+	/**
+	 * Removes all nodes from this tree.
+	 */
+	public void clear(){
+		root = null;
+	}
+
+	/**
+	 * Gets the number of nodes that are part of <code>level</code>.
+	 * @param level the level to count
+	 * @return the number of nodes in <code>level</code>
+	 */
+	public int size( Level level ){
+		return count( root, level );
+	}
+
+	/**
+	 * Gets the last node of this tree.
+	 * @return the last node or <code>null</code> if this tree is empty
+	 */
+	public Node<T> last(){
+		Node<T> node = root;
+		if( node == null ){
+			return null;
+		}
+		while( node.right != null ){
+			node = node.right;
+		}
+		return node;
+	}
+
+	/**
+	 * Inserts a new node directly after <code>predecessor</code>.
+	 * @param predecessor the node after which to insert the new node, <code>null</code> to insert
+	 * the new node at the beginning of the tree
+	 * @param value the value of the new node
+	 * @param dockable whether the new node represents a dockable
+	 * @return the new node
+	 */
+	public Node<T> insertAfter( Node<T> predecessor, T value, boolean dockable ){
+		Node<T> node = new Node<T>( value, dockable, random.nextInt() );
+
+		if( root == null ){
+			root = node;
+			return node;
+		}
+
+		Node<T> parent;
+		boolean asLeft;
+
+		if( predecessor == null ){
+			parent = root;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			asLeft = true;
+		}
+		else if( predecessor.right == null ){
+			parent = predecessor;
+			asLeft = false;
+		}
+		else{
+			parent = predecessor.right;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			asLeft = true;
+		}
+
+		node.parent = parent;
+		if( asLeft ){
+			parent.left = node;
+		}
+		else{
+			parent.right = node;
+		}
+
+		for( Node<T> ancestor = parent; ancestor != null; ancestor = ancestor.parent ){
+			ancestor.size++;
+			if( dockable ){
+				ancestor.dockables++;
+			}
+		}
+
+		while( node.parent != null && node.parent.priority < node.priority ){
+			rotateUp( node );
+		}
+
+		return node;
+	}
+
+	/**
+	 * Removes <code>node</code> from this tree.
+	 * @param node the node to remove, must be part of this tree
+	 */
+	public void remove( Node<T> node ){
+		while( node.left != null && node.right != null ){
+			if( node.left.priority > node.right.priority ){
+				rotateUp( node.left );
+			}
+			else{
+				rotateUp( node.right );
+			}
+		}
+
+		Node<T> child = node.left != null ? node.left : node.right;
+		Node<T> parent = node.parent;
+
+		if( child != null ){
+			child.parent = parent;
+		}
+		replace( parent, node, child );
+
+		for( Node<T> ancestor = parent; ancestor != null; ancestor = ancestor.parent ){
+			ancestor.size--;
+			if( node.dockable ){
+				ancestor.dockables--;
+			}
+		}
+
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+	}
+
+	/**
+	 * Changes whether <code>node</code> represents a dockable or a placeholder.
+	 * @param node the node to change
+	 * @param dockable whether the node is part of {@link Level#DOCKABLE}
+	 */
+	public void setDockable( Node<T> node, boolean dockable ){
+		if( node.dockable != dockable ){
+			node.dockable = dockable;
+			int delta = dockable ? 1 : -1;
+			for( Node<T> ancestor = node; ancestor != null; ancestor = ancestor.parent ){
+				ancestor.dockables += delta;
+			}
+		}
+	}
+
+	/**
+	 * Tells whether <code>node</code> is part of <code>level</code>.
+	 * @param node some node of this tree
+	 * @param level the level to check
+	 * @return whether <code>node</code> is part of <code>level</code>
+	 */
+	public boolean isPartOf( Node<T> node, Level level ){
+		switch( level ){
+			case BASE: return true;
+			case DOCKABLE: return node.dockable;
+			case PLACEHOLDER: return !node.dockable;
+			default: throw new IllegalArgumentException( "unknown level: " + level );
+		}
+	}
+
+	/**
+	 * Counts the number of nodes of <code>level</code> that are in front of <code>node</code>.
+	 * @param node some node of this tree
+	 * @param level the level whose nodes are counted
+	 * @return the number of nodes in front of <code>node</code>, this is the index of <code>node</code>
+	 * in <code>level</code> if <code>node</code> is part of <code>level</code>
+	 */
+	public int rank( Node<T> node, Level level ){
+		int result = count( node.left, level );
+		while( node.parent != null ){
+			Node<T> parent = node.parent;
+			if( parent.right == node ){
+				result += count( parent.left, level );
+				if( isPartOf( parent, level )){
+					result++;
+				}
+			}
+			node = parent;
+		}
+		return result;
+	}
+
+	/**
+	 * Searches the <code>index</code>'th node of <code>level</code>.
+	 * @param index the index of the node in <code>level</code>
+	 * @param level the level in which to search
+	 * @return the node or <code>null</code> if <code>index</code> is out of bounds
+	 */
+	public Node<T> select( int index, Level level ){
+		if( index < 0 ){
+			return null;
+		}
+		Node<T> node = root;
+		while( node != null ){
+			int count = count( node.left, level );
+			if( index < count ){
+				node = node.left;
+			}
+			else{
+				index -= count;
+				if( isPartOf( node, level )){
+					if( index == 0 ){
+						return node;
+					}
+					index--;
+				}
+				node = node.right;
+			}
+		}
+		return null;
+	}
+
+	private int count( Node<T> node, Level level ){
+		if( node == null ){
+			return 0;
+		}
+		switch( level ){
+			case BASE: return node.size;
+			case DOCKABLE: return node.dockables;
+			case PLACEHOLDER: return node.size - node.dockables;
+			default: throw new IllegalArgumentException( "unknown level: " + level );
+		}
+	}
+
+	/**
+	 * Rotates <code>node</code> such that it takes the place of its parent.
+	 * @param node the node to move up, must have a parent
+	 */
+	private void rotateUp( Node<T> node ){
+		Node<T> parent = node.parent;
+		Node<T> grandParent = parent.parent;
+
+		if( parent.left == node ){
+			parent.left = node.right;
+			if( node.right != null ){
+				node.right.parent = parent;
+			}
+			node.right = parent;
+		}
+		else{
+			parent.right = node.left;
+			if( node.left != null ){
+				node.left.parent = parent;
+			}
+			node.left = parent;
+		}
+
+		parent.parent = node;
+		node.parent = grandParent;
+		replace( grandParent, parent, node );
+
+		parent.update();
+		node.update();
+	}
+
+	private void replace( Node<T> parent, Node<T> oldChild, Node<T> newChild ){
+		if( parent == null ){
+			root = newChild;
+		}
+		else if( parent.left == oldChild ){
+			parent.left = newChild;
+		}
+		else{
+			parent.right = newChild;
+		}
+	}
+}
@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.Set;
 
 import bibliothek.util.Path;
+import bibliothek.util.PathOutputStream;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
@@ -101,7 +102,7 @@ public class PlaceholderMap {
 		}
 		
 		this.version = in.readInt();
-		format = new Path( in.readUTF() );
+		format = Path.valueOf( in.readUTF() );
 	
 		int size = in.readInt();
 		
@@ -147,7 +148,7 @@ public class PlaceholderMap {
 		if( xformat == null ){
 			throw new XException( "missing element 'format'" );
 		}
-		format = new Path( xformat.getString() );
+		format = Path.valueOf( xformat.getString() );
 		
 		for( int i = 0, n = in.getElementCount(); i<n; i++ ){
 			XElement xentry = in.getElement( i );
@@ -179,7 +180,7 @@ public class PlaceholderMap {
 	public void write( DataOutputStream out ) throws IOException{
 		Version.write( out, Version.VERSION_1_1_1a );
 		out.writeInt( version );
-		out.writeUTF( format.toString() );
+		PathOutputStream.writePath( format, out );
 		
 		out.writeInt( data.size() );
 		for( Map.Entry<Key, Map<String, Object>> entry : data.entrySet() ){
@@ -228,7 +229,7 @@ public class PlaceholderMap {
 		}
 		else if( value instanceof Path ){
 			out.writeByte( 7 );
-			out.writeUTF( ((Path)value).toString() );
+			PathOutputStream.writePath( (Path)value, out );
 		}
 		else{
 			throw new IOException( "unknown type: " + value.getClass() );
@@ -251,7 +252,7 @@ public class PlaceholderMap {
 					result[i] = read( in, strategy );
 				}
 				return result;
-			case 7: return new Path( in.readUTF() );
+			case 7: return Path.valueOf( in.readUTF() );
 		}
 		throw new IOException( "illegal format" );
 	}
@@ -346,7 +347,7 @@ public class PlaceholderMap {
 			return result;
 		}
 		if( "t".equals( type )){
-			return new Path( in.getString() );
+			return Path.valueOf( in.getString() );
 		}
 		else{
 			throw new XException( "unknown type: " + type );
@@ -1094,7 +1095,7 @@ public class PlaceholderMap {
 			
 			placeholders = new Path[ in.readInt() ];
 			for( int i = 0; i < placeholders.length; i++ ){
-				placeholders[i] = new Path( in.readUTF() );
+				placeholders[i] = Path.valueOf( in.readUTF() );
 			}
 		}
 		
@@ -1109,7 +1110,7 @@ public class PlaceholderMap {
 			XElement[] xplaceholders = in.getElements( "placeholder" );
 			placeholders = new Path[ xplaceholders.length ];
 			for( int i = 0; i < xplaceholders.length; i++ ){
-				placeholders[i] = new Path( xplaceholders[i].getString() );
+				placeholders[i] = Path.valueOf( xplaceholders[i].getString() );
 			}
 		}
 		
@@ -1126,7 +1127,7 @@ public class PlaceholderMap {
 			
 			out.writeInt( placeholders.length );
 			for( Path path : placeholders ){
-				out.writeUTF( path.toString() );
+				PathOutputStream.writePath( path, out );
 			}
 		}
 		
@@ -156,6 +156,17 @@ public class BasicTheme implements DockTheme{
             public StackDockComponent create( StackDockComponentParent station ) {
                 return new BasicStackDockComponent( station );
             }
+            
+            @Override
+            public boolean equals( Object obj ){
+            	// all these factories create the same kind of tabs
+            	return obj != null && obj.getClass() == getClass();
+            }
+            
+            @Override
+            public int hashCode(){
+            	return getClass().hashCode();
+            }
         }, Priority.DEFAULT );
         setDockableSelection( new BasicDockableSelection(), Priority.DEFAULT );
         setTabPlacement( TabPlacement.BOTTOM_OF_DOCKABLE, Priority.DEFAULT );
@@ -25,10 +25,17 @@
  */
 package bibliothek.gui.dock.themes;
 
+import java.awt.Component;
+import java.awt.EventQueue;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.LookAndFeel;
 import javax.swing.UIManager;
@@ -37,6 +44,7 @@ import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.DockTheme;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.StackDockStation;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.event.UIListener;
@@ -44,8 +52,10 @@ import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.StationPaint;
 import bibliothek.gui.dock.station.span.SpanFactory;
+import bibliothek.gui.dock.station.stack.StackDockComponentFactory;
 import bibliothek.gui.dock.themes.basic.action.buttons.MiniButton;
 import bibliothek.gui.dock.themes.border.BorderModifier;
+import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleManager;
 import bibliothek.gui.dock.util.BackgroundPaint;
 import bibliothek.gui.dock.util.DockProperties;
@@ -56,6 +66,7 @@ import bibliothek.gui.dock.util.TypedUIProperties;
 import bibliothek.gui.dock.util.UIBridge;
 import bibliothek.gui.dock.util.UIValue;
 import bibliothek.gui.dock.util.extension.ExtensionName;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.util.ClientOnly;
 import bibliothek.util.FrameworkOnly;
 import bibliothek.util.Path;
@@ -103,6 +114,15 @@ public class ThemeManager extends TypedUIProperties{
 	/** unique identifier for the basic {@link SpanFactory} */
 	public static final String SPAN_FACTORY = "dock.spanFactory";
 	
+	/**
+	 * The time in milliseconds the {@link DockStation}s that are not showing may spend on updating their theme, before the
+	 * {@link ThemeManager} pauses and lets the EDT process other events. Stations that are showing are always updated before
+	 * {@link #setTheme(DockTheme)} returns. A value of 0 or less means that all stations are updated at once. In any case 
+	 * {@link UIListener#themeChanged(DockController, DockTheme, DockTheme)} is called once all stations are updated.
+	 */
+	public static final PropertyKey<Integer> THEME_UPDATE_TIME_SLICE = new PropertyKey<Integer>( "dock.themeUpdateTimeSlice",
+			new ConstantPropertyFactory<Integer>( 0 ), true );
+	
 	/** the controller owning the manager */
 	private DockController controller;
 	
@@ -124,6 +144,18 @@ public class ThemeManager extends TypedUIProperties{
     /** items to transfer directly from {@link DockProperties} to <code>this</code> */
     private TypedPropertyUIScheme transfers;
     
+    /** information about the current or last change of the theme */
+    private ThemeTransition transition;
+    
+    /** the stations that still need to be updated because of the last change of the theme */
+    private List<DockStation> pendingStations = new LinkedList<DockStation>();
+    
+    /** the element that had the focus before the theme changed, will be focused again once all stations are updated if the focus did not change meanwhile */
+    private Dockable pendingFocus;
+    
+    /** stations that currently adopt the new theme without rebuilding their displayers, titles and tabs */
+    private Set<DockStation> keepingComponents = Collections.newSetFromMap( new IdentityHashMap<DockStation, Boolean>() );
+    
     /**
      * Creates a new object
      * @param controller the owner of this manager, not <code>null</code>
@@ -173,6 +205,8 @@ public class ThemeManager extends TypedUIProperties{
      */
     @FrameworkOnly
     public void kill(){
+    	pendingStations.clear();
+    	pendingFocus = null;
     	theme.uninstall( controller );
     	UIManager.removePropertyChangeListener( lookAndFeelObserver );
     }
@@ -256,46 +290,327 @@ public class ThemeManager extends TypedUIProperties{
     		throw new IllegalArgumentException( "Theme must not be null" );
     	
     	if( this.theme != theme ){
+    		if( !pendingStations.isEmpty() ){
+    			// the remaining stations are going to be updated by the new transition
+    			pendingStations.clear();
+    			pendingFocus = null;
+    			transition.finish();
+    			fireThemeChanged( transition );
+    		}
+    		
     		for( UIListener listener : uiListeners() )
     			listener.themeWillChange( controller, this.theme, theme );
     		
     		DockRegister register = controller.getRegister();
     		DockTheme oldTheme = this.theme;
+    		transition = new ThemeTransition( oldTheme, theme );
     		Dockable focused = null;
+    		ThemeComponents components = null;
     		try{
     			register.setStalled( true );
     			focused = controller.getFocusedDockable();
+    			components = new ThemeComponents( oldTheme );
     			
+    			long time = System.nanoTime();
 	    		if( this.theme != null )
 	    			this.theme.uninstall( controller );
+	    		transition.setUninstallDuration( System.nanoTime() - time );
 	    		
 	    		this.theme = theme;
 	    		
+	    		time = System.nanoTime();
 	    		ExtensionName<DockThemeExtension> name = new ExtensionName<DockThemeExtension>( 
 	    				DockThemeExtension.DOCK_THEME_EXTENSION, DockThemeExtension.class, DockThemeExtension.THEME_PARAMETER, theme );
 	    		List<DockThemeExtension> extensions = controller.getExtensions().load( name );
 	    		
 	    		theme.install( controller, extensions.toArray( new DockThemeExtension[ extensions.size() ] ) );
 	    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
+	    		components.installed( theme );
+	    		transition.setInstallDuration( System.nanoTime() - time );
 	    		
-	    		// update only those station which are registered to this controller
+	    		// update only those station which are registered to this controller, stations whose components do not
+	    		// change are updated at once, stations that are not showing may be delayed
+	    		List<DockStation> unchanged = new ArrayList<DockStation>();
+	    		List<DockStation> showing = new ArrayList<DockStation>();
 	    		for( DockStation station : register.listDockStations() ){
 	    			if( station.getController() == controller ){
+	    				if( components.isUnchanged( station )){
+	    					unchanged.add( station );
+	    				}
+	    				else if( isShowing( station )){
+	    					showing.add( station );
+	    				}
+	    				else{
+	    					pendingStations.add( station );
+	    				}
+	    			}
+	    		}
+	    		transition.setStationCount( unchanged.size() + showing.size() + pendingStations.size() );
+	    		
+	    		time = System.nanoTime();
+	    		try{
+	    			keepingComponents.addAll( unchanged );
+	    			for( DockStation station : unchanged ){
 	    				station.updateTheme();
 	    			}
 	    		}
+	    		finally{
+	    			keepingComponents.clear();
+	    		}
+	    		transition.addUnchangedStations( unchanged.size(), System.nanoTime() - time );
+	    		
+	    		time = System.nanoTime();
+	    		for( DockStation station : showing ){
+	    			station.updateTheme();
+	    		}
+	    		transition.addBatch( showing.size(), System.nanoTime() - time );
+	    		
+	    		if( controller.getProperties().get( THEME_UPDATE_TIME_SLICE ) <= 0 ){
+	    			updatePendingStations( transition );
+	    		}
     		}
     		finally{
+    			if( components != null ){
+    				components.release();
+    			}
     			register.setStalled( false );
     		}
-	    		
+	    	
     		controller.setFocusedDockable( new DefaultFocusRequest( focused, null, true ));
     		
-    		for( UIListener listener : uiListeners() )
-    			listener.themeChanged( controller, oldTheme, theme );
+    		if( pendingStations.isEmpty() ){
+    			transition.finish();
+    			fireThemeChanged( transition );
+    		}
+    		else{
+    			pendingFocus = focused;
+    			schedulePendingStations( transition );
+    		}
     	}
 	}
     
+    /**
+     * Tells whether <code>station</code> has to rebuild its displayers, titles and tabs in {@link DockStation#updateTheme()}. 
+     * While the theme changes, stations whose factories did not change may adopt the new theme without rebuilding
+     * their components.
+     * @param station the station whose theme changed
+     * @return <code>true</code> if the components of <code>station</code> have to be replaced
+     */
+    public boolean isStationRebuildRequired( DockStation station ){
+    	return !keepingComponents.contains( station );
+    }
+    
+    /**
+     * Tells whether <code>oldFactory</code>, used by the old theme, and <code>newFactory</code>, used by the new
+     * theme, create the same kind of components. If they do, then the existing displayers, titles or tabs are kept
+     * when the theme changes, only their colors, fonts and borders are updated. The default implementation
+     * uses {@link Object#equals(Object)}, factories that do not override <code>equals</code> are only the same
+     * if they are identical.
+     * @param oldFactory a title-, displayer- or tab-factory of the old theme, may be <code>null</code>
+     * @param newFactory a title-, displayer- or tab-factory of the new theme, may be <code>null</code>
+     * @return <code>true</code> if the components of the old factory can be reused
+     */
+    protected boolean isSameFactory( Object oldFactory, Object newFactory ){
+    	if( oldFactory == newFactory ){
+    		return true;
+    	}
+    	return oldFactory != null && oldFactory.equals( newFactory );
+    }
+    
+    private void fireThemeChanged( ThemeTransition transition ){
+    	for( UIListener listener : uiListeners() )
+			listener.themeChanged( controller, transition.getOldTheme(), transition.getNewTheme() );
+    }
+    
+    /**
+     * Gets information about the current, or the last, change of the theme. The information includes
+     * timing information about each phase of the change.
+     * @return the information or <code>null</code> if the theme was never changed
+     */
+    public ThemeTransition getLastTransition(){
+    	return transition;
+    }
+    
+    /**
+     * Tells whether some {@link DockStation}s still need to be updated because the theme changed. This
+     * can only happen if {@link #THEME_UPDATE_TIME_SLICE} is set.
+     * @return <code>true</code> if the last change of the theme is not yet completed
+     */
+    public boolean isTransitionPending(){
+    	return !pendingStations.isEmpty();
+    }
+    
+    private boolean isShowing( DockStation station ){
+    	Dockable dockable = station.asDockable();
+    	if( dockable == null ){
+    		return true;
+    	}
+    	Component component = dockable.getComponent();
+    	return component != null && component.isShowing();
+    }
+    
+    /**
+     * Calls {@link DockStation#updateTheme()} on the {@link #pendingStations}, until either all stations are
+     * updated or the {@link #THEME_UPDATE_TIME_SLICE time slice} is used up.
+     * @param transition the transition which is executed
+     */
+    private void updatePendingStations( ThemeTransition transition ){
+    	int slice = controller.getProperties().get( THEME_UPDATE_TIME_SLICE );
+    	long start = System.nanoTime();
+    	long deadline = start + slice * 1000000L;
+    	int count = 0;
+    	
+    	while( !pendingStations.isEmpty() ){
+    		DockStation station = pendingStations.remove( 0 );
+    		if( station.getController() == controller ){
+    			station.updateTheme();
+    			count++;
+    		}
+    		if( slice > 0 && System.nanoTime() >= deadline ){
+    			break;
+    		}
+    	}
+    	
+    	transition.addBatch( count, System.nanoTime() - start );
+    }
+    
+    /**
+     * Updates the next batch of {@link #pendingStations} once the EDT is idle.
+     * @param transition the transition which is executed
+     */
+    private void schedulePendingStations( final ThemeTransition transition ){
+    	EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				if( ThemeManager.this.transition == transition && !pendingStations.isEmpty() ){
+					DockRegister register = controller.getRegister();
+					try{
+						register.setStalled( true );
+						updatePendingStations( transition );
+					}
+					finally{
+						register.setStalled( false );
+					}
+					
+					if( pendingStations.isEmpty() ){
+						finishTransition( transition );
+					}
+					else{
+						schedulePendingStations( transition );
+					}
+				}
+			}
+		});
+    }
+    
+    /**
+     * Called once the last of the {@link #pendingStations} is updated. The focus is given back to the
+     * {@link #pendingFocus element} that had it when the theme changed, but only if the focus did not
+     * move to another {@link Dockable} since then, and only if that element is still registered.
+     * @param transition the transition which is finished
+     */
+    private void finishTransition( ThemeTransition transition ){
+    	Dockable focused = pendingFocus;
+    	pendingFocus = null;
+    	if( focused != null && controller.getFocusedDockable() == focused && controller.getRegister().isRegistered( focused )){
+    		controller.setFocusedDockable( new DefaultFocusRequest( focused, null, true ));
+    	}
+    	transition.finish();
+    	fireThemeChanged( transition );
+    }
+    
+    /**
+     * The factories that were used by the old theme to create the displayers, titles and tabs of the
+     * {@link DockStation}s. Used to find the stations whose components do not change when the theme changes.
+     * @author Benjamin Sigg
+     */
+    private class ThemeComponents{
+    	/** the title factories that were used with the old theme */
+    	private Map<String, DockTitleFactory> titleFactories;
+    	/** the displayer factories of the old theme for each station that is using the old theme */
+    	private Map<DockStation, DisplayerFactory> displayerFactories = new IdentityHashMap<DockStation, DisplayerFactory>();
+    	/** the factory for the tabs of {@link StackDockStation}s that was used with the old theme */
+    	private StackDockComponentFactory stackComponentFactory;
+    	/** whether {@link #stackComponentFactory} is currently set with priority {@link Priority#CLIENT} */
+    	private boolean stackComponentFactoryPinned = false;
+    	
+    	/** the new theme, set once the new theme is installed */
+    	private DockTheme newTheme;
+    	/** whether the new theme uses the same titles as the old theme */
+    	private boolean sameTitles = false;
+    	
+    	/**
+    	 * Collects the factories of <code>oldTheme</code>, must be called before <code>oldTheme</code> is uninstalled.
+    	 * @param oldTheme the theme that is going to be replaced, can be <code>null</code>
+    	 */
+    	public ThemeComponents( DockTheme oldTheme ){
+    		titleFactories = controller.getDockTitleManager().getFactories();
+    		if( oldTheme != null ){
+    			for( DockStation station : controller.getRegister().listDockStations() ){
+    				if( station.getController() == controller && station.getTheme() == oldTheme ){
+    					displayerFactories.put( station, oldTheme.getDisplayFactory( station ) );
+    				}
+    			}
+    		}
+    		
+    		// keep the tabs while the themes are exchanged, otherwise they would be replaced twice
+    		DockProperties properties = controller.getProperties();
+    		stackComponentFactory = properties.get( StackDockStation.COMPONENT_FACTORY );
+    		if( !properties.isSet( StackDockStation.COMPONENT_FACTORY, Priority.CLIENT )){
+    			properties.set( StackDockStation.COMPONENT_FACTORY, stackComponentFactory, Priority.CLIENT );
+    			stackComponentFactoryPinned = true;
+    		}
+    	}
+    	
+    	/**
+    	 * Called once <code>newTheme</code> is installed, compares the factories of the old and the new theme.
+    	 * @param newTheme the new theme
+    	 */
+    	public void installed( DockTheme newTheme ){
+    		this.newTheme = newTheme;
+    		sameTitles = true;
+    		for( Map.Entry<String, DockTitleFactory> entry : controller.getDockTitleManager().getFactories().entrySet() ){
+    			// a version that did not exist before cannot be used by any title
+    			if( titleFactories.containsKey( entry.getKey() ) && !isSameFactory( titleFactories.get( entry.getKey() ), entry.getValue() )){
+    				sameTitles = false;
+    				break;
+    			}
+    		}
+    		
+    		if( stackComponentFactoryPinned ){
+    			DockProperties properties = controller.getProperties();
+    			StackDockComponentFactory factory = properties.get( StackDockStation.COMPONENT_FACTORY, Priority.THEME );
+    			if( factory != null && isSameFactory( stackComponentFactory, factory )){
+    				// the new theme creates the same tabs, the existing tabs can be kept
+    				properties.set( StackDockStation.COMPONENT_FACTORY, stackComponentFactory, Priority.THEME );
+    			}
+    		}
+    		release();
+    	}
+    	
+    	/**
+    	 * Tells whether the displayers, titles and tabs of <code>station</code> remain the same with the new theme.
+    	 * @param station the station to check
+    	 * @return <code>true</code> if <code>station</code> can keep its components
+    	 */
+    	public boolean isUnchanged( DockStation station ){
+    		if( !sameTitles ){
+    			return false;
+    		}
+    		DisplayerFactory factory = displayerFactories.get( station );
+    		return factory != null && isSameFactory( factory, newTheme.getDisplayFactory( station ) );
+    	}
+    	
+    	/**
+    	 * Removes the value {@link StackDockStation#COMPONENT_FACTORY} that was set by this object.
+    	 */
+    	public void release(){
+    		if( stackComponentFactoryPinned ){
+    			stackComponentFactoryPinned = false;
+    			controller.getProperties().unset( StackDockStation.COMPONENT_FACTORY, Priority.CLIENT );
+    		}
+    	}
+    }
+    
     /**
      * Sets an algorithm to paint in the overlay panel of {@link DockStation}s. Possible
      * identifiers can be, but are not restricted to:
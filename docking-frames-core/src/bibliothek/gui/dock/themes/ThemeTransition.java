@@ -0,0 +1,207 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.themes;
+
+import bibliothek.gui.DockStation;
+import bibliothek.gui.DockTheme;
+
+/**
+ * Timing information about one change of the {@link DockTheme}, as performed by {@link ThemeManager#setTheme(DockTheme)}.
+ * A change of the theme happens in phases: first the old theme is uninstalled, then the new theme is installed,
+ * and at the end all the {@link DockStation}s are updated. Stations whose displayers, titles and tabs are created by the
+ * same factories as before keep their components and are updated at once. Depending on {@link ThemeManager#THEME_UPDATE_TIME_SLICE}
+ * the stations are updated in one go, or in several batches. All durations are measured in nanoseconds.
+ * @author Benjamin Sigg
+ * @see ThemeManager#getLastTransition()
+ */
+public class ThemeTransition {
+	/** the theme that was replaced */
+	private DockTheme oldTheme;
+	/** the theme that is installed */
+	private DockTheme newTheme;
+	
+	/** when the transition started */
+	private long start;
+	/** when the transition finished, or -1 */
+	private long end = -1;
+	
+	/** time required to uninstall {@link #oldTheme} */
+	private long uninstallDuration;
+	/** time required to install {@link #newTheme} */
+	private long installDuration;
+	/** time required to update all the stations */
+	private long stationUpdateDuration;
+	
+	/** the number of stations that have to be updated */
+	private int stationCount;
+	/** the number of stations that are already updated */
+	private int updatedStationCount;
+	/** the number of batches in which the stations were updated */
+	private int batchCount;
+	/** the number of stations that kept their displayers, titles and tabs */
+	private int unchangedStationCount;
+	
+	/**
+	 * Creates a new transition, starts measuring the time.
+	 * @param oldTheme the theme that is replaced, can be <code>null</code>
+	 * @param newTheme the new theme, not <code>null</code>
+	 */
+	ThemeTransition( DockTheme oldTheme, DockTheme newTheme ){
+		this.oldTheme = oldTheme;
+		this.newTheme = newTheme;
+		start = System.nanoTime();
+	}
+	
+	void setUninstallDuration( long uninstallDuration ){
+		this.uninstallDuration = uninstallDuration;
+	}
+	
+	void setInstallDuration( long installDuration ){
+		this.installDuration = installDuration;
+	}
+	
+	void setStationCount( int stationCount ){
+		this.stationCount = stationCount;
+	}
+	
+	void addBatch( int stations, long duration ){
+		updatedStationCount += stations;
+		stationUpdateDuration += duration;
+		batchCount++;
+	}
+	
+	void addUnchangedStations( int stations, long duration ){
+		updatedStationCount += stations;
+		unchangedStationCount += stations;
+		stationUpdateDuration += duration;
+	}
+	
+	void finish(){
+		end = System.nanoTime();
+	}
+	
+	/**
+	 * Gets the theme that was replaced.
+	 * @return the old theme, can be <code>null</code>
+	 */
+	public DockTheme getOldTheme(){
+		return oldTheme;
+	}
+	
+	/**
+	 * Gets the theme that was installed.
+	 * @return the new theme
+	 */
+	public DockTheme getNewTheme(){
+		return newTheme;
+	}
+	
+	/**
+	 * Tells whether all the stations have been updated.
+	 * @return <code>true</code> if this transition is completed
+	 */
+	public boolean isFinished(){
+		return end != -1;
+	}
+	
+	/**
+	 * Gets the time between the start of this transition and the moment when the last station was updated. If
+	 * the stations were updated in batches, then this duration includes the time the EDT spent
+	 * on other tasks.
+	 * @return the total duration, or -1 if this transition is not yet {@link #isFinished() finished}
+	 */
+	public long getTotalDuration(){
+		if( end == -1 ){
+			return -1;
+		}
+		return end - start;
+	}
+	
+	/**
+	 * Gets the time that was required to uninstall the old theme.
+	 * @return the duration
+	 */
+	public long getUninstallDuration(){
+		return uninstallDuration;
+	}
+	
+	/**
+	 * Gets the time that was required to install the new theme.
+	 * @return the duration
+	 */
+	public long getInstallDuration(){
+		return installDuration;
+	}
+	
+	/**
+	 * Gets the time that was spent updating the {@link DockStation}s, this is the sum of the durations
+	 * of all the batches.
+	 * @return the duration
+	 */
+	public long getStationUpdateDuration(){
+		return stationUpdateDuration;
+	}
+	
+	/**
+	 * Gets the number of {@link DockStation}s that need to be updated.
+	 * @return the number of stations
+	 */
+	public int getStationCount(){
+		return stationCount;
+	}
+	
+	/**
+	 * Gets the number of {@link DockStation}s that are already updated.
+	 * @return the number of updated stations
+	 */
+	public int getUpdatedStationCount(){
+		return updatedStationCount;
+	}
+	
+	/**
+	 * Gets the number of {@link DockStation}s whose displayers, titles and tabs were created by factories
+	 * that did not change. These stations adopted the new theme without rebuilding their components.
+	 * @return the number of stations that kept their components
+	 */
+	public int getUnchangedStationCount(){
+		return unchangedStationCount;
+	}
+	
+	/**
+	 * Gets the number of batches in which the {@link DockStation}s were updated.
+	 * @return the number of batches
+	 */
+	public int getBatchCount(){
+		return batchCount;
+	}
+	
+	@Override
+	public String toString(){
+		return getClass().getSimpleName() + "[uninstall=" + uninstallDuration/1000000 + "ms, install=" + installDuration/1000000 + 
+				"ms, stations=" + updatedStationCount + "/" + stationCount + " (" + unchangedStationCount + " unchanged) in " + batchCount + " batches, " + stationUpdateDuration/1000000 + 
+				"ms, total=" + (end == -1 ? "pending" : (end - start)/1000000 + "ms") + "]";
+	}
+}
@@ -114,4 +114,26 @@ public class BasicDisplayerFactory implements DisplayerFactory {
     public void setStationLocation( DockableDisplayer.Location stationLocation ) {
         this.stationLocation = stationLocation;
     }
+    
+    /**
+     * Two factories are equal if they are of the same class and place their titles at the same locations, as
+     * they create the same displayers. Subclasses that create displayers depending on additional settings 
+     * should override this method.
+     */
+    @Override
+    public boolean equals( Object obj ){
+    	if( obj == this ){
+    		return true;
+    	}
+    	if( obj == null || obj.getClass() != getClass() ){
+    		return false;
+    	}
+    	BasicDisplayerFactory other = (BasicDisplayerFactory)obj;
+    	return dockableLocation == other.dockableLocation && stationLocation == other.stationLocation;
+    }
+    
+    @Override
+    public int hashCode(){
+    	return getClass().hashCode() ^ dockableLocation.hashCode() ^ stationLocation.hashCode();
+    }
 }
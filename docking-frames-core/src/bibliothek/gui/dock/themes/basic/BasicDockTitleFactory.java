@@ -53,5 +53,19 @@ public class BasicDockTitleFactory implements DockTitleFactory {
     	else{
     		request.answer( new BasicStationTitle( request.getTarget(), request.getVersion() ) );
     	}
-    }
+    }
+    
+    /**
+     * Two factories are equal if they are of the same class, as they create the same titles. Subclasses
+     * that create titles depending on additional settings should override this method.
+     */
+    @Override
+    public boolean equals( Object obj ){
+    	return obj != null && obj.getClass() == getClass();
+    }
+    
+    @Override
+    public int hashCode(){
+    	return getClass().hashCode();
+    }
 }
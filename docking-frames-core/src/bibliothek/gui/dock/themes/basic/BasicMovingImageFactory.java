@@ -39,6 +39,7 @@ import bibliothek.gui.dock.title.DockTitleManager;
 import bibliothek.gui.dock.title.DockTitleVersion;
 import bibliothek.gui.dock.title.UpdatingTitleMovingImage;
 import bibliothek.gui.dock.title.DockTitle.Orientation;
+import bibliothek.gui.dock.util.BufferedImagePool;
 
 /**
  * A factory whose {@link MovingImage}s display a {@link DockTitle}.
@@ -53,16 +54,16 @@ public class BasicMovingImageFactory implements DockableMovingImageFactory {
 
         /* TODO find a way to use the preferred size */
         Component c = snatched.getComponent();
-        BufferedImage image = new BufferedImage(
+        BufferedImage image = BufferedImagePool.acquire( controller,
                 Math.max( 1, c.getWidth()),
-                Math.max( 1, c.getHeight()),
-                BufferedImage.TYPE_INT_ARGB );
+                Math.max( 1, c.getHeight()) );
         Graphics graphics = image.getGraphics();
         c.paint( graphics );
         graphics.dispose();
 
         TrueMovingImage moving = new TrueMovingImage();
         moving.setImage( image );
+        moving.setPool( BufferedImagePool.get( controller ) );
         return moving;
     }
 
@@ -25,30 +25,35 @@
  */
 package bibliothek.gui.dock.themes.basic;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 
-import javax.swing.Timer;
-
 import bibliothek.gui.dock.station.span.Span;
 import bibliothek.gui.dock.station.span.SpanCallback;
 import bibliothek.gui.dock.station.span.SpanFactory;
 import bibliothek.gui.dock.station.span.SpanMode;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.AnimationTask;
 
 /**
- * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s.
+ * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s. The
+ * animation is driven by the {@link AnimationClock#getDefault() default} {@link AnimationClock}.
  * @author Benjamin Sigg
  */
 public class BasicSpanFactory implements SpanFactory{
 	private int duration;
 	private int minSpeed;
-	private Timer timer;
+	private AnimationClock clock;
 	private Collection<BasicSpan> ticking = new HashSet<BasicSpan>(); 
 	
+	private AnimationTask task = new AnimationTask(){
+		public boolean step( AnimationClock clock, long time ){
+			return tick( time );
+		}
+	};
+	
 	/**
 	 * Creates a new factory
 	 * @param duration how long the animation takes
@@ -57,15 +62,7 @@ public class BasicSpanFactory implements SpanFactory{
 	public BasicSpanFactory( int duration, int minSpeed ){
 		setDuration( duration );
 		setMinSpeed( minSpeed );
-		timer = new Timer( 0, new ActionListener(){
-			public void actionPerformed( ActionEvent e ){
-				tick();
-			}
-		} );
-		timer.setRepeats( true );
-		timer.setCoalesce( true );
-		timer.setDelay( 20 );
-		timer.setInitialDelay( 0 );
+		clock = AnimationClock.getDefault();
 	}
 	
 	/**
@@ -105,7 +102,7 @@ public class BasicSpanFactory implements SpanFactory{
 	private synchronized void start( BasicSpan span ){
 		if( ticking.isEmpty() ){
 			ticking.add( span );
-			timer.start();
+			clock.start( task );
 		}
 		else{
 			ticking.add( span );
@@ -115,15 +112,15 @@ public class BasicSpanFactory implements SpanFactory{
 	private synchronized void stop( BasicSpan span ){
 		ticking.remove( span );
 		if( ticking.isEmpty() ){
-			timer.stop();
+			clock.stop( task );
 		}
 	}
 	
-	private synchronized void tick(){
-		long now = System.nanoTime();
+	private synchronized boolean tick( long now ){
 		for( BasicSpan span : ticking.toArray( new BasicSpan[ ticking.size() ] ) ){
 			span.tick( now );
 		}
+		return !ticking.isEmpty();
 	}
 	
 	private class BasicSpan implements Span {
@@ -186,7 +183,7 @@ public class BasicSpanFactory implements SpanFactory{
 			if( animationStart == -1 ){
 				animationStart = now;
 			}
-			animationDuration = (int)((now - animationStart) / 1000000);
+			animationDuration = (int)(now - animationStart);
 			if( animationDuration >= duration ){
 				animationDuration = -1;
 				stop( this );
@@ -26,6 +26,7 @@
 
 package bibliothek.gui.dock.title;
 
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 
@@ -150,6 +151,18 @@ public class DockTitleManager {
         return version;    
     }
     
+    /**
+     * Gets the factories that are currently used by the handles of this manager.
+     * @return a new map containing the key of each handle and the factory with the highest priority of that handle
+     */
+    public Map<String, DockTitleFactory> getFactories(){
+    	Map<String, DockTitleFactory> result = new HashMap<String, DockTitleFactory>();
+    	for( Map.Entry<String, DockTitleVersion> entry : titleVersions.entrySet() ){
+    		result.put( entry.getKey(), entry.getValue().getFactory() );
+    	}
+    	return result;
+    }
+    
     /**
      * Removes all factories that were added by a theme
      */
@@ -91,7 +91,7 @@ public interface AWTComponentCaptureStrategy {
         public BufferedImage createCapture( DockController controller,
                 Component component ) {
          
-            BufferedImage image = new BufferedImage( component.getWidth(), component.getHeight(), BufferedImage.TYPE_INT_ARGB );
+            BufferedImage image = BufferedImagePool.acquire( controller, component.getWidth(), component.getHeight() );
             Graphics g = image.createGraphics();
             forcePaint( component, g );
             g.dispose();
@@ -130,7 +130,7 @@ public interface AWTComponentCaptureStrategy {
         public BufferedImage createCapture( DockController controller,
                 Component component ) {
          
-            BufferedImage image = new BufferedImage( component.getWidth(), component.getHeight(), BufferedImage.TYPE_INT_ARGB );
+            BufferedImage image = BufferedImagePool.acquire( controller, component.getWidth(), component.getHeight() );
             Graphics g = image.createGraphics();
             component.paintAll( g );
             g.dispose();
@@ -149,7 +149,8 @@ public interface AWTComponentCaptureStrategy {
     
     /**
      * Creates a new image that has the same size as <code>component</code> and
-     * contains all the things painted on <code>component</code>.
+     * contains all the things painted on <code>component</code>. The image may be
+     * taken from the {@link BufferedImagePool} of <code>controller</code>.
      * @param controller the controller for which the image is needed
      * @param component the component to paint, its width and height must be
      * at least 1.
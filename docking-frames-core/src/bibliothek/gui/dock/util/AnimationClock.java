@@ -0,0 +1,401 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.Timer;
+
+import bibliothek.gui.DockController;
+
+/**
+ * The {@link AnimationClock} drives all the animations of the framework with one single {@link Timer}. Each
+ * frame all the running {@link AnimationTask}s are called in one pass, and all the {@link #repaint(Component) repaints}
+ * they request are collected and forwarded to the {@link RepaintManager} at the end of the frame, one region
+ * per {@link Component}. If no task is running, the timer is stopped. Tasks that need to run only at some
+ * point in the future can be {@link #start(AnimationTask, int) started with a delay}, the clock stays idle until then.<br>
+ * There is one {@link #getDefault() default clock} which is shared by all the animations of all {@link DockController}s,
+ * it can be accessed through {@link DockController#getAnimationClock()} as well.<br>
+ * Tasks can be started and stopped from any thread, but they are always executed on the
+ * <code>EventDispatchThread</code>.
+ * @author Benjamin Sigg
+ */
+public class AnimationClock {
+	/** the default number of milliseconds between two frames */
+	public static final int DEFAULT_FRAME_DELAY = 15;
+	
+	/** the clock that is used by default */
+	private static AnimationClock defaultClock;
+	
+	/**
+	 * Gets the clock that is shared by all the animations of the framework.
+	 * @return the default clock, not <code>null</code>
+	 */
+	public static synchronized AnimationClock getDefault(){
+		if( defaultClock == null ){
+			defaultClock = new AnimationClock();
+		}
+		return defaultClock;
+	}
+	
+	private final Object LOCK = new Object();
+	
+	/** the tasks that are currently running */
+	private Set<AnimationTask> tasks = new LinkedHashSet<AnimationTask>();
+	
+	/** the running tasks that were started again while the current frame was executed */
+	private Set<AnimationTask> restarted = new HashSet<AnimationTask>();
+	
+	/** the tasks that will be started later, and the {@link #getTime() time} at which they have to be started */
+	private Map<AnimationTask, Long> delayed = new HashMap<AnimationTask, Long>();
+	
+	/** the regions that have to be repainted at the end of the current frame */
+	private Map<Component, Rectangle> dirty = new IdentityHashMap<Component, Rectangle>();
+	
+	/** whether the tasks are currently executed */
+	private boolean ticking = false;
+	
+	/** the timer triggering the frames */
+	private Timer timer;
+	
+	/** the timer starting the {@link #delayed} tasks */
+	private Timer wakeup;
+	
+	/** how many frames were executed since this clock was created */
+	private long frames = 0;
+	
+	/**
+	 * Creates a new clock using {@link #DEFAULT_FRAME_DELAY} as delay between two frames.
+	 */
+	public AnimationClock(){
+		this( DEFAULT_FRAME_DELAY );
+	}
+	
+	/**
+	 * Creates a new clock.
+	 * @param frameDelay the number of milliseconds between two frames, at least 1
+	 */
+	public AnimationClock( int frameDelay ){
+		timer = new Timer( frameDelay, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				tick();
+			}
+		});
+		timer.setCoalesce( true );
+		setFrameDelay( frameDelay );
+		
+		wakeup = new Timer( frameDelay, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				wakeup();
+			}
+		});
+		wakeup.setRepeats( false );
+	}
+	
+	/**
+	 * Sets the number of milliseconds between two frames.
+	 * @param frameDelay the delay, at least 1
+	 */
+	public void setFrameDelay( int frameDelay ){
+		if( frameDelay < 1 ){
+			throw new IllegalArgumentException( "frameDelay must be at least 1: " + frameDelay );
+		}
+		timer.setDelay( frameDelay );
+		timer.setInitialDelay( frameDelay );
+	}
+	
+	/**
+	 * Gets the number of milliseconds between two frames.
+	 * @return the delay
+	 */
+	public int getFrameDelay(){
+		return timer.getDelay();
+	}
+	
+	/**
+	 * Gets the current time of this clock in milliseconds. The time has no relation to the
+	 * time of the system clock, but it never runs backwards.
+	 * @return the current time
+	 */
+	public long getTime(){
+		return System.nanoTime() / 1000000;
+	}
+	
+	/**
+	 * Starts <code>task</code>. The task will be called once per frame until either it returns
+	 * <code>false</code> or {@link #stop(AnimationTask)} is called. Starting a task that is already
+	 * running ensures that the task is called in the next frame, even if it returns <code>false</code>
+	 * in the current frame.
+	 * @param task the task to start, not <code>null</code>
+	 */
+	public void start( AnimationTask task ){
+		if( task == null ){
+			throw new IllegalArgumentException( "task must not be null" );
+		}
+		synchronized( LOCK ){
+			if( delayed.remove( task ) != null ){
+				scheduleWakeup();
+			}
+			if( !tasks.add( task )){
+				restarted.add( task );
+			}
+			else if( !timer.isRunning() ){
+				timer.start();
+			}
+		}
+	}
+	
+	/**
+	 * Starts <code>task</code> once <code>delay</code> milliseconds have passed. The clock does not
+	 * execute any frames because of <code>task</code> until then, afterwards the task behaves as if
+	 * {@link #start(AnimationTask)} was called. If <code>task</code> is already waiting for its start, then the earlier 
+	 * of the two start times is used. Calling {@link #start(AnimationTask)} or {@link #stop(AnimationTask)} cancels 
+	 * the delayed start.
+	 * @param task the task to start, not <code>null</code>
+	 * @param delay the number of milliseconds to wait
+	 */
+	public void start( AnimationTask task, int delay ){
+		if( task == null ){
+			throw new IllegalArgumentException( "task must not be null" );
+		}
+		if( delay <= 0 ){
+			start( task );
+			return;
+		}
+		synchronized( LOCK ){
+			long due = getTime() + delay;
+			Long current = delayed.get( task );
+			if( current == null || current.longValue() > due ){
+				delayed.put( task, due );
+				scheduleWakeup();
+			}
+		}
+	}
+	
+	/**
+	 * Stops <code>task</code>, the task will not be called anymore.
+	 * @param task the task to stop
+	 */
+	public void stop( AnimationTask task ){
+		synchronized( LOCK ){
+			tasks.remove( task );
+			restarted.remove( task );
+			if( delayed.remove( task ) != null ){
+				scheduleWakeup();
+			}
+		}
+	}
+	
+	/**
+	 * Sets up {@link #wakeup} such that it fires when the next {@link #delayed} task needs to be started.
+	 * The caller must hold {@link #LOCK}.
+	 */
+	private void scheduleWakeup(){
+		wakeup.stop();
+		if( !delayed.isEmpty() ){
+			long next = Long.MAX_VALUE;
+			for( Long due : delayed.values() ){
+				next = Math.min( next, due.longValue() );
+			}
+			wakeup.setInitialDelay( (int)Math.max( 0, next - getTime() ) );
+			wakeup.start();
+		}
+	}
+	
+	/**
+	 * Starts all the {@link #delayed} tasks whose time has come. If the clock was idle, the first frame
+	 * is executed immediately.
+	 */
+	private void wakeup(){
+		boolean idle;
+		synchronized( LOCK ){
+			long now = getTime();
+			boolean started = false;
+			Iterator<Map.Entry<AnimationTask, Long>> iterator = delayed.entrySet().iterator();
+			while( iterator.hasNext() ){
+				Map.Entry<AnimationTask, Long> entry = iterator.next();
+				if( entry.getValue().longValue() <= now ){
+					iterator.remove();
+					if( !tasks.add( entry.getKey() )){
+						restarted.add( entry.getKey() );
+					}
+					started = true;
+				}
+			}
+			scheduleWakeup();
+			
+			idle = started && !timer.isRunning();
+			if( idle ){
+				timer.start();
+			}
+		}
+		if( idle ){
+			tick();
+		}
+	}
+	
+	/**
+	 * Tells whether <code>task</code> is currently running.
+	 * @param task the task to search
+	 * @return whether <code>task</code> is called every frame
+	 */
+	public boolean isRunning( AnimationTask task ){
+		synchronized( LOCK ){
+			return tasks.contains( task );
+		}
+	}
+	
+	/**
+	 * Tells whether this clock currently has nothing to do. Tasks that wait for a 
+	 * {@link #start(AnimationTask, int) delayed start} do not count as running.
+	 * @return <code>true</code> if no task is running
+	 */
+	public boolean isIdle(){
+		synchronized( LOCK ){
+			return tasks.isEmpty();
+		}
+	}
+	
+	/**
+	 * Gets the number of tasks that are currently running.
+	 * @return the number of tasks
+	 */
+	public int getTaskCount(){
+		synchronized( LOCK ){
+			return tasks.size();
+		}
+	}
+	
+	/**
+	 * Gets the number of frames this clock executed since it was created.
+	 * @return the number of frames
+	 */
+	public long getFrameCount(){
+		return frames;
+	}
+	
+	/**
+	 * Repaints <code>component</code>. If this method is called by an {@link AnimationTask}, then
+	 * the request is collected and executed at the end of the current frame. Otherwise
+	 * <code>component</code> is repainted directly.
+	 * @param component the component to repaint
+	 */
+	public void repaint( Component component ){
+		repaint( component, 0, 0, component.getWidth(), component.getHeight() );
+	}
+	
+	/**
+	 * Repaints a region of <code>component</code>. If this method is called by an {@link AnimationTask}, then
+	 * the request is merged with the other requests for <code>component</code> and executed at the end
+	 * of the current frame. Otherwise the region is repainted directly.
+	 * @param component the component to repaint
+	 * @param x the x-coordinate of the region
+	 * @param y the y-coordinate of the region
+	 * @param width the width of the region
+	 * @param height the height of the region
+	 */
+	public void repaint( Component component, int x, int y, int width, int height ){
+		if( !ticking || !EventQueue.isDispatchThread() ){
+			component.repaint( x, y, width, height );
+		}
+		else{
+			Rectangle region = dirty.get( component );
+			if( region == null ){
+				dirty.put( component, new Rectangle( x, y, width, height ) );
+			}
+			else{
+				region.add( new Rectangle( x, y, width, height ) );
+			}
+		}
+	}
+	
+	/**
+	 * Executes one frame: calls all the running tasks and repaints all the dirty regions.
+	 */
+	private void tick(){
+		AnimationTask[] current;
+		synchronized( LOCK ){
+			current = tasks.toArray( new AnimationTask[ tasks.size() ] );
+			restarted.clear();
+		}
+		
+		long time = getTime();
+		frames++;
+		ticking = true;
+		try{
+			for( AnimationTask task : current ){
+				if( !task.step( this, time )){
+					synchronized( LOCK ){
+						if( !restarted.remove( task )){
+							tasks.remove( task );
+						}
+					}
+				}
+			}
+		}
+		finally{
+			ticking = false;
+			flush();
+			synchronized( LOCK ){
+				if( tasks.isEmpty() ){
+					timer.stop();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Forwards all the dirty regions to the {@link RepaintManager}.
+	 */
+	private void flush(){
+		if( !dirty.isEmpty() ){
+			for( Map.Entry<Component, Rectangle> entry : dirty.entrySet() ){
+				Component component = entry.getKey();
+				Rectangle region = entry.getValue();
+				if( component instanceof JComponent ){
+					RepaintManager.currentManager( component ).addDirtyRegion( (JComponent)component, region.x, region.y, region.width, region.height );
+				}
+				else{
+					component.repaint( region.x, region.y, region.width, region.height );
+				}
+			}
+			dirty.clear();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+/**
+ * A task that is executed once per frame by an {@link AnimationClock}.
+ * @author Benjamin Sigg
+ */
+public interface AnimationTask {
+	/**
+	 * Called by <code>clock</code> once per frame, as long as this task is running. All the tasks
+	 * of one frame are called within the same pass and receive the same <code>time</code>. This method
+	 * is always called on the <code>EventDispatchThread</code>.
+	 * @param clock the clock calling this task, can be used to {@link AnimationClock#repaint(java.awt.Component) repaint}
+	 * {@link java.awt.Component}s
+	 * @param time the time of the current frame in milliseconds, see {@link AnimationClock#getTime()}
+	 * @return <code>true</code> if this task needs to be called again in the next frame, <code>false</code>
+	 * if this task is finished and can be removed from <code>clock</code>
+	 */
+	public boolean step( AnimationClock clock, long time );
+}
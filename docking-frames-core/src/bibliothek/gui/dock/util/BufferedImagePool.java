@@ -0,0 +1,212 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
+
+/**
+ * A pool of {@link BufferedImage}s that are used for short amounts of time, for example to
+ * show a {@link bibliothek.gui.dock.dockable.MovingImage} while the user drags a
+ * {@link bibliothek.gui.Dockable}. Creating an image with the size of a monitor takes a lot of time
+ * and memory, the pool allows to reuse these images.<br>
+ * The pool stores images in buckets, the width and height of a bucket are powers of two. An image
+ * that is {@link #acquire(int, int) acquired} is a {@link BufferedImage#getSubimage(int, int, int, int) sub image}
+ * of an image from a bucket, hence it has exactly the requested size. Once an image is no longer
+ * needed, it should be {@link #release(BufferedImage) released}. Images that are never released are
+ * just collected by the garbage collector. Unused images are only softly referenced, they are freed
+ * if memory is needed.<br>
+ * A pool is not thread safe, it should only be used by the EDT.
+ * @author Benjamin Sigg
+ */
+public class BufferedImagePool {
+	/** The pool that is shared by all the components of a {@link DockController} */
+	public static final PropertyKey<BufferedImagePool> BUFFERED_IMAGE_POOL =
+		new PropertyKey<BufferedImagePool>( "buffered image pool",
+				new DynamicPropertyFactory<BufferedImagePool>(){
+					public BufferedImagePool getDefault( PropertyKey<BufferedImagePool> key, DockProperties properties ){
+						return new BufferedImagePool();
+					}
+				}, true );
+
+	/** the smallest size of a bucket */
+	private static final int MIN_BUCKET_SIZE = 16;
+
+	/** images that are currently not used, the key is the bucket */
+	private Map<Long, List<SoftReference<BufferedImage>>> unused = new HashMap<Long, List<SoftReference<BufferedImage>>>();
+
+	/** images that are currently in use, the values are the images from the buckets */
+	private Map<BufferedImage, BufferedImage> used = new WeakHashMap<BufferedImage, BufferedImage>();
+
+	/** how often an image could be reused */
+	private int hits = 0;
+
+	/** how often a new image had to be created */
+	private int misses = 0;
+
+	/**
+	 * Gets the pool that is shared by all the components of <code>controller</code>.
+	 * @param controller the controller whose pool is searched, can be <code>null</code>
+	 * @return the pool or <code>null</code> if <code>controller</code> is <code>null</code>
+	 */
+	public static BufferedImagePool get( DockController controller ){
+		if( controller == null ){
+			return null;
+		}
+		return controller.getProperties().get( BUFFERED_IMAGE_POOL );
+	}
+
+	/**
+	 * Gets a transparent image from the pool of <code>controller</code>, or creates a new image if
+	 * <code>controller</code> is <code>null</code>.
+	 * @param controller the controller whose pool is used, can be <code>null</code>
+	 * @param width the width of the image, at least 1
+	 * @param height the height of the image, at least 1
+	 * @return the new image
+	 * @see #acquire(int, int)
+	 */
+	public static BufferedImage acquire( DockController controller, int width, int height ){
+		BufferedImagePool pool = get( controller );
+		if( pool == null ){
+			return new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+		}
+		return pool.acquire( width, height );
+	}
+
+	/**
+	 * Gets a transparent image of type {@link BufferedImage#TYPE_INT_ARGB} with the size <code>width/height</code>.
+	 * The image is either taken from the pool, or a new image is created. Images taken from the pool
+	 * are cleared before they are returned.
+	 * @param width the width of the image, at least 1
+	 * @param height the height of the image, at least 1
+	 * @return the image, must be {@link #release(BufferedImage) released} once no longer needed
+	 */
+	public BufferedImage acquire( int width, int height ){
+		if( width < 1 || height < 1 ){
+			throw new IllegalArgumentException( "width and height must be at least 1: " + width + ", " + height );
+		}
+
+		int bucketWidth = bucketSize( width );
+		int bucketHeight = bucketSize( height );
+		Long key = key( bucketWidth, bucketHeight );
+
+		BufferedImage base = null;
+		List<SoftReference<BufferedImage>> list = unused.get( key );
+		if( list != null ){
+			while( base == null && !list.isEmpty() ){
+				base = list.remove( list.size()-1 ).get();
+			}
+			if( list.isEmpty() ){
+				unused.remove( key );
+			}
+		}
+
+		if( base == null ){
+			misses++;
+			base = new BufferedImage( bucketWidth, bucketHeight, BufferedImage.TYPE_INT_ARGB );
+		}
+		else{
+			hits++;
+			Graphics2D g = base.createGraphics();
+			g.setComposite( AlphaComposite.Clear );
+			g.fillRect( 0, 0, width, height );
+			g.dispose();
+		}
+
+		BufferedImage image = base.getSubimage( 0, 0, width, height );
+		used.put( image, base );
+		return image;
+	}
+
+	/**
+	 * Puts <code>image</code> back into this pool. Clients must not use <code>image</code> afterwards.
+	 * Nothing happens if <code>image</code> was not {@link #acquire(int, int) acquired} from this pool.
+	 * @param image the image that is no longer used, can be <code>null</code>
+	 */
+	public void release( BufferedImage image ){
+		if( image == null ){
+			return;
+		}
+		BufferedImage base = used.remove( image );
+		if( base != null ){
+			Long key = key( base.getWidth(), base.getHeight() );
+			List<SoftReference<BufferedImage>> list = unused.get( key );
+			if( list == null ){
+				list = new ArrayList<SoftReference<BufferedImage>>( 2 );
+				unused.put( key, list );
+			}
+			list.add( new SoftReference<BufferedImage>( base ) );
+		}
+	}
+
+	/**
+	 * Removes all unused images from this pool.
+	 */
+	public void clear(){
+		unused.clear();
+	}
+
+	/**
+	 * Tells how often an image could be reused.
+	 * @return the number of reused images
+	 */
+	public int getHitCount(){
+		return hits;
+	}
+
+	/**
+	 * Tells how often a new image had to be created.
+	 * @return the number of created images
+	 */
+	public int getMissCount(){
+		return misses;
+	}
+
+	private int bucketSize( int size ){
+		if( size > (1 << 30) ){
+			return size;
+		}
+		int bucket = MIN_BUCKET_SIZE;
+		while( bucket < size ){
+			bucket <<= 1;
+		}
+		return bucket;
+	}
+
+	private Long key( int bucketWidth, int bucketHeight ){
+		return Long.valueOf( (((long)bucketWidth) << 32) | bucketHeight );
+	}
+}
@@ -62,6 +62,7 @@ import bibliothek.gui.dock.perspective.PerspectiveStation;
 import bibliothek.gui.dock.station.LayoutLocked;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.title.DockTitle;
+import bibliothek.gui.dock.util.icon.IconCache;
 import bibliothek.util.Path;
 
 /**
@@ -562,7 +563,8 @@ public class DockUtilities {
     }
     
     /**
-     * Loads a map of icons.
+     * Loads a map of icons. The icons are taken from the {@link IconCache}, they are shared
+     * with all other {@link DockController}s and their images are loaded only once they are used.
      * @param list a path to a property-file containing key-path-pairs.
      * @param path the base path to the icons, will be added before any
      * path of the property file, can be <code>null</code>
@@ -605,8 +607,7 @@ public class DockUtilities {
 	                    System.err.println( "Missing file: " + file );
 	                }
 	                else{
-	                    ImageIcon icon = new ImageIcon( url );
-	                    result.put( key, icon );
+	                    result.put( key, IconCache.getIcon( url, loader ));
 	                }
                 }
             }
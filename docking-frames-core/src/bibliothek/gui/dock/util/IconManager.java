@@ -28,6 +28,7 @@ package bibliothek.gui.dock.util;
 
 import java.awt.Component;
 import java.awt.Dimension;
+import java.util.Map;
 
 import javax.swing.Icon;
 
@@ -86,6 +87,17 @@ public class IconManager extends UIProperties<Icon, DockIcon, DockIconBridge>{
      	put( priority, key, icon );
     }
 
+    /**
+     * Stores many icons at once. Each {@link DockIcon} is informed at most once about the
+     * new icons.
+     * @param priority the priority of the new icons
+     * @param icons the new icons, a <code>null</code> value removes an icon
+     * @see #putAll(Priority, Map)
+     */
+    public void setIcons( Priority priority, Map<String, Icon> icons ){
+    	putAll( priority, icons );
+    }
+    
     /**
      * Sets an icon with default-priority.
      * @param key the key of the icon
@@ -25,13 +25,15 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -66,7 +68,13 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     private PriorityValue<UISchemeListener<V, U, B>> schemeListeners = new PriorityValue<UISchemeListener<V,U,B>>();
     
     /** a list of all observers */
-    private List<Observer> observers = new LinkedList<Observer>();
+    private Set<Observer> observers = new LinkedHashSet<Observer>();
+    
+    /** all the observers grouped by the id of the resource they observe */
+    private Map<String, Set<Observer>> observersById = new HashMap<String, Set<Observer>>();
+    
+    /** all the observers grouped by their {@link UIValue} */
+    private Map<U, List<Observer>> observersByValue = new IdentityHashMap<U, List<Observer>>();
     
     /** whether to stall updates or not */
     private int updateLock = 0;
@@ -277,11 +285,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( observersById.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
@@ -480,6 +484,21 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         Observer combination = new Observer( id, path, value );
         observers.add( combination );
+        
+        Set<Observer> byId = observersById.get( id );
+        if( byId == null ){
+        	byId = new LinkedHashSet<Observer>();
+        	observersById.put( id, byId );
+        }
+        byId.add( combination );
+        
+        List<Observer> byValue = observersByValue.get( value );
+        if( byValue == null ){
+        	byValue = new ArrayList<Observer>( 1 );
+        	observersByValue.put( value, byValue );
+        }
+        byValue.add( combination );
+        
         combination.resetAll();
     }
     
@@ -488,15 +507,22 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @param value the observer to remove
      */
     public void remove( U value ){
-        ListIterator<Observer> list = observers.listIterator();
-        while( list.hasNext() ){
-            Observer next = list.next();
-            if( next.getValue() == value ){
-                list.remove();
-                next.destroy();
-                return;
-            }
-        }
+    	List<Observer> byValue = observersByValue.get( value );
+    	if( byValue != null ){
+    		Observer next = byValue.remove( 0 );
+    		if( byValue.isEmpty() ){
+    			observersByValue.remove( value );
+    		}
+    		
+    		observers.remove( next );
+    		Set<Observer> byId = observersById.get( next.id );
+    		byId.remove( next );
+    		if( byId.isEmpty() ){
+    			observersById.remove( next.id );
+    		}
+    		
+    		next.destroy();
+    	}
     }
     
     /**
@@ -582,11 +608,12 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	
 	        if( value.set( priority, resource, scheme ) ){
 	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
-	                }
+	            	Set<Observer> byId = observersById.get( id );
+	            	if( byId != null ){
+		                for( Observer observer : new ArrayList<Observer>( byId ) ){
+		                    observer.update( resource );
+		                }
+	            	}
 	            }
 	        }
 	        
@@ -596,6 +623,58 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
     }
     
+    /**
+     * Sets many new resources at once. This method has the same effect as calling 
+     * {@link #put(Priority, String, Object)} for each entry of <code>resources</code>, but
+     * the {@link UIValue}s are only informed once all resources have been set. Each {@link UIValue}
+     * is informed at most once.
+     * @param priority the importance of the new values
+     * @param resources the new resources, a <code>null</code> value removes a resource
+     */
+    public void putAll( Priority priority, Map<String, ? extends V> resources ){
+    	Map<String, V> changed = new LinkedHashMap<String, V>();
+    	
+    	for( Map.Entry<String, ? extends V> entry : resources.entrySet() ){
+    		String id = entry.getKey();
+    		V resource = entry.getValue();
+    		
+    		UIPriorityValue<V> value = this.resources.get( id );
+    		if( value == null && resource != null ){
+    			value = createResource( id );
+    			this.resources.put( id, value );
+    		}
+    		
+    		if( value != null ){
+    			UIScheme<V, U, B> scheme = null;
+    			if( resource == null ){
+    				scheme = schemes.get( priority );
+    				if( scheme != null ){
+    					resource = scheme.getResource( id, this );
+    				}
+    			}
+    			
+    			if( value.set( priority, resource, scheme )){
+    				changed.put( id, resource );
+    			}
+    			
+    			if( isRemoveable( id, value )){
+    				this.resources.remove( id );
+    			}
+    		}
+    	}
+    	
+    	if( updateLock == 0 ){
+    		for( Map.Entry<String, V> entry : changed.entrySet() ){
+    			Set<Observer> byId = observersById.get( entry.getKey() );
+    			if( byId != null ){
+    				for( Observer observer : new ArrayList<Observer>( byId ) ){
+    					observer.update( entry.getValue() );
+    				}
+    			}
+    		}
+    	}
+    }
+    
     /**
      * Gets a resource.
      * @param id the id of the resource
@@ -0,0 +1,204 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.icon;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.DockUtilities;
+
+/**
+ * A cache of {@link Icon}s that are loaded from some {@link URL}. The cache is shared by all
+ * {@link DockController}s of the JVM, hence an application with many controllers loads and decodes each
+ * image only once. The icons returned by this cache are {@link ImageIcon}s which do not load their image
+ * until the image, the size of the icon, or a paint operation is required for the first time.<br>
+ * The icons are grouped by the {@link ClassLoader} that found their {@link URL}. A group is dropped once its
+ * {@link ClassLoader} is garbage collected, and icons that are no longer used by anyone may be dropped
+ * if the JVM runs low on memory.<br>
+ * Since the icons are shared, clients must not modify them, e.g. by calling {@link ImageIcon#setImage(Image)}.
+ * @author Benjamin Sigg
+ * @see DockUtilities#loadIcons(String, String, java.util.Set, ClassLoader)
+ */
+public final class IconCache {
+	/**
+	 * All the icons that were requested and are not yet garbage collected, grouped by the {@link ClassLoader} that
+	 * found them. The key of the inner maps is the external form of the {@link URL}s.
+	 */
+	private static final Map<ClassLoader, Map<String, SoftReference<Icon>>> icons = new WeakHashMap<ClassLoader, Map<String, SoftReference<Icon>>>();
+	
+	private IconCache(){
+		// nothing
+	}
+	
+	/**
+	 * Gets the icon whose image is stored at <code>url</code>. The image is not loaded until the
+	 * icon is used for the first time. This method is the same as calling <code>getIcon( url, null )</code>, the
+	 * icon will remain in the cache as long as it is used by someone.
+	 * @param url the location of the image, not <code>null</code>
+	 * @return the shared icon, never <code>null</code>
+	 */
+	public static Icon getIcon( URL url ){
+		return getIcon( url, null );
+	}
+	
+	/**
+	 * Gets the icon whose image is stored at <code>url</code>. The image is not loaded until the
+	 * icon is used for the first time.
+	 * @param url the location of the image, not <code>null</code>
+	 * @param loader the {@link ClassLoader} which found <code>url</code>, the icon is removed from the cache
+	 * once <code>loader</code> is garbage collected. Can be <code>null</code>.
+	 * @return the shared icon, never <code>null</code>
+	 */
+	public static Icon getIcon( URL url, ClassLoader loader ){
+		if( url == null ){
+			throw new IllegalArgumentException( "url must not be null" );
+		}
+		String key = url.toExternalForm();
+		synchronized( icons ){
+			Map<String, SoftReference<Icon>> group = icons.get( loader );
+			if( group == null ){
+				group = new HashMap<String, SoftReference<Icon>>();
+				icons.put( loader, group );
+			}
+			SoftReference<Icon> reference = group.get( key );
+			Icon icon = reference == null ? null : reference.get();
+			if( icon == null ){
+				icon = new LazyImageIcon( url );
+				group.put( key, new SoftReference<Icon>( icon ) );
+			}
+			return icon;
+		}
+	}
+	
+	/**
+	 * Gets the number of icons that are currently stored in this cache and were not yet garbage collected.
+	 * @return the number of icons
+	 */
+	public static int size(){
+		synchronized( icons ){
+			int size = 0;
+			for( Map<String, SoftReference<Icon>> group : icons.values() ){
+				for( SoftReference<Icon> reference : group.values() ){
+					if( reference.get() != null ){
+						size++;
+					}
+				}
+			}
+			return size;
+		}
+	}
+	
+	/**
+	 * Removes all icons from this cache. Icons that are already in use remain valid, but
+	 * the next call to {@link #getIcon(URL)} will create new icons.
+	 */
+	public static void clear(){
+		synchronized( icons ){
+			icons.clear();
+		}
+	}
+	
+	/**
+	 * An {@link ImageIcon} that loads its image the first time it is accessed.
+	 * @author Benjamin Sigg
+	 */
+	private static class LazyImageIcon extends ImageIcon{
+		private static final long serialVersionUID = -4526011254307930186L;
+
+		/** where to find the image, set to <code>null</code> once the image is loaded */
+		private URL url;
+		
+		/**
+		 * Creates a new icon.
+		 * @param url the location of the image
+		 */
+		public LazyImageIcon( URL url ){
+			this.url = url;
+			setDescription( url.toExternalForm() );
+		}
+		
+		/**
+		 * Loads the image of this icon if not yet done.
+		 */
+		private void load(){
+			synchronized( this ){
+				if( url != null ){
+					super.setImage( Toolkit.getDefaultToolkit().getImage( url ) );
+					url = null;
+				}
+			}
+		}
+		
+		@Override
+		public Image getImage(){
+			load();
+			return super.getImage();
+		}
+		
+		@Override
+		public void setImage( Image image ){
+			synchronized( this ){
+				url = null;
+				super.setImage( image );
+			}
+		}
+		
+		@Override
+		public int getImageLoadStatus(){
+			load();
+			return super.getImageLoadStatus();
+		}
+		
+		@Override
+		public int getIconWidth(){
+			load();
+			return super.getIconWidth();
+		}
+		
+		@Override
+		public int getIconHeight(){
+			load();
+			return super.getIconHeight();
+		}
+		
+		@Override
+		public void paintIcon( Component c, Graphics g, int x, int y ){
+			load();
+			super.paintIcon( c, g, x, y );
+		}
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.render;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.DockProperties;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
+import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
+
+/**
+ * A cache of pre-rendered backgrounds. Tabs and titles that paint expensive gradients or shapes can
+ * ask this cache to paint their background. The cache remembers an image for each combination of
+ * size and key, where the key describes everything that has an influence on the look of the background:
+ * for example the state of the tab and the {@link java.awt.Color}s that are used. Since the colors
+ * are part of the key, changing a {@link bibliothek.gui.dock.util.color.DockColor} never results
+ * in an outdated image being painted, the old images just age out of the cache.<br>
+ * The cache is limited by the number of bytes its images use, see {@link #MAXIMUM_MEMORY}. Images
+ * that were not used for the longest time are removed first.<br>
+ * Backgrounds are painted directly, without the cache, if the {@link Graphics} is scaled or rotated,
+ * because in this case the cached image would not match the resolution of the screen.<br>
+ * A cache is not thread safe, it should only be used by the EDT.
+ * @author Benjamin Sigg
+ */
+public class BackgroundImageCache {
+	/** The cache that is shared by all the tabs and titles of a {@link DockController} */
+	public static final PropertyKey<BackgroundImageCache> BACKGROUND_IMAGE_CACHE =
+		new PropertyKey<BackgroundImageCache>( "background image cache",
+				new DynamicPropertyFactory<BackgroundImageCache>(){
+					public BackgroundImageCache getDefault( PropertyKey<BackgroundImageCache> key, DockProperties properties ){
+						return new BackgroundImageCache( properties );
+					}
+				}, true );
+
+	/** The maximum number of bytes the images of a {@link BackgroundImageCache} may use, 0 disables the cache */
+	public static final PropertyKey<Integer> MAXIMUM_MEMORY =
+		new PropertyKey<Integer>( "background image cache memory",
+				new ConstantPropertyFactory<Integer>( 4 * 1024 * 1024 ), true );
+
+	/**
+	 * Paints a background onto a {@link Graphics2D}.
+	 * @author Benjamin Sigg
+	 */
+	public static interface Painter{
+		/**
+		 * Paints the background in the area <code>0, 0, width, height</code>.
+		 * @param g the graphics context to use
+		 * @param width the width of the background
+		 * @param height the height of the background
+		 */
+		public void paint( Graphics2D g, int width, int height );
+	}
+
+	/** all the images that are currently stored, ordered from least to most recently used */
+	private LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<Key, BufferedImage>( 16, 0.75f, true );
+
+	/** the number of bytes used by {@link #images} */
+	private long memory = 0;
+
+	/** how often an image could be reused */
+	private long hits = 0;
+
+	/** how often a new image had to be painted */
+	private long misses = 0;
+
+	/** the maximum number of bytes {@link #images} may use */
+	private PropertyValue<Integer> maximumMemory = new PropertyValue<Integer>( MAXIMUM_MEMORY ){
+		@Override
+		protected void valueChanged( Integer oldValue, Integer newValue ){
+			trim();
+		}
+	};
+
+	/**
+	 * Creates a new cache using the default value of {@link #MAXIMUM_MEMORY}.
+	 */
+	public BackgroundImageCache(){
+		// nothing
+	}
+
+	/**
+	 * Creates a new cache reading {@link #MAXIMUM_MEMORY} from <code>properties</code>.
+	 * @param properties the properties to read, can be <code>null</code>
+	 */
+	public BackgroundImageCache( DockProperties properties ){
+		maximumMemory.setProperties( properties );
+	}
+
+	/**
+	 * Gets the cache that is shared by all components of <code>controller</code>.
+	 * @param controller the controller whose cache is searched, can be <code>null</code>
+	 * @return the cache or <code>null</code> if <code>controller</code> is <code>null</code>
+	 */
+	public static BackgroundImageCache get( DockController controller ){
+		if( controller == null ){
+			return null;
+		}
+		return controller.getProperties().get( BACKGROUND_IMAGE_CACHE );
+	}
+
+	/**
+	 * Sets the maximum number of bytes the images of this cache may use. The value is
+	 * normally read from {@link #MAXIMUM_MEMORY}.
+	 * @param bytes the maximum, <code>null</code> to use the value of {@link #MAXIMUM_MEMORY}
+	 */
+	public void setMaximumMemory( Integer bytes ){
+		maximumMemory.setValue( bytes );
+	}
+
+	/**
+	 * Gets the maximum number of bytes the images of this cache may use.
+	 * @return the maximum
+	 */
+	public int getMaximumMemory(){
+		Integer value = maximumMemory.getValue();
+		if( value == null ){
+			return 0;
+		}
+		return value.intValue();
+	}
+
+	/**
+	 * Paints a background of size <code>width/height</code> at the origin of <code>g</code>. If the cache
+	 * already knows an image for <code>width</code>, <code>height</code> and <code>key</code>, then this
+	 * image is painted. Otherwise <code>painter</code> paints a new image, and that image is stored.
+	 * @param g the graphics context to paint on
+	 * @param width the width of the background
+	 * @param height the height of the background
+	 * @param painter the algorithm painting the background, must not depend on anything else than
+	 * <code>width</code>, <code>height</code> and <code>key</code>
+	 * @param key everything that has an influence on how <code>painter</code> paints, the elements
+	 * are compared using {@link Object#equals(Object)}
+	 */
+	public void paint( Graphics g, int width, int height, Painter painter, Object... key ){
+		if( width <= 0 || height <= 0 ){
+			return;
+		}
+
+		Graphics2D g2 = (Graphics2D)g;
+		long size = 4L * width * height;
+
+		if( size > getMaximumMemory() || !isCacheable( g2 )){
+			painter.paint( g2, width, height );
+			return;
+		}
+
+		Key imageKey = new Key( width, height, key );
+		BufferedImage image = images.get( imageKey );
+		if( image == null ){
+			misses++;
+			image = new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+			Graphics2D imageGraphics = image.createGraphics();
+			imageGraphics.setRenderingHints( g2.getRenderingHints() );
+			painter.paint( imageGraphics, width, height );
+			imageGraphics.dispose();
+
+			images.put( imageKey, image );
+			memory += size;
+			trim();
+		}
+		else{
+			hits++;
+		}
+
+		g2.drawImage( image, 0, 0, null );
+	}
+
+	/**
+	 * Tells whether an image painted onto <code>g</code> looks the same as painting directly
+	 * onto <code>g</code>.
+	 * @param g the graphics context that is about to be used
+	 * @return <code>true</code> if the transformation of <code>g</code> is just a translation
+	 */
+	protected boolean isCacheable( Graphics2D g ){
+		int type = g.getTransform().getType();
+		return (type & ~AffineTransform.TYPE_TRANSLATION) == 0;
+	}
+
+	/**
+	 * Removes images until the cache uses no more than {@link #getMaximumMemory()} bytes.
+	 */
+	private void trim(){
+		int maximum = getMaximumMemory();
+		Iterator<Map.Entry<Key, BufferedImage>> iterator = images.entrySet().iterator();
+		while( memory > maximum && iterator.hasNext() ){
+			BufferedImage image = iterator.next().getValue();
+			memory -= 4L * image.getWidth() * image.getHeight();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Removes all images from this cache.
+	 */
+	public void clear(){
+		images.clear();
+		memory = 0;
+	}
+
+	/**
+	 * Gets the number of images that are currently stored.
+	 * @return the number of images
+	 */
+	public int getImageCount(){
+		return images.size();
+	}
+
+	/**
+	 * Gets the number of bytes that are currently used by the images of this cache.
+	 * @return the used memory
+	 */
+	public long getMemory(){
+		return memory;
+	}
+
+	/**
+	 * Tells how often an image could be painted without calling a {@link Painter}.
+	 * @return the number of hits
+	 */
+	public long getHitCount(){
+		return hits;
+	}
+
+	/**
+	 * Tells how often a {@link Painter} had to paint a new image.
+	 * @return the number of misses
+	 */
+	public long getMissCount(){
+		return misses;
+	}
+
+	/**
+	 * The key of one image.
+	 * @author Benjamin Sigg
+	 */
+	private static class Key{
+		private int width;
+		private int height;
+		private Object[] key;
+		private int hash;
+
+		public Key( int width, int height, Object[] key ){
+			this.width = width;
+			this.height = height;
+			this.key = key;
+			hash = (Arrays.hashCode( key ) * 31 + width) * 31 + height;
+		}
+
+		@Override
+		public int hashCode(){
+			return hash;
+		}
+
+		@Override
+		public boolean equals( Object obj ){
+			if( obj == this ){
+				return true;
+			}
+			if( !(obj instanceof Key) ){
+				return false;
+			}
+			Key other = (Key)obj;
+			return hash == other.hash && width == other.width && height == other.height && Arrays.equals( key, other.key );
+		}
+	}
+}
@@ -25,9 +25,13 @@
  */
 package bibliothek.util;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.swing.KeyStroke;
 
@@ -39,10 +43,28 @@ import bibliothek.gui.dock.control.ModifierMask;
  * A path is a description of the position of some resource. A path consists
  * of segments where a segment can be any kind of string (preferably a segment is a 
  * valid java-identifier). A path can be converted into a string, the segments will
- * be {@link #encodeSegment(String) encoded} when doing that.
+ * be {@link #encodeSegment(String) encoded} when doing that.<br>
+ * Paths are immutable, their hash code and their {@link #getParent() parent} are only calculated once. Strings
+ * that are converted into paths are cached, and {@link #intern()} or {@link #valueOf(String)} can be used to
+ * get canonical instances of paths that are used often.
  * @author Benjamin Sigg
  */
 public final class Path {
+	/** the maximum number of strings that are remembered by {@link #PARSE_CACHE} */
+	private static final int PARSE_CACHE_SIZE = 1024;
+	
+	/** the last strings that were converted into {@link Path}s, and their segments */
+	private static final Map<String, String[]> PARSE_CACHE = new LinkedHashMap<String, String[]>( 64, 0.75f, true ){
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<String, String[]> eldest ){
+			return size() > PARSE_CACHE_SIZE;
+		}
+	};
+	
+	/** the canonical instances of {@link Path}s, see {@link #intern()} */
+	private static final Map<Path, WeakReference<Path>> INTERNED = new WeakHashMap<Path, WeakReference<Path>>();
+	
+
     /** standard path for {@link Integer}  */
     public static final Path TYPE_INT_PATH = new Path( "java.lang.Integer" );
     
@@ -127,8 +149,28 @@ public final class Path {
     	return builder.toString();
     }
     
-    /** the segments of this path */
-    private String[] segments;
+    /** the segments of this path, this array is never modified and may be shared between paths */
+    private final String[] segments;
+    
+    /** the hash code of {@link #segments} */
+    private final int hash;
+    
+    /** the parent of this path, created lazily */
+    private Path parent;
+    
+    /** whether this path is a canonical instance */
+    private boolean interned = false;
+    
+    /**
+     * Gets the canonical instance of the path described by <code>path</code>. Calling this method
+     * has the same effect as calling <code>new Path( path ).intern()</code>.
+     * @param path the dot-separated segments of the path
+     * @return the canonical path, equal to <code>new Path( path )</code>
+     * @see #Path(String)
+     */
+    public static Path valueOf( String path ){
+    	return new Path( path ).intern();
+    }
     
     /**
      * Tells whether <code>path</code> is a valid path or not
@@ -159,6 +201,18 @@ public final class Path {
     			throw new IllegalArgumentException( "null segments are not allowed" );
     		}
     	}
+    	
+    	hash = Arrays.hashCode( this.segments );
+    }
+    
+    /**
+     * Creates a new path using <code>segments</code> directly, without copying the array.
+     * @param segments the segments, must not be modified afterwards
+     * @param shared not used, allows to distinguish this constructor from {@link #Path(String...)}
+     */
+    private Path( String[] segments, boolean shared ){
+    	this.segments = segments;
+    	hash = Arrays.hashCode( segments );
     }
     
     /**
@@ -166,6 +220,7 @@ public final class Path {
      */
     public Path(){
         segments = new String[]{};
+        hash = Arrays.hashCode( segments );
     }
     
     /**
@@ -179,6 +234,28 @@ public final class Path {
         if( path == null )
             throw new IllegalArgumentException( "path must not be null" );
         
+        String[] segments;
+        synchronized( PARSE_CACHE ){
+        	segments = PARSE_CACHE.get( path );
+        }
+        if( segments == null ){
+        	segments = parse( path );
+        	synchronized( PARSE_CACHE ){
+        		PARSE_CACHE.put( path, segments );
+        	}
+        }
+        
+        this.segments = segments;
+        hash = Arrays.hashCode( segments );
+    }
+    
+    /**
+     * Splits <code>path</code> into its segments.
+     * @param path the path to split
+     * @return the segments of <code>path</code>
+     * @throws IllegalArgumentException if <code>path</code> is not a valid path
+     */
+    private static String[] parse( String path ){
         List<String> list = new ArrayList<String>();
         int lastDot = -1;
         boolean escape = false;
@@ -218,7 +295,29 @@ public final class Path {
             }
         }
         
-        segments = list.toArray( new String[ list.size()] );
+        return list.toArray( new String[ list.size()] );
+    }
+    
+    /**
+     * Gets a canonical instance of this path. For any two paths <code>a</code> and <code>b</code>, 
+     * <code>a.intern() == b.intern()</code> if and only if <code>a.equals( b )</code>. The parents of
+     * canonical paths are canonical as well. Canonical paths are not kept alive if they are no longer used.
+     * @return the canonical instance of this path, may be <code>this</code>
+     */
+    public Path intern(){
+    	if( interned ){
+    		return this;
+    	}
+    	synchronized( INTERNED ){
+    		WeakReference<Path> reference = INTERNED.get( this );
+    		Path result = reference == null ? null : reference.get();
+    		if( result == null ){
+    			result = this;
+    			interned = true;
+    			INTERNED.put( this, new WeakReference<Path>( this ) );
+    		}
+    		return result;
+    	}
     }
 
     /**
@@ -314,9 +413,18 @@ public final class Path {
         if( segments.length == 0 )
             return null;
         
-        String[] result = new String[ segments.length-1 ];
-        System.arraycopy( segments, 0, result, 0, result.length );
-        return new Path( result );
+        Path parent = this.parent;
+        if( parent == null ){
+	        String[] result = new String[ segments.length-1 ];
+	        System.arraycopy( segments, 0, result, 0, result.length );
+	        parent = new Path( result, true );
+	        this.parent = parent;
+        }
+        if( interned && !parent.interned ){
+        	parent = parent.intern();
+        	this.parent = parent;
+        }
+        return parent;
     }
     
     /**
@@ -340,7 +448,7 @@ public final class Path {
     
     @Override
     public int hashCode() {
-        return Arrays.hashCode( segments );
+        return hash;
     }
 
     @Override
@@ -352,6 +460,8 @@ public final class Path {
         if( getClass() != obj.getClass() )
             return false;
         final Path other = (Path)obj;
+        if( hash != other.hash )
+        	return false;
         if( !Arrays.equals( segments, other.segments ) )
             return false;
         return true;
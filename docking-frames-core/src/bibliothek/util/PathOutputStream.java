@@ -0,0 +1,74 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link DataOutputStream} that is aware of {@link Path}s. Code writing a {@link Path} should
+ * call {@link #writePath(Path, DataOutputStream)}, this allows subclasses to replace the {@link Path} by
+ * a reference into a table. The data that finally reaches the reader must still contain the {@link Path}
+ * in the format of {@link DataOutputStream#writeUTF(String)}, hence the {@link Path} can always
+ * be read using {@link DataInputStream#readUTF()}.
+ * @author Benjamin Sigg
+ */
+public class PathOutputStream extends DataOutputStream{
+	/**
+	 * Creates a new stream.
+	 * @param out the stream to write into
+	 */
+	public PathOutputStream( OutputStream out ){
+		super( out );
+	}
+	
+	/**
+	 * Writes <code>path</code> into this stream.
+	 * @param path the path to write, not <code>null</code>
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void writePath( Path path ) throws IOException{
+		writeUTF( path.toString() );
+	}
+	
+	/**
+	 * Writes <code>path</code> into <code>out</code>, if <code>out</code> is a {@link PathOutputStream}
+	 * then {@link #writePath(Path)} is called.
+	 * @param path the path to write, not <code>null</code>
+	 * @param out the stream to write into
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public static void writePath( Path path, DataOutputStream out ) throws IOException{
+		if( out instanceof PathOutputStream ){
+			((PathOutputStream)out).writePath( path );
+		}
+		else{
+			out.writeUTF( path.toString() );
+		}
+	}
+}
@@ -40,7 +40,8 @@ import org.xml.sax.helpers.DefaultHandler;
 /**
  * Class used to read and write xml-files. Clients should use
  * {@link #writeUTF(XElement, OutputStream)} and {@link #readUTF(InputStream)} to
- * guarantee maximal independence from the underlying file system.
+ * guarantee maximal independence from the underlying file system. Clients that do
+ * not want to keep the whole document in memory can use {@link XReader} and {@link XWriter}.
  * @author Benjamin Sigg
  */
 public class XIO {
@@ -51,8 +52,22 @@ public class XIO {
      * @throws IOException if an I/O-error occurs
      */
     public static void write( XElement element, Appendable out ) throws IOException{
-        out.append( "<?xml version='1.0'?>\n" );
-        write( element, 0, out );
+        write( element, out, true );
+    }
+    
+    /**
+     * Writes the contents of <code>element</code> into <code>out</code>.
+     * @param element the element to write
+     * @param out the stream to write into
+     * @param indent whether to put each element on its own line and indent it, if <code>false</code>
+     * the document is written without any additional whitespaces
+     * @throws IOException if an I/O-error occurs
+     */
+    public static void write( XElement element, Appendable out, boolean indent ) throws IOException{
+        XWriter writer = new XWriter( out, indent );
+        writer.writeDeclaration();
+        writer.writeElement( element );
+        writer.flush();
     }
     
     /**
@@ -66,6 +81,18 @@ public class XIO {
         write( element, out, "UTF-8" );
     }
     
+    /**
+     * Writes the contents of <code>element</code> into <code>out</code> using
+     * the <code>UTF-8</code> encoding.
+     * @param element the element to write
+     * @param out the stream to write into
+     * @param indent whether to indent the elements
+     * @throws IOException if an I/O-error occurs
+     */
+    public static void writeUTF( XElement element, OutputStream out, boolean indent ) throws IOException{
+        write( element, out, "UTF-8", indent );
+    }
+    
     /**
      * Writes the contents of <code>element</code> into <code>out</code>.
      * @param element the element to write
@@ -74,13 +101,25 @@ public class XIO {
      * @throws IOException if an I/O-error occurs
      */
     public static void write( XElement element, OutputStream out, String encoding ) throws IOException{
+        write( element, out, encoding, true );
+    }
+    
+    /**
+     * Writes the contents of <code>element</code> into <code>out</code>.
+     * @param element the element to write
+     * @param out the stream to write into
+     * @param encoding the encoding for the characters
+     * @param indent whether to indent the elements
+     * @throws IOException if an I/O-error occurs
+     */
+    public static void write( XElement element, OutputStream out, String encoding, boolean indent ) throws IOException{
         OutputStreamWriter writer = new OutputStreamWriter( out, encoding ){
             @Override
             public void close() throws IOException {
                 // ignore
             }
         };
-        write( element, writer );
+        write( element, writer, indent );
         writer.flush();
     }
 
@@ -114,92 +153,7 @@ public class XIO {
         return read( new InputSource( reader ));
     }
 
-    
-    /**
-     * Writes the contents of <code>element</code> into <code>out</code>.
-     * @param element the element to write
-     * @param tabs the number of tabs before the element
-     * @param out the stream to write into
-     * @throws IOException if an I/O-error occurs
-     */
-    private static void write( XElement element, int tabs, Appendable out ) throws IOException{
-        for( int i = 0; i < tabs; i++ )
-            out.append( "\t" );
-        
-        out.append( "<" );
-        out.append( element.getName() );
-        for( XAttribute attribute : element.attributes() ){
-            out.append( " " );
-            out.append( attribute.getName() );
-            out.append( "=\"" );
-            encode( attribute.getString(), out );
-            out.append( "\"" );
-        }
-        String value = element.getValue();
-        XElement[] children = element.children();
-        
-        if( value.length() == 0 && children.length == 0 ){
-            out.append( "/>" );
-        }
-        else{
-            out.append( ">" );
-            if( value.length() > 0 ){
-                if( children.length > 0 ){
-                    out.append( "\n\t" );
-                    for( int i = 0; i < tabs; i++ )
-                        out.append( "\t" );
-                }
-                    
-                encode( value, out );
-            }
-            if( children.length > 0 ){
-                out.append( "\n" );
-                for( XElement child : children ){
-                    write( child, tabs+1, out );
-                    out.append( "\n" );
-                }
-                
-                for( int i = 0; i < tabs; i++ )
-                    out.append( "\t" );
-            }
-            
-            out.append( "</" );
-            out.append( element.getName() );
-            out.append( ">" );
-        }
-    }
-    
-    /**
-     * Encodes <code>value</code> such that it is a valid string in a xml-file.
-     * @param value the value to encode
-     * @param out the stream to write into
-     */
-    private static void encode( String value, Appendable out ) throws IOException{
-        for( int i = 0, n = value.length(); i<n; i++ ){
-            char c = value.charAt( i );
-            switch( c ){
-                case '<':
-                    out.append( "&lt;" );
-                    break;
-                case '>':
-                    out.append( "&gt;" );
-                    break;
-                case '\'':
-                    out.append( "&apos;" );
-                    break;
-                case '"':
-                    out.append( "&quot;" );
-                    break;
-                case '&':
-                    out.append( "&amp;" );
-                    break;
-                default:
-                    out.append( c );
-                    break;
-            }
-        }
-    }
-    
+
     /**
      * Interprets <code>text</code> as a xml-file and reads it.
      * @param text the content to read, in xml format
@@ -0,0 +1,276 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A pull reader for xml documents. Unlike {@link XIO#read(Reader)} the {@link XReader} does not need to
+ * create the whole document at once: clients can {@link #openElement() open} an element, then read its
+ * children one after the other with {@link #readElement()}, and only the child that is currently read is
+ * stored in memory.
+ * @author Benjamin Sigg
+ */
+public class XReader {
+	/** the source of all events */
+	private XMLStreamReader reader;
+	
+	/** the number of elements that were opened and not yet closed */
+	private int open = 0;
+	
+	/** whether the end tag of the element that was opened last has already been read */
+	private boolean atEnd = false;
+	
+	/**
+	 * Creates a new reader reading from <code>in</code> using <code>UTF-8</code> as encoding.
+	 * @param in the stream to read from
+	 * @throws IOException if the reader cannot be created
+	 */
+	public XReader( InputStream in ) throws IOException{
+		this( in, "UTF-8" );
+	}
+	
+	/**
+	 * Creates a new reader reading from <code>in</code>.
+	 * @param in the stream to read from
+	 * @param encoding the encoding used to decode characters
+	 * @throws IOException if the reader cannot be created
+	 */
+	public XReader( InputStream in, String encoding ) throws IOException{
+		try{
+			reader = createFactory().createXMLStreamReader( in, encoding );
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Creates a new reader.
+	 * @param in the source of all characters
+	 * @throws IOException if the reader cannot be created
+	 */
+	public XReader( Reader in ) throws IOException{
+		try{
+			reader = createFactory().createXMLStreamReader( in );
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	private XMLInputFactory createFactory(){
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.TRUE );
+		if( factory.isPropertySupported( XMLInputFactory.IS_NAMESPACE_AWARE )){
+			factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE );
+		}
+		return factory;
+	}
+	
+	/**
+	 * Reads the whole document and returns its root element. 
+	 * @return the root element or <code>null</code> if the document has no element
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public XElement read() throws IOException{
+		return readElement();
+	}
+	
+	/**
+	 * Searches the next child of the current element and reads the start tag of that child. If there is no 
+	 * current element, then the root element of the document is searched. Other than the attributes neither the
+	 * value nor the children of the child are read, the children can be read by {@link #openElement()} or
+	 * {@link #readElement()}. Each opened element must be closed by {@link #closeElement()}.
+	 * @return an element with the name and the attributes of the next child, or <code>null</code> if the current
+	 * element does not have any more children
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public XElement openElement() throws IOException{
+		try{
+			if( !nextChild() ){
+				return null;
+			}
+			XElement element = readStart();
+			open++;
+			return element;
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Skips all the remaining children of the element that was {@link #openElement() opened} last and reads its end tag.
+	 * @throws IOException if an I/O-error occurs
+	 * @throws IllegalStateException if there is no open element
+	 */
+	public void closeElement() throws IOException{
+		if( open == 0 ){
+			throw new IllegalStateException( "there is no open element" );
+		}
+		try{
+			if( !atEnd ){
+				int level = 0;
+				while( reader.hasNext() ){
+					int event = reader.next();
+					if( event == XMLStreamConstants.START_ELEMENT ){
+						level++;
+					}
+					else if( event == XMLStreamConstants.END_ELEMENT ){
+						if( level == 0 ){
+							break;
+						}
+						level--;
+					}
+				}
+			}
+			open--;
+			atEnd = false;
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Searches the next child of the current element and reads the child with all its attributes, its value
+	 * and its children. If there is no current element, then the root element of the document is read.
+	 * @return the next child or <code>null</code> if the current element does not have any more children
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public XElement readElement() throws IOException{
+		try{
+			if( !nextChild() ){
+				return null;
+			}
+			return readSubtree();
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Closes this reader. The underlying source is not closed.
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void close() throws IOException{
+		try{
+			reader.close();
+		}
+		catch( XMLStreamException e ){
+			throw new IOException( e.getMessage() );
+		}
+	}
+	
+	/**
+	 * Moves the cursor to the start tag of the next child of the current element.
+	 * @return <code>true</code> if a child was found, <code>false</code> if the end of the current
+	 * element or of the document was reached
+	 * @throws XMLStreamException if the document cannot be read
+	 */
+	private boolean nextChild() throws XMLStreamException{
+		if( atEnd ){
+			return false;
+		}
+		
+		while( reader.hasNext() ){
+			int event = reader.next();
+			if( event == XMLStreamConstants.START_ELEMENT ){
+				return true;
+			}
+			if( event == XMLStreamConstants.END_ELEMENT ){
+				atEnd = true;
+				return false;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Reads the element at the current position including its children.
+	 * @return the element
+	 * @throws XMLStreamException if the document cannot be read
+	 */
+	private XElement readSubtree() throws XMLStreamException{
+		XElement element = readStart();
+		StringBuilder value = null;
+		
+		while( reader.hasNext() ){
+			int event = reader.next();
+			switch( event ){
+				case XMLStreamConstants.START_ELEMENT:
+					element.addElement( readSubtree() );
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if( value == null ){
+						value = new StringBuilder();
+					}
+					value.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if( value != null ){
+						element.setValue( value.toString() );
+					}
+					element.setValue( element.getString().trim() );
+					return element;
+			}
+		}
+		
+		throw new XMLStreamException( "unexpected end of document" );
+	}
+	
+	/**
+	 * Reads the name and the attributes of the start tag at the current position.
+	 * @return the new element without any children
+	 */
+	private XElement readStart(){
+		XElement element = new XElement( qualifiedName( reader.getPrefix(), reader.getLocalName() ) );
+		for( int i = 0, n = reader.getAttributeCount(); i<n; i++ ){
+			XAttribute attribute = new XAttribute( qualifiedName( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) ) );
+			attribute.setString( reader.getAttributeValue( i ) );
+			element.addAttribute( attribute );
+		}
+		return element;
+	}
+	
+	private String qualifiedName( String prefix, String localName ){
+		if( prefix == null || prefix.length() == 0 ){
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.LinkedList;
+
+/**
+ * A writer that converts {@link XElement}s into text. Unlike {@link XIO#write(XElement, Appendable)} the
+ * {@link XWriter} does not need to know the whole document: elements can be {@link #openElement(XElement) opened},
+ * filled with children one after the other and {@link #closeElement() closed} again. The text is collected in a buffer
+ * and only forwarded to the underlying {@link Appendable} in large chunks.
+ * @author Benjamin Sigg
+ */
+public class XWriter {
+	/** the number of characters that are collected before they are forwarded to {@link #out} */
+	private static final int FLUSH_SIZE = 8192;
+	
+	/** tabs used for indentation */
+	private static final char[] TABS = "\t\t\t\t\t\t\t\t\t\t\t\t\t\t\t\t".toCharArray();
+	
+	/** where to write the text */
+	private Appendable out;
+	
+	/** whether to indent the elements */
+	private boolean indent;
+	
+	/** the text that was not yet written into {@link #out} */
+	private StringBuilder buffer = new StringBuilder( FLUSH_SIZE + 256 );
+	
+	/** the names of the elements that are currently open */
+	private LinkedList<String> open = new LinkedList<String>();
+	
+	/**
+	 * Creates a new writer that indents elements.
+	 * @param out the destination of the text
+	 */
+	public XWriter( Appendable out ){
+		this( out, true );
+	}
+	
+	/**
+	 * Creates a new writer.
+	 * @param out the destination of the text
+	 * @param indent whether to put each element on a new line and to indent it with tabs. If <code>false</code> 
+	 * no whitespaces are added to the document
+	 */
+	public XWriter( Appendable out, boolean indent ){
+		if( out == null ){
+			throw new IllegalArgumentException( "out must not be null" );
+		}
+		this.out = out;
+		this.indent = indent;
+	}
+	
+	/**
+	 * Tells whether this writer indents the elements.
+	 * @return whether indentation is used
+	 */
+	public boolean isIndent(){
+		return indent;
+	}
+	
+	/**
+	 * Writes the xml declaration. This method should be called before any element is written.
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void writeDeclaration() throws IOException{
+		buffer.append( "<?xml version='1.0'?>" );
+		if( indent ){
+			buffer.append( '\n' );
+		}
+		check();
+	}
+	
+	/**
+	 * Writes the start tag of <code>element</code> including its attributes and its value. The children
+	 * of <code>element</code> are not written, instead clients can call {@link #writeElement(XElement)} or
+	 * {@link #openElement(XElement)} to add children. The element must be closed by {@link #closeElement()}.
+	 * @param element the element whose start tag is written
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void openElement( XElement element ) throws IOException{
+		int depth = open.size();
+		indent( depth );
+		writeStart( element );
+		buffer.append( '>' );
+		
+		String value = element.getValue();
+		if( value.length() > 0 ){
+			if( indent ){
+				buffer.append( "\n\t" );
+				indent( depth );
+			}
+			encode( value );
+		}
+		if( indent ){
+			buffer.append( '\n' );
+		}
+		
+		open.addFirst( element.getName() );
+		check();
+	}
+	
+	/**
+	 * Writes the end tag of the element that was opened last.
+	 * @throws IOException if an I/O-error occurs
+	 * @throws IllegalStateException if there is no open element
+	 */
+	public void closeElement() throws IOException{
+		if( open.isEmpty() ){
+			throw new IllegalStateException( "there is no open element" );
+		}
+		String name = open.removeFirst();
+		indent( open.size() );
+		buffer.append( "</" ).append( name ).append( '>' );
+		if( indent && !open.isEmpty() ){
+			buffer.append( '\n' );
+		}
+		check();
+	}
+	
+	/**
+	 * Writes <code>element</code> and all its children. If there is an open element, then
+	 * <code>element</code> becomes a child of that element.
+	 * @param element the element to write
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void writeElement( XElement element ) throws IOException{
+		write( element, open.size() );
+		if( indent && !open.isEmpty() ){
+			buffer.append( '\n' );
+		}
+		check();
+	}
+	
+	/**
+	 * Forwards all the text that is still buffered to the underlying {@link Appendable}, and
+	 * flushes the {@link Appendable} if it is {@link Flushable}.
+	 * @throws IOException if an I/O-error occurs
+	 */
+	public void flush() throws IOException{
+		if( buffer.length() > 0 ){
+			out.append( buffer );
+			buffer.setLength( 0 );
+		}
+		if( out instanceof Flushable ){
+			((Flushable)out).flush();
+		}
+	}
+	
+	private void check() throws IOException{
+		if( buffer.length() >= FLUSH_SIZE ){
+			out.append( buffer );
+			buffer.setLength( 0 );
+		}
+	}
+	
+	private void write( XElement element, int depth ) throws IOException{
+		indent( depth );
+		writeStart( element );
+		
+		String value = element.getValue();
+		XElement[] children = element.children();
+		
+		if( value.length() == 0 && children.length == 0 ){
+			buffer.append( "/>" );
+		}
+		else{
+			buffer.append( '>' );
+			if( value.length() > 0 ){
+				if( children.length > 0 && indent ){
+					buffer.append( "\n\t" );
+					indent( depth );
+				}
+				encode( value );
+			}
+			if( children.length > 0 ){
+				if( indent ){
+					buffer.append( '\n' );
+				}
+				for( XElement child : children ){
+					write( child, depth+1 );
+					if( indent ){
+						buffer.append( '\n' );
+					}
+				}
+				indent( depth );
+			}
+			
+			buffer.append( "</" ).append( element.getName() ).append( '>' );
+		}
+		check();
+	}
+	
+	private void writeStart( XElement element ){
+		buffer.append( '<' ).append( element.getName() );
+		for( XAttribute attribute : element.attributes() ){
+			buffer.append( ' ' ).append( attribute.getName() ).append( "=\"" );
+			encode( attribute.getString() );
+			buffer.append( '"' );
+		}
+	}
+	
+	private void indent( int depth ){
+		if( indent ){
+			while( depth > 0 ){
+				int count = Math.min( depth, TABS.length );
+				buffer.append( TABS, 0, count );
+				depth -= count;
+			}
+		}
+	}
+	
+	/**
+	 * Encodes <code>value</code> such that it is a valid string in a xml-file.
+	 * @param value the value to encode
+	 */
+	private void encode( String value ){
+		int start = 0;
+		for( int i = 0, n = value.length(); i<n; i++ ){
+			String replacement;
+			switch( value.charAt( i ) ){
+				case '<':
+					replacement = "&lt;";
+					break;
+				case '>':
+					replacement = "&gt;";
+					break;
+				case '\'':
+					replacement = "&apos;";
+					break;
+				case '"':
+					replacement = "&quot;";
+					break;
+				case '&':
+					replacement = "&amp;";
+					break;
+				default:
+					replacement = null;
+					break;
+			}
+			if( replacement != null ){
+				buffer.append( value, start, i ).append( replacement );
+				start = i+1;
+			}
+		}
+		buffer.append( value, start, value.length() );
+	}
+}
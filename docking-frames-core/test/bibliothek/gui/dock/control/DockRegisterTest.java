@@ -0,0 +1,100 @@
+package bibliothek.gui.dock.control;
+
+import static junit.framework.Assert.*;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
+
+public class DockRegisterTest {
+	@Test
+	public void keepOrderAfterRemoval() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				DockController controller = new DockController();
+				StackDockStation stack = new StackDockStation();
+				controller.add( stack );
+
+				List<Dockable> expected = new ArrayList<Dockable>();
+				expected.add( stack );
+				for( int i = 0; i < 20; i++ ){
+					DefaultDockable dockable = new DefaultDockable( "d" + i );
+					stack.drop( dockable );
+					expected.add( dockable );
+				}
+				for( int i = 18; i > 0; i -= 3 ){
+					stack.drag( expected.remove( i ) );
+				}
+				stack.drag( expected.remove( expected.size()-1 ) );
+
+				DockRegister register = controller.getRegister();
+				assertEquals( expected.size(), register.getDockableCount() );
+				for( int i = 0; i < expected.size(); i++ ){
+					assertSame( expected.get( i ), register.getDockable( i ) );
+					assertTrue( register.isRegistered( expected.get( i ) ) );
+				}
+
+				DefaultDockable last = new DefaultDockable( "last" );
+				stack.drop( last );
+				assertSame( last, register.listDockables()[ expected.size() ] );
+			}
+		});
+	}
+
+	@Test
+	public void batchWhileStalled() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				DockController controller = new DockController();
+				StackDockStation stack = new StackDockStation();
+				controller.add( stack );
+				DefaultDockable removed = new DefaultDockable( "removed" );
+				stack.drop( removed );
+
+				final List<DockRegisterBatchEvent> batches = new ArrayList<DockRegisterBatchEvent>();
+				final int[] single = { 0 };
+				class Listener extends DockRegisterAdapter implements DockRegisterBatchListener{
+					@Override
+					public void dockableRegistered( DockController controller, Dockable dockable ){
+						single[0]++;
+					}
+					@Override
+					public void dockableUnregistered( DockController controller, Dockable dockable ){
+						single[0]++;
+					}
+					public void registerBatch( DockRegisterBatchEvent event ){
+						batches.add( event );
+					}
+				}
+				DockRegister register = controller.getRegister();
+				register.addDockRegisterListener( new Listener() );
+
+				register.setStalled( true );
+				DefaultDockable a = new DefaultDockable( "a" );
+				DefaultDockable b = new DefaultDockable( "b" );
+				stack.drop( a );
+				stack.drop( b );
+				stack.drag( removed );
+				register.setStalled( false );
+
+				assertEquals( 0, single[0] );
+				assertEquals( 1, batches.size() );
+				assertEquals( 2, batches.get( 0 ).getRegisteredDockables().size() );
+				assertEquals( 1, batches.get( 0 ).getUnregisteredDockables().size() );
+				assertTrue( register.isRegistered( a ) );
+				assertTrue( register.isRegistered( b ) );
+				assertFalse( register.isRegistered( removed ) );
+			}
+		});
+	}
+}
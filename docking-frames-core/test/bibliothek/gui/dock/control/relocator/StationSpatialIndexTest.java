@@ -0,0 +1,157 @@
+package bibliothek.gui.dock.control.relocator;
+
+import static junit.framework.Assert.*;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+
+public class StationSpatialIndexTest {
+	/**
+	 * An index that does not require its components to be showing, the location of a component
+	 * is calculated using the locations of its parents.
+	 */
+	private static class TestIndex extends StationSpatialIndex{
+		public TestIndex(){
+			super( 50 );
+		}
+
+		@Override
+		protected Rectangle getBoundsOnScreen( Component component ){
+			return bounds( component );
+		}
+	}
+
+	private static Rectangle bounds( Component component ){
+		Rectangle bounds = new Rectangle( 0, 0, component.getWidth(), component.getHeight() );
+		while( component != null ){
+			bounds.x += component.getX();
+			bounds.y += component.getY();
+			component = component.getParent();
+		}
+		return bounds;
+	}
+
+	private DockController controller;
+	private TestIndex index;
+	private List<DockStation> stations;
+
+	@Test
+	public void compareWithFullScan() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				controller = new DockController();
+				SplitDockStation root = new SplitDockStation();
+				controller.add( root );
+
+				SplitDockGrid grid = new SplitDockGrid();
+				for( int i = 0; i < 4; i++ ){
+					StackDockStation stack = new StackDockStation();
+					stack.drop( new DefaultDockable( "a" + i ) );
+					stack.drop( new DefaultDockable( "b" + i ) );
+					grid.addDockable( i, 0, 1, 1, stack );
+				}
+				SplitDockStation nested = new SplitDockStation();
+				SplitDockGrid nestedGrid = new SplitDockGrid();
+				for( int i = 0; i < 3; i++ ){
+					StackDockStation stack = new StackDockStation();
+					stack.drop( new DefaultDockable( "n" + i ) );
+					nestedGrid.addDockable( 0, i, 1, 1, stack );
+				}
+				nested.dropTree( nestedGrid.toTree() );
+				grid.addDockable( 0, 1, 4, 1, nested );
+				root.dropTree( grid.toTree() );
+
+				index = new TestIndex();
+				index.setController( controller );
+				stations = new ArrayList<DockStation>();
+				for( DockStation station : controller.getRegister().listDockStations() ){
+					stations.add( station );
+				}
+				assertEquals( stations.size(), index.getStationCount() );
+			}
+		});
+
+		final Random random = new Random( 42 );
+		for( int step = 0; step < 30; step++ ){
+			final int currentStep = step;
+			onEDT( new Runnable(){
+				public void run(){
+					// moving and resizing the components invalidates the entries of the index
+					for( DockStation station : stations ){
+						if( station.asDockable() != null && random.nextInt( 3 ) == 0 ){
+							station.asDockable().getComponent().setBounds( random.nextInt( 400 ), random.nextInt( 400 ), random.nextInt( 300 ), random.nextInt( 300 ) );
+						}
+					}
+				}
+			});
+			onEDT( new Runnable(){
+				public void run(){
+					for( int i = 0; i < 50; i++ ){
+						int x = random.nextInt( 1200 );
+						int y = random.nextInt( 1200 );
+						assertEquals( "step " + currentStep + ", x=" + x + ", y=" + y, fullScan( x, y ), set( index.getStationsAt( x, y ) ) );
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Searches all stations near <code>x/y</code> without using the index.
+	 */
+	private Set<DockStation> fullScan( int x, int y ){
+		Set<DockStation> result = identitySet();
+		for( DockStation station : controller.getRegister().listDockStations() ){
+			Dockable dockable = station.asDockable();
+			if( dockable == null || dockable.getDockParent() == null ){
+				result.add( station );
+			}
+			else{
+				Rectangle bounds = bounds( dockable.getComponent() );
+				bounds.grow( index.getMargin(), index.getMargin() );
+				if( bounds.contains( x, y )){
+					result.add( station );
+					// the ancestors are always reported as well
+					for( DockStation parent = dockable.getDockParent(); parent != null; ){
+						result.add( parent );
+						Dockable parentDockable = parent.asDockable();
+						parent = parentDockable == null ? null : parentDockable.getDockParent();
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private Set<DockStation> set( DockStation[] stations ){
+		Set<DockStation> result = identitySet();
+		Collections.addAll( result, stations );
+		assertEquals( "no duplicates", stations.length, result.size() );
+		return result;
+	}
+
+	private Set<DockStation> identitySet(){
+		return Collections.newSetFromMap( new IdentityHashMap<DockStation, Boolean>() );
+	}
+
+	private void onEDT( Runnable run ) throws Exception{
+		EventQueue.invokeAndWait( run );
+	}
+}
@@ -0,0 +1,114 @@
+package bibliothek.gui.dock.frontend;
+
+import static junit.framework.Assert.*;
+
+import java.awt.EventQueue;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.station.DockableDisplayer;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+
+public class DiffLayoutChangeStrategyTest {
+	private DockFrontend frontend;
+	private SplitDockStation root;
+	private StackDockStation stack;
+	private DefaultDockable a;
+	private DefaultDockable b;
+	private DefaultDockable c;
+	private DefaultDockable d;
+
+	private void setup( LayoutChangeStrategy strategy ){
+		frontend = new DockFrontend();
+		frontend.setLayoutChangeStrategy( strategy );
+
+		root = new SplitDockStation();
+		frontend.addRoot( "root", root );
+
+		a = new DefaultDockable( "a" );
+		b = new DefaultDockable( "b" );
+		c = new DefaultDockable( "c" );
+		d = new DefaultDockable( "d" );
+		frontend.addDockable( "a", a );
+		frontend.addDockable( "b", b );
+		frontend.addDockable( "c", c );
+		frontend.addDockable( "d", d );
+
+		stack = new StackDockStation();
+		stack.drop( a );
+		stack.drop( b );
+
+		SplitDockGrid grid = new SplitDockGrid();
+		grid.addDockable( 0, 0, 1, 1, stack );
+		grid.addDockable( 1, 0, 1, 1, c );
+		root.dropTree( grid.toTree() );
+	}
+
+	private DockableDisplayer getDisplayer( DefaultDockable dockable ){
+		for( DockableDisplayer displayer : stack.getDisplayers() ){
+			if( displayer.getDockable() == dockable ){
+				return displayer;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void keepUnchangedSubtree() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				setup( new DiffLayoutChangeStrategy() );
+				frontend.save( "one" );
+				DockableDisplayer displayer = getDisplayer( a );
+				assertNotNull( displayer );
+
+				root.drop( d );
+				frontend.load( "one" );
+
+				assertSame( root, stack.getDockParent() );
+				assertSame( stack, a.getDockParent() );
+				assertSame( stack, b.getDockParent() );
+				assertSame( root, c.getDockParent() );
+				assertSame( displayer, getDisplayer( a ) );
+			}
+		});
+	}
+
+	@Test
+	public void rebuildWithoutDiff() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				setup( new DefaultLayoutChangeStrategy() );
+				frontend.save( "one" );
+
+				root.drop( d );
+				frontend.load( "one" );
+
+				assertNotSame( stack, a.getDockParent() );
+				assertSame( a.getDockParent(), b.getDockParent() );
+				assertSame( root, c.getDockParent() );
+			}
+		});
+	}
+
+	@Test
+	public void rebuildChangedSubtree() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				setup( new DiffLayoutChangeStrategy() );
+				frontend.save( "one" );
+
+				stack.drop( d );
+				frontend.load( "one" );
+
+				assertNotSame( stack, a.getDockParent() );
+				assertSame( a.getDockParent(), b.getDockParent() );
+				assertSame( root, a.getDockParent().asDockable().getDockParent() );
+			}
+		});
+	}
+}
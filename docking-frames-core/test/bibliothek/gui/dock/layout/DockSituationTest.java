@@ -0,0 +1,214 @@
+package bibliothek.gui.dock.layout;
+
+import static junit.framework.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.SplitDockStation.Orientation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+import bibliothek.gui.dock.station.split.SplitDockStationFactory;
+import bibliothek.gui.dock.station.split.SplitDockStationLayout;
+import bibliothek.gui.dock.station.stack.StackDockStationFactory;
+import bibliothek.gui.dock.station.support.PlaceholderMap;
+import bibliothek.util.Path;
+import bibliothek.util.Version;
+
+public class DockSituationTest {
+	private DockLayoutComposition composition;
+	
+	@Before
+	public void setup(){
+		StackDockStation stack = new StackDockStation();
+		stack.drop( new DefaultDockable( "a" ) );
+		stack.drop( new DefaultDockable( "b" ) );
+		
+		SplitDockGrid grid = new SplitDockGrid();
+		grid.addDockable( 0, 0, 1, 1, stack );
+		grid.addDockable( 1, 0, 1, 1, new DefaultDockable( "c" ) );
+		grid.addDockable( 0, 1, 2, 1, new DefaultDockable( "d" ) );
+		
+		SplitDockStation split = new SplitDockStation();
+		split.dropTree( grid.toTree() );
+		
+		composition = createSituation().convert( split );
+	}
+	
+	private DockSituation createSituation(){
+		return new DockSituation( new DefaultDockableFactory(), new StackDockStationFactory(), new SplitDockStationFactory() );
+	}
+	
+	private byte[] write( DockSituation situation, DockLayoutComposition composition ) throws IOException{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bout );
+		situation.writeComposition( composition, out );
+		out.close();
+		return bout.toByteArray();
+	}
+	
+	private DockLayoutComposition read( DockSituation situation, byte[] data ) throws IOException{
+		DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+		DockLayoutComposition result = situation.readComposition( in );
+		assertEquals( "all bytes must be read", 0, in.available() );
+		return result;
+	}
+	
+	private byte[] writeLegacy( DockLayoutComposition composition ) throws IOException{
+		return write( createSituation(), composition );
+	}
+	
+	@Test
+	public void legacyFormatIsDefault() throws IOException{
+		DockSituation situation = createSituation();
+		assertFalse( situation.isCompactFormat() );
+		
+		byte[] data = write( situation, composition );
+		Version version = Version.read( new DataInputStream( new ByteArrayInputStream( data ) ) );
+		assertEquals( Version.VERSION_1_0_8, version );
+	}
+	
+	@Test
+	public void legacyRoundTrip() throws IOException{
+		byte[] data = writeLegacy( composition );
+		DockLayoutComposition copy = read( createSituation(), data );
+		assertTrue( Arrays.equals( data, writeLegacy( copy ) ) );
+	}
+	
+	@Test
+	public void compactRoundTrip() throws IOException{
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		byte[] data = write( situation, composition );
+		
+		DockLayoutComposition copy = read( createSituation(), data );
+		assertTrue( Arrays.equals( writeLegacy( composition ), writeLegacy( copy ) ) );
+		assertTrue( data.length < writeLegacy( composition ).length );
+	}
+	
+	@Test
+	public void compressedCompactRoundTrip() throws IOException{
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		situation.setCompressed( true );
+		byte[] data = write( situation, composition );
+		
+		DockLayoutComposition copy = read( createSituation(), data );
+		assertTrue( Arrays.equals( writeLegacy( composition ), writeLegacy( copy ) ) );
+	}
+	
+	@Test
+	public void compactTableIsSharedInStream() throws IOException{
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		
+		byte[] single = write( situation, composition );
+		
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bout );
+		situation.writeComposition( composition, out );
+		situation.writeComposition( composition, out );
+		out.close();
+		byte[] data = bout.toByteArray();
+		assertTrue( data.length < 2 * single.length );
+		
+		DockSituation reader = createSituation();
+		DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+		DockLayoutComposition first = reader.readComposition( in );
+		DockLayoutComposition second = reader.readComposition( in );
+		assertEquals( "all bytes must be read", 0, in.available() );
+		
+		byte[] expected = writeLegacy( composition );
+		assertTrue( Arrays.equals( expected, writeLegacy( first ) ) );
+		assertTrue( Arrays.equals( expected, writeLegacy( second ) ) );
+	}
+	
+	@Test
+	public void compactPlaceholdersInFactoryData() throws IOException{
+		DockLayoutComposition placeholders = createPlaceholderComposition();
+		byte[] legacy = writeLegacy( placeholders );
+		assertEquals( 3, count( legacy, "dock.test.placeholder" ) );
+		
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		byte[] data = write( situation, placeholders );
+		assertEquals( 1, count( data, "dock.test.placeholder" ) );
+		
+		DockLayoutComposition copy = read( createSituation(), data );
+		assertTrue( Arrays.equals( legacy, writeLegacy( copy ) ) );
+	}
+	
+	@Test
+	public void compactPlaceholdersWithMissingFactory() throws IOException{
+		DockLayoutComposition placeholders = createPlaceholderComposition();
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		byte[] data = write( situation, placeholders );
+		
+		// without factory the data is kept in the format of the factory, and can be read later on
+		DockLayoutComposition missing = read( new DockSituation(), data );
+		assertEquals( DockLayoutInfo.Data.BYTE, missing.getLayout().getKind() );
+		assertTrue( Arrays.equals( writeLegacy( placeholders ), writeLegacy( createSituation().fillMissing( missing ) ) ) );
+	}
+	
+	/**
+	 * Creates a composition with a {@link SplitDockStationLayout} whose placeholders are stored in 
+	 * the leafs and in a {@link PlaceholderMap}.
+	 */
+	private DockLayoutComposition createPlaceholderComposition(){
+		Path placeholder = new Path( "dock.test.placeholder" );
+		
+		PlaceholderMap map = new PlaceholderMap( new Path( "dock.test.format" ), 0 );
+		PlaceholderMap.Key key = map.newKey( placeholder );
+		map.add( key );
+		map.putPath( key, "path", placeholder );
+		
+		SplitDockStationLayout.Entry left = new SplitDockStationLayout.Leaf( -1, new Path[]{ placeholder }, map, 1 );
+		SplitDockStationLayout.Entry right = new SplitDockStationLayout.Leaf( -1, new Path[]{ new Path( "dock.test.other" ) }, null, 2 );
+		SplitDockStationLayout.Entry root = new SplitDockStationLayout.Node( Orientation.HORIZONTAL, 0.5, left, right, null, null, 3 );
+		
+		DockLayout<SplitDockStationLayout> layout = new DockLayout<SplitDockStationLayout>( SplitDockStationFactory.ID, new SplitDockStationLayout( root, -1, true ) );
+		return new DockLayoutComposition( new DockLayoutInfo( layout ), null, new ArrayList<DockLayoutComposition>(), false );
+	}
+	
+	/**
+	 * Counts how often <code>value</code> appears in <code>data</code>.
+	 */
+	private int count( byte[] data, String value ) throws IOException{
+		byte[] search = value.getBytes( "UTF-8" );
+		int result = 0;
+		for( int i = 0; i + search.length <= data.length; i++ ){
+			if( Arrays.equals( search, Arrays.copyOfRange( data, i, i + search.length ) ) ){
+				result++;
+			}
+		}
+		return result;
+	}
+	
+	@Test
+	public void compactFormatIsRejectedByVersionCheck() throws IOException{
+		DockSituation situation = createSituation();
+		situation.setCompactFormat( true );
+		byte[] data = write( situation, composition );
+		
+		Version version = Version.read( new DataInputStream( new ByteArrayInputStream( data ) ) );
+		try{
+			version.checkCurrent();
+			fail( "older readers check the version and must not accept the compact format" );
+		}
+		catch( IOException ex ){
+			// expected
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package bibliothek.gui.dock.station.support;
+
+import static junit.framework.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.station.support.PlaceholderList.Level;
+import bibliothek.util.Path;
+
+public class PlaceholderListTest {
+	private static class TestItem implements PlaceholderListItem<Dockable> {
+		private Dockable dockable;
+
+		public TestItem( String title ){
+			dockable = new DefaultDockable( title );
+		}
+
+		public Dockable asDockable(){
+			return dockable;
+		}
+
+		@Override
+		public String toString(){
+			return dockable.getTitleText();
+		}
+	}
+
+	@Test
+	public void buildIndexAtThreshold(){
+		DockablePlaceholderList<TestItem> list = new DockablePlaceholderList<TestItem>();
+		list.setIndexThreshold( 10 );
+		for( int i = 0; i < 9; i++ ){
+			list.dockables().add( new TestItem( "i" + i ) );
+		}
+		assertFalse( list.isIndexed() );
+		list.dockables().add( new TestItem( "last" ) );
+		assertTrue( list.isIndexed() );
+		assertEquals( 10, list.dockables().size() );
+	}
+
+	@Test
+	public void defaultThreshold(){
+		DockablePlaceholderList<TestItem> list = new DockablePlaceholderList<TestItem>();
+		for( int i = 0; i < PlaceholderList.DEFAULT_INDEX_THRESHOLD; i++ ){
+			assertFalse( list.isIndexed() );
+			list.listPlaceholders().insertPlaceholder( i, new Path( "p" + i ) );
+		}
+		assertTrue( list.isIndexed() );
+	}
+
+	@Test
+	public void indexedListBehavesLikePlainList(){
+		for( int seed = 0; seed < 20; seed++ ){
+			compare( seed, 500 );
+		}
+	}
+
+	private void compare( long seed, int steps ){
+		Random random = new Random( seed );
+
+		DockablePlaceholderList<TestItem> plain = new DockablePlaceholderList<TestItem>();
+		plain.setIndexThreshold( 0 );
+		DockablePlaceholderList<TestItem> indexed = new DockablePlaceholderList<TestItem>();
+		indexed.setIndexed( true );
+
+		List<TestItem> items = new ArrayList<TestItem>();
+		for( int i = 0; i < 30; i++ ){
+			items.add( new TestItem( "item" + i ) );
+		}
+		List<Path> placeholders = new ArrayList<Path>();
+		for( int i = 0; i < 15; i++ ){
+			placeholders.add( new Path( "placeholder" + i ) );
+		}
+
+		for( int step = 0; step < steps; step++ ){
+			String message = "seed " + seed + ", step " + step;
+			int dockables = plain.dockables().size();
+			Path placeholder = placeholders.get( random.nextInt( placeholders.size() ) );
+			TestItem item = items.get( random.nextInt( items.size() ) );
+			boolean present = plain.dockables().indexOf( item ) >= 0;
+
+			switch( random.nextInt( 8 ) ){
+				case 0:
+					if( !present ){
+						int index = random.nextInt( dockables + 1 );
+						plain.dockables().add( index, item );
+						indexed.dockables().add( index, item );
+					}
+					break;
+				case 1:
+					if( dockables > 0 ){
+						int index = random.nextInt( dockables );
+						plain.dockables().remove( index );
+						indexed.dockables().remove( index );
+					}
+					break;
+				case 2:
+					if( dockables > 1 ){
+						int source = random.nextInt( dockables );
+						int destination = random.nextInt( dockables );
+						plain.dockables().move( source, destination );
+						indexed.dockables().move( source, destination );
+					}
+					break;
+				case 3:{
+					int index = random.nextInt( plain.list().size() + 1 );
+					plain.list().insertPlaceholder( index, placeholder );
+					indexed.list().insertPlaceholder( index, placeholder );
+					break;
+				}
+				case 4:
+					if( dockables > 0 ){
+						int index = random.nextInt( dockables );
+						plain.dockables().addPlaceholder( index, placeholder );
+						indexed.dockables().addPlaceholder( index, placeholder );
+					}
+					break;
+				case 5:
+					plain.removeAll( placeholder );
+					indexed.removeAll( placeholder );
+					break;
+				case 6:
+					if( !present ){
+						assertEquals( message, plain.put( placeholder, item ), indexed.put( placeholder, item ) );
+					}
+					break;
+				case 7:
+					if( present ){
+						assertEquals( message, plain.remove( item ), indexed.remove( item ) );
+					}
+					break;
+			}
+
+			assertEqualLists( message, plain, indexed, items, placeholders );
+		}
+	}
+
+	private void assertEqualLists( String message, DockablePlaceholderList<TestItem> plain, DockablePlaceholderList<TestItem> indexed, List<TestItem> items, List<Path> placeholders ){
+		assertEquals( message, plain.toString(), indexed.toString() );
+		for( Level level : Level.values() ){
+			assertEquals( message, plain.size( level ), indexed.size( level ) );
+		}
+
+		assertEquals( message, plain.dockables().size(), indexed.dockables().size() );
+		for( int i = 0, n = plain.dockables().size(); i < n; i++ ){
+			assertSame( message, plain.dockables().get( i ), indexed.dockables().get( i ) );
+		}
+		for( TestItem item : items ){
+			assertEquals( message, plain.dockables().indexOf( item ), indexed.dockables().indexOf( item ) );
+		}
+
+		for( Path placeholder : placeholders ){
+			assertEquals( message, plain.hasPlaceholder( placeholder ), indexed.hasPlaceholder( placeholder ) );
+			assertEquals( message, plain.getListIndex( placeholder ), indexed.getListIndex( placeholder ) );
+			assertEquals( message, plain.getDockableIndex( placeholder ), indexed.getDockableIndex( placeholder ) );
+			assertSame( message, plain.getDockableAt( placeholder ), indexed.getDockableAt( placeholder ) );
+			assertEquals( message, plain.listPlaceholders().indexOfPlaceholder( placeholder ), indexed.listPlaceholders().indexOfPlaceholder( placeholder ) );
+		}
+	}
+}
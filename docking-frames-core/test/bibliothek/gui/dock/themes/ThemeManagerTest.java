@@ -0,0 +1,241 @@
+package bibliothek.gui.dock.themes;
+
+import static junit.framework.Assert.*;
+
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.DockTheme;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.event.UIListener;
+import bibliothek.gui.dock.station.DockableDisplayer;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+import bibliothek.gui.dock.station.stack.StackDockComponent;
+import bibliothek.gui.dock.themes.basic.BasicDisplayerFactory;
+
+public class ThemeManagerTest {
+	private DockController controller;
+	private DefaultDockable a;
+	private DefaultDockable b;
+	private List<DockTheme> changed;
+
+	@Before
+	public void setup() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				controller = new DockController();
+
+				StackDockStation stack = new StackDockStation();
+				a = new DefaultDockable( "a" );
+				b = new DefaultDockable( "b" );
+				stack.drop( a );
+				stack.drop( b );
+
+				SplitDockGrid grid = new SplitDockGrid();
+				grid.addDockable( 0, 0, 1, 1, stack );
+				grid.addDockable( 1, 0, 1, 1, new StackDockStation() );
+				grid.addDockable( 0, 1, 2, 1, new DefaultDockable( "c" ) );
+
+				SplitDockStation split = new SplitDockStation();
+				controller.add( split );
+				split.dropTree( grid.toTree() );
+
+				changed = new ArrayList<DockTheme>();
+				controller.getThemeManager().addUIListener( new UIListener(){
+					public void updateUI( DockController controller ){
+						// ignore
+					}
+					public void themeWillChange( DockController controller, DockTheme oldTheme, DockTheme newTheme ){
+						// ignore
+					}
+					public void themeChanged( DockController controller, DockTheme oldTheme, DockTheme newTheme ){
+						changed.add( newTheme );
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Creates a theme whose displayers differ from the displayers of the default theme, hence all
+	 * the stations have to be rebuilt when switching to this theme.
+	 */
+	private DockTheme createRebuildingTheme(){
+		BasicTheme theme = new BasicTheme();
+		theme.setDisplayerFactory( new BasicDisplayerFactory(){
+			// a different class creates different displayers
+		});
+		return theme;
+	}
+
+	@Test
+	public void updateAtOnce() throws Exception{
+		final DockTheme theme = createRebuildingTheme();
+		onEDT( new Runnable(){
+			public void run(){
+				ThemeManager manager = controller.getThemeManager();
+				manager.setTheme( theme );
+
+				assertFalse( manager.isTransitionPending() );
+				assertTrue( manager.getLastTransition().isFinished() );
+				assertEquals( controller.getRegister().getStationCount(), manager.getLastTransition().getStationCount() );
+				assertEquals( controller.getRegister().getStationCount(), manager.getLastTransition().getUpdatedStationCount() );
+				assertEquals( 1, changed.size() );
+				assertSame( theme, changed.get( 0 ) );
+			}
+		});
+	}
+
+	@Test
+	public void updateInBatches() throws Exception{
+		final DockTheme theme = createRebuildingTheme();
+		onEDT( new Runnable(){
+			public void run(){
+				controller.getProperties().set( ThemeManager.THEME_UPDATE_TIME_SLICE, 1 );
+				ThemeManager manager = controller.getThemeManager();
+				manager.setTheme( theme );
+
+				// nothing is showing, hence all the stations are updated later
+				assertTrue( manager.isTransitionPending() );
+				assertFalse( manager.getLastTransition().isFinished() );
+				assertEquals( 0, changed.size() );
+			}
+		});
+
+		finishTransition();
+
+		onEDT( new Runnable(){
+			public void run(){
+				ThemeTransition transition = controller.getThemeManager().getLastTransition();
+				assertTrue( transition.isFinished() );
+				assertEquals( controller.getRegister().getStationCount(), transition.getUpdatedStationCount() );
+				assertEquals( 1, changed.size() );
+				assertSame( theme, changed.get( 0 ) );
+			}
+		});
+	}
+
+	@Test
+	public void replacePendingTransition() throws Exception{
+		final DockTheme first = createRebuildingTheme();
+		final DockTheme second = new BasicTheme();
+		onEDT( new Runnable(){
+			public void run(){
+				controller.getProperties().set( ThemeManager.THEME_UPDATE_TIME_SLICE, 1 );
+				ThemeManager manager = controller.getThemeManager();
+				manager.setTheme( first );
+				manager.setTheme( second );
+
+				assertEquals( 1, changed.size() );
+				assertSame( first, changed.get( 0 ) );
+			}
+		});
+
+		finishTransition();
+
+		onEDT( new Runnable(){
+			public void run(){
+				assertEquals( 2, changed.size() );
+				assertSame( second, changed.get( 1 ) );
+				assertSame( second, controller.getThemeManager().getTheme() );
+			}
+		});
+	}
+
+	@Test
+	public void keepFocusChangedDuringTransition() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				controller.getProperties().set( ThemeManager.THEME_UPDATE_TIME_SLICE, 1 );
+				controller.setFocusedDockable( a, true );
+				controller.getThemeManager().setTheme( createRebuildingTheme() );
+				controller.setFocusedDockable( b, true );
+			}
+		});
+
+		finishTransition();
+
+		onEDT( new Runnable(){
+			public void run(){
+				assertNotSame( a, controller.getFocusedDockable() );
+			}
+		});
+	}
+
+	@Test
+	public void keepComponentsOfEquivalentTheme() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				controller.getProperties().set( ThemeManager.THEME_UPDATE_TIME_SLICE, 1 );
+				StackDockStation stack = (StackDockStation)a.getDockParent();
+				DockableDisplayer before = displayer( stack, a );
+				StackDockComponent tabs = stack.getStackComponent();
+
+				ThemeManager manager = controller.getThemeManager();
+				DockTheme theme = new BasicTheme();
+				manager.setTheme( theme );
+
+				// nothing had to be rebuilt, hence nothing was delayed
+				assertFalse( manager.isTransitionPending() );
+				assertEquals( controller.getRegister().getStationCount(), manager.getLastTransition().getUnchangedStationCount() );
+				assertSame( before, displayer( stack, a ) );
+				assertSame( tabs, stack.getStackComponent() );
+				for( DockStation station : controller.getRegister().listDockStations() ){
+					assertSame( theme, station.getTheme() );
+				}
+				assertEquals( 1, changed.size() );
+			}
+		});
+	}
+
+	@Test
+	public void rebuildComponentsOfChangedTheme() throws Exception{
+		onEDT( new Runnable(){
+			public void run(){
+				StackDockStation stack = (StackDockStation)a.getDockParent();
+				DockableDisplayer before = displayer( stack, a );
+
+				ThemeManager manager = controller.getThemeManager();
+				manager.setTheme( createRebuildingTheme() );
+
+				assertEquals( 0, manager.getLastTransition().getUnchangedStationCount() );
+				assertNotSame( before, displayer( stack, a ) );
+				assertSame( a, displayer( stack, a ).getDockable() );
+			}
+		});
+	}
+
+	private DockableDisplayer displayer( StackDockStation stack, Dockable dockable ){
+		for( DockableDisplayer displayer : stack.getDisplayers() ){
+			if( displayer.getDockable() == dockable ){
+				return displayer;
+			}
+		}
+		return null;
+	}
+
+	private void finishTransition() throws Exception{
+		final boolean[] pending = { true };
+		while( pending[0] ){
+			onEDT( new Runnable(){
+				public void run(){
+					pending[0] = controller.getThemeManager().isTransitionPending();
+				}
+			});
+		}
+	}
+
+	private void onEDT( Runnable run ) throws InterruptedException, InvocationTargetException{
+		EventQueue.invokeAndWait( run );
+	}
+}
@@ -0,0 +1,129 @@
+package bibliothek.util.xml;
+
+import static junit.framework.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class XReaderTest {
+	private XElement createDocument(){
+		XElement root = new XElement( "root" );
+		root.addString( "name", "a \"quoted\" <name> & 'more'" );
+		root.setString( "value of root" );
+		
+		for( int i = 0; i < 5; i++ ){
+			XElement child = root.addElement( "child" );
+			child.addInt( "index", i );
+			child.setString( i + " < " + (i+1) + " & done" );
+			XElement grandChild = child.addElement( "grandchild" );
+			grandChild.addBoolean( "even", i % 2 == 0 );
+			grandChild.addElement( "empty" );
+		}
+		return root;
+	}
+	
+	private String write( XElement element, boolean indent ) throws IOException{
+		StringBuilder builder = new StringBuilder();
+		XIO.write( element, builder, indent );
+		return builder.toString();
+	}
+	
+	@Test
+	public void readSameAsXIO() throws IOException{
+		for( boolean indent : new boolean[]{ true, false } ){
+			String text = write( createDocument(), indent );
+			XElement expected = XIO.read( text );
+			XElement actual = new XReader( new StringReader( text ) ).read();
+			assertEquals( write( expected, true ), write( actual, true ) );
+		}
+	}
+	
+	@Test
+	public void readUTF() throws IOException{
+		XElement document = createDocument();
+		document.addElement( "unicode" ).setString( "äöü €" );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XIO.writeUTF( document, out );
+		
+		XElement actual = new XReader( new ByteArrayInputStream( out.toByteArray() ) ).read();
+		assertEquals( write( document, true ), write( actual, true ) );
+	}
+	
+	@Test
+	public void readChildrenOneByOne() throws IOException{
+		XElement document = createDocument();
+		XReader reader = new XReader( new StringReader( write( document, true ) ) );
+		
+		XElement root = reader.openElement();
+		assertEquals( "root", root.getName() );
+		assertEquals( document.getString( "name" ), root.getString( "name" ) );
+		assertEquals( 0, root.getElementCount() );
+		
+		for( XElement expected : document.children() ){
+			XElement actual = reader.readElement();
+			assertNotNull( actual );
+			assertEquals( write( expected, true ), write( actual, true ) );
+		}
+		assertNull( reader.readElement() );
+		assertNull( reader.readElement() );
+		reader.closeElement();
+		reader.close();
+	}
+	
+	@Test
+	public void closeSkipsRemainingChildren() throws IOException{
+		XElement document = createDocument();
+		XReader reader = new XReader( new StringReader( write( document, true ) ) );
+		
+		reader.openElement();
+		XElement first = reader.openElement();
+		assertEquals( 0, first.getInt( "index" ) );
+		reader.closeElement();
+		
+		XElement second = reader.readElement();
+		assertEquals( write( document.getElement( 1 ), true ), write( second, true ) );
+		
+		XElement third = reader.openElement();
+		assertEquals( 2, third.getInt( "index" ) );
+		XElement grandChild = reader.openElement();
+		assertEquals( "grandchild", grandChild.getName() );
+		reader.closeElement();
+		assertNull( reader.readElement() );
+		reader.closeElement();
+		
+		assertEquals( 3, reader.readElement().getInt( "index" ) );
+		assertEquals( 4, reader.readElement().getInt( "index" ) );
+		assertNull( reader.readElement() );
+		reader.closeElement();
+	}
+	
+	@Test
+	public void writeAndReadStreamed() throws IOException{
+		XElement document = createDocument();
+		StringBuilder text = new StringBuilder();
+		XWriter writer = new XWriter( text );
+		writer.writeDeclaration();
+		XElement root = new XElement( "root" );
+		writer.openElement( root );
+		for( XElement child : document.children() ){
+			writer.writeElement( child );
+		}
+		writer.closeElement();
+		writer.flush();
+		
+		XReader reader = new XReader( new StringReader( text.toString() ) );
+		reader.openElement();
+		int count = 0;
+		XElement child;
+		while( (child = reader.readElement()) != null ){
+			assertEquals( write( document.getElement( count ), true ), write( child, true ) );
+			count++;
+		}
+		reader.closeElement();
+		assertEquals( document.getElementCount(), count );
+	}
+}
@@ -0,0 +1,215 @@
+package bibliothek.util.xml;
+
+import static junit.framework.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class XWriterTest {
+	/**
+	 * Creates a document that contains attributes and values that need to be encoded, elements that
+	 * have a value and children, empty elements and elements that are nested deeper than the
+	 * prepared tabs of {@link XWriter}.
+	 */
+	private XElement createDocument(){
+		XElement root = new XElement( "root" );
+		root.addString( "name", "a \"quoted\" <name> & 'more'" );
+		root.setString( "value of root" );
+		
+		XElement child = root.addElement( "child" );
+		child.addInt( "index", 1 );
+		child.setString( "1 < 2 & 3 > 2" );
+		root.addElement( "empty" );
+		
+		XElement deep = root.addElement( "deep" );
+		for( int i = 0; i < 20; i++ ){
+			deep = deep.addElement( "level" );
+			deep.addInt( "depth", i );
+		}
+		deep.setString( "bottom" );
+		
+		XElement mixed = root.addElement( "mixed" );
+		mixed.setString( "text" );
+		mixed.addElement( "a" ).addBoolean( "flag", true );
+		mixed.addElement( "b" ).setString( "b" );
+		return root;
+	}
+	
+	@Test
+	public void sameOutputAsBefore() throws IOException{
+		XElement document = createDocument();
+		StringBuilder expected = new StringBuilder();
+		legacyWrite( document, expected );
+		
+		StringBuilder actual = new StringBuilder();
+		XIO.write( document, actual );
+		assertEquals( expected.toString(), actual.toString() );
+	}
+	
+	@Test
+	public void sameBytesAsBefore() throws IOException{
+		XElement document = createDocument();
+		StringBuilder expected = new StringBuilder();
+		legacyWrite( document, expected );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XIO.writeUTF( document, out );
+		assertEquals( expected.toString(), new String( out.toByteArray(), "UTF-8" ) );
+	}
+	
+	@Test
+	public void largeDocument() throws IOException{
+		XElement root = new XElement( "root" );
+		for( int i = 0; i < 2000; i++ ){
+			root.addElement( "item" ).addInt( "index", i ).setString( "value & " + i );
+		}
+		StringBuilder expected = new StringBuilder();
+		legacyWrite( root, expected );
+		
+		StringBuilder actual = new StringBuilder();
+		XIO.write( root, actual );
+		assertEquals( expected.toString(), actual.toString() );
+	}
+	
+	@Test
+	public void openAndCloseElements() throws IOException{
+		XElement document = createDocument();
+		StringBuilder expected = new StringBuilder();
+		legacyWrite( document, expected );
+		
+		StringBuilder actual = new StringBuilder();
+		XWriter writer = new XWriter( actual );
+		writer.writeDeclaration();
+		writer.openElement( shallowCopy( document ) );
+		for( XElement child : document.children() ){
+			if( child.getName().equals( "mixed" )){
+				writer.openElement( shallowCopy( child ) );
+				for( XElement grandChild : child.children() ){
+					writer.writeElement( grandChild );
+				}
+				writer.closeElement();
+			}
+			else{
+				writer.writeElement( child );
+			}
+		}
+		writer.closeElement();
+		writer.flush();
+		
+		assertEquals( expected.toString(), actual.toString() );
+	}
+	
+	@Test
+	public void withoutIndentation() throws IOException{
+		XElement document = createDocument();
+		StringBuilder actual = new StringBuilder();
+		XIO.write( document, actual, false );
+		
+		assertEquals( -1, actual.indexOf( "\n" ) );
+		assertEquals( -1, actual.indexOf( "\t" ) );
+		assertEquals( toString( document ), toString( XIO.read( actual ) ) );
+	}
+	
+	@Test
+	public void readWhatWasWritten() throws IOException{
+		XElement document = createDocument();
+		assertEquals( toString( document ), toString( XIO.read( toString( document ) ) ) );
+	}
+	
+	@Test
+	public void closeWithoutOpen() throws IOException{
+		XWriter writer = new XWriter( new StringBuilder() );
+		try{
+			writer.closeElement();
+			fail( "there is no open element" );
+		}
+		catch( IllegalStateException ex ){
+			// expected
+		}
+	}
+	
+	private XElement shallowCopy( XElement element ){
+		XElement copy = new XElement( element.getName() );
+		for( XAttribute attribute : element.attributes() ){
+			copy.addAttribute( attribute.copy() );
+		}
+		copy.setValue( element.getValue() );
+		return copy;
+	}
+	
+	private String toString( XElement element ) throws IOException{
+		StringBuilder builder = new StringBuilder();
+		XIO.write( element, builder );
+		return builder.toString();
+	}
+	
+	/**
+	 * The algorithm that was used by {@link XIO} before {@link XWriter} was introduced.
+	 */
+	private static void legacyWrite( XElement element, Appendable out ) throws IOException{
+		out.append( "<?xml version='1.0'?>\n" );
+		legacyWrite( element, 0, out );
+	}
+	
+	private static void legacyWrite( XElement element, int tabs, Appendable out ) throws IOException{
+		for( int i = 0; i < tabs; i++ )
+			out.append( "\t" );
+		
+		out.append( "<" );
+		out.append( element.getName() );
+		for( XAttribute attribute : element.attributes() ){
+			out.append( " " );
+			out.append( attribute.getName() );
+			out.append( "=\"" );
+			legacyEncode( attribute.getString(), out );
+			out.append( "\"" );
+		}
+		String value = element.getValue();
+		XElement[] children = element.children();
+		
+		if( value.length() == 0 && children.length == 0 ){
+			out.append( "/>" );
+		}
+		else{
+			out.append( ">" );
+			if( value.length() > 0 ){
+				if( children.length > 0 ){
+					out.append( "\n\t" );
+					for( int i = 0; i < tabs; i++ )
+						out.append( "\t" );
+				}
+				legacyEncode( value, out );
+			}
+			if( children.length > 0 ){
+				out.append( "\n" );
+				for( XElement child : children ){
+					legacyWrite( child, tabs+1, out );
+					out.append( "\n" );
+				}
+				
+				for( int i = 0; i < tabs; i++ )
+					out.append( "\t" );
+			}
+			
+			out.append( "</" );
+			out.append( element.getName() );
+			out.append( ">" );
+		}
+	}
+	
+	private static void legacyEncode( String value, Appendable out ) throws IOException{
+		for( int i = 0, n = value.length(); i<n; i++ ){
+			char c = value.charAt( i );
+			switch( c ){
+				case '<': out.append( "&lt;" ); break;
+				case '>': out.append( "&gt;" ); break;
+				case '\'': out.append( "&apos;" ); break;
+				case '"': out.append( "&quot;" ); break;
+				case '&': out.append( "&amp;" ); break;
+				default: out.append( c ); break;
+			}
+		}
+	}
+}
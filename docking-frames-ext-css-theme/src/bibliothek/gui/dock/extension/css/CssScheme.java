@@ -32,8 +32,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import bibliothek.gui.dock.extension.css.path.CssPathListener;
 import bibliothek.gui.dock.extension.css.property.BooleanType;
@@ -67,7 +70,22 @@ public class CssScheme {
 	
 	private List<CssRule> rules = new ArrayList<CssRule>();
 	
+	/** the sorted {@link #rules} grouped by their {@link CssSelector#getRequiredNode() required node} */
+	private Map<String, List<CssRule>> rulesByNode = new HashMap<String, List<CssRule>>();
+	
+	/** the sorted {@link #rules} which do not require any node */
+	private List<CssRule> unindexedRules = new ArrayList<CssRule>();
+	
+	/** the position of each rule in {@link #rules} */
+	private Map<CssRule, Integer> ruleOrder = new IdentityHashMap<CssRule, Integer>();
+	
+	/** incremented whenever the index of the rules is rebuilt, invalidates all {@link PathMatch}es */
+	private int rulesVersion = 0;
+	
 	private Map<CssItem, Match> items = new HashMap<CssItem, CssScheme.Match>();
+	
+	/** the matched rules of all the paths that are used by the {@link #items} */
+	private Map<CssPath, PathMatch> paths = new IdentityHashMap<CssPath, PathMatch>();
 	private Map<Class<?>, CssType<?>> types = new HashMap<Class<?>, CssType<?>>();
 	
 	private boolean rulesAreSorted = false;
@@ -187,22 +205,68 @@ public class CssScheme {
 	 * @return the properties of the rule, <code>null</code> if nothing was found
 	 */
 	public CssRuleContent search( CssItem item ){
+		CssPath path = item.getPath();
+		PathMatch match = paths.get( path );
+		if( match != null ){
+			return match.search();
+		}
+		return union( search( path ) );
+	}
+	
+	/**
+	 * Searches all the {@link CssRule}s whose {@link CssSelector} matches <code>path</code>. Only
+	 * the rules that do not require a node, and the rules whose required node is part of <code>path</code>
+	 * are checked.
+	 * @param path the path to match
+	 * @return the matching rules, ordered by their specificity
+	 */
+	private List<CssRule> search( CssPath path ){
 		synchronized( RULES_LOCK ){
 			ensureRulesSorted();
-			CssRuleContentUnion result = null;
+			List<CssRule> result = new ArrayList<CssRule>();
 			
-			for( CssRule rule : rules ){
-				if( rule.getSelector().matches( item.getPath() )){
-					if( result == null ){
-						result = new CssRuleContentUnion();
+			Set<String> names = new HashSet<String>();
+			for( int i = 0, n = path.getSize(); i<n; i++ ){
+				String name = path.getNode( i ).getName();
+				if( names.add( name )){
+					List<CssRule> bucket = rulesByNode.get( name );
+					if( bucket != null ){
+						search( path, bucket, result );
 					}
-					result.add( rule.getContent() );
 				}
 			}
+			search( path, unindexedRules, result );
+			
+			if( result.size() > 1 ){
+				Collections.sort( result, new Comparator<CssRule>(){
+					public int compare( CssRule a, CssRule b ){
+						return ruleOrder.get( a ).compareTo( ruleOrder.get( b ) );
+					}
+				});
+			}
 			return result;
 		}
 	}
 	
+	private void search( CssPath path, List<CssRule> rules, List<CssRule> result ){
+		for( CssRule rule : rules ){
+			if( rule.getSelector().matches( path )){
+				result.add( rule );
+			}
+		}
+	}
+	
+	private CssRuleContentUnion union( List<CssRule> rules ){
+		if( rules.isEmpty() ){
+			return null;
+		}
+		CssRuleContentUnion result = new CssRuleContentUnion();
+		for( CssRule rule : rules ){
+			result.add( rule.getContent() );
+		}
+		return result;
+	}
+	
 	/**
 	 * Adds <code>rule</code> to this scheme. This method calls {@link #rematch()}, meaning the changes
 	 * will be propagated to the {@link CssItem}s later.
@@ -268,6 +332,7 @@ public class CssScheme {
 	 */
 	public void rematch(){
 		if( !rematchPending ){
+			rematchPending = true;
 			EventQueue.invokeLater( new Runnable(){
 				@Override
 				public void run(){
@@ -279,7 +344,8 @@ public class CssScheme {
 	
 	/**
 	 * Goes through all currently registered {@link CssItem}s and ensures they are matched with the correct
-	 * {@link CssRule}.
+	 * {@link CssRule}. The rules are searched only once for each {@link CssPath}, and items whose set
+	 * of matching rules did not change are not modified.
 	 */
 	public void match(){
 		rematchPending = false;
@@ -298,8 +364,58 @@ public class CssScheme {
 						return a.getSelector().getSpecificity().compareTo( b.getSelector().getSpecificity() );
 					}
 				} );
+				
+				rulesByNode.clear();
+				unindexedRules.clear();
+				ruleOrder.clear();
+				
+				for( int i = 0, n = rules.size(); i<n; i++ ){
+					CssRule rule = rules.get( i );
+					ruleOrder.put( rule, i );
+					String node = rule.getSelector().getRequiredNode();
+					if( node == null ){
+						unindexedRules.add( rule );
+					}
+					else{
+						List<CssRule> bucket = rulesByNode.get( node );
+						if( bucket == null ){
+							bucket = new ArrayList<CssRule>();
+							rulesByNode.put( node, bucket );
+						}
+						bucket.add( rule );
+					}
+				}
+				rulesVersion++;
+				rulesAreSorted = true;
 			}
-			rulesAreSorted = true;
+		}
+	}
+	
+	/**
+	 * Gets the {@link PathMatch} of <code>path</code>, creates a new {@link PathMatch} if necessary.
+	 * @param path the path whose matches are searched
+	 * @param match the item that is going to use the result
+	 * @return the shared match of <code>path</code>
+	 */
+	private PathMatch acquire( CssPath path, Match match ){
+		PathMatch result = paths.get( path );
+		if( result == null ){
+			result = new PathMatch( path );
+			paths.put( path, result );
+		}
+		result.add( match );
+		return result;
+	}
+	
+	/**
+	 * Releases <code>pathMatch</code>, the {@link PathMatch} gets destroyed once no {@link Match}
+	 * uses it anymore.
+	 * @param pathMatch the object to release
+	 * @param match the item that no longer uses <code>pathMatch</code>
+	 */
+	private void release( PathMatch pathMatch, Match match ){
+		if( pathMatch.remove( match )){
+			paths.remove( pathMatch.path );
 		}
 	}
 	
@@ -358,11 +474,11 @@ public class CssScheme {
 	 * class ensures the transfer of the values from the rule ot the item.
 	 * @author Benjamin Sigg
 	 */
-	private class Match implements CssItemListener, CssPathListener{
+	private class Match implements CssItemListener{
 		private TransitionalCssRuleChain chain;
 		private TransitionalCssRuleContent rule;
 		private CssItem item;
-		private CssPath path;
+		private PathMatch path;
 		
 		private MatchedCssRule currentMatch;
 		
@@ -373,19 +489,18 @@ public class CssScheme {
 		public Match( CssItem item ){
 			this.item = item;
 			item.addItemListener( this );
-			path = item.getPath();
-			path.addPathListener( this );
+			path = acquire( item.getPath(), this );
 			chain = createTransition( item );
 		}
 		
 		public void destroy(){
 			item.removeItemListener( this );
-			item.getPath().removePathListener( this );
+			release( path, this );
 			chain.destroy();
 		}
 		
 		private void searchRule(){
-			setRule( search( item ) );
+			setRule( path.search() );
 		}
 		
 		private void animate( CssPropertyKey transitionKey, CssTransition<?> transition ){
@@ -419,15 +534,91 @@ public class CssScheme {
 		
 		@Override
 		public void pathChanged( CssItem source ){
-			path.removePathListener( this );
-			path = item.getPath();
-			path.addPathListener( this );
+			PathMatch oldPath = path;
+			path = acquire( item.getPath(), this );
+			release( oldPath, this );
 			searchRule();
 		}
+	}
+	
+	/**
+	 * Caches the {@link CssRule}s that match one {@link CssPath}. The cache is shared by all the
+	 * {@link Match}es whose items use the same path, and it is invalidated if either the path or
+	 * the rules change.
+	 * @author Benjamin Sigg
+	 */
+	private class PathMatch implements CssPathListener{
+		private CssPath path;
+		private List<Match> matches = new ArrayList<Match>( 2 );
+		
+		/** the rules that matched {@link #path} the last time it was searched */
+		private List<CssRule> rules;
+		/** the union of the contents of {@link #rules} */
+		private CssRuleContentUnion content;
+		/** the {@link CssScheme#rulesVersion} for which {@link #rules} was searched */
+		private int version;
+		/** whether {@link #path} changed since {@link #rules} was searched */
+		private boolean pathChanged = true;
+		
+		public PathMatch( CssPath path ){
+			this.path = path;
+		}
+		
+		public void add( Match match ){
+			if( matches.isEmpty() ){
+				path.addPathListener( this );
+			}
+			matches.add( match );
+		}
+		
+		public boolean remove( Match match ){
+			matches.remove( match );
+			if( matches.isEmpty() ){
+				path.removePathListener( this );
+				return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * Gets the union of all the rules matching {@link #path}. The same object is returned as long
+		 * as the set of matching rules does not change.
+		 * @return the union or <code>null</code> if no rule matches
+		 */
+		public CssRuleContent search(){
+			synchronized( RULES_LOCK ){
+				ensureRulesSorted();
+				if( pathChanged || version != rulesVersion ){
+					List<CssRule> next = CssScheme.this.search( path );
+					if( rules == null || !same( rules, next )){
+						rules = next;
+						content = union( next );
+					}
+					version = rulesVersion;
+					pathChanged = false;
+				}
+				return content;
+			}
+		}
+		
+		private boolean same( List<CssRule> a, List<CssRule> b ){
+			if( a.size() != b.size() ){
+				return false;
+			}
+			for( int i = 0, n = a.size(); i<n; i++ ){
+				if( a.get( i ) != b.get( i )){
+					return false;
+				}
+			}
+			return true;
+		}
 		
 		@Override
 		public void pathChanged( CssPath path ){
-			searchRule();	
+			pathChanged = true;
+			for( Match match : matches.toArray( new Match[ matches.size() ] )){
+				match.searchRule();
+			}
 		}
 	}
 	
@@ -43,4 +43,11 @@ public interface CssSelector {
 	 * @return the priority of this selector
 	 */
 	public CssSpecificity getSpecificity();
+	
+	/**
+	 * Gets the name of a {@link CssNode} that must be part of any {@link CssPath} that is matched by this selector. The
+	 * {@link CssScheme} uses this name to skip rules which cannot match a path.
+	 * @return the name of a node that is required for a match, or <code>null</code> if there is no such node
+	 */
+	public String getRequiredNode();
 }
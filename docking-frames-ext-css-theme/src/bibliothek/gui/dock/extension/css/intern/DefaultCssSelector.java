@@ -56,6 +56,9 @@ public class DefaultCssSelector implements CssSelector{
 	
 	private CssSpecificity specificity;
 	
+	/** the name of the last element that must be matched, can be <code>null</code> */
+	private String requiredNode;
+	
 	private DefaultCssSelector( Step[] steps ){
 		this.steps = steps;
 		
@@ -65,6 +68,13 @@ public class DefaultCssSelector implements CssSelector{
 		int countElement = 0;
 		
 		for( Step step : steps ){
+			if( step instanceof Element ){
+				requiredNode = ((Element)step).name;
+			}
+			else if( step instanceof Child ){
+				requiredNode = ((Child)step).name;
+			}
+			
 			Specificity next = step.getSpecificity();
 			if( next != null ){
 				switch( next ){
@@ -113,6 +123,11 @@ public class DefaultCssSelector implements CssSelector{
 		return specificity;
 	}
 	
+	@Override
+	public String getRequiredNode(){
+		return requiredNode;
+	}
+	
 	@Override
 	public String toString(){
 		StringBuilder builder = new StringBuilder();
@@ -25,17 +25,19 @@
  */
 package bibliothek.gui.dock.extension.css.transition.scheduler;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.AnimationTask;
 
 /**
  * This {@link CssScheduler} ignores multible calls to its <code>step</code> methods,
- * and executes all <code>steps</code> in the <code>EventDispatcherThread</code>. 
+ * and executes all <code>steps</code> in the <code>EventDispatcherThread</code>. The
+ * steps are executed by the frames of the {@link AnimationClock#getDefault() default}
+ * {@link AnimationClock}. While no step is due, the scheduler does not use the clock, it
+ * only asks the clock to wake it up at the time the next step is due.
  * @author Benjamin Sigg
  */
 public class DefaultCssScheduler implements CssScheduler{
@@ -44,13 +46,14 @@ public class DefaultCssScheduler implements CssScheduler{
 	private PriorityQueue<Call> queue = new PriorityQueue<Call>();
 	private Map<CssSchedulable, Call> calls = new HashMap<CssSchedulable, Call>();
 	
-	private volatile int pendingCalls = 0;
 	private volatile Call executing;
 	
-	private ActionListener callback = new ActionListener(){
+	private AnimationClock clock = AnimationClock.getDefault();
+	
+	private AnimationTask task = new AnimationTask(){
 		@Override
-		public void actionPerformed( ActionEvent e ){
-			step();	
+		public boolean step( AnimationClock clock, long time ){
+			return DefaultCssScheduler.this.step();
 		}
 	};
 	
@@ -77,54 +80,50 @@ public class DefaultCssScheduler implements CssScheduler{
 			if( next != null ){
 				calls.put( job, next );
 				queue.add( next );
-				schedule( delay );
+				clock.start( task, millisUntil( next.nanoScheduled, System.nanoTime() ) );
 			}
 		}
 	}
 	
-	private void schedule( int delay ){
-		synchronized( LOCK ){
-			pendingCalls++;
-			Timer timer = new Timer( delay, callback );
-			timer.setRepeats( false );
-			timer.start();
-		}
-	}
-	
-	private void step(){
-		synchronized( LOCK ){
-			pendingCalls--;
-		}
+	/**
+	 * Executes all the calls that are due. If there are calls left, the {@link AnimationClock} is asked to
+	 * start {@link #task} again once the next call is due.
+	 * @return always <code>false</code>, the clock does not need to call this method in the next frame
+	 */
+	private boolean step(){
 		long now = System.nanoTime();
 		while( true ){
-			boolean execute = false;
 			Call call = null;
 			synchronized( LOCK ){
 				call = queue.peek();
 				if( call == null ){
-					return;
+					return false;
 				}
 				
 				if( call.nanoScheduled <= now ){
-					execute = true;
 					queue.poll();
 					calls.remove( call.job );
 				}
 				else{
-					if( pendingCalls == 0 ){
-						schedule( Math.max( 1, (int)((call.nanoScheduled - now)/1000000) ) );
-					}
+					clock.start( task, millisUntil( call.nanoScheduled, now ) );
+					return false;
 				}
 			}
 			
-			if( execute ){
-				call.execute( now );
-			} else {
-				break;
-			}
+			call.execute( now );
 		}
 	}
 
+	/**
+	 * Gets the number of milliseconds from <code>nanoNow</code> until <code>nanoScheduled</code>, rounded up.
+	 * @param nanoScheduled the time in the future
+	 * @param nanoNow the current time
+	 * @return the number of milliseconds, at least 0
+	 */
+	private int millisUntil( long nanoScheduled, long nanoNow ){
+		return (int)Math.max( 0, (nanoScheduled - nanoNow + 999999) / 1000000 );
+	}
+
 	private class Call implements Comparable<Call>{
 		private CssSchedulable job;
 		private boolean repeat;
@@ -0,0 +1,76 @@
+package bibliothek.gui.dock.extension.css.intern;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssRule;
+import bibliothek.gui.dock.extension.css.CssRuleContentUnion;
+import bibliothek.gui.dock.extension.css.CssScheme;
+import bibliothek.gui.dock.extension.css.DefaultCssItem;
+import bibliothek.gui.dock.extension.css.path.DefaultCssNode;
+import bibliothek.gui.dock.extension.css.path.DefaultCssPath;
+
+public class CssSchemeTest {
+	@Test
+	public void rulesAreIndexedByElement(){
+		CssScheme scheme = new CssScheme();
+		CssRule a = rule( DefaultCssSelector.selector().element( "a" ).build() );
+		CssRule b = rule( DefaultCssSelector.selector().element( "b" ).build() );
+		CssRule c = rule( DefaultCssSelector.selector().element( "a" ).element( "c" ).clazz( "k" ).build() );
+		CssRule x = rule( DefaultCssSelector.selector().any().identifier( "x" ).build() );
+		scheme.addRule( x );
+		scheme.addRule( c );
+		scheme.addRule( b );
+		scheme.addRule( a );
+		
+		DefaultCssNode node = new DefaultCssNode( "c" );
+		node.setIdentifier( "x" );
+		node.addClass( "k" );
+		CssRuleContentUnion union = (CssRuleContentUnion)scheme.search( new DefaultCssItem( new DefaultCssPath( new DefaultCssNode( "a" ), node ) ) );
+		
+		Assert.assertEquals( 3, union.size() );
+		Assert.assertSame( x.getContent(), union.get( 0 ) );
+		Assert.assertSame( c.getContent(), union.get( 1 ) );
+		Assert.assertSame( a.getContent(), union.get( 2 ) );
+		
+		Assert.assertNull( scheme.search( new DefaultCssItem( new DefaultCssPath( new DefaultCssNode( "d" ) ) ) ) );
+	}
+	
+	@Test
+	public void itemsWithSamePathShareMatches(){
+		CssScheme scheme = new CssScheme();
+		scheme.addRule( rule( DefaultCssSelector.selector().element( "a" ).build() ) );
+		scheme.match();
+		
+		CssPath path = new DefaultCssPath( new DefaultCssNode( "a" ) );
+		DefaultCssItem first = new DefaultCssItem( path );
+		DefaultCssItem second = new DefaultCssItem( path );
+		scheme.add( first );
+		scheme.add( second );
+		
+		Object content = scheme.search( first );
+		Assert.assertNotNull( content );
+		Assert.assertSame( content, scheme.search( second ) );
+		
+		scheme.addRule( rule( DefaultCssSelector.selector().element( "b" ).build() ) );
+		scheme.match();
+		Assert.assertSame( content, scheme.search( first ) );
+		
+		scheme.addRule( rule( DefaultCssSelector.selector().element( "a" ).clazz( "y" ).build() ) );
+		scheme.match();
+		Assert.assertSame( content, scheme.search( first ) );
+		
+		scheme.addRule( rule( DefaultCssSelector.selector().any().build() ) );
+		scheme.match();
+		Assert.assertNotSame( content, scheme.search( first ) );
+		Assert.assertSame( scheme.search( first ), scheme.search( second ) );
+	}
+	
+	private CssRule rule( DefaultCssSelector selector ){
+		DefaultCssRule rule = new DefaultCssRule( selector );
+		rule.setProperty( "x", selector.toString() );
+		return rule;
+	}
+}